@@ -2,6 +2,7 @@ package audio;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.*;
+import util.Engine;
 import util.Log;
 
 import java.nio.ByteBuffer;
@@ -33,7 +34,8 @@ public class AudioMaster {
     public static synchronized AudioMaster get() {
         if (instance == null) {
             try {
-                init();
+                //headless engines don't open an audio device, the audio master does nothing then
+                if (!Engine.isHeadless()) init();
             } catch (Exception e) {
                 Log.fatal("could not initialize AudioMaster.");
                 e.printStackTrace();
@@ -86,10 +88,12 @@ public class AudioMaster {
     }
 
     public void update(float dt) {
+        if (Engine.isHeadless()) return;
         AudioListener.get().update(dt);
     }
 
     public void clean() {
+        if (Engine.isHeadless()) return;
         for (AudioSource s : sources) {
             s.delete();
         }
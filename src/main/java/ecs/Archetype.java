@@ -0,0 +1,269 @@
+package ecs;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link Archetype} is a chunk of storage shared by all {@link GameObject}s with exactly the same component signature.
+ * Components are stored column-wise: every component type of the signature owns one contiguous array,
+ * holding the component of each member {@link GameObject} at the row of that object.
+ * <p>
+ * Updating an archetype walks column by column instead of object by object, so every column runs the same
+ * {@link Component#update(float)} implementation over a dense array. This keeps the virtual call sites monomorphic
+ * and the memory access linear, while still honoring {@link Component.ComponentOrder}, since the columns are
+ * sorted by it.
+ *
+ * @see ArchetypeStorage
+ */
+public final class Archetype {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The component types of this archetype, in the canonical column order
+     */
+    private final Class<? extends Component>[] signature;
+
+    /**
+     * Whether the component type of a column overrides {@link Component#update(float)} at all.
+     * Columns with the default (empty) implementation are skipped during the update pass.
+     */
+    private final boolean[] updating;
+
+    /**
+     * The components, column-wise: columns[column][row]
+     */
+    private final Component[][] columns;
+
+    /**
+     * The owner of each row
+     */
+    private GameObject[] entities;
+
+    /**
+     * Amount of occupied rows, including holes left by removals during an update pass
+     */
+    private int size;
+
+    /**
+     * Amount of rows, that got removed during an update pass and still need to be compacted
+     */
+    private int holes;
+
+    Archetype(Class<? extends Component>[] signature) {
+        this.signature = signature;
+        this.updating = new boolean[signature.length];
+        this.columns = new Component[signature.length][INITIAL_CAPACITY];
+        this.entities = new GameObject[INITIAL_CAPACITY];
+        for (int i = 0; i < signature.length; i++) {
+            updating[i] = overridesUpdate(signature[i]);
+        }
+    }
+
+    /**
+     * Sorts the components of a gameObject into the canonical order used for archetype signatures:
+     * by {@link Component.ComponentOrder} first and by class name second, so equal sets of components
+     * always produce the same signature.
+     *
+     * @param components the components of a gameObject
+     * @return a new, sorted array of the components
+     */
+    static Component[] canonicalOrder(List<Component> components) {
+        Component[] sorted = components.toArray(new Component[0]);
+        Arrays.sort(sorted, (a, b) -> {
+            int c = a.compareTo(b);
+            return c != 0 ? c : a.getClass().getName().compareTo(b.getClass().getName());
+        });
+        return sorted;
+    }
+
+    private static boolean overridesUpdate(Class<? extends Component> type) {
+        try {
+            Method update = type.getMethod("update", float.class);
+            return update.getDeclaringClass() != Component.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return the component types of this archetype in column order
+     */
+    public Class<? extends Component>[] signature() {
+        return signature.clone();
+    }
+
+    /**
+     * The amount of rows in use. Rows may contain null entries while an update pass is running.
+     *
+     * @return the amount of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row the row
+     * @return the gameObject stored in that row or null, if the row got removed during the running update pass
+     */
+    public GameObject entity(int row) {
+        return entities[row];
+    }
+
+    /**
+     * Finds the first column holding components of the given type.
+     *
+     * @param type the component type, supertypes and interfaces are matched too
+     * @return the column index or -1 if no column matches
+     */
+    public int columnOf(Class<?> type) {
+        for (int i = 0; i < signature.length; i++) {
+            if (type.isAssignableFrom(signature[i])) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Direct access to a component column. Only the first {@link #size()} entries are valid.
+     * The array must not be modified and may be replaced when the archetype grows.
+     *
+     * @param column the column index
+     * @return the backing array of the column
+     */
+    public Component[] column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Adds a gameObject at the end of this archetype.
+     *
+     * @param gameObject the gameObject
+     * @param sorted     the components of the gameObject in canonical order, matching the signature
+     */
+    void add(GameObject gameObject, Component[] sorted) {
+        if (size == entities.length) grow(size + 1);
+        for (int c = 0; c < sorted.length; c++) {
+            columns[c][size] = sorted[c];
+        }
+        entities[size] = gameObject;
+        gameObject.archetype = this;
+        gameObject.archetypeRow = size;
+        size++;
+    }
+
+    /**
+     * Checks whether a gameObject with the given components belongs into this archetype.
+     *
+     * @param components the components of a gameObject in any order
+     * @return true if the component types are exactly the signature of this archetype
+     */
+    boolean matches(List<Component> components) {
+        if (components.size() != signature.length) return false;
+        //components of the same type may appear multiple times, so the counts have to match as well
+        for (int i = 0; i < signature.length; i++) {
+            Class<? extends Component> type = signature[i];
+            if (i > 0 && signature[i - 1] == type) continue;
+            int expected = 1;
+            for (int j = i + 1; j < signature.length && signature[j] == type; j++) expected++;
+            int found = 0;
+            for (int c = 0; c < components.size(); c++) {
+                if (components.get(c).getClass() == type) found++;
+            }
+            if (found != expected) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Makes room for a number of additional rows, so adding them grows the columns at most once.
+     *
+     * @param rows the amount of rows to be added
+     */
+    void reserve(int rows) {
+        if (size + rows > entities.length) grow(size + rows);
+    }
+
+    /**
+     * Removes a row by moving the last row into its place.
+     *
+     * @param row the row to remove
+     */
+    void remove(int row) {
+        int last = size - 1;
+        GameObject removed = entities[row];
+        if (row != last) {
+            for (Component[] column : columns) {
+                column[row] = column[last];
+            }
+            entities[row] = entities[last];
+            entities[row].archetypeRow = row;
+        }
+        for (Component[] column : columns) {
+            column[last] = null;
+        }
+        entities[last] = null;
+        size--;
+        if (removed != null) {
+            removed.archetype = null;
+            removed.archetypeRow = -1;
+        }
+    }
+
+    /**
+     * Clears a row without moving any other row, so a running update pass is not disturbed.
+     * The hole gets closed by {@link #compact()}.
+     *
+     * @param row the row to clear
+     */
+    void clear(int row) {
+        for (Component[] column : columns) {
+            column[row] = null;
+        }
+        GameObject removed = entities[row];
+        entities[row] = null;
+        removed.archetype = null;
+        removed.archetypeRow = -1;
+        holes++;
+    }
+
+    /**
+     * Closes all holes left by {@link #clear(int)}.
+     */
+    void compact() {
+        for (int row = size - 1; holes > 0 && row >= 0; row--) {
+            if (entities[row] == null) {
+                remove(row);
+                holes--;
+            }
+        }
+        holes = 0;
+    }
+
+    /**
+     * Updates all components of this archetype column by column.
+     *
+     * @param dt Engine.deltaTime
+     */
+    void update(float dt) {
+        for (int c = 0; c < columns.length; c++) {
+            if (!updating[c]) continue;
+            Component[] column = columns[c];
+            //the size is read once, rows appended during the pass start with the next one
+            int rows = size;
+            for (int row = 0; row < rows; row++) {
+                Component component = column[row];
+                if (component != null) component.tick(dt);
+            }
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(entities.length * 2, minCapacity);
+        entities = Arrays.copyOf(entities, capacity);
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], capacity);
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+package ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alternative storage mode for the gameObjects of a scene, grouping them into {@link Archetype}s by their component signature.
+ * Instead of walking every gameObject and calling each of its components, the update pass walks archetype by archetype
+ * and each archetype updates its component columns one after another.
+ * <p>
+ * The component lists of the gameObjects stay the source of truth, the storage only mirrors them.
+ * Structural changes while the update pass is running are applied after the pass, so no component is updated twice
+ * and removed components are not updated anymore.
+ * <p>
+ * Note: the update order differs from the default storage mode.
+ * Per gameObject, components are still updated in {@link Component.ComponentOrder},
+ * but the components of different gameObjects are interleaved.
+ * A subclass overriding {@link GameObject#update(float)} is not called in this mode.
+ *
+ * @see Archetype
+ * @see scene.Scene#enableArchetypeStorage()
+ */
+public class ArchetypeStorage {
+
+    private final Map<SignatureKey, Archetype> archetypeMap;
+    private final List<Archetype> archetypes;
+
+    //gameObjects added or changed during an update pass, to be (re-)inserted afterwards
+    private final List<GameObject> pending;
+    private boolean updating;
+
+    public ArchetypeStorage() {
+        this.archetypeMap = new HashMap<>();
+        this.archetypes = new ArrayList<>();
+        this.pending = new ArrayList<>();
+        this.updating = false;
+    }
+
+    /**
+     * Adds a gameObject to the archetype matching its current components.
+     *
+     * @param gameObject the gameObject to add
+     */
+    public void add(GameObject gameObject) {
+        if (gameObject.archetype != null) return;
+        if (updating) {
+            if (!pending.contains(gameObject)) pending.add(gameObject);
+            return;
+        }
+        Component[] sorted = Archetype.canonicalOrder(gameObject.getComponents());
+        archetypeFor(sorted).add(gameObject, sorted);
+    }
+
+    /**
+     * Adds many gameObjects at once, grouped by archetype.
+     * Consecutive gameObjects with the same components, like the ones spawned from the same prefab,
+     * share a single archetype lookup, and each archetype grows at most once for its group.
+     *
+     * @param gameObjects the gameObjects to add
+     */
+    public void addAll(List<GameObject> gameObjects) {
+        int i = 0;
+        while (i < gameObjects.size()) {
+            GameObject first = gameObjects.get(i);
+            if (first.archetype != null || updating) {
+                add(first);
+                i++;
+                continue;
+            }
+            Component[] sorted = Archetype.canonicalOrder(first.getComponents());
+            Archetype archetype = archetypeFor(sorted);
+            //the run of following gameObjects with the same signature
+            int end = i + 1;
+            while (end < gameObjects.size() && gameObjects.get(end).archetype == null
+                    && archetype.matches(gameObjects.get(end).getComponents())) end++;
+            archetype.reserve(end - i);
+            archetype.add(first, sorted);
+            for (int j = i + 1; j < end; j++) {
+                GameObject gameObject = gameObjects.get(j);
+                archetype.add(gameObject, Archetype.canonicalOrder(gameObject.getComponents()));
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Removes a gameObject from its archetype.
+     *
+     * @param gameObject the gameObject to remove
+     */
+    public void remove(GameObject gameObject) {
+        pending.remove(gameObject);
+        Archetype archetype = gameObject.archetype;
+        if (archetype == null) return;
+        if (updating) archetype.clear(gameObject.archetypeRow);
+        else archetype.remove(gameObject.archetypeRow);
+    }
+
+    /**
+     * Moves a gameObject to the archetype matching its components after they changed.
+     * Does nothing, if the gameObject is not part of this storage.
+     *
+     * @param gameObject the gameObject whose components changed
+     */
+    public void refresh(GameObject gameObject) {
+        if (gameObject.archetype == null && !pending.contains(gameObject)) return;
+        remove(gameObject);
+        add(gameObject);
+    }
+
+    /**
+     * Updates all components of all stored gameObjects, archetype by archetype.
+     *
+     * @param dt Engine.deltaTime
+     */
+    public void update(float dt) {
+        updating = true;
+        try {
+            for (int i = 0; i < archetypes.size(); i++) {
+                archetypes.get(i).update(dt);
+            }
+        } finally {
+            updating = false;
+            for (Archetype archetype : archetypes) {
+                archetype.compact();
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                add(pending.get(i));
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * @return a read-only view of all archetypes created so far
+     */
+    public List<Archetype> archetypes() {
+        return Collections.unmodifiableList(archetypes);
+    }
+
+    private Archetype archetypeFor(Component[] sorted) {
+        @SuppressWarnings("unchecked")
+        Class<? extends Component>[] signature = new Class[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            signature[i] = sorted[i].getClass();
+        }
+        SignatureKey key = new SignatureKey(signature);
+        Archetype archetype = archetypeMap.get(key);
+        if (archetype == null) {
+            archetype = new Archetype(signature);
+            archetypeMap.put(key, archetype);
+            archetypes.add(archetype);
+        }
+        return archetype;
+    }
+
+    //identity based key over an ordered array of component classes
+    private static final class SignatureKey {
+
+        private final Class<?>[] types;
+        private final int hash;
+
+        private SignatureKey(Class<?>[] types) {
+            this.types = types;
+            this.hash = Arrays.hashCode(types);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SignatureKey && Arrays.equals(types, ((SignatureKey) o).types);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -6,6 +6,8 @@ import physics.collision.CollisionInformation;
 /**
  * A component to handle and react to collisions using a collider.
  * Can be attached to an object if it should react to collisions in any way.
+ * The collisions are detected by the {@link CollisionPipeline} of the scene once per update,
+ * after all gameObjects have been updated.
  *
  * @author Juyas
  * @version 07.12.2021
@@ -24,26 +26,13 @@ public abstract class CollisionHandler extends Component {
 
     @Override
     public void start() {
-    }
-
-    private void checkCollision(Collider other) {
-        //test layer/mask
-        if (collider.canCollideWith(other)) {
-            //test boundingsphere for quickly detecting no collision
-            if (!collider.getShape().boundingSphere().intersection(other.getShape().boundingSphere())) return;
-            //do actual collision detection
-            CollisionInformation ci = collider.detectCollision(other);
-            if (ci.collision())
-                collision(other, ci);
-        }
+        gameObject.getParentScene().collisions().register(this);
     }
 
     @Override
-    public void update(float dt) {
-        super.update(dt);
-        gameObject.getParentScene().getColliders()
-                .stream()
-                .forEach(this::checkCollision);
+    public void remove() {
+        super.remove();
+        if (gameObject.getParentScene() != null) gameObject.getParentScene().collisions().unregister(this);
     }
 
     protected Collider getCollider() {
@@ -53,6 +42,7 @@ public abstract class CollisionHandler extends Component {
     /**
      * Will be called in the update loop if a collision happens {@link CollisionInformation#collision()}
      * with the given environment collider and the defined one of this handler {@link this#getCollider()}.
+     * The information describes the collision as seen from the collider of this handler.
      *
      * @param environment          the other collider in the environment
      * @param collisionInformation the data about the collision
@@ -0,0 +1,157 @@
+package ecs;
+
+import physics.collision.Collider;
+import physics.collision.CollisionInformation;
+import physics.collision.Contact;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Detects the collisions of a scene once per update, instead of every {@link CollisionHandler} testing its collider on its own.
+ * Each step
+ * <ol>
+ *     <li>finds the pairs of colliders near each other with the broadphase of the scene,</li>
+ *     <li>drops pairs which can not collide by their layers, masks and tags, pairs of two passive colliders
+ *     and pairs neither a handler nor a listener is interested in,</li>
+ *     <li>tests the bounding spheres and then runs the narrow phase once per pair,</li>
+ *     <li>dispatches each collision to the handlers of both colliders, the second one receives the mirrored information.</li>
+ * </ol>
+ * The contacts of the last step are available to other systems, like audio or particles,
+ * through {@link #contacts()} or a listener.
+ * <p>
+ * Handlers register themselves when they are started, the collider of a handler must be registered in the scene.
+ *
+ * @see Scene#collisions()
+ */
+public class CollisionPipeline {
+
+    private final Scene scene;
+
+    private final List<CollisionHandler> handlers = new ArrayList<>();
+    private final Map<Collider, List<CollisionHandler>> handlersByCollider = new IdentityHashMap<>();
+    private final List<Consumer<Contact>> listeners = new ArrayList<>();
+
+    private final List<Contact> contacts = new ArrayList<>();
+    private final List<Contact> contactsView = Collections.unmodifiableList(contacts);
+    private final BiConsumer<Collider, Collider> narrowphase = this::test;
+    private int tests = 0;
+
+    /**
+     * @param scene the scene to detect the collisions of
+     */
+    public CollisionPipeline(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Adds a listener receiving every contact of a step, after the handlers have been called.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Consumer<Contact> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener a listener
+     * @return true if the listener has been removed
+     */
+    public boolean removeListener(Consumer<Contact> listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * @return a read-only view of the contacts found by the last step
+     */
+    public List<Contact> contacts() {
+        return contactsView;
+    }
+
+    /**
+     * @return the amount of pairs tested by the narrow phase in the last step
+     */
+    public int narrowphaseTests() {
+        return tests;
+    }
+
+    void register(CollisionHandler handler) {
+        List<CollisionHandler> ofCollider = handlersByCollider.computeIfAbsent(handler.getCollider(), c -> new ArrayList<>(1));
+        if (ofCollider.contains(handler)) return;
+        ofCollider.add(handler);
+        handlers.add(handler);
+    }
+
+    void unregister(CollisionHandler handler) {
+        List<CollisionHandler> ofCollider = handlersByCollider.get(handler.getCollider());
+        if (ofCollider == null || !ofCollider.remove(handler)) return;
+        if (ofCollider.isEmpty()) handlersByCollider.remove(handler.getCollider());
+        handlers.remove(handler);
+    }
+
+    /**
+     * Detects the collisions between all colliders of the scene and dispatches them.
+     * Called by the scene after its gameObjects have been updated.
+     */
+    public void step() {
+        pruneHandlers();
+        contacts.clear();
+        tests = 0;
+        if (handlers.isEmpty() && listeners.isEmpty()) return;
+        scene.broadphase().pairs(narrowphase);
+        //handlers may move colliders, so they are called after the broadphase is done
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            dispatch(contact, contact.first());
+            dispatch(contact, contact.second());
+        }
+        for (int l = 0; l < listeners.size(); l++) {
+            for (int i = 0; i < contacts.size(); i++) {
+                listeners.get(l).accept(contacts.get(i));
+            }
+        }
+    }
+
+    private void test(Collider first, Collider second) {
+        if (first.passive() && second.passive()) return;
+        if (listeners.isEmpty() && !handlersByCollider.containsKey(first) && !handlersByCollider.containsKey(second))
+            return;
+        if (!first.canCollideWith(second)) return;
+        if (!first.getShape().boundingSphere().intersection(second.getShape().boundingSphere())) return;
+        //passive colliders are never checked against others
+        if (first.passive()) {
+            Collider swap = first;
+            first = second;
+            second = swap;
+        }
+        tests++;
+        CollisionInformation information = first.detectCollision(second);
+        if (information.collision()) contacts.add(new Contact(first, second, information));
+    }
+
+    private void dispatch(Contact contact, Collider collider) {
+        List<CollisionHandler> ofCollider = handlersByCollider.get(collider);
+        if (ofCollider == null) return;
+        Collider other = contact.other(collider);
+        CollisionInformation information = contact.informationFor(collider);
+        for (int i = 0; i < ofCollider.size(); i++) {
+            ofCollider.get(i).collision(other, information);
+        }
+    }
+
+    //drops handlers which have been removed from their gameObject, or whose gameObject has left the scene
+    private void pruneHandlers() {
+        for (int i = handlers.size() - 1; i >= 0; i--) {
+            CollisionHandler handler = handlers.get(i);
+            GameObject gameObject = handler.gameObject;
+            if (gameObject == null || scene.getGameObject(gameObject.handle()) != gameObject) unregister(handler);
+        }
+    }
+
+}
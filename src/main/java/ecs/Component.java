@@ -4,6 +4,8 @@ import org.joml.Vector2f;
 import util.Log;
 import util.debug.DebugPrimitive;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Abstract structure for ECS Components.
  * It is highly recommended to use this when implementing any system that can/should be applied to a GameObject.
@@ -11,6 +13,9 @@ import util.debug.DebugPrimitive;
 
 public abstract class Component implements Comparable<Component> {
 
+    //hands out the offsets spreading the updates of components with the same interval across frames
+    private static final AtomicInteger staggerOffsets = new AtomicInteger();
+
     /**
      * Parent GameObject
      */
@@ -22,6 +27,12 @@ public abstract class Component implements Comparable<Component> {
      */
     private final ComponentOrder order;
 
+    private UpdatePolicy updatePolicy = UpdatePolicy.EVERY_FRAME;
+    //frames left until the next update, 0 until the first frame with the current policy
+    private int countdown = 0;
+    //the time passed since the last update
+    private float pendingDt = 0;
+
     public Component(ComponentOrder order) {
         this.order = order == null ? ComponentOrder.POST_DRAW : order;
         if (order == null)
@@ -39,13 +50,57 @@ public abstract class Component implements Comparable<Component> {
     }
 
     /**
-     * Called once per frame for each Component
+     * Called once per frame for each Component, or less often depending on its {@link UpdatePolicy}
      *
-     * @param dt Engine.deltaTime
+     * @param dt Engine.deltaTime or the time passed since the last update
      */
     public void update(float dt) {
     }
 
+    /**
+     * Updates the component, if it is due according to its {@link UpdatePolicy}.
+     *
+     * @param dt the time passed since the last frame
+     */
+    final void tick(float dt) {
+        if (updatePolicy == UpdatePolicy.EVERY_FRAME) {
+            update(dt);
+            return;
+        }
+        pendingDt += dt;
+        if (countdown == 0) {
+            int interval = Math.max(1, updatePolicy.interval(this));
+            countdown = 1 + (staggerOffsets.getAndIncrement() & Integer.MAX_VALUE) % interval;
+        }
+        if (--countdown > 0) return;
+        countdown = Math.max(1, updatePolicy.interval(this));
+        float elapsed = pendingDt;
+        pendingDt = 0;
+        update(elapsed);
+    }
+
+    /**
+     * Changes how often this component is updated.
+     * With a policy other than {@link UpdatePolicy#EVERY_FRAME}, {@link #update(float)} receives the time
+     * passed since the last update of this component instead of the time passed since the last frame.
+     *
+     * @param updatePolicy the policy, not null
+     * @see UpdatePolicy#everyNFrames(int)
+     * @see UpdatePolicy#byDistance(float[], int[])
+     */
+    public void setUpdatePolicy(UpdatePolicy updatePolicy) {
+        if (updatePolicy == null) throw new IllegalArgumentException("the update policy must not be null");
+        this.updatePolicy = updatePolicy;
+        this.countdown = 0;
+    }
+
+    /**
+     * @return the policy deciding how often this component is updated
+     */
+    public UpdatePolicy getUpdatePolicy() {
+        return updatePolicy;
+    }
+
     /**
      * Get an array of debug lines to be rendered in debug mode
      *
@@ -57,6 +112,7 @@ public abstract class Component implements Comparable<Component> {
 
     /**
      * Shortcut to get the current position of the parent gameobject.
+     * Allocates a new vector, use {@link GameObject#getX()} and {@link GameObject#getY()} in code running every frame.
      *
      * @return the current position of the parent gameobject
      */
@@ -70,8 +126,14 @@ public abstract class Component implements Comparable<Component> {
      * @return the current position of the parent gameobject
      */
     protected void setPosition(Vector2f position) {
-        gameObject.getPositionData()[0] = position.x;
-        gameObject.getPositionData()[1] = position.y;
+        gameObject.setPosition(position.x, position.y);
+    }
+
+    /**
+     * @return the phase of the update cycle this component is updated in
+     */
+    public ComponentOrder order() {
+        return order;
     }
 
     //this method is primarily used to keep all components in order to update them properly
@@ -0,0 +1,123 @@
+package ecs;
+
+import util.OrderPreservingList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-gameObject lookup table from component type ids to the matching components.
+ * Every component is registered under the id of its class and all of its supertypes and interfaces,
+ * so typed lookups and has-component checks are a single array access and a bit test.
+ * The lists of each slot keep the {@link Component.ComponentOrder} like the component list of the gameObject.
+ * Lookups of all components of a type return immutable snapshots, which are cached until the components of the type change.
+ *
+ * @see ComponentTypes
+ */
+final class ComponentIndex {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    //slots grow on demand to the highest type id in use by this gameObject
+    private OrderPreservingList<Component>[] slots;
+    //immutable copies of the slots, dropped when a slot changes
+    private List<Component>[] snapshots;
+    private long[] mask;
+
+    @SuppressWarnings("unchecked")
+    ComponentIndex() {
+        int capacity = INITIAL_CAPACITY;
+        this.slots = new OrderPreservingList[capacity];
+        this.snapshots = new List[capacity];
+        this.mask = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Registers a component under all of its type ids.
+     *
+     * @param component the component
+     */
+    void add(Component component) {
+        for (int id : ComponentTypes.assignableIds(component.getClass())) {
+            ensureCapacity(id);
+            OrderPreservingList<Component> slot = slots[id];
+            if (slot == null) {
+                slot = new OrderPreservingList<>();
+                slots[id] = slot;
+            }
+            slot.add(component);
+            snapshots[id] = null;
+            mask[id >>> 6] |= 1L << id;
+        }
+    }
+
+    /**
+     * Unregisters a component from all of its type ids.
+     *
+     * @param component the component
+     */
+    void remove(Component component) {
+        for (int id : ComponentTypes.assignableIds(component.getClass())) {
+            OrderPreservingList<Component> slot = slots[id];
+            for (int i = 0; i < slot.size(); i++) {
+                if (slot.get(i) == component) {
+                    slot.remove(i);
+                    snapshots[id] = null;
+                    break;
+                }
+            }
+            if (slot.isEmpty()) mask[id >>> 6] &= ~(1L << id);
+        }
+    }
+
+    /**
+     * @param type any component type, supertype or interface
+     * @return the first component (in component order) assignable to the type or null
+     */
+    Component first(Class<?> type) {
+        int id = ComponentTypes.id(type);
+        if (!has(id)) return null;
+        return slots[id].get(0);
+    }
+
+    /**
+     * @param type any component type, supertype or interface
+     * @return an immutable snapshot of all components assignable to the type, later changes are not reflected
+     */
+    List<Component> all(Class<?> type) {
+        int id = ComponentTypes.id(type);
+        if (!has(id)) return Collections.emptyList();
+        List<Component> snapshot = snapshots[id];
+        if (snapshot == null) {
+            snapshot = List.copyOf(slots[id]);
+            snapshots[id] = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param id a type id
+     * @return true if at least one component is assignable to the type with the given id
+     */
+    boolean has(int id) {
+        int word = id >>> 6;
+        return word < mask.length && (mask[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * @return the bitmask of all type ids present, must not be modified
+     */
+    long[] mask() {
+        return mask;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < slots.length) return;
+        int capacity = Math.max(slots.length * 2, id + 1);
+        slots = Arrays.copyOf(slots, capacity);
+        snapshots = Arrays.copyOf(snapshots, capacity);
+        mask = Arrays.copyOf(mask, (capacity + 63) >>> 6);
+    }
+
+}
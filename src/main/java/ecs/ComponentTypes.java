@@ -0,0 +1,80 @@
+package ecs;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns small, dense integer ids to component types, so components can be looked up by array index and bitmask
+ * instead of scanning with {@link Class#isAssignableFrom(Class)}.
+ * Every class or interface gets its own id the first time it is used, this includes abstract supertypes and
+ * interfaces like {@link physics.collision.Collider}. The ids are only valid for the lifetime of the JVM.
+ *
+ * @see ComponentIndex
+ */
+public final class ComponentTypes {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private static final ClassValue<Integer> ids = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return counter.getAndIncrement();
+        }
+    };
+
+    private static final ClassValue<int[]> assignableIds = new ClassValue<int[]>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            Set<Class<?>> supertypes = new LinkedHashSet<>();
+            collectSupertypes(type, supertypes);
+            int[] result = new int[supertypes.size()];
+            int i = 0;
+            for (Class<?> supertype : supertypes) {
+                result[i++] = id(supertype);
+            }
+            return result;
+        }
+    };
+
+    private ComponentTypes() {
+    }
+
+    /**
+     * The id of a type. Lookups are constant time and allocation free after the first call per type.
+     *
+     * @param type any class or interface
+     * @return the unique id of the type
+     */
+    public static int id(Class<?> type) {
+        return ids.get(type);
+    }
+
+    /**
+     * The ids of a type and all of its supertypes and interfaces, excluding {@link Object}.
+     * A component of the given type can be found by looking up any of these ids.
+     * The returned array is cached and must not be modified.
+     *
+     * @param type the concrete type of a component
+     * @return the ids of all types the given type is assignable to
+     */
+    public static int[] assignableIds(Class<?> type) {
+        return assignableIds.get(type);
+    }
+
+    /**
+     * @return the amount of type ids handed out so far
+     */
+    public static int count() {
+        return counter.get();
+    }
+
+    private static void collectSupertypes(Class<?> type, Set<Class<?>> result) {
+        if (type == null || type == Object.class || !result.add(type)) return;
+        collectSupertypes(type.getSuperclass(), result);
+        for (Class<?> anInterface : type.getInterfaces()) {
+            collectSupertypes(anInterface, result);
+        }
+    }
+
+}
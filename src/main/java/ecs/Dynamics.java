@@ -8,10 +8,14 @@ import java.util.Collection;
 
 /**
  * The {@link Dynamics} manage movement of a {@link GameObject}.
+ * The velocity is applied once per update, so movement is only independent of the frame rate
+ * if the gameObjects are simulated with a fixed timestep.
+ * Dynamics are not {@link ThreadSafe}, since forces are updated in place and may be shared between gameObjects.
  *
  * @author Juyas
  * @version 06.12.2021
  * @since 06.12.2021
+ * @see util.FixedTimestep
  */
 public class Dynamics extends Component {
 
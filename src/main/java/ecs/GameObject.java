@@ -1,13 +1,16 @@
 package ecs;
 
+import org.joml.Matrix3x2f;
 import org.joml.Vector2f;
 import physics.collision.Collider;
 import scene.Scene;
 import util.Engine;
 import util.Log;
 import util.OrderPreservingList;
+import util.SlotMap;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -32,9 +35,47 @@ public class GameObject implements Comparable<GameObject> {
     private final String name;
     private final Scene parentScene;
     private final OrderPreservingList<Component> components;
-    private final float[] position = new float[2];
+    private final List<Component> componentsView;
+    private final ComponentIndex componentIndex = new ComponentIndex();
     private int zIndex;
 
+    /**
+     * The transform of this gameObject lives in the {@link TransformStore} of the parent scene while it is part of it,
+     * otherwise in a store of its own
+     */
+    TransformStore transforms;
+    int transformSlot = 0;
+    private TransformStore detachedTransform;
+
+    /**
+     * The hierarchy of this gameObject, the transform of a child is relative to its parent
+     */
+    private GameObject parent = null;
+    private List<GameObject> children = null;
+    private List<GameObject> childrenView = Collections.emptyList();
+    //set if the transform of this gameObject or any of its descendants has changed since the last propagation
+    private volatile boolean subtreeDirty = false;
+    //set if the world transform has changed since the previous one was captured for interpolation
+    private boolean movedSinceCapture = false;
+
+    /**
+     * The archetype and row this gameObject is stored in, if the parent scene uses {@link ArchetypeStorage}
+     */
+    Archetype archetype = null;
+    int archetypeRow = -1;
+
+    /**
+     * The generational handle assigned by the {@link GameObjectRegistry} of the parent scene and the registry itself
+     */
+    long handle = SlotMap.NULL_HANDLE;
+    GameObjectRegistry registry = null;
+
+    /**
+     * The pool this gameObject belongs to and whether it is currently available in the pool
+     */
+    GameObjectPool pool = null;
+    boolean pooled = false;
+
     /**
      * Creates a new GameObject.
      *
@@ -47,30 +88,39 @@ public class GameObject implements Comparable<GameObject> {
         this.name = name;
         if (this.name == null) Log.warn("GameObject with a name that is null created", 1);
         this.components = new OrderPreservingList<>(componentList);
-        this.position[0] = position.x;
-        this.position[1] = position.y;
+        this.componentsView = Collections.unmodifiableList(components);
+        this.components.forEach(componentIndex::add);
+        detachTransform().setPosition(0, position.x, position.y);
         this.zIndex = zIndex;
-        this.parentScene = Engine.window().currentScene();
-        Engine.window().currentScene().addGameObjectToScene(this);
+        this.parentScene = Engine.scenes().targetScene();
+        this.parentScene.addGameObjectToScene(this);
     }
 
     /**
      * Creates a new GameObject.
      *
-     * @param scene    the scene to add the GameObject to. By default, GameObjects are added to the currentScene.
+     * @param scene    the scene to add the GameObject to. By default, GameObjects are added to the {@link scene.SceneManager#targetScene() target scene}.
      * @param name     name of the GameObject
      * @param position
      * @param zIndex
      */
     public GameObject(Scene scene, String name, Vector2f position, int zIndex) {
+        this(scene, name, position, zIndex, true);
+    }
+
+    /**
+     * Creates a new GameObject, which is only added to the scene if requested.
+     * Used by {@link GameObjectPool} to create gameObjects in advance.
+     */
+    GameObject(Scene scene, String name, Vector2f position, int zIndex, boolean addToScene) {
         this.name = name;
         if (this.name == null) Log.warn("GameObject with a name that is null created", 1);
         this.components = new OrderPreservingList<Component>(new LinkedList<>());
-        this.position[0] = position.x;
-        this.position[1] = position.y;
+        this.componentsView = Collections.unmodifiableList(components);
+        detachTransform().setPosition(0, position.x, position.y);
         this.zIndex = zIndex;
-        this.parentScene = scene == null ? Engine.window().currentScene() : scene;
-        this.parentScene.addGameObjectToScene(this);
+        this.parentScene = scene == null ? Engine.scenes().targetScene() : scene;
+        if (addToScene) this.parentScene.addGameObjectToScene(this);
     }
 
     /**
@@ -110,8 +160,8 @@ public class GameObject implements Comparable<GameObject> {
      * Called once on gameObject creation, also starts any components that are passed to the constructor.
      */
     public void start() {
-        for (Component component : components) {
-            component.start();
+        for (int i = 0; i < components.size(); i++) {
+            components.get(i).start();
         }
     }
 
@@ -120,7 +170,7 @@ public class GameObject implements Comparable<GameObject> {
      */
     public void update(float dt) {
         for (Component component : components) {
-            component.update(dt);
+            component.tick(dt);
         }
     }
 
@@ -138,12 +188,334 @@ public class GameObject implements Comparable<GameObject> {
         return objId;
     }
 
+    /**
+     * The generational handle of this gameObject within its parent scene.
+     * Unlike a reference, the handle can be checked for staleness once the gameObject has been removed from the scene.
+     *
+     * @return the handle or {@link SlotMap#NULL_HANDLE}, if the gameObject is not part of a scene
+     * @see Scene#getGameObject(long)
+     */
+    public long handle() {
+        return handle;
+    }
+
     public Vector2f getReadOnlyPosition() {
-        return new Vector2f(position);
+        return new Vector2f(getX(), getY());
+    }
+
+    /**
+     * Writes the position into a given vector without allocating.
+     *
+     * @param dest the vector to store the position in
+     * @return dest
+     */
+    public Vector2f getPosition(Vector2f dest) {
+        return dest.set(getX(), getY());
+    }
+
+    public float getX() {
+        return transforms.x(transformSlot);
+    }
+
+    public float getY() {
+        return transforms.y(transformSlot);
+    }
+
+    /**
+     * Sets the position, relative to the parent if there is one.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void setPosition(float x, float y) {
+        transforms.setPosition(transformSlot, x, y);
+        hierarchyChanged();
+        transformMoved();
+    }
+
+    /**
+     * @return the rotation in degrees
+     */
+    public float getRotation() {
+        return transforms.rotation(transformSlot);
+    }
+
+    /**
+     * @param rotation the rotation in degrees
+     */
+    public void setRotation(float rotation) {
+        transforms.setRotation(transformSlot, rotation);
+        hierarchyChanged();
+        transformMoved();
+    }
+
+    public float getScaleX() {
+        return transforms.scaleX(transformSlot);
+    }
+
+    public float getScaleY() {
+        return transforms.scaleY(transformSlot);
+    }
+
+    public void setScale(float scaleX, float scaleY) {
+        transforms.setScale(transformSlot, scaleX, scaleY);
+        hierarchyChanged();
+        transformMoved();
+    }
+
+    /**
+     * The world position is the position combined with the transforms of all ancestors.
+     * For children it is cached and recomputed on demand, parent-first, after the transform of the child or an ancestor changed,
+     * so changes are visible within the same update.
+     *
+     * @return the x coordinate in the world
+     * @see scene.Scene#propagateTransforms()
+     */
+    public float getWorldX() {
+        if (parent == null) return getX();
+        updateWorldTransform();
+        return transforms.worldX(transformSlot);
+    }
+
+    /**
+     * @return the y coordinate in the world
+     * @see #getWorldX()
+     */
+    public float getWorldY() {
+        if (parent == null) return getY();
+        updateWorldTransform();
+        return transforms.worldY(transformSlot);
+    }
+
+    /**
+     * @return the rotation in the world in degrees
+     * @see #getWorldX()
+     */
+    public float getWorldRotation() {
+        if (parent == null) return getRotation();
+        updateWorldTransform();
+        return transforms.worldRotation(transformSlot);
+    }
+
+    public float getWorldScaleX() {
+        if (parent == null) return getScaleX();
+        updateWorldTransform();
+        return transforms.worldScaleX(transformSlot);
+    }
+
+    public float getWorldScaleY() {
+        if (parent == null) return getScaleY();
+        updateWorldTransform();
+        return transforms.worldScaleY(transformSlot);
+    }
+
+    /**
+     * The world position blended between the state before and after the last update.
+     * Used by renderers to draw smoothly in between two steps of a fixed timestep simulation.
+     *
+     * @param alpha the interpolation alpha from 0 (before the last update) to 1 (current state)
+     * @return the interpolated x coordinate in the world
+     * @see util.FixedTimestep#alpha()
+     */
+    public float getInterpolatedX(float alpha) {
+        float previous = transforms.previousX(transformSlot);
+        return previous + (getWorldX() - previous) * alpha;
+    }
+
+    /**
+     * @param alpha the interpolation alpha from 0 (before the last update) to 1 (current state)
+     * @return the interpolated y coordinate in the world
+     * @see #getInterpolatedX(float)
+     */
+    public float getInterpolatedY(float alpha) {
+        float previous = transforms.previousY(transformSlot);
+        return previous + (getWorldY() - previous) * alpha;
+    }
+
+    /**
+     * @param alpha the interpolation alpha from 0 (before the last update) to 1 (current state)
+     * @return the interpolated rotation in the world in degrees
+     * @see #getInterpolatedX(float)
+     */
+    public float getInterpolatedRotation(float alpha) {
+        float previous = transforms.previousRotation(transformSlot);
+        return previous + (getWorldRotation() - previous) * alpha;
+    }
+
+    /**
+     * Discards the state before the last update, so the gameObject is drawn at its current transform right away.
+     * Call this after teleporting a gameObject, to avoid it being drawn sweeping over to the new position.
+     */
+    public void resetInterpolation() {
+        transforms.setPrevious(transformSlot, getWorldX(), getWorldY(), getWorldRotation());
+    }
+
+    //remember the current world transform as the one before the next update
+    void capturePreviousTransform() {
+        movedSinceCapture = false;
+        resetInterpolation();
+    }
+
+    //queue the gameObject once per update, so its world transform is captured before the next one
+    private void transformMoved() {
+        if (movedSinceCapture || registry == null) return;
+        movedSinceCapture = true;
+        registry.transformMoved(this);
+    }
+
+    /**
+     * Writes the world matrix into a given matrix without allocating.
+     * Only up to date for gameObjects being part of a hierarchy.
+     *
+     * @param dest the matrix to store the world matrix in
+     * @return dest
+     */
+    public Matrix3x2f getWorldMatrix(Matrix3x2f dest) {
+        updateWorldTransform();
+        return dest.set(
+                transforms.worldMatrix(transformSlot, 0), transforms.worldMatrix(transformSlot, 1),
+                transforms.worldMatrix(transformSlot, 2), transforms.worldMatrix(transformSlot, 3),
+                transforms.worldMatrix(transformSlot, 4), transforms.worldMatrix(transformSlot, 5));
+    }
+
+    /**
+     * Attaches this gameObject to a parent, its transform becomes relative to the one of the parent.
+     * The local transform is kept as it is. Children are added to and removed from the scene together with their parent.
+     *
+     * @param parent the new parent in the same scene or null to detach this gameObject from its parent
+     */
+    public void setParent(GameObject parent) {
+        if (parent == this.parent) return;
+        if (parent != null) {
+            if (parent.parentScene != parentScene)
+                throw new IllegalArgumentException("the parent of " + name + " has to be in the same scene");
+            for (GameObject ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+                if (ancestor == this)
+                    throw new IllegalArgumentException(name + " can not be a descendant of itself");
+            }
+        }
+        if (this.parent != null) {
+            this.parent.children.remove(this);
+        }
+        this.parent = parent;
+        if (parent != null) {
+            if (parent.children == null) {
+                parent.children = new ArrayList<>();
+                parent.childrenView = Collections.unmodifiableList(parent.children);
+            }
+            parent.children.add(this);
+        }
+        //the world transform changes with the parent, even if the local one does not
+        transforms.invalidate(transformSlot);
+        hierarchyChanged();
+        transformMoved();
+        if (parent != null && !parent.subtreeDirty) parent.markSubtreeDirty();
+    }
+
+    /**
+     * @return the parent or null
+     */
+    public GameObject getParent() {
+        return parent;
+    }
+
+    /**
+     * @return a read-only view of the children
+     */
+    public List<GameObject> getChildren() {
+        return childrenView;
+    }
+
+    /**
+     * Recomputes the world transforms of this gameObject and its descendants, if they or their ancestors have changed.
+     * Subtrees without changes are skipped entirely.
+     *
+     * @param parentChanged whether the world transform of the parent has been recomputed
+     */
+    void propagateTransform(boolean parentChanged) {
+        subtreeDirty = false;
+        boolean changed = parent == null
+                ? transforms.propagate(transformSlot, null, 0, parentChanged)
+                : transforms.propagate(transformSlot, parent.transforms, parent.transformSlot, parentChanged);
+        //children are moved along with their parent
+        if (changed && parentChanged) transformMoved();
+        if (children == null) return;
+        for (int i = 0; i < children.size(); i++) {
+            GameObject child = children.get(i);
+            if (changed || child.subtreeDirty) child.propagateTransform(changed);
+        }
+    }
+
+    //propagate pending changes of the hierarchy, so the cached world transform is the current one
+    private void updateWorldTransform() {
+        GameObject root = this;
+        while (root.parent != null) root = root.parent;
+        if (!root.subtreeDirty) return;
+        //gameObjects of the same hierarchy may be read from several threads during parallel update phases
+        synchronized (root) {
+            if (root.subtreeDirty) root.propagateTransform(false);
+        }
     }
 
-    public float[] getPositionData() {
-        return position;
+    /**
+     * @return true if this gameObject is the root of a hierarchy with changes to propagate
+     */
+    boolean needsPropagation() {
+        return parent == null && subtreeDirty && children != null && !children.isEmpty();
+    }
+
+    //flat gameObjects don't need any propagation
+    private void hierarchyChanged() {
+        if (parent != null || children != null) markSubtreeDirty();
+    }
+
+    //mark the path up to the root, stopping at ancestors which are already marked, newly marked roots are queued for propagation
+    private void markSubtreeDirty() {
+        for (GameObject go = this; go != null && !go.subtreeDirty; go = go.parent) {
+            go.subtreeDirty = true;
+            if (go.parent == null && go.registry != null) go.registry.rootChanged(go);
+        }
+    }
+
+    /**
+     * The version of the transform is incremented with every change of the position, rotation or scale.
+     *
+     * @return the current version of the transform
+     * @see #transformChangedSince(long)
+     */
+    public long transformVersion() {
+        return transforms.version(transformSlot);
+    }
+
+    /**
+     * Checks without allocating whether the transform has changed.
+     *
+     * @param version a version returned by {@link #transformVersion()} earlier
+     * @return true if the position, rotation or scale has changed since then
+     */
+    public boolean transformChangedSince(long version) {
+        return transforms.changedSince(transformSlot, version);
+    }
+
+    //move the transform into the store of the scene
+    void attachTransform(TransformStore store, int slot) {
+        store.copy(slot, transforms, transformSlot);
+        transforms = store;
+        transformSlot = slot;
+        subtreeDirty = false;
+        movedSinceCapture = false;
+        hierarchyChanged();
+        //spawned gameObjects appear at their position instead of sweeping in from a stale one
+        resetInterpolation();
+    }
+
+    //move the transform into the store of its own, keeping its state
+    TransformStore detachTransform() {
+        if (detachedTransform == null) detachedTransform = new TransformStore(1);
+        if (transforms != null) detachedTransform.copy(0, transforms, transformSlot);
+        transforms = detachedTransform;
+        transformSlot = 0;
+        return detachedTransform;
     }
 
     public int zIndex() {
@@ -164,77 +536,93 @@ public class GameObject implements Comparable<GameObject> {
 
     /**
      * Takes a parameter of a class that extends component and returns it if it is contained in the GameObject's list of components.
+     * The lookup is constant time and does not allocate, supertypes and interfaces like {@link Collider} can be used too.
      *
      * @param componentClass of component (ie. "SpriteRenderer.class")
      * @return Component of type passed as param is contained in GameObject
      */
     public <T> T getComponent(Class<T> componentClass) {
-        for (Component c : components) {
-            if (componentClass.isAssignableFrom(c.getClass())) {
-                try {
-                    return componentClass.cast(c);
-                } catch (ClassCastException e) {
-                    Log.fatal("failed to cast component to " + componentClass.getName());
-                    e.printStackTrace();
-                }
-            }
-        }
-        return null;
+        return componentClass.cast(componentIndex.first(componentClass));
     }
 
     /**
      * Takes a parameter of a class that extends component and returns it if it is contained in the GameObject's list of components.
      *
      * @param componentClass of component (ie. "SpriteRenderer.class")
-     * @return all components of type passed as param is contained in GameObject
+     * @return an immutable snapshot of all components of type passed as param contained in GameObject,
+     * components can be added and removed while iterating over it. The snapshot is cached until the components change.
      */
+    @SuppressWarnings("unchecked")
     public <T> List<T> getComponents(Class<T> componentClass) {
-        List<T> comps = new ArrayList<>(components.size());
-        for (Component c : components) {
-            if (componentClass.isAssignableFrom(c.getClass())) {
-                try {
-                    T cast = componentClass.cast(c);
-                    comps.add(cast);
-                } catch (ClassCastException e) {
-                    Log.fatal("failed to cast component to " + componentClass.getName());
-                    e.printStackTrace();
-                }
-            }
-        }
-        return comps;
+        return (List<T>) componentIndex.all(componentClass);
+    }
+
+    /**
+     * Checks in constant time whether the GameObject contains a component of the given type.
+     *
+     * @param componentClass of component (ie. "SpriteRenderer.class"), supertypes and interfaces can be used too
+     * @return true if any component is assignable to the given type
+     */
+    public boolean hasComponent(Class<?> componentClass) {
+        return componentIndex.has(ComponentTypes.id(componentClass));
+    }
+
+    /**
+     * The bitmask of all component type ids present in this GameObject, including supertypes and interfaces.
+     * Bit n is set if a component assignable to the type with id n is contained.
+     *
+     * @return the bitmask, must not be modified
+     * @see ComponentTypes
+     */
+    public long[] componentMask() {
+        return componentIndex.mask();
     }
 
     /**
      * Takes a parameter of a class that extends component and removed it from the GameObject if it is contained in the list of components.
+     * While the parent scene updates its gameObjects, the removal is deferred to the end of the update pass.
      *
      * @param componentClass of component (ie. "SpriteRenderer.class")
      */
     public <T> void removeComponent(Class<T> componentClass) {
+        if (isDeferred()) {
+            parentScene.commands().removeComponent(this, componentClass);
+            return;
+        }
+        Component c = componentIndex.first(componentClass);
+        if (c == null) return;
+        c.remove();
+        c.gameObject = null;
         for (int i = 0; i < components.size(); i++) {
-            Component c = components.get(i);
-            if (componentClass.isAssignableFrom(c.getClass())) {
-                c.remove();
-                c.gameObject = null;
+            if (components.get(i) == c) {
                 components.remove(i);
-                if (c instanceof Collider)
-                    getParentScene().unregisterCollider(this);
-                return;
+                break;
             }
         }
+        componentIndex.remove(c);
+        if (c instanceof Collider)
+            getParentScene().unregisterCollider(this);
+        componentsChanged();
     }
 
 
     /**
      * Adds a new component to the GameObject's list.
+     * While the parent scene updates its gameObjects, adding is deferred to the end of the update pass.
      *
      * @param c the new component
      * @return the gameobject itself
      */
     public GameObject addComponent(Component c) {
+        if (isDeferred()) {
+            parentScene.commands().addComponent(this, c);
+            return this;
+        }
         this.components.add(c);
+        this.componentIndex.add(c);
         c.gameObject = this;
-        //TODO check if this is necessary
-        if (getParentScene() != null) {
+        //gameObjects not yet added to the scene are started and rendered once they are added
+        if (getParentScene() != null && handle != SlotMap.NULL_HANDLE) {
             if (getParentScene().isActive()) {
                 c.start();
                 getParentScene().addToRenderers(this);
@@ -242,14 +630,28 @@ public class GameObject implements Comparable<GameObject> {
         }
         if (c instanceof Collider)
             getParentScene().registerCollider(this);
+        componentsChanged();
         return this;
     }
 
+    //structural changes of gameObjects in the scene are deferred while the scene updates its gameObjects
+    private boolean isDeferred() {
+        return parentScene != null && handle != SlotMap.NULL_HANDLE && parentScene.isDeferringChanges();
+    }
+
+    //keep the archetype and the queries of this gameObject in sync with its components
+    private void componentsChanged() {
+        if (registry != null) registry.componentsChanged(this);
+        if (parentScene == null) return;
+        ArchetypeStorage storage = parentScene.archetypeStorage();
+        if (storage != null) storage.refresh(this);
+    }
+
     /**
-     * @return List of Components in GameObject
+     * @return read-only List of Components in GameObject, use {@link #addComponent(Component)} and {@link #removeComponent(Class)} to modify it
      */
     public List<Component> getComponents() {
-        return components;
+        return componentsView;
     }
 
 
@@ -0,0 +1,143 @@
+package ecs;
+
+import org.joml.Vector2f;
+import scene.Scene;
+import util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Recycles gameObjects built from a {@link Prefab}, so spawn-heavy gameObjects like bullets, pickups or enemies
+ * don't allocate new gameObjects and components in steady state.
+ * Obtaining and releasing recycled gameObjects does not allocate at all with the built-in components,
+ * as long as the prefab and the components started again do not allocate either.
+ * <p>
+ * {@link #obtain(float, float)} adds an available gameObject to the scene or builds a new one if the pool is empty,
+ * {@link #release(GameObject)} removes it from the scene and makes it available again.
+ * Recycled gameObjects keep their components, the prefab can reset their state and the components are started again.
+ * Hits and misses of the pool are counted to help choosing the initial size.
+ */
+public class GameObjectPool {
+
+    private final Scene scene;
+    private final String name;
+    private final int zIndex;
+    private final Prefab prefab;
+
+    private GameObject[] available;
+    private int size = 0;
+
+    private int created = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param scene       the scene to spawn the gameObjects in
+     * @param name        the name of the gameObjects
+     * @param zIndex      the zIndex of the gameObjects
+     * @param prefab      the template to build the gameObjects with
+     * @param initialSize the amount of gameObjects to build in advance
+     */
+    public GameObjectPool(Scene scene, String name, int zIndex, Prefab prefab, int initialSize) {
+        if (scene == null) throw new IllegalArgumentException("the scene of a pool must not be null");
+        if (initialSize < 0) throw new IllegalArgumentException("the initial size of a pool must not be negative");
+        this.scene = scene;
+        this.name = name;
+        this.zIndex = zIndex;
+        this.prefab = prefab;
+        this.available = new GameObject[Math.max(initialSize, 16)];
+        for (int i = 0; i < initialSize; i++) {
+            GameObject gameObject = create();
+            gameObject.pooled = true;
+            available[size++] = gameObject;
+        }
+    }
+
+    /**
+     * Adds a gameObject of the pool to the scene at the given position.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return a recycled or, if none is available, a newly built gameObject
+     */
+    public GameObject obtain(float x, float y) {
+        GameObject gameObject;
+        if (size > 0) {
+            hits++;
+            gameObject = available[--size];
+            available[size] = null;
+            gameObject.pooled = false;
+            prefab.reset(gameObject);
+        } else {
+            misses++;
+            gameObject = create();
+        }
+        gameObject.setPosition(x, y);
+        scene.addGameObjectToScene(gameObject);
+        return gameObject;
+    }
+
+    /**
+     * @param position the position
+     * @return a recycled or, if none is available, a newly built gameObject
+     * @see #obtain(float, float)
+     */
+    public GameObject obtain(Vector2f position) {
+        return obtain(position.x, position.y);
+    }
+
+    /**
+     * Removes a gameObject of this pool from the scene and makes it available again.
+     *
+     * @param gameObject a gameObject obtained from this pool
+     */
+    public void release(GameObject gameObject) {
+        if (gameObject.pool != this)
+            throw new IllegalArgumentException("gameObject " + gameObject.name() + " does not belong to this pool");
+        if (gameObject.pooled) {
+            Log.warn("gameObject " + gameObject.name() + " released twice", 1);
+            return;
+        }
+        scene.removeGameObjectFromScene(gameObject);
+        gameObject.pooled = true;
+        if (size == available.length) available = Arrays.copyOf(available, size * 2);
+        available[size++] = gameObject;
+    }
+
+    /**
+     * @return the amount of gameObjects currently available in the pool
+     */
+    public int available() {
+        return size;
+    }
+
+    /**
+     * @return the amount of gameObjects built by this pool, in advance or because the pool was empty
+     */
+    public int created() {
+        return created;
+    }
+
+    /**
+     * @return the amount of obtained gameObjects, which were recycled
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the amount of obtained gameObjects, which had to be built because the pool was empty
+     */
+    public long misses() {
+        return misses;
+    }
+
+    private GameObject create() {
+        GameObject gameObject = new GameObject(scene, name, new Vector2f(), zIndex, false);
+        gameObject.pool = this;
+        prefab.build(gameObject);
+        created++;
+        return gameObject;
+    }
+
+}
@@ -0,0 +1,167 @@
+package ecs;
+
+import util.SlotMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the gameObjects of a scene in a {@link SlotMap} and hands out their generational handles.
+ * Adding and removing gameObjects is constant time, the handle of a gameObject is available through {@link GameObject#handle()}
+ * as long as it is registered and can be used as key for per-gameObject data in {@link util.HandleMap}s.
+ * Handles of removed gameObjects become stale and never resolve to another gameObject.
+ * The transforms of the registered gameObjects are kept in a {@link TransformStore} at the slot index of their handles.
+ *
+ * @see scene.Scene#getGameObject(long)
+ */
+public final class GameObjectRegistry {
+
+    private final SlotMap<GameObject> gameObjects = new SlotMap<>();
+    private final TransformStore transforms = new TransformStore();
+    private final List<Query> queries = new ArrayList<>();
+    //roots of hierarchies with changes since the last propagation
+    private final List<GameObject> dirtyRoots = new ArrayList<>();
+    //gameObjects whose world transform has changed since the last capture
+    private final List<GameObject> moved = new ArrayList<>();
+
+    /**
+     * Registers a gameObject and assigns its handle. Registering a gameObject twice has no effect.
+     *
+     * @param gameObject the gameObject
+     * @return true if the gameObject was not registered before
+     */
+    public boolean add(GameObject gameObject) {
+        if (gameObjects.get(gameObject.handle) == gameObject) return false;
+        gameObject.handle = gameObjects.insert(gameObject);
+        gameObject.registry = this;
+        gameObject.attachTransform(transforms, SlotMap.index(gameObject.handle));
+        componentsChanged(gameObject);
+        return true;
+    }
+
+    /**
+     * Unregisters a gameObject, its handle becomes stale.
+     *
+     * @param gameObject the gameObject
+     * @return true if the gameObject was registered
+     */
+    public boolean remove(GameObject gameObject) {
+        if (gameObjects.get(gameObject.handle) != gameObject) return false;
+        for (int i = 0; i < queries.size(); i++) {
+            queries.get(i).remove(gameObject);
+        }
+        gameObject.registry = null;
+        gameObjects.remove(gameObject.handle);
+        gameObject.handle = SlotMap.NULL_HANDLE;
+        gameObject.detachTransform();
+        return true;
+    }
+
+    /**
+     * @param handle the handle of a gameObject
+     * @return the gameObject or null, if the handle is stale
+     */
+    public GameObject get(long handle) {
+        return gameObjects.get(handle);
+    }
+
+    /**
+     * @return the store holding the transforms of all registered gameObjects, indexed by the slot index of their handles
+     */
+    public TransformStore transforms() {
+        return transforms;
+    }
+
+    /**
+     * Returns the live query for the given component types, creating it on first use.
+     * Queries for the same set of types are shared.
+     *
+     * @param types component types, supertypes or interfaces
+     * @return the query
+     */
+    public Query query(Class<?>... types) {
+        if (types.length == 0) throw new IllegalArgumentException("a query needs at least one component type");
+        long[] mask = Query.maskOf(types);
+        for (int i = 0; i < queries.size(); i++) {
+            if (queries.get(i).hasMask(mask)) return queries.get(i);
+        }
+        Query query = new Query(types);
+        List<GameObject> all = gameObjects.values();
+        for (int i = 0; i < all.size(); i++) {
+            query.update(all.get(i));
+        }
+        queries.add(query);
+        return query;
+    }
+
+    /**
+     * Updates the queries after the components of a registered gameObject have changed.
+     *
+     * @param gameObject the gameObject
+     */
+    void componentsChanged(GameObject gameObject) {
+        for (int i = 0; i < queries.size(); i++) {
+            queries.get(i).update(gameObject);
+        }
+    }
+
+    /**
+     * Recomputes the cached world transforms of all hierarchies with changes.
+     * Only the changed subtrees of the hierarchies marked since the last propagation are visited,
+     * flat gameObjects and unchanged hierarchies are skipped.
+     */
+    public void propagateTransforms() {
+        for (int i = 0; i < dirtyRoots.size(); i++) {
+            GameObject root = dirtyRoots.get(i);
+            if (root.registry == this && root.needsPropagation()) root.propagateTransform(false);
+        }
+        dirtyRoots.clear();
+    }
+
+    //queues the root of a hierarchy, which has been marked for propagation
+    void rootChanged(GameObject root) {
+        synchronized (dirtyRoots) {
+            dirtyRoots.add(root);
+        }
+    }
+
+    /**
+     * Remembers the world transforms of the registered gameObjects before they are updated,
+     * so renderers can interpolate between the previous and the current state.
+     * Only gameObjects which have moved since the last capture are visited, the previous transform of all others
+     * already equals their current one.
+     *
+     * @see GameObject#getInterpolatedX(float)
+     */
+    public void capturePreviousTransforms() {
+        //pending hierarchy changes move children, which have to be captured as well
+        propagateTransforms();
+        for (int i = 0; i < moved.size(); i++) {
+            GameObject gameObject = moved.get(i);
+            if (gameObject.registry == this) gameObject.capturePreviousTransform();
+        }
+        moved.clear();
+    }
+
+    //queues a gameObject, whose world transform has changed since the last capture
+    void transformMoved(GameObject gameObject) {
+        synchronized (moved) {
+            moved.add(gameObject);
+        }
+    }
+
+    /**
+     * @return the amount of registered gameObjects
+     */
+    public int size() {
+        return gameObjects.size();
+    }
+
+    /**
+     * @return a read-only view of all registered gameObjects, the order changes when gameObjects are removed
+     */
+    public List<GameObject> values() {
+        return gameObjects.values();
+    }
+
+}
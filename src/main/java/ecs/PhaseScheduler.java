@@ -0,0 +1,174 @@
+package ecs;
+
+import util.JobSystem;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Updates the components of many gameObjects phase by phase instead of gameObject by gameObject.
+ * Each {@link Component.ComponentOrder} is a stage separated by a barrier:
+ * a phase starts only after all components of the previous phase have been updated.
+ * <p>
+ * Within a phase, components of types annotated with {@link ThreadSafe} are split into chunks and updated
+ * in parallel with {@link JobSystem#parallelFor(String, int, int, int, JobSystem.ForRange)}. All other components of the phase are updated on the calling thread
+ * afterwards, in the same order as the default update loop would do.
+ * <p>
+ * The components of a frame are collected before the first phase starts.
+ * GameObjects added during the frame are updated with the next frame, components removed during the frame are skipped.
+ * GameObjects of subclasses overriding {@link GameObject#update(float)} are not split into phases,
+ * they are updated as a whole through their own update method on the calling thread, after the last phase.
+ *
+ * @see scene.Scene#enableParallelUpdates(PhaseScheduler)
+ */
+public class PhaseScheduler {
+
+    /**
+     * The default amount of components updated by one task, smaller phases are not parallelized at all
+     */
+    public static final int DEFAULT_GRAIN_SIZE = 256;
+
+    private static final ClassValue<Boolean> threadSafe = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(ThreadSafe.class);
+        }
+    };
+
+    private static final ClassValue<Boolean> customUpdate = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("update", float.class).getDeclaringClass() != GameObject.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final JobSystem jobs;
+    private final int grainSize;
+    private final Phase[] phases;
+    private GameObject[] custom = new GameObject[16];
+    private int customSize = 0;
+
+    /**
+     * Creates a scheduler using the shared job system and the {@link #DEFAULT_GRAIN_SIZE}.
+     */
+    public PhaseScheduler() {
+        this(JobSystem.shared(), DEFAULT_GRAIN_SIZE);
+    }
+
+    /**
+     * @param pool      the pool to run thread-safe components on
+     * @param grainSize the amount of components updated by one task, at least 1
+     */
+    public PhaseScheduler(ForkJoinPool pool, int grainSize) {
+        this(new JobSystem(pool), grainSize);
+    }
+
+    /**
+     * @param jobs      the job system to run thread-safe components on
+     * @param grainSize the amount of components updated by one task, at least 1
+     */
+    public PhaseScheduler(JobSystem jobs, int grainSize) {
+        if (grainSize < 1) throw new IllegalArgumentException("the grain size has to be at least 1");
+        this.jobs = jobs;
+        this.grainSize = grainSize;
+        this.phases = new Phase[Component.ComponentOrder.values().length];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Phase("update " + Component.ComponentOrder.values()[i]);
+        }
+    }
+
+    /**
+     * Checks whether a component type has been declared thread-safe.
+     *
+     * @param type the component type
+     * @return true if the type is annotated with {@link ThreadSafe}
+     */
+    public static boolean isThreadSafe(Class<? extends Component> type) {
+        return threadSafe.get(type);
+    }
+
+    /**
+     * Updates all components of the given gameObjects, one phase after another.
+     *
+     * @param gameObjects the gameObjects to update
+     * @param dt          Engine.deltaTime
+     */
+    public void update(List<GameObject> gameObjects, float dt) {
+        for (GameObject gameObject : gameObjects) {
+            if (customUpdate.get(gameObject.getClass())) {
+                if (customSize == custom.length) custom = Arrays.copyOf(custom, customSize * 2);
+                custom[customSize++] = gameObject;
+                continue;
+            }
+            List<Component> components = gameObject.getComponents();
+            for (int i = 0; i < components.size(); i++) {
+                Component c = components.get(i);
+                phases[c.order().ordinal()].add(c, isThreadSafe(c.getClass()));
+            }
+        }
+        try {
+            for (Phase phase : phases) {
+                phase.run(dt);
+            }
+            for (int i = 0; i < customSize; i++) {
+                custom[i].update(dt);
+            }
+        } finally {
+            for (Phase phase : phases) {
+                phase.clear();
+            }
+            Arrays.fill(custom, 0, customSize, null);
+            customSize = 0;
+        }
+    }
+
+    private static void update(Component c, float dt) {
+        //the component may have been removed by an earlier phase
+        if (c.gameObject != null) c.tick(dt);
+    }
+
+    private final class Phase {
+
+        private final String name;
+        private Component[] parallel = new Component[64];
+        private Component[] serial = new Component[64];
+        private int parallelSize = 0;
+        private int serialSize = 0;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        void add(Component c, boolean threadSafe) {
+            if (threadSafe) {
+                if (parallelSize == parallel.length) parallel = Arrays.copyOf(parallel, parallelSize * 2);
+                parallel[parallelSize++] = c;
+            } else {
+                if (serialSize == serial.length) serial = Arrays.copyOf(serial, serialSize * 2);
+                serial[serialSize++] = c;
+            }
+        }
+
+        void run(float dt) {
+            Component[] parallel = this.parallel;
+            jobs.parallelFor(name, 0, parallelSize, grainSize, (from, to) -> {
+                for (int i = from; i < to; i++) update(parallel[i], dt);
+            });
+            for (int i = 0; i < serialSize; i++) update(serial[i], dt);
+        }
+
+        //drop the references, so removed components can be collected
+        void clear() {
+            Arrays.fill(parallel, 0, parallelSize, null);
+            Arrays.fill(serial, 0, serialSize, null);
+            parallelSize = 0;
+            serialSize = 0;
+        }
+    }
+
+}
@@ -9,6 +9,7 @@ import org.joml.Vector3f;
  *
  * @author VoxelRifts
  */
+@ThreadSafe
 public class PointLight extends Component {
 
     /**
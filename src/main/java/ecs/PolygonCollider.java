@@ -13,6 +13,7 @@ import java.util.Set;
  * A polygon collider for a {@link GameObject}.
  * Collision detection uses GJK in {@link MathUtils#gjksmCollision(PrimitiveShape, PrimitiveShape)}.
  * Must not be mixed with other colliders.
+ * Not {@link ThreadSafe}, since moving the collider updates the broadphase of the scene, which is shared by all colliders.
  *
  * @author Juyas
  * @version 06.12.2021
@@ -50,6 +51,11 @@ public class PolygonCollider extends Component implements Collider {
      */
     private final boolean passive;
 
+    /**
+     * The transform version of the gameObject the shape position was last updated with
+     */
+    private long lastTransformVersion;
+
     public PolygonCollider(PrimitiveShape shape, boolean passive) {
         super(ComponentOrder.POST_TRANSFORM);
         setShape(shape);
@@ -93,11 +99,22 @@ public class PolygonCollider extends Component implements Collider {
     public void setShape(PrimitiveShape shape) {
         if (shape == null) throw new IllegalArgumentException("The shape of a collider shall not be null");
         this.shape = shape;
+        if (gameObject != null) {
+            shape.setPosition(gameObject.getWorldX(), gameObject.getWorldY());
+            moved();
+        }
     }
 
     @Override
     public void start() {
-        shape.setPosition(position());
+        shape.setPosition(gameObject.getWorldX(), gameObject.getWorldY());
+        lastTransformVersion = gameObject.transformVersion();
+        moved();
+    }
+
+    //keeps the broadphase of the scene up to date
+    private void moved() {
+        if (gameObject.getParentScene() != null) gameObject.getParentScene().broadphase().update(this);
     }
 
     @Override
@@ -185,7 +202,10 @@ public class PolygonCollider extends Component implements Collider {
 
     @Override
     public void update(float dt) {
-        shape.setPosition(position());
+        if (!gameObject.transformChangedSince(lastTransformVersion)) return;
+        shape.setPosition(gameObject.getWorldX(), gameObject.getWorldY());
+        lastTransformVersion = gameObject.transformVersion();
+        moved();
     }
 
 
@@ -0,0 +1,35 @@
+package ecs;
+
+/**
+ * A template describing how to build the components of a gameObject, used by {@link GameObjectPool}
+ * to create gameObjects in advance and to recycle them.
+ * <p>
+ * Components that need a collision shape should get a {@link physics.collision.shape.PrimitiveShape#copy() copy}
+ * of one shared template shape, which avoids computing the convex hull for every instance:
+ * <pre>
+ * PrimitiveShape bulletShape = Shapes.axisAlignedRectangle(0, 0, 5, 10);
+ * Prefab bullet = gameObject -&gt; gameObject
+ *         .addComponent(new SpriteRenderer(bulletSprite, new Vector2f(5, 10)))
+ *         .addComponent(new PolygonCollider(bulletShape.copy()));
+ * </pre>
+ */
+@FunctionalInterface
+public interface Prefab {
+
+    /**
+     * Adds all components to a newly created gameObject, which is not part of the scene yet.
+     *
+     * @param gameObject the gameObject
+     */
+    void build(GameObject gameObject);
+
+    /**
+     * Restores the state of a recycled gameObject before it is added to the scene again,
+     * its components are started again afterwards. Does nothing by default.
+     *
+     * @param gameObject the gameObject
+     */
+    default void reset(GameObject gameObject) {
+    }
+
+}
@@ -0,0 +1,127 @@
+package ecs;
+
+import util.HandleMap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A live view of all gameObjects of a scene containing components of all given types.
+ * The view is maintained incrementally when gameObjects are added or removed and when components are added or removed,
+ * so iterating a query costs O(matching gameObjects) instead of filtering all gameObjects of the scene every frame.
+ * <p>
+ * Iterating with {@link #size()} and {@link #get(int)} or {@link #forEach(Consumer)} does not allocate.
+ * Like the gameObjects of the scene, the order of the matches changes when gameObjects are removed.
+ *
+ * @see scene.Scene#query(Class[])
+ */
+public final class Query implements Iterable<GameObject> {
+
+    private final Class<?>[] types;
+    private final long[] mask;
+    private final HandleMap<GameObject> matches = new HandleMap<>();
+
+    Query(Class<?>[] types) {
+        this.types = types.clone();
+        this.mask = maskOf(types);
+    }
+
+    /**
+     * @param types component types, supertypes or interfaces
+     * @return the bitmask with the bits of all type ids set
+     */
+    static long[] maskOf(Class<?>[] types) {
+        int max = 0;
+        for (Class<?> type : types) max = Math.max(max, ComponentTypes.id(type));
+        long[] mask = new long[(max >>> 6) + 1];
+        for (Class<?> type : types) {
+            int id = ComponentTypes.id(type);
+            mask[id >>> 6] |= 1L << id;
+        }
+        return mask;
+    }
+
+    /**
+     * @param gameObject a gameObject
+     * @return true if the gameObject contains components of all types of this query
+     */
+    public boolean matches(GameObject gameObject) {
+        long[] components = gameObject.componentMask();
+        for (int i = 0; i < mask.length; i++) {
+            if (mask[i] == 0) continue;
+            if (i >= components.length || (components[i] & mask[i]) != mask[i]) return false;
+        }
+        return true;
+    }
+
+    //add or remove a gameObject, depending on its current components
+    void update(GameObject gameObject) {
+        if (matches(gameObject)) matches.put(gameObject.handle(), gameObject);
+        else matches.remove(gameObject.handle());
+    }
+
+    void remove(GameObject gameObject) {
+        matches.remove(gameObject.handle());
+    }
+
+    boolean hasMask(long[] mask) {
+        return Arrays.equals(this.mask, mask);
+    }
+
+    /**
+     * @return the types of components required by this query
+     */
+    public Class<?>[] types() {
+        return types.clone();
+    }
+
+    /**
+     * @return the amount of matching gameObjects
+     */
+    public int size() {
+        return matches.size();
+    }
+
+    /**
+     * @param index the index, from 0 to size() - 1
+     * @return the matching gameObject at the index
+     */
+    public GameObject get(int index) {
+        return matches.values().get(index);
+    }
+
+    public boolean isEmpty() {
+        return matches.size() == 0;
+    }
+
+    /**
+     * @param gameObject a gameObject
+     * @return true if the gameObject is part of the scene and matches this query
+     */
+    public boolean contains(GameObject gameObject) {
+        return matches.get(gameObject.handle()) == gameObject;
+    }
+
+    /**
+     * @return a read-only view of the matching gameObjects, reflecting later changes
+     */
+    public List<GameObject> asList() {
+        return matches.values();
+    }
+
+    @Override
+    public void forEach(Consumer<? super GameObject> action) {
+        List<GameObject> values = matches.values();
+        for (int i = 0; i < values.size(); i++) {
+            action.accept(values.get(i));
+        }
+    }
+
+    @Override
+    public Iterator<GameObject> iterator() {
+        return matches.values().iterator();
+    }
+
+}
@@ -14,21 +14,22 @@ import static graphics.Color.WHITE;
  * SpriteRenderer is a component that can be added to a GameObject.
  * it can contain a solid color, a semi-transparent color, or a texture.
  * Sprites can be tinted by the color value.
+ * The sprite is drawn at the position and rotation of its gameObject, use {@link GameObject#setRotation(float)} to rotate it.
  *
  * @author Asher Haun
  * @author Gabe
  * @authot GoldSpark
  */
 
+@ThreadSafe
 public class SpriteRenderer extends Component {
 
     private Vector4f color = new Color(255, 100, 100, 255).toNormalizedVec4f();
 
     private Sprite sprite;
 
-    private Vector2f lastLocation;
+    private long lastTransformVersion;
     private Vector2f size;
-    public float rotation = 0;
     private boolean isDirty; // Dirty flag, tells renderer to redraw if object components have changed
 
     /**
@@ -131,7 +132,7 @@ public class SpriteRenderer extends Component {
      */
     @Override
     public void start() {
-        this.lastLocation = position();
+        this.lastTransformVersion = gameObject.transformVersion();
         isDirty = true;
     }
 
@@ -142,8 +143,10 @@ public class SpriteRenderer extends Component {
      */
     @Override
     public void update(float dt) {
-        if (!position().equals(this.lastLocation)) markDirty();
-        this.lastLocation = position();
+        if (gameObject.transformChangedSince(lastTransformVersion)) {
+            markDirty();
+            lastTransformVersion = gameObject.transformVersion();
+        }
     }
 
     /**
@@ -0,0 +1,24 @@
+package ecs;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Component} type whose {@link Component#update(float)} may run concurrently
+ * with the updates of other components in the same {@link Component.ComponentOrder} phase.
+ * <p>
+ * A thread-safe component must only write to its own state and the state of its own {@link GameObject},
+ * and must not add or remove gameObjects or components during the update.
+ * Reading the state of other gameObjects is only allowed, if that state is not written during the same phase.
+ * The annotation is not inherited, every subclass has to declare it again.
+ *
+ * @see PhaseScheduler
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ThreadSafe {
+}
@@ -0,0 +1,315 @@
+package ecs;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for the transforms of many gameObjects.
+ * Position, rotation and scale of the gameObject in slot i are stored at index i of primitive arrays,
+ * so reading and writing them neither allocates nor chases pointers.
+ * <p>
+ * Every slot has a version, which is incremented with each change of its transform.
+ * Renderers and colliders remember the version they have seen last and ask
+ * {@link #changedSince(int, long)} instead of comparing positions every frame.
+ * Versions only ever grow, even if a gameObject is moved to another store or slot.
+ * <p>
+ * For gameObjects with a parent, the transform is relative to the parent and the store additionally caches
+ * the resulting world transform as 2x3 matrix (laid out like {@link org.joml.Matrix3x2f}), rotation and scale.
+ * These are recomputed by {@link #propagate(int, TransformStore, int, boolean)} only if the local transform
+ * or the world transform of the parent has changed.
+ * <p>
+ * The world position and rotation before the last update are kept as well, so renderers can interpolate
+ * between the previous and the current state when the simulation runs with a fixed timestep.
+ * <p>
+ * Different slots may be written from different threads, growing the store may not happen concurrently.
+ *
+ * @see GameObject#transformVersion()
+ * @see GameObject#setParent(GameObject)
+ * @see scene.Scene#transforms()
+ */
+public final class TransformStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private float[] x;
+    private float[] y;
+    private float[] rotation;
+    private float[] scaleX;
+    private float[] scaleY;
+    private long[] versions;
+
+    //cached world transforms, 6 matrix elements per slot
+    private float[] world;
+    private float[] worldRotation;
+    private float[] worldScaleX;
+    private float[] worldScaleY;
+    //the version the world transform was last computed for
+    private long[] propagated;
+
+    //world transforms before the last update, for render interpolation
+    private float[] previousX;
+    private float[] previousY;
+    private float[] previousRotation;
+
+    public TransformStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param capacity the initial amount of slots
+     */
+    public TransformStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.rotation = new float[capacity];
+        this.scaleX = new float[capacity];
+        this.scaleY = new float[capacity];
+        this.versions = new long[capacity];
+        this.world = new float[capacity * 6];
+        this.worldRotation = new float[capacity];
+        this.worldScaleX = new float[capacity];
+        this.worldScaleY = new float[capacity];
+        this.propagated = new long[capacity];
+        this.previousX = new float[capacity];
+        this.previousY = new float[capacity];
+        this.previousRotation = new float[capacity];
+        Arrays.fill(scaleX, 1);
+        Arrays.fill(scaleY, 1);
+        Arrays.fill(propagated, -1);
+    }
+
+    /**
+     * @return the amount of slots
+     */
+    public int capacity() {
+        return x.length;
+    }
+
+    /**
+     * Grows the store so the given slot can be used.
+     *
+     * @param slot the slot index
+     */
+    public void ensureCapacity(int slot) {
+        if (slot < x.length) return;
+        int old = x.length;
+        int capacity = Math.max(old * 2, slot + 1);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        scaleX = Arrays.copyOf(scaleX, capacity);
+        scaleY = Arrays.copyOf(scaleY, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        world = Arrays.copyOf(world, capacity * 6);
+        worldRotation = Arrays.copyOf(worldRotation, capacity);
+        worldScaleX = Arrays.copyOf(worldScaleX, capacity);
+        worldScaleY = Arrays.copyOf(worldScaleY, capacity);
+        propagated = Arrays.copyOf(propagated, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousRotation = Arrays.copyOf(previousRotation, capacity);
+        Arrays.fill(scaleX, old, capacity, 1);
+        Arrays.fill(scaleY, old, capacity, 1);
+        Arrays.fill(propagated, old, capacity, -1);
+    }
+
+    public float x(int slot) {
+        return x[slot];
+    }
+
+    public float y(int slot) {
+        return y[slot];
+    }
+
+    public float rotation(int slot) {
+        return rotation[slot];
+    }
+
+    public float scaleX(int slot) {
+        return scaleX[slot];
+    }
+
+    public float scaleY(int slot) {
+        return scaleY[slot];
+    }
+
+    /**
+     * @param slot the slot index
+     * @return the current version of the transform in the slot
+     */
+    public long version(int slot) {
+        return versions[slot];
+    }
+
+    /**
+     * @param slot    the slot index
+     * @param version a version seen earlier
+     * @return true if the transform in the slot has changed since the given version
+     */
+    public boolean changedSince(int slot, long version) {
+        return versions[slot] > version;
+    }
+
+    public void setPosition(int slot, float x, float y) {
+        if (this.x[slot] == x && this.y[slot] == y) return;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        versions[slot]++;
+    }
+
+    public void setRotation(int slot, float rotation) {
+        if (this.rotation[slot] == rotation) return;
+        this.rotation[slot] = rotation;
+        versions[slot]++;
+    }
+
+    public void setScale(int slot, float scaleX, float scaleY) {
+        if (this.scaleX[slot] == scaleX && this.scaleY[slot] == scaleY) return;
+        this.scaleX[slot] = scaleX;
+        this.scaleY[slot] = scaleY;
+        versions[slot]++;
+    }
+
+    /**
+     * Marks the transform of a slot as changed without changing it, so its world transform is recomputed.
+     *
+     * @param slot the slot index
+     */
+    public void invalidate(int slot) {
+        versions[slot]++;
+    }
+
+    public float worldX(int slot) {
+        return world[slot * 6 + 4];
+    }
+
+    public float worldY(int slot) {
+        return world[slot * 6 + 5];
+    }
+
+    public float worldRotation(int slot) {
+        return worldRotation[slot];
+    }
+
+    public float worldScaleX(int slot) {
+        return worldScaleX[slot];
+    }
+
+    public float worldScaleY(int slot) {
+        return worldScaleY[slot];
+    }
+
+    public float previousX(int slot) {
+        return previousX[slot];
+    }
+
+    public float previousY(int slot) {
+        return previousY[slot];
+    }
+
+    public float previousRotation(int slot) {
+        return previousRotation[slot];
+    }
+
+    /**
+     * Remembers the world transform of a slot before it is updated.
+     *
+     * @param slot     the slot index
+     * @param x        the x coordinate in the world
+     * @param y        the y coordinate in the world
+     * @param rotation the rotation in the world
+     */
+    public void setPrevious(int slot, float x, float y, float rotation) {
+        previousX[slot] = x;
+        previousY[slot] = y;
+        previousRotation[slot] = rotation;
+    }
+
+    /**
+     * @param slot    the slot index
+     * @param element the index of the matrix element, 0 to 5 for m00, m01, m10, m11, m20 and m21
+     * @return the element of the cached world matrix
+     */
+    public float worldMatrix(int slot, int element) {
+        return world[slot * 6 + element];
+    }
+
+    /**
+     * Recomputes the cached world transform of a slot, if its local transform or the world transform of the parent has changed.
+     * If only the parent has changed, the version of the slot is incremented as well, since its world transform moved.
+     *
+     * @param slot          the slot index
+     * @param parent        the store of the parent or null, if the slot has no parent
+     * @param parentSlot    the slot of the parent
+     * @param parentChanged whether the world transform of the parent has been recomputed
+     * @return true if the world transform has been recomputed
+     */
+    public boolean propagate(int slot, TransformStore parent, int parentSlot, boolean parentChanged) {
+        boolean localChanged = versions[slot] > propagated[slot];
+        if (!localChanged && !parentChanged) return false;
+        //rotation is clockwise in degrees, like the rotation of sprites
+        float radians = (float) Math.toRadians(rotation[slot]);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float l00 = cos * scaleX[slot];
+        float l01 = -sin * scaleX[slot];
+        float l10 = sin * scaleY[slot];
+        float l11 = cos * scaleY[slot];
+        float l20 = x[slot];
+        float l21 = y[slot];
+        int i = slot * 6;
+        if (parent == null) {
+            world[i] = l00;
+            world[i + 1] = l01;
+            world[i + 2] = l10;
+            world[i + 3] = l11;
+            world[i + 4] = l20;
+            world[i + 5] = l21;
+            worldRotation[slot] = rotation[slot];
+            worldScaleX[slot] = scaleX[slot];
+            worldScaleY[slot] = scaleY[slot];
+        } else {
+            float[] p = parent.world;
+            int j = parentSlot * 6;
+            world[i] = p[j] * l00 + p[j + 2] * l01;
+            world[i + 1] = p[j + 1] * l00 + p[j + 3] * l01;
+            world[i + 2] = p[j] * l10 + p[j + 2] * l11;
+            world[i + 3] = p[j + 1] * l10 + p[j + 3] * l11;
+            world[i + 4] = p[j] * l20 + p[j + 2] * l21 + p[j + 4];
+            world[i + 5] = p[j + 1] * l20 + p[j + 3] * l21 + p[j + 5];
+            worldRotation[slot] = parent.worldRotation[parentSlot] + rotation[slot];
+            worldScaleX[slot] = parent.worldScaleX[parentSlot] * scaleX[slot];
+            worldScaleY[slot] = parent.worldScaleY[parentSlot] * scaleY[slot];
+        }
+        if (!localChanged) versions[slot]++;
+        propagated[slot] = versions[slot];
+        return true;
+    }
+
+    /**
+     * Copies a transform from another store, the version of the target slot is set past the source version.
+     *
+     * @param target     the target slot in this store
+     * @param source     the source store
+     * @param sourceSlot the slot in the source store
+     */
+    public void copy(int target, TransformStore source, int sourceSlot) {
+        ensureCapacity(target);
+        x[target] = source.x[sourceSlot];
+        y[target] = source.y[sourceSlot];
+        rotation[target] = source.rotation[sourceSlot];
+        scaleX[target] = source.scaleX[sourceSlot];
+        scaleY[target] = source.scaleY[sourceSlot];
+        versions[target] = source.versions[sourceSlot] + 1;
+        System.arraycopy(source.world, sourceSlot * 6, world, target * 6, 6);
+        worldRotation[target] = source.worldRotation[sourceSlot];
+        worldScaleX[target] = source.worldScaleX[sourceSlot];
+        worldScaleY[target] = source.worldScaleY[sourceSlot];
+        previousX[target] = source.previousX[sourceSlot];
+        previousY[target] = source.previousY[sourceSlot];
+        previousRotation[target] = source.previousRotation[sourceSlot];
+        //the slot may have been used by another gameObject before
+        propagated[target] = -1;
+    }
+
+}
@@ -0,0 +1,76 @@
+package ecs;
+
+import graphics.Camera;
+import scene.Scene;
+
+/**
+ * Decides how often a {@link Component} is updated.
+ * Components updated less often than every frame receive the time passed since their last update as delta time,
+ * and their updates are spread evenly across the frames, so not all of them run in the same frame.
+ *
+ * @see Component#setUpdatePolicy(UpdatePolicy)
+ */
+@FunctionalInterface
+public interface UpdatePolicy {
+
+    /**
+     * Updates the component every frame, the default
+     */
+    UpdatePolicy EVERY_FRAME = component -> 1;
+
+    /**
+     * Called after each update of the component, so the interval may change over time.
+     *
+     * @param component the component
+     * @return the amount of frames until the next update of the component, 1 to update it every frame
+     */
+    int interval(Component component);
+
+    /**
+     * @param frames the amount of frames between two updates, at least 1
+     * @return a policy updating components every n-th frame
+     */
+    static UpdatePolicy everyNFrames(int frames) {
+        if (frames < 1) throw new IllegalArgumentException("the interval has to be at least 1 frame");
+        return frames == 1 ? EVERY_FRAME : component -> frames;
+    }
+
+    /**
+     * Updates components less often the farther their gameObject is away from the position of the camera
+     * of its scene. The distances are the upper bounds of the tiers, gameObjects farther away than the last distance
+     * use the last interval. For example, distances {500, 2000} with intervals {1, 4, 30} update gameObjects
+     * within 500 units every frame, within 2000 units every 4th frame and all others every 30th frame.
+     *
+     * @param distances the ascending upper bounds of the tiers
+     * @param intervals the interval of each tier, one more than distances
+     * @return a policy updating components by their distance to the camera
+     */
+    static UpdatePolicy byDistance(float[] distances, int[] intervals) {
+        if (intervals.length != distances.length + 1)
+            throw new IllegalArgumentException("there has to be one interval more than distances");
+        float[] squared = new float[distances.length];
+        for (int i = 0; i < distances.length; i++) {
+            if (i > 0 && distances[i] < distances[i - 1])
+                throw new IllegalArgumentException("the distances have to be ascending");
+            squared[i] = distances[i] * distances[i];
+        }
+        int[] frames = intervals.clone();
+        for (int f : frames) {
+            if (f < 1) throw new IllegalArgumentException("the interval has to be at least 1 frame");
+        }
+        return component -> {
+            GameObject gameObject = component.gameObject;
+            Scene scene = gameObject == null ? null : gameObject.getParentScene();
+            Camera camera = scene == null || scene.camera() == null ? Camera.instance : scene.camera();
+            if (camera == null) return frames[0];
+            float dx = gameObject.getWorldX() - camera.position.x;
+            float dy = gameObject.getWorldY() - camera.position.y;
+            float distanceSquared = dx * dx + dy * dy;
+            for (int i = 0; i < squared.length; i++) {
+                if (distanceSquared <= squared[i]) return frames[i];
+            }
+            return frames[squared.length];
+        };
+    }
+
+}
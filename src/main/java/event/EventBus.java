@@ -0,0 +1,364 @@
+package event;
+
+import util.JobSystem;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches events to the listeners subscribed to their type.
+ * <p>
+ * Every event class gets a dense type id, the listeners are kept in copy-on-write arrays indexed by it,
+ * so dispatching neither locks nor allocates and subscribing during a dispatch does not affect it.
+ * Listeners are notified of events of exactly the type they subscribed to.
+ * <p>
+ * Events can be dispatched immediately with {@link #publish(EventData)} or queued with {@link #post(EventData)}
+ * and dispatched together once per frame by the game loop with {@link #dispatchQueued()}.
+ * {@link #postCoalesced(EventData)} replaces an event of the same type queued earlier in the frame,
+ * so bursts like window resizes result in a single dispatch.
+ * <p>
+ * Event data obtained from {@link #obtain(Class)} is pooled: it returns to its pool once it has been dispatched
+ * and all listeners have returned, so steady streams of events don't allocate.
+ * Listeners subscribed with {@link #subscribeAsync(Class, EventListener)} are run on worker threads,
+ * pooled events are only reused after they have finished as well.
+ *
+ * @see Events#bus()
+ */
+public final class EventBus {
+
+    private static final AtomicInteger typeCounter = new AtomicInteger();
+    private static final ClassValue<Integer> typeIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return typeCounter.getAndIncrement();
+        }
+    };
+
+    private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+    private static final int MAX_POOL_SIZE = 256;
+
+    //copy-on-write, indexed by type id, written under the lock of this bus
+    private volatile Subscriber[][] subscribers = new Subscriber[0][];
+    private volatile Pool[] pools = new Pool[0];
+
+    //events posted for the next dispatch, guarded by queueLock
+    private final Object queueLock = new Object();
+    private EventData[] queue = new EventData[64];
+    private int queueSize = 0;
+    //type id -> position in the queue + 1 of the coalesced event of the type, 0 if none
+    private int[] coalesced = new int[16];
+    //the events of the dispatch in progress, only accessed by the dispatching thread
+    private EventData[] dispatching = new EventData[64];
+
+    private final Executor asyncExecutor;
+
+    /**
+     * Creates an event bus running async listeners on the shared {@link JobSystem}.
+     */
+    public EventBus() {
+        this(null);
+    }
+
+    /**
+     * @param asyncExecutor the executor to run async listeners on, null for the shared {@link JobSystem}
+     */
+    public EventBus(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    /**
+     * @param type an event class
+     * @return the dense id of the event class
+     */
+    public static int typeId(Class<? extends EventData> type) {
+        return typeIds.get(type);
+    }
+
+    /**
+     * Subscribes a listener to all events of a type, it is notified on the thread dispatching the event.
+     *
+     * @param type     the event class
+     * @param listener the listener
+     * @param <T>      the type of events
+     */
+    public <T extends EventData> void subscribe(Class<T> type, EventListener<? super T> listener) {
+        add(type, new Subscriber(listener, false));
+    }
+
+    /**
+     * Subscribes a listener to all events of a type, it is notified on a worker thread.
+     * The order of async listeners relative to other listeners and to each other is not defined.
+     *
+     * @param type     the event class
+     * @param listener the listener, has to be thread-safe
+     * @param <T>      the type of events
+     */
+    public <T extends EventData> void subscribeAsync(Class<T> type, EventListener<? super T> listener) {
+        add(type, new Subscriber(listener, true));
+    }
+
+    /**
+     * Removes a listener from the listeners of a type.
+     *
+     * @param type     the event class
+     * @param listener the listener
+     * @return true if the listener was subscribed to the type
+     */
+    public synchronized boolean unsubscribe(Class<? extends EventData> type, EventListener<?> listener) {
+        int id = typeId(type);
+        Subscriber[][] all = subscribers;
+        if (id >= all.length || all[id] == null) return false;
+        Subscriber[] current = all[id];
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].listener == listener) {
+                Subscriber[] updated = new Subscriber[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                Subscriber[][] copy = all.clone();
+                copy[id] = updated;
+                subscribers = copy;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param type the event class
+     * @return the amount of listeners subscribed to the type
+     */
+    public int subscribers(Class<? extends EventData> type) {
+        return subscribersOf(typeId(type)).length;
+    }
+
+    /**
+     * Registers a pool for an event class, required before its events can be obtained.
+     *
+     * @param type    the event class
+     * @param factory creates new events, when the pool is empty
+     * @param <T>     the type of events
+     */
+    public synchronized <T extends EventData> void registerPool(Class<T> type, Supplier<T> factory) {
+        int id = typeId(type);
+        Pool[] updated = Arrays.copyOf(pools, Math.max(pools.length, id + 1));
+        updated[id] = new Pool(factory);
+        pools = updated;
+    }
+
+    /**
+     * Takes event data from the pool of its type, to be filled and published or posted.
+     *
+     * @param type the event class, its pool has to be registered
+     * @param <T>  the type of events
+     * @return the event data, its fields still hold the values of its last use
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends EventData> T obtain(Class<T> type) {
+        int id = typeId(type);
+        Pool[] all = pools;
+        if (id >= all.length || all[id] == null)
+            throw new IllegalArgumentException("no pool registered for " + type.getSimpleName());
+        T event = (T) all[id].obtain();
+        event.pooled = true;
+        event.resetReferences();
+        return event;
+    }
+
+    /**
+     * Dispatches an event to its listeners right away.
+     *
+     * @param event the event
+     */
+    public void publish(EventData event) {
+        dispatch(event);
+    }
+
+    /**
+     * Queues an event, it is dispatched with the next call of {@link #dispatchQueued()}.
+     * Events are dispatched in the order they were posted.
+     *
+     * @param event the event
+     */
+    public void post(EventData event) {
+        synchronized (queueLock) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Queues an event, replacing an event of the same type, which has been queued earlier with this method.
+     * The replaced event keeps its position in the queue.
+     *
+     * @param event the event
+     */
+    public void postCoalesced(EventData event) {
+        EventData replaced = null;
+        synchronized (queueLock) {
+            int id = typeId(event.getClass());
+            if (id >= coalesced.length) coalesced = Arrays.copyOf(coalesced, Math.max(coalesced.length * 2, id + 1));
+            int position = coalesced[id] - 1;
+            if (position >= 0) {
+                replaced = queue[position];
+                queue[position] = event;
+            } else {
+                enqueue(event);
+                coalesced[id] = queueSize;
+            }
+        }
+        if (replaced != null) release(replaced);
+    }
+
+    /**
+     * Dispatches all queued events, called by the game loop once per frame.
+     * Events posted by listeners meanwhile are dispatched with the next call.
+     * If a listener throws, the exception is passed on and the events not dispatched yet stay queued
+     * in front of the events posted meanwhile.
+     *
+     * @return the amount of dispatched events
+     */
+    public int dispatchQueued() {
+        EventData[] events;
+        int size;
+        synchronized (queueLock) {
+            if (queueSize == 0) return 0;
+            events = queue;
+            size = queueSize;
+            if (dispatching.length < queue.length) dispatching = new EventData[queue.length];
+            queue = dispatching;
+            queueSize = 0;
+            Arrays.fill(coalesced, 0);
+        }
+        int i = 0;
+        try {
+            for (; i < size; i++) {
+                EventData event = events[i];
+                events[i] = null;
+                dispatch(event);
+            }
+        } finally {
+            //the event at i has been dispatched to the listener which threw
+            if (i < size) requeue(events, i + 1, size);
+            dispatching = events;
+        }
+        return size;
+    }
+
+    /**
+     * @return the amount of queued events
+     */
+    public int queued() {
+        synchronized (queueLock) {
+            return queueSize;
+        }
+    }
+
+    //puts the events left over by a failed dispatch in front of the queue, the array is cleared to be reused
+    private void requeue(EventData[] events, int from, int to) {
+        int count = to - from;
+        if (count == 0) return;
+        synchronized (queueLock) {
+            if (queueSize + count > queue.length) queue = Arrays.copyOf(queue, Math.max(queue.length * 2, queueSize + count));
+            System.arraycopy(queue, 0, queue, count, queueSize);
+            System.arraycopy(events, from, queue, 0, count);
+            queueSize += count;
+            //the events coalesced meanwhile have moved back
+            for (int id = 0; id < coalesced.length; id++) {
+                if (coalesced[id] > 0) coalesced[id] += count;
+            }
+        }
+        Arrays.fill(events, from, to, null);
+    }
+
+    private void enqueue(EventData event) {
+        if (queueSize == queue.length) queue = Arrays.copyOf(queue, queueSize * 2);
+        queue[queueSize++] = event;
+    }
+
+    private synchronized void add(Class<? extends EventData> type, Subscriber subscriber) {
+        int id = typeId(type);
+        Subscriber[][] all = subscribers;
+        Subscriber[][] copy = Arrays.copyOf(all, Math.max(all.length, id + 1));
+        Subscriber[] current = copy[id] == null ? NO_SUBSCRIBERS : copy[id];
+        Subscriber[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscriber;
+        copy[id] = updated;
+        subscribers = copy;
+    }
+
+    private Subscriber[] subscribersOf(int id) {
+        Subscriber[][] all = subscribers;
+        return id < all.length && all[id] != null ? all[id] : NO_SUBSCRIBERS;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(EventData event) {
+        Subscriber[] current = subscribersOf(typeId(event.getClass()));
+        try {
+            for (Subscriber subscriber : current) {
+                EventListener listener = subscriber.listener;
+                if (subscriber.async) {
+                    if (event.pooled) event.retain();
+                    executor().execute(() -> {
+                        try {
+                            listener.onEvent(event);
+                        } finally {
+                            release(event);
+                        }
+                    });
+                } else {
+                    listener.onEvent(event);
+                }
+            }
+        } finally {
+            //the reference of the publisher
+            release(event);
+        }
+    }
+
+    private void release(EventData event) {
+        if (!event.pooled || !event.release()) return;
+        pools[typeId(event.getClass())].release(event);
+    }
+
+    private Executor executor() {
+        return asyncExecutor != null ? asyncExecutor : work -> JobSystem.shared().schedule("event listener", work);
+    }
+
+    private static final class Subscriber {
+
+        private final EventListener<?> listener;
+        private final boolean async;
+
+        Subscriber(EventListener<?> listener, boolean async) {
+            this.listener = listener;
+            this.async = async;
+        }
+    }
+
+    private static final class Pool {
+
+        private final Supplier<? extends EventData> factory;
+        private EventData[] free = new EventData[16];
+        private int size = 0;
+
+        Pool(Supplier<? extends EventData> factory) {
+            this.factory = factory;
+        }
+
+        synchronized EventData obtain() {
+            if (size == 0) return factory.get();
+            EventData event = free[--size];
+            free[size] = null;
+            return event;
+        }
+
+        synchronized void release(EventData event) {
+            if (size == MAX_POOL_SIZE) return;
+            if (size == free.length) free = Arrays.copyOf(free, size * 2);
+            free[size++] = event;
+        }
+    }
+
+}
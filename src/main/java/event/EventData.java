@@ -1,9 +1,37 @@
 package event;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 /**
  * A base class to be extended by classes that are going to function as Data for the Event System
+ * <p>
+ * Event data obtained from {@link EventBus#obtain(Class)} is pooled and reused once all listeners have been notified,
+ * so listeners must not keep a reference to it after returning.
  */
 public class EventData {
+
+    private static final AtomicIntegerFieldUpdater<EventData> REFERENCES =
+            AtomicIntegerFieldUpdater.newUpdater(EventData.class, "references");
+
+    //set for event data of a pool, returned to the pool when the references drop to zero
+    boolean pooled = false;
+    private volatile int references = 0;
+
+    void retain() {
+        REFERENCES.incrementAndGet(this);
+    }
+
+    /**
+     * @return true if the last reference has been released
+     */
+    boolean release() {
+        return REFERENCES.decrementAndGet(this) == 0;
+    }
+
+    void resetReferences() {
+        REFERENCES.set(this, 1);
+    }
+
     /**
      * Event Data for the Window Resized Event
      */
@@ -21,16 +49,29 @@ public class EventData {
      * Event Data for the Key Event
      */
     public static class KeyEventData extends EventData {
-        public final int keycode;
-        public final int scancode;
-        public final int action;
-        public final int modifiers;
+        public int keycode;
+        public int scancode;
+        public int action;
+        public int modifiers;
+
+        public KeyEventData() {
+        }
 
         public KeyEventData(int keycode, int scancode, int action, int modifiers) {
+            set(keycode, scancode, action, modifiers);
+        }
+
+        /**
+         * Fills pooled event data.
+         *
+         * @return this
+         */
+        public KeyEventData set(int keycode, int scancode, int action, int modifiers) {
             this.keycode = keycode;
             this.scancode = scancode;
             this.action = action;
             this.modifiers = modifiers;
+            return this;
         }
     }
 
@@ -38,12 +79,25 @@ public class EventData {
      * Event Data for the Mouse Scroll Event
      */
     public static class MouseScrollEventData extends EventData {
-        public final double xScroll;
-        public final double yScroll;
+        public double xScroll;
+        public double yScroll;
+
+        public MouseScrollEventData() {
+        }
 
         public MouseScrollEventData(double xScroll, double yScroll) {
+            set(xScroll, yScroll);
+        }
+
+        /**
+         * Fills pooled event data.
+         *
+         * @return this
+         */
+        public MouseScrollEventData set(double xScroll, double yScroll) {
             this.xScroll = xScroll;
             this.yScroll = yScroll;
+            return this;
         }
     }
 
@@ -51,14 +105,27 @@ public class EventData {
      * Event Data for the Mouse Button Event
      */
     public static class MouseButtonEventData extends EventData {
-        public final int button;
-        public final int action;
-        public final int modifiers;
+        public int button;
+        public int action;
+        public int modifiers;
+
+        public MouseButtonEventData() {
+        }
 
         public MouseButtonEventData(int button, int action, int modifiers) {
+            set(button, action, modifiers);
+        }
+
+        /**
+         * Fills pooled event data.
+         *
+         * @return this
+         */
+        public MouseButtonEventData set(int button, int action, int modifiers) {
             this.button = button;
             this.action = action;
             this.modifiers = modifiers;
+            return this;
         }
     }
 
@@ -1,20 +1,25 @@
 package event;
 
 /**
- * Collection of Event Nodes for various Events
+ * Access to the event bus of the engine, which dispatches window and input events
  *
  * @author VoxelRifts
+ * @see EventBus
  */
 public class Events {
-    public static EventNode<EventData.WindowResizeEventData> windowResizeEvent;
-    public static EventNode<EventData.KeyEventData> keyEvent;
-    public static EventNode<EventData.MouseScrollEventData> mouseScrollEvent;
-    public static EventNode<EventData.MouseButtonEventData> mouseButtonEvent;
+
+    private static final EventBus bus = new EventBus();
 
     static {
-        windowResizeEvent = new EventNode<>();
-        keyEvent = new EventNode<>();
-        mouseScrollEvent = new EventNode<>();
-        mouseButtonEvent = new EventNode<>();
+        bus.registerPool(EventData.KeyEventData.class, EventData.KeyEventData::new);
+        bus.registerPool(EventData.MouseScrollEventData.class, EventData.MouseScrollEventData::new);
+        bus.registerPool(EventData.MouseButtonEventData.class, EventData.MouseButtonEventData::new);
+    }
+
+    /**
+     * @return the event bus of the engine, its queued events are dispatched once per frame after polling the window events
+     */
+    public static EventBus bus() {
+        return bus;
     }
 }
@@ -4,6 +4,7 @@ import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.lwjgl.opengl.GL11;
+import util.Engine;
 import util.MathUtils;
 
 /**
@@ -119,7 +120,7 @@ public class Camera {
             aspectWidth = Window.getWidth();
             aspectHeight = Window.getHeight();
 
-            GL11.glViewport(0, 0, Window.getWidth(), Window.getHeight());
+            if (!Engine.isHeadless()) GL11.glViewport(0, 0, Window.getWidth(), Window.getHeight());
             projectionMatrix.ortho(0, Window.getWidth(), Window.getHeight(), 0, 0, 100f);
         } else if (mode == Mode.ASPECT_RATIO) {
 
@@ -134,7 +135,7 @@ public class Camera {
             viewportPosX = (int) (((float) Window.getWidth() / 2.0f) - (aspectWidth / 2.0f));
             viewportPosY = (int) (((float) Window.getHeight() / 2.0f) - (aspectHeight / 2.0f));
 
-            GL11.glViewport(viewportPosX, viewportPosY, (int) aspectWidth, (int) aspectHeight);
+            if (!Engine.isHeadless()) GL11.glViewport(viewportPosX, viewportPosY, (int) aspectWidth, (int) aspectHeight);
             projectionMatrix.ortho(0, worldSize.x, worldSize.y, 0, 0, 100f);
         }
 
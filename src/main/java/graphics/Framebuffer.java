@@ -35,7 +35,7 @@ public class Framebuffer {
     private static final List<Framebuffer> halfScreenSize = new ArrayList<>();
 
     static {
-        Events.windowResizeEvent.subscribe(Framebuffer::resizeAll);
+        Events.bus().subscribe(EventData.WindowResizeEventData.class, Framebuffer::resizeAll);
     }
 
     /**
@@ -353,6 +353,26 @@ public class Framebuffer {
         glDeleteFramebuffers(this.id);
     }
 
+    /**
+     * Deletes the framebuffer and stops resizing it with the window.
+     * The framebuffer must not be used afterwards.
+     */
+    public void release() {
+        if (!isDefault()) delete();
+        fbos.remove(this);
+        screenSize.remove(this);
+        halfScreenSize.remove(this);
+    }
+
+    /**
+     * @return the estimated video memory used by the attachments, 4 bytes per texel
+     */
+    public long memoryBytes() {
+        if (isDefault()) return 0;
+        int attachments = colorAttachmentTextures.size() + (depthAttachmentTexture != null ? 1 : 0);
+        return (long) width * height * 4 * attachments;
+    }
+
     /**
      * Get the width of this Framebuffer
      *
@@ -0,0 +1,154 @@
+package graphics;
+
+import util.Log;
+import util.safety.Preconditions;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lets any thread request OpenGL work, like texture uploads, buffer updates or deleting resources,
+ * which is then run on the main thread by the game loop.
+ * Worker threads can decode images, rasterize fonts or build vertex data and hand only the GL calls over to the main thread.
+ * <p>
+ * Submitting is lock-free and may happen from any amount of threads at once. The tasks run in the order they were submitted.
+ * Each frame, the game loop runs tasks until the frame budget is spent, the remaining ones are run with the next frames,
+ * so a burst of uploads doesn't cause a frame spike. Completion is reported through the returned futures.
+ * <p>
+ * The main thread must not wait for a future of this queue, since it is the one to complete it.
+ *
+ * @see Preconditions#ensureMainThread(String)
+ */
+public final class GLTaskQueue {
+
+    /**
+     * The default time per frame spent on running tasks, 2 milliseconds
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 2_000_000;
+
+    private static final GLTaskQueue instance = new GLTaskQueue();
+
+    private final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+    GLTaskQueue() {
+    }
+
+    /**
+     * @return the queue drained by the game loop
+     */
+    public static GLTaskQueue get() {
+        return instance;
+    }
+
+    /**
+     * Requests GL work to be run on the main thread.
+     *
+     * @param task the work, may only throw unchecked exceptions
+     * @return a future completed on the main thread after the task has run
+     */
+    public CompletableFuture<Void> submit(Runnable task) {
+        Preconditions.nonNull("task", task);
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Requests GL work producing a result to be run on the main thread, e.g. creating a texture.
+     *
+     * @param task the work, may only throw unchecked exceptions
+     * @param <T>  the type of result
+     * @return a future completed with the result on the main thread after the task has run
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        Preconditions.nonNull("task", task);
+        Task<T> t = new Task<>(task);
+        pending.incrementAndGet();
+        tasks.add(t);
+        return t.future;
+    }
+
+    /**
+     * Runs tasks until the frame budget is spent, called by the game loop once per frame.
+     * At least one task is run, if there is any, so the queue always makes progress.
+     *
+     * @return the amount of tasks run
+     */
+    public int drain() {
+        return drain(frameBudgetNanos);
+    }
+
+    /**
+     * Runs tasks until the given time budget is spent. Must be called on the main thread.
+     *
+     * @param budgetNanos the time to spend at most, the last task may exceed it
+     * @return the amount of tasks run
+     */
+    public int drain(long budgetNanos) {
+        Preconditions.ensureMainThread("GL task queue");
+        long start = System.nanoTime();
+        int count = 0;
+        Task<?> task;
+        while ((task = tasks.poll()) != null) {
+            pending.decrementAndGet();
+            task.run();
+            count++;
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+        return count;
+    }
+
+    /**
+     * Runs all pending tasks regardless of the budget, e.g. before shutting down.
+     *
+     * @return the amount of tasks run
+     */
+    public int drainAll() {
+        return drain(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the amount of tasks submitted, but not run yet
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * @param nanos the time per frame spent on running tasks
+     */
+    public void setFrameBudget(long nanos) {
+        if (nanos < 0) throw new IllegalArgumentException("the frame budget may not be negative");
+        this.frameBudgetNanos = nanos;
+    }
+
+    public long getFrameBudget() {
+        return frameBudgetNanos;
+    }
+
+    private static final class Task<T> {
+
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Task(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            try {
+                future.complete(work.get());
+            } catch (RuntimeException e) {
+                Log.warn("GL task failed: " + e.getMessage());
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package graphics;
+
+import graphics.renderer.FrameSnapshot;
+import scene.Scene;
+import util.Log;
+import util.TripleBuffer;
+
+/**
+ * Runs the simulation of the current scene on a thread of its own, while the main thread renders.
+ * For every rendered frame, the main thread hands over the frame time, the simulation thread updates the scene
+ * and captures a {@link FrameSnapshot}, which is drawn by the main thread with one of its next frames.
+ * So frame N+1 is simulated while frame N is drawn.
+ * <p>
+ * Before handing over the next frame, the main thread waits for the simulation to become {@link #awaitIdle() idle}.
+ * Everything else touching the scene on the main thread, like queued events, main-thread jobs and scene switches,
+ * runs at this barrier, so it never overlaps with the simulation.
+ *
+ * @see Window#setPipelined(boolean)
+ */
+final class SimulationThread implements Runnable {
+
+    private final Window window;
+    private final TripleBuffer<FrameSnapshot> snapshots = new TripleBuffer<>(FrameSnapshot::new);
+    private final Object lock = new Object();
+
+    private Thread thread;
+    //guarded by lock
+    private float pendingTime = 0;
+    private boolean pending = false;
+    private boolean running = false;
+    private boolean stopped = false;
+
+    private volatile Throwable failure = null;
+    private long frame = 0;
+
+    SimulationThread(Window window) {
+        this.window = window;
+    }
+
+    void start() {
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+        Log.info("simulation thread started");
+    }
+
+    /**
+     * Hands the time of a rendered frame over to the simulation.
+     *
+     * @param frameTime the frame time in seconds
+     */
+    void requestFrame(float frameTime) {
+        if (failure != null) throw new IllegalStateException("the simulation thread failed", failure);
+        synchronized (lock) {
+            pendingTime += frameTime;
+            pending = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the simulation has finished all frames handed over, so the scene can be changed safely.
+     */
+    void awaitIdle() {
+        synchronized (lock) {
+            try {
+                while ((pending || running) && failure == null && !stopped) lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) throw new IllegalStateException("the simulation thread failed", failure);
+    }
+
+    /**
+     * @return the most recently simulated frame
+     */
+    FrameSnapshot latest() {
+        return snapshots.acquire();
+    }
+
+    /**
+     * Stops the simulation after the current frame and waits for it.
+     */
+    void stop() {
+        synchronized (lock) {
+            stopped = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Log.info("simulation thread stopped");
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                float frameTime;
+                synchronized (lock) {
+                    while (!pending && !stopped) lock.wait();
+                    if (stopped) return;
+                    frameTime = pendingTime;
+                    pendingTime = 0;
+                    pending = false;
+                    running = true;
+                }
+                float alpha = window.simulateFrame(frameTime);
+                //scenes are only switched at the barrier, so this is the scene just simulated
+                Scene scene = window.currentScene();
+                scene.captureSnapshot(snapshots.back(), frame++, alpha);
+                snapshots.publish();
+                synchronized (lock) {
+                    running = false;
+                    lock.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            Log.fatal("simulation thread crashed: " + t.getMessage());
+            failure = t;
+        } finally {
+            synchronized (lock) {
+                running = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+}
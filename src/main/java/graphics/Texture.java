@@ -25,6 +25,9 @@ import static org.lwjgl.stb.STBImage.*;
  * @author VoxelRifts
  */
 public class Texture {
+
+    //the flip flag of stb is global, it must not change while another thread is loading an image
+    private static final Object stbLock = new Object();
     /**
      * Filepath of this texture.
      * If the instance is just a wrapper around an id (by using Texture.wrap()),
@@ -65,7 +68,36 @@ public class Texture {
      * @param filepath filepath of the texture
      */
     public Texture(String filepath) {
-        this.filepath = filepath;
+        this(decode(filepath));
+    }
+
+    /**
+     * Decodes an image file without uploading it, so it can be done on a worker thread.
+     *
+     * @param filepath filepath of the image
+     * @return the decoded pixels, to be uploaded with {@link #Texture(Pixels)}
+     */
+    public static Pixels decode(String filepath) {
+        // Load image using STB
+        IntBuffer width = BufferUtils.createIntBuffer(1);
+        IntBuffer height = BufferUtils.createIntBuffer(1);
+        IntBuffer channels = BufferUtils.createIntBuffer(1);
+        ByteBuffer image;
+        synchronized (stbLock) {
+            stbi_set_flip_vertically_on_load(true);
+            image = stbi_load(filepath, width, height, channels, 0);
+        }
+        return new Pixels(filepath, image, width.get(0), height.get(0), channels.get(0));
+    }
+
+    /**
+     * Uploads decoded pixels into a new texture and frees them.
+     * Has to be called on the main thread.
+     *
+     * @param pixels the pixels decoded by {@link #decode(String)}
+     */
+    public Texture(Pixels pixels) {
+        this.filepath = pixels.filepath;
 
         // generate texture on GPU
         textureID = glGenTextures();
@@ -83,33 +115,28 @@ public class Texture {
         // Also pixelate image when shrinking image
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
 
-        // Load image using STB
-        IntBuffer width = BufferUtils.createIntBuffer(1);
-        IntBuffer height = BufferUtils.createIntBuffer(1);
-        IntBuffer channels = BufferUtils.createIntBuffer(1);
-        stbi_set_flip_vertically_on_load(true);
-        ByteBuffer image = stbi_load(filepath, width, height, channels, 0);
+        ByteBuffer image = pixels.data;
 
         if (image != null) {
-            this.width = width.get(0);
-            this.height = height.get(0);
+            this.width = pixels.width;
+            this.height = pixels.height;
 
-            if (channels.get(0) == 3) {
+            if (pixels.channels == 3) {
                 // RGB
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, width.get(0), height.get(0), 0, GL_RGB, GL_UNSIGNED_BYTE, image);
-            } else if (channels.get(0) == 4) {
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, pixels.width, pixels.height, 0, GL_RGB, GL_UNSIGNED_BYTE, image);
+            } else if (pixels.channels == 4) {
                 // RGBA
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width.get(0), height.get(0), 0, GL_RGBA, GL_UNSIGNED_BYTE, image);
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, pixels.width, pixels.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image);
             } else {
-                Log.fatal("Graphics.Texture - Unknown number of channels \"" + channels.get(0) + "\".");
-                assert false : "[ERROR] Graphics.Texture - Unknown number of channels \"" + channels.get(0) + "\".";
+                Log.fatal("Graphics.Texture - Unknown number of channels \"" + pixels.channels + "\".");
+                assert false : "[ERROR] Graphics.Texture - Unknown number of channels \"" + pixels.channels + "\".";
             }
         } else {
             Log.fatal("Graphics.Texture - Could not load image \"" + filepath + "\".");
             assert false : "[ERROR] Graphics.Texture - Could not load image \"" + filepath + "\".";
         }
 
-        stbi_image_free(image);
+        pixels.free();
     }
 
     public Texture(int width, int height, TextureSpec spec) {
@@ -327,8 +354,10 @@ public class Texture {
             IntBuffer width = stack.mallocInt(1);
             IntBuffer height = stack.mallocInt(1);
 
-            stbi_set_flip_vertically_on_load(false);
-            image = stbi_load(path, width, height, comp, 4);
+            synchronized (stbLock) {
+                stbi_set_flip_vertically_on_load(false);
+                image = stbi_load(path, width, height, comp, 4);
+            }
             if (image == null) {
                 Log.fatal("failed to load image from \"" + path + "\"");
                 throw new RuntimeException("Failed to load image: " + path);
@@ -338,4 +367,47 @@ public class Texture {
         }
         return image;
     }
+
+    /**
+     * The pixels of an image decoded by {@link #decode(String)}, not uploaded yet.
+     */
+    public static final class Pixels {
+
+        private final String filepath;
+        private final ByteBuffer data;
+        private final int width, height, channels;
+        private boolean freed = false;
+
+        private Pixels(String filepath, ByteBuffer data, int width, int height, int channels) {
+            this.filepath = filepath;
+            this.data = data;
+            this.width = width;
+            this.height = height;
+            this.channels = channels;
+        }
+
+        /**
+         * @return false if the image could not be loaded
+         */
+        public boolean isValid() {
+            return data != null;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Frees the pixels without uploading them, uploading frees them as well. Freeing them again has no effect.
+         */
+        public void free() {
+            if (data == null || freed) return;
+            freed = true;
+            stbi_image_free(data);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import audio.AudioMaster;
 import event.EventData;
 import event.Events;
 import graphics.postprocess.PostProcessing;
+import input.Input;
 import input.Keyboard;
 import input.Mouse;
 import org.lwjgl.glfw.GLFWImage;
@@ -12,6 +13,8 @@ import org.lwjgl.opengl.GL;
 import scene.Scene;
 import scene.SceneManager;
 import util.Engine;
+import util.FixedTimestep;
+import util.JobSystem;
 import util.Log;
 
 import java.nio.ByteBuffer;
@@ -34,6 +37,11 @@ public class Window {
     private long frameCount = 0;
     private String title;
     private boolean sleeping = false;
+    private final boolean headless;
+    private volatile boolean closeRequested = false;
+    //null to update the gameObjects once per frame with the frame time
+    private FixedTimestep fixedTimestep = null;
+    private boolean pipelined = false;
 
     public static Window instance = null;
 
@@ -47,6 +55,7 @@ public class Window {
         height = pheight;
         title = ptitle;
         this.recalculateProjectionOnResize = recalculateProjectionOnResize;
+        this.headless = false;
 
         // create the sceneManager to be able to set a scene
         sceneManager = new SceneManager();
@@ -83,6 +92,7 @@ public class Window {
         Log.debug("video mode " + width + "/" + height);
         title = ptitle;
         this.recalculateProjectionOnResize = recalculateProjectionOnResize;
+        this.headless = false;
 
         // create the sceneManager to be able to set a scene
         sceneManager = new SceneManager();
@@ -123,6 +133,36 @@ public class Window {
         this(ptitle, false);
     }
 
+    //stand-in window of a headless engine, no GLFW or OpenGL calls are made
+    private Window(int pwidth, int pheight, float minSceneLighting) {
+        instance = this;
+
+        Log.debug("construct headless window instance (" + pwidth + ", " + pheight + ", " + minSceneLighting + ")");
+        videoMode = null;
+        width = pwidth;
+        height = pheight;
+        title = "headless";
+        this.recalculateProjectionOnResize = false;
+        this.headless = true;
+
+        sceneManager = new SceneManager();
+        sceneManager.setMinSceneLight(minSceneLighting);
+    }
+
+    /**
+     * Creates the stand-in window of a headless engine.
+     * It has no native window and no OpenGL context, it only holds the scene manager and the size seen by the scenes.
+     *
+     * @param width            the width returned by {@link #getWidth()}
+     * @param height           the height returned by {@link #getHeight()}
+     * @param minSceneLighting float from 0-1 indicating the minimum scene light level
+     * @return the window
+     * @see Engine#initHeadless(int, int, float)
+     */
+    public static Window headless(int width, int height, float minSceneLighting) {
+        return new Window(width, height, minSceneLighting);
+    }
+
     private void initWindow(int width, int height, String title, long monitor) {
         // Create window
         Log.info("creating window");
@@ -160,7 +200,8 @@ public class Window {
 
             if (recalculateProjectionOnResize && currentScene().camera() != null)
                 currentScene().camera().adjustProjection();
-            Events.windowResizeEvent.onEvent(new EventData.WindowResizeEventData(newWidth, newHeight));
+            //dragging the window resizes it many times per frame, the framebuffers are resized just once
+            Events.bus().postCoalesced(new EventData.WindowResizeEventData(newWidth, newHeight));
 
         });
 
@@ -172,6 +213,7 @@ public class Window {
 
     public float getFPS() {
         float fps = 1 / Engine.deltaTime();
+        if (headless) return fps;
         glfwSetWindowTitle(glfwWindow, title + " @ " + (int) fps + " FPS");
         return fps;
     }
@@ -194,10 +236,116 @@ public class Window {
 
     public void setTitle(String title) {
         this.title = title;
-        glfwSetWindowTitle(glfwWindow, title);
+        if (!headless) glfwSetWindowTitle(glfwWindow, title);
+    }
+
+    /**
+     * @return true if this is the stand-in window of a headless engine
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Requests the game loop to end after the current frame.
+     */
+    public void close() {
+        if (headless) closeRequested = true;
+        else glfwSetWindowShouldClose(glfwWindow, true);
+    }
+
+    /**
+     * Simulates the gameObjects with a fixed timestep instead of once per frame.
+     * The scene itself is still updated once per frame, so input is handled exactly once.
+     * During the simulation steps, {@link Engine#deltaTime()} returns the step size.
+     *
+     * @param fixedTimestep the timestep or null to update the gameObjects once per frame again
+     */
+    public void setFixedTimestep(FixedTimestep fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+    }
+
+    /**
+     * @return the timestep or null, if the gameObjects are updated once per frame
+     */
+    public FixedTimestep getFixedTimestep() {
+        return fixedTimestep;
+    }
+
+    /**
+     * Runs the simulation on a thread of its own, overlapping the simulation of the next frame with rendering the current one.
+     * The scene and its gameObjects are updated on the simulation thread and the built-in renderers draw
+     * {@link graphics.renderer.FrameSnapshot}s captured after each simulated frame. Has to be set before the window is shown.
+     * <p>
+     * Code run by the simulation, like scene and component updates, must not call OpenGL then.
+     * Custom renderers have to capture their data in {@link graphics.renderer.Renderer#capture(graphics.renderer.FrameSnapshot)}.
+     * UI elements and texts are updated on the simulation thread as well and drawn from the snapshot, debug rendering is skipped.
+     * <p>
+     * Queued events, main-thread jobs, preloads and scene switches still run on the main thread, but only between frames
+     * while the simulation waits, so they may change the scene like in a single-threaded game loop.
+     * Switching scenes on the simulation thread is deferred to this point.
+     *
+     * @param pipelined true to simulate on a thread of its own
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * Runs a single frame of the current scene without rendering.
+     * Used by the game loop of headless engines, but may also be called directly to step a scene manually.
+     *
+     * @param dt the delta time of the frame in seconds
+     */
+    public void step(float dt) {
+        Engine.updateDeltaTime(dt);
+        Events.bus().dispatchQueued();
+        JobSystem.runMainThreadJobs();
+        sceneManager.advancePreloads();
+        sceneManager.applyPendingSwitch();
+        if (currentScene() != null && currentScene().isActive()) {
+            Input.poll();
+            sceneManager.update();
+            simulate(dt);
+        }
+    }
+
+    //updates the scene and its gameObjects on the simulation thread and returns the interpolation alpha for rendering it
+    float simulateFrame(float frameTime) {
+        Engine.updateDeltaTime(frameTime);
+        if (!currentScene().isActive()) return 1.0f;
+        Input.poll();
+        sceneManager.update();
+        float alpha = simulate(frameTime);
+        //the ui reacts to the input applied above and is drawn from the snapshot captured next
+        sceneManager.updateUI();
+        return alpha;
+    }
+
+    //updates the gameObjects for a frame and returns the interpolation alpha for rendering it
+    private float simulate(float frameTime) {
+        if (fixedTimestep == null) {
+            sceneManager.updateGameObjects();
+            return 1.0f;
+        }
+        int steps = fixedTimestep.advance(frameTime);
+        Engine.updateDeltaTime(fixedTimestep.stepSize());
+        for (int i = 0; i < steps; i++) {
+            sceneManager.updateGameObjects();
+        }
+        Engine.updateDeltaTime(frameTime);
+        return fixedTimestep.alpha();
     }
 
     public void showWindow() {
+        if (headless) {
+            runHeadless();
+            return;
+        }
         /*
          * scenes.Main game loop
          */
@@ -213,25 +361,51 @@ public class Window {
         Log.info("enabling scene");
         sceneManager.enable();
 
+        SimulationThread simulation = null;
+        if (pipelined) {
+            simulation = new SimulationThread(this);
+            simulation.start();
+        }
+
         Log.info("starting game loop");
         while (!glfwWindowShouldClose(glfwWindow)) {
             frameEndTime = glfwGetTime();
-            Engine.updateDeltaTime((float) (frameEndTime - frameBeginTime));
+            float frameTime = (float) (frameEndTime - frameBeginTime);
+            //the simulation thread owns the delta time, if there is one
+            if (simulation == null) Engine.updateDeltaTime(frameTime);
             frameBeginTime = frameEndTime;
 
             glfwPollEvents();
-
-            if (!sleeping && currentScene().isActive()) {
-                Mouse.update();
+            //the barrier of the pipeline, nothing below may overlap with the simulation of the last frame
+            if (simulation != null) simulation.awaitIdle();
+            Events.bus().dispatchQueued();
+            JobSystem.runMainThreadJobs();
+            GLTaskQueue.get().drain();
+            sceneManager.advancePreloads();
+            boolean switched = sceneManager.applyPendingSwitch();
+            Scene scene = currentScene();
+
+            //a suspended scene is drawn again once its renderers have been restored
+            if (!sleeping && scene.isActive() && !scene.isSuspended()) {
                 AudioMaster.get().update(getFPS());
-                sceneManager.update();
-                sceneManager.updateGameObjects();
-                sceneManager.render();
+                if (simulation != null) {
+                    simulation.requestFrame(frameTime);
+                    //the snapshots of the previous scene can not be drawn by the new one
+                    if (switched) simulation.awaitIdle();
+                    sceneManager.render(simulation.latest());
+                } else {
+                    Input.poll();
+                    sceneManager.update();
+                    float alpha = simulate(Engine.deltaTime());
+                    sceneManager.render(alpha);
+                }
                 PostProcessing.prepare();
-                sceneManager.postProcess(currentScene().renderer.fetchColorAttachment(0));
+                sceneManager.postProcess(scene.renderer.fetchColorAttachment(0));
                 PostProcessing.finish();
-                sceneManager.updateUI();
-                sceneManager.debugRender();
+                if (simulation == null) sceneManager.updateUI();
+                sceneManager.renderUI();
+                //colliders are modified by the simulation thread while it runs
+                if (simulation == null) sceneManager.debugRender();
             }
             glfwSwapBuffers(glfwWindow);
             getFPS();
@@ -239,6 +413,9 @@ public class Window {
         }
 
         Log.debug("shutting down");
+        if (simulation != null) simulation.stop();
+        //pending uploads and deletions still have to happen before the context is gone
+        GLTaskQueue.get().drainAll();
 
         currentScene().clean();
         // Delete all framebuffers
@@ -255,6 +432,23 @@ public class Window {
 
     }
 
+    //game loop of headless engines, stepping as fast as possible until the window is closed
+    private void runHeadless() {
+        Log.info("enabling scene");
+        sceneManager.enableIfNeeded();
+
+        Log.info("starting headless game loop");
+        long frameBeginTime = System.nanoTime();
+        while (!closeRequested && Engine.isRunning()) {
+            long frameEndTime = System.nanoTime();
+            step((frameEndTime - frameBeginTime) / 1e9f);
+            frameBeginTime = frameEndTime;
+        }
+
+        Log.info("headless window closed");
+        Engine.getInstance().windowStopped();
+    }
+
     public Scene currentScene() {
         return sceneManager.currentScene();
     }
@@ -268,6 +462,7 @@ public class Window {
     }
 
     public void setIcon(String path) {
+        if (headless) return;
         Texture icon = new Texture(path);
         GLFWImage image = GLFWImage.malloc();
         GLFWImage.Buffer buffer = GLFWImage.malloc(1);
@@ -278,4 +473,4 @@ public class Window {
         buffer.free();
         image.free();
     }
-}
\ No newline at end of file
+}
@@ -58,6 +58,14 @@ public abstract class PostProcessStep {
         framebuffer = createFramebuffer();
     }
 
+    /**
+     * Deletes the framebuffer of this step, {@link #init()} creates a new one.
+     */
+    public void release() {
+        if (framebuffer != null) framebuffer.release();
+        framebuffer = null;
+    }
+
     /**
      * Run this Step
      *
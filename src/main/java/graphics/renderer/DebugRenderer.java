@@ -8,6 +8,7 @@ import graphics.Shader;
 import graphics.ShaderDatatype;
 import util.Assets;
 import util.Engine;
+import util.HandleMap;
 import util.debug.DebugLine;
 import util.debug.DebugPrimitive;
 
@@ -24,10 +25,11 @@ import static org.lwjgl.opengl.GL11.glLineWidth;
  * data in general. Only supports rendering lines.
  */
 public class DebugRenderer extends Renderer {
-    private final List<DebugLine> lines;
+    //the lines of each gameObject, keyed by the handles of the gameObjects
+    private final HandleMap<DebugLine[]> lines;
 
     public DebugRenderer() {
-        this.lines = new ArrayList<>();
+        this.lines = new HandleMap<>();
     }
 
     /**
@@ -76,14 +78,16 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
-        for (DebugLine line : lines) {
-            RenderBatch batch = getAvailableBatch(null, 0);
+        for (DebugLine[] gameObjectLines : lines.values()) {
+            for (DebugLine line : gameObjectLines) {
+                RenderBatch batch = getAvailableBatch(null, 0);
 
-            batch.pushVec2(line.start);
-            batch.pushColor(line.color);
+                batch.pushVec2(line.start);
+                batch.pushColor(line.color);
 
-            batch.pushVec2(line.end);
-            batch.pushColor(line.color);
+                batch.pushVec2(line.end);
+                batch.pushColor(line.color);
+            }
         }
     }
 
@@ -102,14 +106,19 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     public void add(GameObject gameObject) {
-        for (Component c : gameObject.getComponents()) {
-            DebugPrimitive[] primitives = c.debug();
+        List<DebugLine> gameObjectLines = null;
+        List<Component> components = gameObject.getComponents();
+        for (int i = 0; i < components.size(); i++) {
+            DebugPrimitive[] primitives = components.get(i).debug();
             if (primitives != null) {
+                if (gameObjectLines == null) gameObjectLines = new ArrayList<>();
                 for (DebugPrimitive primitive : primitives) {
-                    Collections.addAll(lines, primitive.getLines());
+                    Collections.addAll(gameObjectLines, primitive.getLines());
                 }
             }
         }
+        if (gameObjectLines == null || gameObjectLines.isEmpty()) lines.remove(gameObject.handle());
+        else lines.put(gameObject.handle(), gameObjectLines.toArray(new DebugLine[0]));
     }
 
     /**
@@ -119,13 +128,6 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     public void remove(GameObject gameObject) {
-        for (Component c : gameObject.getComponents()) {
-            DebugPrimitive[] primitives = c.debug();
-            if (primitives != null)
-                for (DebugPrimitive primitive : primitives) {
-                    for (DebugLine line : primitive.getLines())
-                        lines.remove(line);
-                }
-        }
+        lines.remove(gameObject.handle());
     }
 }
@@ -4,14 +4,14 @@ import ecs.GameObject;
 import ecs.SpriteRenderer;
 import graphics.*;
 import org.joml.Vector2f;
+import org.joml.Vector4f;
 import util.Assets;
 import util.Engine;
+import util.HandleMap;
 import util.MathUtils;
 import util.Transform;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * 
@@ -21,10 +21,11 @@ import java.util.List;
 public class DefaultRenderer extends Renderer {
     private static final int MAX_BATCH_SIZE = 1000;
 
-    private final List<SpriteRenderer> sprites;
+    //keyed by the handles of the gameObjects, so removal is constant time
+    private final HandleMap<SpriteRenderer> sprites;
 
     public DefaultRenderer() {
-        sprites = new ArrayList<>();
+        sprites = new HandleMap<>();
     }
 
     /**
@@ -79,12 +80,21 @@ public class DefaultRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
-        for (SpriteRenderer sprite : sprites) {
+        if (snapshot != null) {
+            rebufferSnapshot();
+            return;
+        }
+        for (SpriteRenderer sprite : sprites.values()) {
             RenderBatch batch = getAvailableBatch(sprite.getTexture(), sprite.gameObject.zIndex());
 
-            Vector2f pos = sprite.gameObject.getReadOnlyPosition();
-            Vector2f scale = sprite.getSize();
+            float x = sprite.gameObject.getInterpolatedX(interpolationAlpha);
+            float y = sprite.gameObject.getInterpolatedY(interpolationAlpha);
+            Vector2f size = sprite.getSize();
+            float scaleX = size.x * sprite.gameObject.getWorldScaleX();
+            float scaleY = size.y * sprite.gameObject.getWorldScaleY();
+            float rotation = sprite.gameObject.getInterpolatedRotation(interpolationAlpha);
             Vector2f[] textureCoordinates = sprite.getTexCoords();
+            Vector4f color = sprite.getColorVector();
 
             int textureID;
             if (sprite.getTexture() != null) textureID = batch.addTexture(sprite.getTexture());
@@ -100,20 +110,78 @@ public class DefaultRenderer extends Renderer {
                     case 3: yAdd = 1.0f; break;
                 }
 
-                float shiftedX = ((xAdd - 0.5f) * scale.x);
-                float shiftedY = ((yAdd - 0.5f) * scale.y);
-                float rotatedX = shiftedX * (float)Math.cos(sprite.rotation * 0.01745329251f) + shiftedY * (float)Math.sin(sprite.rotation * 0.01745329251f);
-                float rotatedY = -shiftedX * (float)Math.sin(sprite.rotation * 0.01745329251f) + shiftedY * (float)Math.cos(sprite.rotation * 0.01745329251f);
+                float shiftedX = ((xAdd - 0.5f) * scaleX);
+                float shiftedY = ((yAdd - 0.5f) * scaleY);
+                float rotatedX = shiftedX * (float)Math.cos(rotation * 0.01745329251f) + shiftedY * (float)Math.sin(rotation * 0.01745329251f);
+                float rotatedY = -shiftedX * (float)Math.sin(rotation * 0.01745329251f) + shiftedY * (float)Math.cos(rotation * 0.01745329251f);
 
 
-                batch.pushVec2(pos.x + rotatedX, pos.y + rotatedY);
-                batch.pushColor(sprite.getColor());
+                batch.pushVec2(x + rotatedX, y + rotatedY);
+                batch.pushVec4(color);
                 batch.pushVec2(textureCoordinates[i]);
                 batch.pushInt(textureID);
             }
         }
     }
 
+    //same as above, but reading the sprites captured by the simulation thread
+    private void rebufferSnapshot() {
+        for (int s = 0; s < snapshot.spriteCount(); s++) {
+            Texture texture = snapshot.texture(s);
+            RenderBatch batch = getAvailableBatch(texture, snapshot.zIndex(s));
+
+            float x = snapshot.sprite(s, 0);
+            float y = snapshot.sprite(s, 1);
+            float scaleX = snapshot.sprite(s, 2);
+            float scaleY = snapshot.sprite(s, 3);
+            float rotation = snapshot.sprite(s, 4);
+            float cos = (float) Math.cos(rotation * 0.01745329251f);
+            float sin = (float) Math.sin(rotation * 0.01745329251f);
+
+            int textureID;
+            if (texture != null) textureID = batch.addTexture(texture);
+            else textureID = 0;
+
+            float xAdd = 1.0f;
+            float yAdd = 1.0f;
+            for (int i = 0; i < 4; i++) {
+                switch (i) {
+                    case 1: yAdd = 0.0f; break;
+                    case 2: xAdd = 0.0f; break;
+                    case 3: yAdd = 1.0f; break;
+                }
+
+                float shiftedX = ((xAdd - 0.5f) * scaleX);
+                float shiftedY = ((yAdd - 0.5f) * scaleY);
+
+                batch.pushVec2(x + shiftedX * cos + shiftedY * sin, y - shiftedX * sin + shiftedY * cos);
+                batch.pushVec4(snapshot.sprite(s, FrameSnapshot.SPRITE_COLOR), snapshot.sprite(s, FrameSnapshot.SPRITE_COLOR + 1),
+                        snapshot.sprite(s, FrameSnapshot.SPRITE_COLOR + 2), snapshot.sprite(s, FrameSnapshot.SPRITE_COLOR + 3));
+                batch.pushVec2(snapshot.sprite(s, FrameSnapshot.SPRITE_UV + i * 2), snapshot.sprite(s, FrameSnapshot.SPRITE_UV + i * 2 + 1));
+                batch.pushInt(textureID);
+            }
+        }
+    }
+
+    /**
+     * Copy the interpolated transforms, colors and texture coordinates of all sprites into a snapshot
+     *
+     * @param snapshot the snapshot to write to
+     */
+    @Override
+    public void capture(FrameSnapshot snapshot) {
+        for (SpriteRenderer sprite : sprites.values()) {
+            Vector2f size = sprite.getSize();
+            snapshot.addSprite(
+                    sprite.gameObject.getInterpolatedX(interpolationAlpha),
+                    sprite.gameObject.getInterpolatedY(interpolationAlpha),
+                    size.x * sprite.gameObject.getWorldScaleX(),
+                    size.y * sprite.gameObject.getWorldScaleY(),
+                    sprite.gameObject.getInterpolatedRotation(interpolationAlpha),
+                    sprite.getColorVector(), sprite.getTexCoords(), sprite.getTexture(), sprite.gameObject.zIndex());
+        }
+    }
+
     /**
      * Add a gameObject to this renderer
      *
@@ -123,7 +191,7 @@ public class DefaultRenderer extends Renderer {
     public void add(GameObject gameObject) {
         SpriteRenderer spr = gameObject.getComponent(SpriteRenderer.class);
         if (spr != null) {
-            sprites.add(spr);
+            sprites.put(gameObject.handle(), spr);
         }
     }
 
@@ -134,10 +202,7 @@ public class DefaultRenderer extends Renderer {
      */
     @Override
     public void remove(GameObject gameObject) {
-        SpriteRenderer spr = gameObject.getComponent(SpriteRenderer.class);
-        if (spr != null) {
-            sprites.remove(spr);
-        }
+        sprites.remove(gameObject.handle());
     }
 
     /**
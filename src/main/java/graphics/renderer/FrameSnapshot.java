@@ -0,0 +1,275 @@
+package graphics.renderer;
+
+import graphics.Texture;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.Arrays;
+
+/**
+ * Everything the built-in renderers need to draw a frame, copied out of the scene at the end of a simulation step,
+ * including the ui elements and texts drawn on top of it.
+ * While the simulation thread computes the next step, the render thread batches and draws the previous snapshot,
+ * without reading any gameObject or component.
+ * <p>
+ * The data is stored in flat arrays reused from frame to frame, so capturing a snapshot does not allocate once the arrays are large enough.
+ * A snapshot is written by the simulation thread only before it is published and read by the render thread only after it has been acquired,
+ * it is never accessed by both at the same time.
+ *
+ * @see util.TripleBuffer
+ * @see Renderer#capture(FrameSnapshot)
+ */
+public final class FrameSnapshot {
+
+    //x, y, width, height, rotation, color (4), texture coordinates (8)
+    static final int SPRITE_STRIDE = 17;
+    static final int SPRITE_COLOR = 5;
+    static final int SPRITE_UV = 9;
+    //x, y, color (3), intensity
+    static final int LIGHT_STRIDE = 6;
+    //x, y, width, height, color (4), texture coordinates (8), sticky
+    static final int QUAD_STRIDE = 17;
+    static final int QUAD_COLOR = 4;
+    static final int QUAD_UV = 8;
+    static final int QUAD_STICKY = 16;
+
+    private float[] sprites = new float[SPRITE_STRIDE * 64];
+    private Texture[] textures = new Texture[64];
+    private int[] zIndices = new int[64];
+    private int spriteCount = 0;
+
+    private float[] lights = new float[LIGHT_STRIDE * 10];
+    private int lightCount = 0;
+
+    //the ui elements and the glyphs of texts, drawn on top of the scene
+    private final Quads ui = new Quads();
+    private final Quads glyphs = new Quads();
+
+    private long frame = -1;
+
+    /**
+     * Removes all data, called before a new frame is captured.
+     *
+     * @param frame the number of the frame captured next
+     */
+    public void clear(long frame) {
+        //drop the references, so unused textures can be collected
+        Arrays.fill(textures, 0, spriteCount, null);
+        spriteCount = 0;
+        lightCount = 0;
+        ui.clear();
+        glyphs.clear();
+        this.frame = frame;
+    }
+
+    /**
+     * @return the number of the captured frame or -1, if nothing has been captured yet
+     */
+    public long frame() {
+        return frame;
+    }
+
+    /**
+     * Adds a sprite to the snapshot.
+     *
+     * @param x                  the x coordinate of the center in the world
+     * @param y                  the y coordinate of the center in the world
+     * @param width              the width in the world
+     * @param height             the height in the world
+     * @param rotation           the rotation in degrees
+     * @param color              the normalized color
+     * @param textureCoordinates the four texture coordinates
+     * @param texture            the texture or null
+     * @param zIndex             the z index of the gameObject
+     */
+    public void addSprite(float x, float y, float width, float height, float rotation, Vector4f color,
+                          Vector2f[] textureCoordinates, Texture texture, int zIndex) {
+        if (spriteCount == textures.length) {
+            int capacity = spriteCount * 2;
+            sprites = Arrays.copyOf(sprites, capacity * SPRITE_STRIDE);
+            textures = Arrays.copyOf(textures, capacity);
+            zIndices = Arrays.copyOf(zIndices, capacity);
+        }
+        int i = spriteCount * SPRITE_STRIDE;
+        sprites[i] = x;
+        sprites[i + 1] = y;
+        sprites[i + 2] = width;
+        sprites[i + 3] = height;
+        sprites[i + 4] = rotation;
+        sprites[i + SPRITE_COLOR] = color.x;
+        sprites[i + SPRITE_COLOR + 1] = color.y;
+        sprites[i + SPRITE_COLOR + 2] = color.z;
+        sprites[i + SPRITE_COLOR + 3] = color.w;
+        for (int v = 0; v < 4; v++) {
+            sprites[i + SPRITE_UV + v * 2] = textureCoordinates[v].x;
+            sprites[i + SPRITE_UV + v * 2 + 1] = textureCoordinates[v].y;
+        }
+        textures[spriteCount] = texture;
+        zIndices[spriteCount] = zIndex;
+        spriteCount++;
+    }
+
+    /**
+     * Adds a point light to the snapshot.
+     *
+     * @param x         the x coordinate in the world
+     * @param y         the y coordinate in the world
+     * @param color     the normalized color
+     * @param intensity the intensity
+     */
+    public void addLight(float x, float y, Vector3f color, float intensity) {
+        if ((lightCount + 1) * LIGHT_STRIDE > lights.length) lights = Arrays.copyOf(lights, lights.length * 2);
+        int i = lightCount * LIGHT_STRIDE;
+        lights[i] = x;
+        lights[i + 1] = y;
+        lights[i + 2] = color.x;
+        lights[i + 3] = color.y;
+        lights[i + 4] = color.z;
+        lights[i + 5] = intensity;
+        lightCount++;
+    }
+
+    /**
+     * Adds a quad of an ui element to the snapshot.
+     *
+     * @param x                  the x coordinate of the lower left corner
+     * @param y                  the y coordinate of the lower left corner
+     * @param width              the width
+     * @param height             the height
+     * @param color              the normalized color
+     * @param textureCoordinates the four texture coordinates
+     * @param texture            the texture or null
+     * @param zIndex             the z index of the element
+     */
+    public void addUiQuad(float x, float y, float width, float height, Vector4f color,
+                          Vector2f[] textureCoordinates, Texture texture, int zIndex) {
+        ui.add(x, y, width, height, color, textureCoordinates, texture, zIndex, false);
+    }
+
+    /**
+     * Adds a glyph of a text to the snapshot.
+     *
+     * @param x                  the x coordinate of the lower left corner
+     * @param y                  the y coordinate of the lower left corner
+     * @param width              the width
+     * @param height             the height
+     * @param color              the normalized color
+     * @param textureCoordinates the four texture coordinates
+     * @param texture            the texture of the font or null
+     * @param zIndex             the z index of the text
+     * @param sticky             whether the glyph sticks to the screen instead of moving with the camera
+     */
+    public void addGlyph(float x, float y, float width, float height, Vector4f color,
+                         Vector2f[] textureCoordinates, Texture texture, int zIndex, boolean sticky) {
+        glyphs.add(x, y, width, height, color, textureCoordinates, texture, zIndex, sticky);
+    }
+
+    public int spriteCount() {
+        return spriteCount;
+    }
+
+    public int lightCount() {
+        return lightCount;
+    }
+
+    /**
+     * @param sprite  the index of the sprite
+     * @param element the element within the sprite, see the offsets above
+     * @return the value of the element
+     */
+    float sprite(int sprite, int element) {
+        return sprites[sprite * SPRITE_STRIDE + element];
+    }
+
+    Texture texture(int sprite) {
+        return textures[sprite];
+    }
+
+    int zIndex(int sprite) {
+        return zIndices[sprite];
+    }
+
+    /**
+     * @param light   the index of the light
+     * @param element the element within the light, see the offsets above
+     * @return the value of the element
+     */
+    float light(int light, int element) {
+        return lights[light * LIGHT_STRIDE + element];
+    }
+
+    Quads ui() {
+        return ui;
+    }
+
+    Quads glyphs() {
+        return glyphs;
+    }
+
+    /**
+     * Screen quads stored like the sprites, in flat arrays reused from frame to frame.
+     */
+    static final class Quads {
+
+        private float[] quads = new float[QUAD_STRIDE * 64];
+        private Texture[] textures = new Texture[64];
+        private int[] zIndices = new int[64];
+        private int count = 0;
+
+        void add(float x, float y, float width, float height, Vector4f color,
+                 Vector2f[] textureCoordinates, Texture texture, int zIndex, boolean sticky) {
+            if (count == textures.length) {
+                int capacity = count * 2;
+                quads = Arrays.copyOf(quads, capacity * QUAD_STRIDE);
+                textures = Arrays.copyOf(textures, capacity);
+                zIndices = Arrays.copyOf(zIndices, capacity);
+            }
+            int i = count * QUAD_STRIDE;
+            quads[i] = x;
+            quads[i + 1] = y;
+            quads[i + 2] = width;
+            quads[i + 3] = height;
+            quads[i + QUAD_COLOR] = color.x;
+            quads[i + QUAD_COLOR + 1] = color.y;
+            quads[i + QUAD_COLOR + 2] = color.z;
+            quads[i + QUAD_COLOR + 3] = color.w;
+            for (int v = 0; v < 4; v++) {
+                quads[i + QUAD_UV + v * 2] = textureCoordinates[v].x;
+                quads[i + QUAD_UV + v * 2 + 1] = textureCoordinates[v].y;
+            }
+            quads[i + QUAD_STICKY] = sticky ? 1 : 0;
+            textures[count] = texture;
+            zIndices[count] = zIndex;
+            count++;
+        }
+
+        void clear() {
+            Arrays.fill(textures, 0, count, null);
+            count = 0;
+        }
+
+        int count() {
+            return count;
+        }
+
+        /**
+         * @param quad    the index of the quad
+         * @param element the element within the quad, see the offsets above
+         * @return the value of the element
+         */
+        float get(int quad, int element) {
+            return quads[quad * QUAD_STRIDE + element];
+        }
+
+        Texture texture(int quad) {
+            return textures[quad];
+        }
+
+        int zIndex(int quad) {
+            return zIndices[quad];
+        }
+
+    }
+
+}
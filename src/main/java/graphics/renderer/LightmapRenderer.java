@@ -7,17 +7,17 @@ import org.joml.Vector2f;
 import org.joml.Vector3f;
 import util.Assets;
 import util.Engine;
+import util.HandleMap;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class LightmapRenderer extends Renderer {
     // The light data
-    private final List<PointLight> lights;
+    private final HandleMap<PointLight> lights;
     private RenderBatch batch;
 
     public LightmapRenderer() {
-        lights = new ArrayList<>();
+        lights = new HandleMap<>();
         noRebuffer = true;
     }
 
@@ -80,22 +80,47 @@ public class LightmapRenderer extends Renderer {
         shader.uploadVec2f("uCameraOffset", Engine.window().currentScene().camera().getPosition());
 
         // Set lighting uniforms
-        Vector2f[] lightPositions = new Vector2f[lights.size()];
-        Vector3f[] lightColors = new Vector3f[lights.size()];
-        float[] lightIntensities = new float[lights.size()];
-
-        for (int i = 0; i < lights.size(); i++) {
-            PointLight light = lights.get(i);
-            lightPositions[i] = new Vector2f(light.gameObject.getPositionData()[0], light.gameObject.getPositionData()[1]);
-            lightColors[i] = light.color;
-            lightIntensities[i] = light.intensity;
+        int count = snapshot != null ? snapshot.lightCount() : lights.size();
+        Vector2f[] lightPositions = new Vector2f[count];
+        Vector3f[] lightColors = new Vector3f[count];
+        float[] lightIntensities = new float[count];
+
+        if (snapshot != null) {
+            for (int i = 0; i < count; i++) {
+                lightPositions[i] = new Vector2f(snapshot.light(i, 0), snapshot.light(i, 1));
+                lightColors[i] = new Vector3f(snapshot.light(i, 2), snapshot.light(i, 3), snapshot.light(i, 4));
+                lightIntensities[i] = snapshot.light(i, 5);
+            }
+        } else {
+            List<PointLight> lights = this.lights.values();
+            for (int i = 0; i < count; i++) {
+                PointLight light = lights.get(i);
+                lightPositions[i] = new Vector2f(light.gameObject.getInterpolatedX(interpolationAlpha), light.gameObject.getInterpolatedY(interpolationAlpha));
+                lightColors[i] = light.color;
+                lightIntensities[i] = light.intensity;
+            }
         }
 
         shader.uploadVec2fArray("uLightPosition", lightPositions);
         shader.uploadVec3fArray("uLightColor", lightColors);
         shader.uploadFloatArray("uIntensity", lightIntensities);
         shader.uploadFloat("uMinLighting", Engine.scenes().getMinSceneLight());
-        shader.uploadInt("uNumLights", lights.size());
+        shader.uploadInt("uNumLights", count);
+    }
+
+    /**
+     * Copy the interpolated positions, colors and intensities of all lights into a snapshot
+     *
+     * @param snapshot the snapshot to write to
+     */
+    @Override
+    public void capture(FrameSnapshot snapshot) {
+        List<PointLight> lights = this.lights.values();
+        for (int i = 0; i < lights.size(); i++) {
+            PointLight light = lights.get(i);
+            snapshot.addLight(light.gameObject.getInterpolatedX(interpolationAlpha), light.gameObject.getInterpolatedY(interpolationAlpha),
+                    light.color, light.intensity);
+        }
     }
 
     /**
@@ -118,8 +143,7 @@ public class LightmapRenderer extends Renderer {
     public void add(GameObject gameObject) {
         PointLight l = gameObject.getComponent(PointLight.class);
         if (l != null) {
-            if (lights.contains(l)) return;
-            lights.add(l);
+            lights.put(gameObject.handle(), l);
             assert lights.size() <= 10 : "NO MORE THAN 10 LIGHTS";
         }
     }
@@ -131,10 +155,7 @@ public class LightmapRenderer extends Renderer {
      */
     @Override
     public void remove(GameObject gameObject) {
-        PointLight l = gameObject.getComponent(PointLight.class);
-        if (l != null) {
-            lights.remove(l);
-        }
+        lights.remove(gameObject.handle());
     }
 
     /**
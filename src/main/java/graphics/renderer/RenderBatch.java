@@ -243,6 +243,20 @@ public class RenderBatch implements Comparable<RenderBatch> {
         glDeleteVertexArrays(vao);
     }
 
+    /**
+     * @return the size of the vertex buffer and the index buffer in bytes
+     */
+    public long gpuBytes() {
+        return (long) maxBatchSize * primitive.vertexCount * vertexSize + (long) primitive.elementCount * maxBatchSize * Integer.BYTES;
+    }
+
+    /**
+     * @return the size of the vertex data kept on the heap in bytes
+     */
+    public long heapBytes() {
+        return (long) (data.length + primitiveVertices.length) * Float.BYTES;
+    }
+
     /**
      * Get the number of vertices to be drawn
      *
@@ -61,6 +61,14 @@ public abstract class Renderer {
 	 */
 	public Framebuffer framebuffer;
 	protected boolean noRebuffer = false;
+	/**
+	 * How far the current frame is in between the last and the next simulation step, 1 without a fixed timestep
+	 */
+	protected float interpolationAlpha = 1.0f;
+	/**
+	 * The snapshot to draw instead of the live gameObjects, if the simulation runs on its own thread
+	 */
+	protected FrameSnapshot snapshot = null;
 	/**
 	 * Shader to be used for rendering
 	 */
@@ -161,6 +169,59 @@ public abstract class Renderer {
 	public void remove(GameObject gameObject) {
 	}
 
+	/**
+	 * Add many gameObjects at once, like the gameObjects spawned during an update pass.
+	 * Renderers able to register gameObjects more efficiently in bulk can override this.
+	 *
+	 * @param gameObjects the gameObjects
+	 */
+	public void addAll(List<GameObject> gameObjects) {
+		for (int i = 0; i < gameObjects.size(); i++) {
+			add(gameObjects.get(i));
+		}
+	}
+
+	/**
+	 * Remove many gameObjects at once, like the gameObjects destroyed during an update pass.
+	 *
+	 * @param gameObjects the gameObjects
+	 */
+	public void removeAll(List<GameObject> gameObjects) {
+		for (int i = 0; i < gameObjects.size(); i++) {
+			remove(gameObjects.get(i));
+		}
+	}
+
+	/**
+	 * Set the interpolation alpha for the next render call.
+	 * Renderers drawing gameObjects should blend their transforms using {@link GameObject#getInterpolatedX(float)} and its siblings.
+	 *
+	 * @param alpha the interpolation alpha from 0 to 1
+	 */
+	public void setInterpolationAlpha(float alpha) {
+		this.interpolationAlpha = alpha;
+	}
+
+	/**
+	 * Copy everything needed to draw the current state of the scene into a snapshot.
+	 * Called on the simulation thread after each simulated frame, if the simulation runs on its own thread.
+	 * Renderers reading gameObjects or components while drawing have to copy that data here and draw the snapshot set by {@link #setSnapshot(FrameSnapshot)},
+	 * since the simulation already computes the next frame while this renderer draws.
+	 *
+	 * @param snapshot the snapshot to write to, already cleared
+	 */
+	public void capture(FrameSnapshot snapshot) {
+	}
+
+	/**
+	 * Set the snapshot to draw with the next render call.
+	 *
+	 * @param snapshot the snapshot or null to draw the live gameObjects again
+	 */
+	public void setSnapshot(FrameSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
 	/**
 	 * Creates the renderer's shader and framebuffer
 	 */
@@ -214,4 +275,37 @@ public abstract class Renderer {
 	public void clean() {
 		batches.forEach(RenderBatch::delete);
 	}
+
+	/**
+	 * Deletes the batches and the framebuffer, so the renderer holds no GPU memory until {@link #init()} is called again.
+	 * The added gameObjects are kept and put into new batches once the renderer is initialized and renders again.
+	 */
+	public void release() {
+		clean();
+		batches.clear();
+		if (framebuffer != null) framebuffer.release();
+		framebuffer = null;
+	}
+
+	/**
+	 * @return the estimated video memory used by the batches and the framebuffer in bytes
+	 */
+	public long gpuBytes() {
+		long bytes = framebuffer == null ? 0 : framebuffer.memoryBytes();
+		for (RenderBatch batch : batches) {
+			bytes += batch.gpuBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the memory used by the vertex data of the batches on the heap in bytes
+	 */
+	public long heapBytes() {
+		long bytes = 0;
+		for (RenderBatch batch : batches) {
+			bytes += batch.heapBytes();
+		}
+		return bytes;
+	}
 }
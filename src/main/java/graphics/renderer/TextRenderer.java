@@ -73,6 +73,10 @@ public class TextRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
+        if (snapshot != null) {
+            UIRenderer.rebufferSnapshot(this, snapshot.glyphs(), true);
+            return;
+        }
         for (Text text : texts) {
             ArrayList<GlyphRenderer> glyphs = text.getGlyphRenderers();
             for (GlyphRenderer glyph : glyphs) {
@@ -112,6 +116,23 @@ public class TextRenderer extends Renderer {
         }
     }
 
+    /**
+     * Copy the positions, colors and texture coordinates of the glyphs of all texts into a snapshot
+     *
+     * @param snapshot the snapshot to write to
+     */
+    @Override
+    public void capture(FrameSnapshot snapshot) {
+        for (Text text : texts) {
+            ArrayList<GlyphRenderer> glyphs = text.getGlyphRenderers();
+            for (GlyphRenderer glyph : glyphs) {
+                Transform spr = glyph.getLocalTransform();
+                snapshot.addGlyph(spr.getPosition().x, spr.getPosition().y, spr.scale.x, spr.scale.y, glyph.getColorVector(),
+                        glyph.getTexCoords(), glyph.getTexture(), text.zIndex(), glyph.isSticky());
+            }
+        }
+    }
+
     @Override
     public void render() {
         super.render();
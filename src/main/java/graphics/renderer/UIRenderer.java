@@ -4,6 +4,7 @@ import graphics.Framebuffer;
 import graphics.Primitive;
 import graphics.Shader;
 import graphics.ShaderDatatype;
+import graphics.Texture;
 import org.joml.Vector2f;
 import ui.RenderableElement;
 import util.Assets;
@@ -69,6 +70,10 @@ public class UIRenderer extends Renderer {
 
     @Override
     protected void rebuffer() {
+        if (snapshot != null) {
+            rebufferSnapshot(this, snapshot.ui(), false);
+            return;
+        }
         /**
          * NOTE TO SELF (Asher), THIS PROBABLY WON"T WORK, It only looks correct.
          *
@@ -111,6 +116,61 @@ public class UIRenderer extends Renderer {
         }
     }
 
+    /**
+     * Push the quads captured by the simulation thread to the batches of a renderer, used for ui elements and text.
+     *
+     * @param renderer the renderer
+     * @param quads    the captured quads
+     * @param sticky   whether the vertices carry the sticky flag of glyphs
+     */
+    static void rebufferSnapshot(Renderer renderer, FrameSnapshot.Quads quads, boolean sticky) {
+        for (int q = 0; q < quads.count(); q++) {
+            Texture texture = quads.texture(q);
+            RenderBatch batch = renderer.getAvailableBatch(texture, quads.zIndex(q));
+            int textureID = texture != null ? batch.addTexture(texture) : 0;
+            float x = quads.get(q, 0);
+            float y = quads.get(q, 1);
+            float width = quads.get(q, 2);
+            float height = quads.get(q, 3);
+
+            float xAdd = 1.0f;
+            float yAdd = 1.0f;
+            for (int i = 0; i < 4; i++) {
+                switch (i) {
+                    case 1: yAdd = 0.0f; break;
+                    case 2: xAdd = 0.0f; break;
+                    case 3: yAdd = 1.0f; break;
+                }
+                batch.pushVec2(x + xAdd * width, y + yAdd * height);
+                batch.pushVec4(quads.get(q, FrameSnapshot.QUAD_COLOR), quads.get(q, FrameSnapshot.QUAD_COLOR + 1),
+                        quads.get(q, FrameSnapshot.QUAD_COLOR + 2), quads.get(q, FrameSnapshot.QUAD_COLOR + 3));
+                batch.pushVec2(quads.get(q, FrameSnapshot.QUAD_UV + i * 2), quads.get(q, FrameSnapshot.QUAD_UV + i * 2 + 1));
+                batch.pushInt(textureID);
+                if (sticky) batch.pushFloat(quads.get(q, FrameSnapshot.QUAD_STICKY));
+            }
+        }
+    }
+
+    /**
+     * Copy the positions, colors and texture coordinates of all ui elements into a snapshot
+     *
+     * @param snapshot the snapshot to write to
+     */
+    @Override
+    public void capture(FrameSnapshot snapshot) {
+        for (RenderableElement re : renderableElements) {
+            Vector2f pos = re.getRenderFrame().getPosition();
+            Vector2f scale = re.getRenderFrame().getScale();
+            float x = pos.x;
+            float y = pos.y;
+            if (re.getParent() != null) {
+                x += re.getParent().getX();
+                y += re.getParent().getY();
+            }
+            snapshot.addUiQuad(x, y, scale.x, scale.y, re.getColorVector(), re.getTexCoords(), re.getTexture(), re.zIndex());
+        }
+    }
+
     /**
      *
      * @param e UI ElementRenderer
@@ -0,0 +1,193 @@
+package input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+
+/**
+ * Maps keys and mouse buttons to named actions, like "jump" or "fire", so game code does not depend on concrete inputs.
+ * An action is down as long as any of its inputs is held. Presses and releases are counted per tick,
+ * so quick taps within a single frame are not lost.
+ * <p>
+ * Actions are stored as bits of a long, so at most 64 actions can be defined per map.
+ * Queries by action id avoid the name lookup.
+ *
+ * @see Input#actions()
+ */
+public final class ActionMap {
+
+    public static final int MAX_ACTIONS = 64;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    //input -> bits of the actions bound to it
+    private final long[] keyBindings = new long[512];
+    private final long[] buttonBindings = new long[8];
+
+    private final int[] heldInputs = new int[MAX_ACTIONS];
+    private final int[] presses = new int[MAX_ACTIONS];
+    private final long[] lastChange = new long[MAX_ACTIONS];
+    private long down = 0;
+    private long pressed = 0;
+    private long released = 0;
+
+    /**
+     * Defines an action, unless it has been defined already.
+     *
+     * @param name the name of the action
+     * @return the id of the action
+     */
+    public int action(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        if (names.size() == MAX_ACTIONS)
+            throw new IllegalStateException("no more than " + MAX_ACTIONS + " actions can be defined");
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * @param id the id of an action
+     * @return the name of the action
+     */
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * @param action the name of the action, defined if needed
+     * @param key    the key, see {@link Keys}
+     * @return this
+     */
+    public ActionMap bindKey(String action, int key) {
+        if (key < 0 || key >= keyBindings.length) throw new IllegalArgumentException("invalid key " + key);
+        keyBindings[key] |= 1L << action(action);
+        return this;
+    }
+
+    /**
+     * @param action the name of the action, defined if needed
+     * @param button the mouse button, see {@link Buttons}
+     * @return this
+     */
+    public ActionMap bindMouseButton(String action, int button) {
+        if (button < 0 || button >= buttonBindings.length) throw new IllegalArgumentException("invalid button " + button);
+        buttonBindings[button] |= 1L << action(action);
+        return this;
+    }
+
+    /**
+     * Removes all bindings of an action, its id stays valid.
+     *
+     * @param action the name of the action
+     */
+    public void unbind(String action) {
+        Integer id = ids.get(action);
+        if (id == null) return;
+        long keep = ~(1L << id);
+        for (int i = 0; i < keyBindings.length; i++) keyBindings[i] &= keep;
+        for (int i = 0; i < buttonBindings.length; i++) buttonBindings[i] &= keep;
+    }
+
+    public boolean isDown(int id) {
+        return (down & (1L << id)) != 0;
+    }
+
+    /**
+     * @return true if any input of the action is held
+     */
+    public boolean isDown(String action) {
+        Integer id = ids.get(action);
+        return id != null && isDown(id);
+    }
+
+    public boolean wasPressed(int id) {
+        return (pressed & (1L << id)) != 0;
+    }
+
+    /**
+     * @return true if the action went down during the last tick
+     */
+    public boolean wasPressed(String action) {
+        Integer id = ids.get(action);
+        return id != null && wasPressed(id);
+    }
+
+    public boolean wasReleased(int id) {
+        return (released & (1L << id)) != 0;
+    }
+
+    /**
+     * @return true if the action went up during the last tick
+     */
+    public boolean wasReleased(String action) {
+        Integer id = ids.get(action);
+        return id != null && wasReleased(id);
+    }
+
+    public int pressCount(int id) {
+        return presses[id];
+    }
+
+    /**
+     * @return how often inputs of the action have been pressed during the last tick
+     */
+    public int pressCount(String action) {
+        Integer id = ids.get(action);
+        return id == null ? 0 : presses[id];
+    }
+
+    /**
+     * @return the timestamp of the last input event changing the action, from {@link System#nanoTime()}
+     */
+    public long lastChange(int id) {
+        return lastChange[id];
+    }
+
+    /**
+     * Resets the presses and releases of the last tick, called before the events of a new tick are applied.
+     */
+    void beginTick() {
+        //presses are counted even while the action is held down already, so they are reset regardless of the pressed bits
+        Arrays.fill(presses, 0);
+        pressed = 0;
+        released = 0;
+    }
+
+    void onKey(int key, int action, long timestamp) {
+        if (key >= 0 && key < keyBindings.length) apply(keyBindings[key], action, timestamp);
+    }
+
+    void onMouseButton(int button, int action, long timestamp) {
+        if (button >= 0 && button < buttonBindings.length) apply(buttonBindings[button], action, timestamp);
+    }
+
+    private void apply(long bits, int action, long timestamp) {
+        if (action != GLFW_PRESS && action != GLFW_RELEASE) return;
+        while (bits != 0) {
+            int id = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            long bit = 1L << id;
+            if (action == GLFW_PRESS) {
+                presses[id]++;
+                if (heldInputs[id]++ == 0) {
+                    down |= bit;
+                    pressed |= bit;
+                    lastChange[id] = timestamp;
+                }
+            } else if (heldInputs[id] > 0 && --heldInputs[id] == 0) {
+                down &= ~bit;
+                released |= bit;
+                lastChange[id] = timestamp;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package input;
+
+import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+
+/**
+ * Hands the input events received by the GLFW callbacks over to the thread updating the scene.
+ * The callbacks write timestamped events into the {@link InputBuffer}, which is drained by {@link #poll()}
+ * at the start of each tick, applying the events to the keyboard and mouse state and the {@link ActionMap}.
+ * Apart from the buffer, the callbacks do not touch any state read by the scene.
+ */
+public final class Input {
+
+    public static final int BUFFER_CAPACITY = 1024;
+
+    private static final InputBuffer buffer = new InputBuffer(BUFFER_CAPACITY);
+    private static final ActionMap actions = new ActionMap();
+    //only used by the consumer
+    private static final InputEvent event = new InputEvent();
+
+    private Input() {
+    }
+
+    /**
+     * @return the buffer the GLFW callbacks write to
+     */
+    public static InputBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the action map updated with every tick
+     */
+    public static ActionMap actions() {
+        return actions;
+    }
+
+    /**
+     * Applies all buffered input events in the order they were received, called at the start of each tick.
+     *
+     * @return the amount of applied events
+     */
+    public static int poll() {
+        actions.beginTick();
+        int count = 0;
+        double scrollX = 0, scrollY = 0;
+        double cursorX = 0, cursorY = 0;
+        boolean cursorMoved = false;
+        while (buffer.poll(event)) {
+            count++;
+            switch (event.type) {
+                case InputBuffer.KEY:
+                    Keyboard.apply(event.code, event.action);
+                    actions.onKey(event.code, event.action, event.timestamp);
+                    break;
+                case InputBuffer.MOUSE_BUTTON:
+                    if (event.code < Mouse.mouseButton.length) {
+                        if (event.action == GLFW_PRESS) {
+                            Mouse.mouseButton[event.code] = true;
+                        } else if (event.action == GLFW_RELEASE) {
+                            Mouse.mouseButton[event.code] = false;
+                            Mouse.mouseDragged = false;
+                        }
+                    }
+                    actions.onMouseButton(event.code, event.action, event.timestamp);
+                    break;
+                case InputBuffer.SCROLL:
+                    scrollX += event.x;
+                    scrollY += event.y;
+                    break;
+                case InputBuffer.CURSOR:
+                    //only the last position of the tick matters
+                    cursorX = event.x;
+                    cursorY = event.y;
+                    cursorMoved = true;
+                    break;
+            }
+        }
+        //ticks without scroll events reset the scroll offsets
+        Mouse.setScroll((float) scrollX, (float) scrollY);
+        if (cursorMoved) Mouse.moveTo(cursorX, cursorY);
+        Mouse.update();
+        return count;
+    }
+
+}
@@ -0,0 +1,117 @@
+package input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free single-producer single-consumer ring buffer of timestamped input events.
+ * The GLFW callbacks write into it on the main thread, the thread updating the scene drains it at the start of each tick.
+ * Every event is kept, even if several arrive within a single frame, unless the buffer is full.
+ * <p>
+ * The events are stored in primitive arrays, so neither writing nor reading allocates.
+ *
+ * @see Input#poll()
+ */
+public final class InputBuffer {
+
+    public static final int KEY = 0;
+    public static final int MOUSE_BUTTON = 1;
+    public static final int SCROLL = 2;
+    public static final int CURSOR = 3;
+
+    private final int mask;
+    private final int[] types;
+    private final int[] codes;
+    private final int[] actions;
+    private final int[] modifiers;
+    private final double[] xs;
+    private final double[] ys;
+    private final long[] timestamps;
+
+    //the next position to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    //the next position to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped = 0;
+
+    /**
+     * @param capacity the maximum amount of buffered events, rounded up to a power of two
+     */
+    public InputBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("the capacity has to be at least 1");
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        if (capacity == 1) size = 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.codes = new int[size];
+        this.actions = new int[size];
+        this.modifiers = new int[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.timestamps = new long[size];
+    }
+
+    /**
+     * Called by the producer only.
+     *
+     * @return false if the buffer is full and the event has been dropped
+     */
+    public boolean offer(int type, int code, int action, int modifiers, double x, double y, long timestamp) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int i = (int) t & mask;
+        types[i] = type;
+        codes[i] = code;
+        actions[i] = action;
+        this.modifiers[i] = modifiers;
+        xs[i] = x;
+        ys[i] = y;
+        timestamps[i] = timestamp;
+        //publishes the written event to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Called by the consumer only. Takes the oldest event from the buffer.
+     *
+     * @param dest the event to fill
+     * @return false if the buffer is empty
+     */
+    public boolean poll(InputEvent dest) {
+        long h = head.get();
+        if (h == tail.get()) return false;
+        int i = (int) h & mask;
+        dest.type = types[i];
+        dest.code = codes[i];
+        dest.action = actions[i];
+        dest.modifiers = modifiers[i];
+        dest.x = xs[i];
+        dest.y = ys[i];
+        dest.timestamp = timestamps[i];
+        //frees the slot for the producer
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * @return the amount of buffered events
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the amount of events dropped so far, because the buffer was full
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+}
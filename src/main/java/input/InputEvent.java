@@ -0,0 +1,31 @@
+package input;
+
+/**
+ * A single input event taken from an {@link InputBuffer}.
+ * Instances are reused when polling, so copy the values if they are needed later.
+ */
+public final class InputEvent {
+
+    /**
+     * {@link InputBuffer#KEY}, {@link InputBuffer#MOUSE_BUTTON} or {@link InputBuffer#SCROLL}
+     */
+    public int type;
+    /**
+     * The key or mouse button
+     */
+    public int code;
+    /**
+     * GLFW_PRESS, GLFW_RELEASE or GLFW_REPEAT
+     */
+    public int action;
+    public int modifiers;
+    /**
+     * The scroll offsets
+     */
+    public double x, y;
+    /**
+     * {@link System#nanoTime()} when the event was received
+     */
+    public long timestamp;
+
+}
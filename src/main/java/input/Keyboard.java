@@ -29,31 +29,41 @@ public class Keyboard {
      */
     public static void setupCallbacks() {
         glfwSetKeyCallback(Window.glfwWindow(), (w, keycode, scancode, action, mods) -> {
-            switch (action) {
-                case GLFW_PRESS: {
-                    setKeyDownBit(keycode);
-                    resetKeyUpBit(keycode);
-                    resetKeyHeldBit(keycode);
-                    break;
-                }
-
-                case GLFW_RELEASE: {
-                    resetKeyDownBit(keycode);
-                    setKeyUpBit(keycode);
-                    resetKeyHeldBit(keycode);
-                    break;
-                }
-
-                case GLFW_REPEAT: {
-                    resetKeyDownBit(keycode);
-                    resetKeyUpBit(keycode);
-                    setKeyHeldBit(keycode);
-                    break;
-                }
+            Input.buffer().offer(InputBuffer.KEY, keycode, action, mods, 0, 0, System.nanoTime());
+            Events.bus().post(Events.bus().obtain(EventData.KeyEventData.class).set(keycode, scancode, action, mods));
+        });
+    }
+
+    /**
+     * Updates the key state bits, called by {@link Input#poll()} on the thread updating the scene.
+     *
+     * @param keycode the key
+     * @param action  the GLFW action
+     */
+    static void apply(int keycode, int action) {
+        if (keycode < 0 || keycode >= keystateBitfields.length) return;
+        switch (action) {
+            case GLFW_PRESS: {
+                setKeyDownBit(keycode);
+                resetKeyUpBit(keycode);
+                resetKeyHeldBit(keycode);
+                break;
             }
 
-            Events.keyEvent.onEvent(new EventData.KeyEventData(keycode, scancode, action, mods));
-        });
+            case GLFW_RELEASE: {
+                resetKeyDownBit(keycode);
+                setKeyUpBit(keycode);
+                resetKeyHeldBit(keycode);
+                break;
+            }
+
+            case GLFW_REPEAT: {
+                resetKeyDownBit(keycode);
+                resetKeyUpBit(keycode);
+                setKeyHeldBit(keycode);
+                break;
+            }
+        }
     }
 
     private static void setKeyDownBit(int keycode) {
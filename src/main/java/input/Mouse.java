@@ -49,7 +49,7 @@ public class Mouse {
     /**
      * Mouse Scrolling Values
      */
-    public static Vector2f mouseScroll;
+    public static Vector2f mouseScroll = new Vector2f();
     /**
      * Mouse Scrolling in X-axis.
      */
@@ -67,72 +67,53 @@ public class Mouse {
      */
     public static boolean mouseDragged;
 
-    /**
-     * Latest button whose state was changed
-     */
-    private static int _button;
-    /**
-     * Latest button whose state is changed
-     */
-    private static int _action;
-
     /**
      * Mouse was moved this frame or not
      */
     private static boolean moved = false;
 
-    /**
-     * Apply the latest changes to the mouseButton array
-     */
-    public static void pollMouseButtons() {
-        if (_action == GLFW_PRESS) {
-            if (_button < mouseButton.length)
-                mouseButton[_button] = true;
-        } else if (_action == GLFW_RELEASE) {
-            if (_button < mouseButton.length) {
-                mouseButton[_button] = false;
-                mouseDragged = false;
-            }
-        }
-    }
-
     /**
      * Subscribes to mouse scroll event and mouse button event
      */
     public static void setupCallbacks() {
         glfwSetScrollCallback(Window.glfwWindow(), (w, xOffset, yOffset) -> {
-            scrollX = (float) xOffset;
-            scrollY = (float) yOffset;
-            mouseScroll = new Vector2f(scrollX, scrollY);
-
-            Events.mouseScrollEvent.onEvent(new EventData.MouseScrollEventData(xOffset, yOffset));
+            Input.buffer().offer(InputBuffer.SCROLL, 0, 0, 0, xOffset, yOffset, System.nanoTime());
+            Events.bus().post(Events.bus().obtain(EventData.MouseScrollEventData.class).set(xOffset, yOffset));
         });
 
         glfwSetMouseButtonCallback(Window.glfwWindow(), (w, button, action, mods) -> {
-            _button = button;
-            _action = action;
-            Events.mouseButtonEvent.onEvent(new EventData.MouseButtonEventData(button, action, mods));
+            Input.buffer().offer(InputBuffer.MOUSE_BUTTON, button, action, mods, 0, 0, System.nanoTime());
+            Events.bus().post(Events.bus().obtain(EventData.MouseButtonEventData.class).set(button, action, mods));
         });
 
-        glfwSetCursorPosCallback(Window.glfwWindow(), (w, xpos, ypos) -> {
-            long pmouseX = mouseX;
-            long pmouseY = mouseY;
-            pmouse.set(pmouseX, pmouseY);
+        glfwSetCursorPosCallback(Window.glfwWindow(), (w, xpos, ypos) ->
+                Input.buffer().offer(InputBuffer.CURSOR, 0, 0, 0, xpos, ypos, System.nanoTime()));
+    }
 
-            mouseX = (long) xpos;
-            mouseY = (long) ypos;
-            mouse.set(mouseX, mouseY);
-            worldMouse.set(getWorldX(), getWorldY());
-            moved = true;
-        });
+    /**
+     * Moves the cursor, called by {@link Input#poll()} on the thread updating the scene.
+     *
+     * @param xpos the x coordinate of the cursor on the window
+     * @param ypos the y coordinate of the cursor on the window
+     */
+    static void moveTo(double xpos, double ypos) {
+        long pmouseX = mouseX;
+        long pmouseY = mouseY;
+        pmouse.set(pmouseX, pmouseY);
+
+        mouseX = (long) xpos;
+        mouseY = (long) ypos;
+        mouse.set(mouseX, mouseY);
+        worldMouse.set(getWorldX(), getWorldY());
+        moved = true;
     }
 
     /**
-     * Called each frame to update mouse button states and mouse position.
+     * Called each tick after the buffered input events have been applied, to update the dragging state.
+     *
+     * @see Input#poll()
      */
     public static void update() {
-        pollMouseButtons();
-
         if (moved) {
             mouseDragged = mouseButton[0] || mouseButton[1] || mouseButton[2];
         }
@@ -157,12 +138,17 @@ public class Mouse {
      * Clear the mouse state
      */
     public static void clearMouseInput() {
-        scrollX = 0;
-        scrollY = 0;
-        mouseScroll = new Vector2f(scrollX, scrollY);
+        setScroll(0, 0);
         pmouseX = mouseX;
         pmouseY = mouseY;
-        pmouse = new Vector2f(pmouseX, pmouseY);
+        pmouse.set(pmouseX, pmouseY);
+    }
+
+    //the scroll offsets of the last tick
+    static void setScroll(float x, float y) {
+        scrollX = x;
+        scrollY = y;
+        mouseScroll.set(x, y);
     }
 
     public static Vector2f get () {
@@ -0,0 +1,162 @@
+package physics.collision;
+
+import physics.collision.shape.Circle;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The broad phase of collision detection, which finds the colliders that might intersect,
+ * so the expensive narrow phase {@link Collider#detectCollision(Collider)} only runs for colliders near each other.
+ * Colliders are approximated by the axis aligned bounding box of the bounding sphere of their shape.
+ * Candidates are never filtered by layers, masks or tags, use {@link Collider#canCollideWith(Collider)} for that.
+ * <p>
+ * Moving a collider only takes effect after {@link #update(Collider)} has been called for it.
+ * Not thread-safe, none of the methods may run concurrently, not even updates of different colliders.
+ *
+ * @see SpatialHash
+ * @see DynamicTree
+ * @see SweepAndPrune
+ * @see scene.Scene#broadphase()
+ */
+public interface Broadphase {
+
+    /**
+     * Adds a collider at the current position of its shape. Adding a collider twice has no effect.
+     *
+     * @param collider the collider
+     * @return true if the collider was not added before
+     */
+    boolean add(Collider collider);
+
+    /**
+     * @param collider the collider
+     * @return true if the collider has been removed
+     */
+    boolean remove(Collider collider);
+
+    /**
+     * Moves a collider to the current position of its shape.
+     * Colliders not added to this broadphase are ignored.
+     *
+     * @param collider the collider
+     */
+    void update(Collider collider);
+
+    /**
+     * Finds all added colliders whose bounds overlap the bounds of a collider, except the collider itself.
+     * The collider does not need to be added to this broadphase.
+     *
+     * @param collider the collider
+     * @param callback receives every candidate once
+     */
+    void query(Collider collider, Consumer<Collider> callback);
+
+    /**
+     * Finds all added colliders whose bounds overlap a region.
+     *
+     * @param minX     the left border of the region
+     * @param minY     the bottom border of the region
+     * @param maxX     the right border of the region
+     * @param maxY     the top border of the region
+     * @param callback receives every candidate once
+     */
+    void queryRegion(float minX, float minY, float maxX, float maxY, Consumer<Collider> callback);
+
+    /**
+     * Finds all added colliders whose bounds are hit by a ray.
+     * The default implementation tests the colliders within the bounds of the ray.
+     *
+     * @param startX     the x coordinate of the start of the ray
+     * @param startY     the y coordinate of the start of the ray
+     * @param directionX the x direction of the ray, does not need to be normalized
+     * @param directionY the y direction of the ray, does not need to be normalized
+     * @param maxLength  the length of the ray
+     * @param callback   receives every candidate once, in no particular order
+     */
+    default void rayCast(float startX, float startY, float directionX, float directionY, float maxLength, Consumer<Collider> callback) {
+        float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) return;
+        float dx = directionX / length;
+        float dy = directionY / length;
+        float endX = startX + dx * maxLength;
+        float endY = startY + dy * maxLength;
+        float[] bounds = new float[4];
+        queryRegion(Math.min(startX, endX), Math.min(startY, endY), Math.max(startX, endX), Math.max(startY, endY), c -> {
+            bounds(c, bounds);
+            if (rayIntersects(bounds[0], bounds[1], bounds[2], bounds[3], startX, startY, dx, dy, maxLength))
+                callback.accept(c);
+        });
+    }
+
+    /**
+     * Finds all pairs of added colliders whose bounds overlap.
+     *
+     * @param callback receives every candidate pair once, in no particular order
+     */
+    void pairs(BiConsumer<Collider, Collider> callback);
+
+    /**
+     * @return the amount of added colliders
+     */
+    int size();
+
+    /**
+     * Removes all colliders.
+     */
+    void clear();
+
+    /**
+     * Writes the bounds used by the broadphase for a collider.
+     *
+     * @param collider the collider
+     * @param bounds   receives minX, minY, maxX and maxY
+     */
+    static void bounds(Collider collider, float[] bounds) {
+        Circle sphere = collider.getShape().boundingSphere();
+        float radius = sphere.radius();
+        float x = sphere.centroid().x;
+        float y = sphere.centroid().y;
+        bounds[0] = x - radius;
+        bounds[1] = y - radius;
+        bounds[2] = x + radius;
+        bounds[3] = y + radius;
+    }
+
+    /**
+     * Tests a ray against an axis aligned box using the slab method.
+     *
+     * @param minX       the left border of the box
+     * @param minY       the bottom border of the box
+     * @param maxX       the right border of the box
+     * @param maxY       the top border of the box
+     * @param startX     the x coordinate of the start of the ray
+     * @param startY     the y coordinate of the start of the ray
+     * @param directionX the x direction of the ray, normalized
+     * @param directionY the y direction of the ray, normalized
+     * @param maxLength  the length of the ray
+     * @return true if the ray hits the box within its length, or starts inside of it
+     */
+    static boolean rayIntersects(float minX, float minY, float maxX, float maxY, float startX, float startY, float directionX, float directionY, float maxLength) {
+        float near = 0;
+        float far = maxLength;
+        if (directionX == 0) {
+            if (startX < minX || startX > maxX) return false;
+        } else {
+            float t1 = (minX - startX) / directionX;
+            float t2 = (maxX - startX) / directionX;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) return false;
+        }
+        if (directionY == 0) {
+            return startY >= minY && startY <= maxY;
+        }
+        float t1 = (minY - startY) / directionY;
+        float t2 = (maxY - startY) / directionY;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+        return near <= far;
+    }
+
+}
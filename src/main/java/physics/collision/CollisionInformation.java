@@ -1,5 +1,7 @@
 package physics.collision;
 
+import org.joml.Vector2f;
+
 /**
  * A class to pass down information about a collision detection for further response.
  *
@@ -25,4 +27,20 @@ public class CollisionInformation {
         return collision;
     }
 
+    /**
+     * Describes the same collision as seen from the other collider.
+     * A simplex of the Minkowski difference is negated, since the difference of the shapes is swapped.
+     *
+     * @return the mirrored information
+     */
+    public CollisionInformation mirror() {
+        if (!(data instanceof Vector2f[])) return this;
+        Vector2f[] simplex = (Vector2f[]) data;
+        Vector2f[] mirrored = new Vector2f[simplex.length];
+        for (int i = 0; i < simplex.length; i++) {
+            mirrored[i] = simplex[i] == null ? null : simplex[i].negate(new Vector2f());
+        }
+        return new CollisionInformation(mirrored, collision);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package physics.collision;
+
+/**
+ * A collision between two colliders found by the narrow phase.
+ * The information describes the collision as seen from the first collider.
+ *
+ * @see ecs.CollisionPipeline
+ */
+public final class Contact {
+
+    private final Collider first;
+    private final Collider second;
+    private final CollisionInformation information;
+    private CollisionInformation mirrored;
+
+    public Contact(Collider first, Collider second, CollisionInformation information) {
+        this.first = first;
+        this.second = second;
+        this.information = information;
+    }
+
+    public Collider first() {
+        return first;
+    }
+
+    public Collider second() {
+        return second;
+    }
+
+    /**
+     * @return the information as seen from the first collider
+     */
+    public CollisionInformation information() {
+        return information;
+    }
+
+    /**
+     * @param collider a collider of this contact
+     * @return true if the collider is part of this contact
+     */
+    public boolean involves(Collider collider) {
+        return collider == first || collider == second;
+    }
+
+    /**
+     * @param collider a collider of this contact
+     * @return the other collider of this contact
+     */
+    public Collider other(Collider collider) {
+        if (collider == first) return second;
+        if (collider == second) return first;
+        throw new IllegalArgumentException("the collider is not part of the contact");
+    }
+
+    /**
+     * @param collider a collider of this contact
+     * @return the information as seen from the given collider
+     * @see CollisionInformation#mirror()
+     */
+    public CollisionInformation informationFor(Collider collider) {
+        if (collider == first) return information;
+        if (collider != second) throw new IllegalArgumentException("the collider is not part of the contact");
+        if (mirrored == null) mirrored = information.mirror();
+        return mirrored;
+    }
+
+}
@@ -0,0 +1,470 @@
+package physics.collision;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Broadphase} organizing the colliders in a dynamic bounding volume hierarchy.
+ * Every collider is a leaf of a binary tree, every inner node stores the box containing both of its children.
+ * Queries descend only into the nodes overlapping the queried bounds, so they take logarithmic time
+ * independent of the sizes of the colliders, unlike a {@link SpatialHash}.
+ * <p>
+ * Leaves store fat boxes, enlarged by a margin on every side. Colliders moving within their fat box do not change the tree,
+ * otherwise their leaf is removed and inserted again. Insertion picks the sibling with the lowest increase of perimeter,
+ * and the tree is balanced with rotations on the way back up, so its height stays logarithmic.
+ * <p>
+ * Candidates are reported by their exact bounds, the fat boxes only decide where the tree is searched.
+ * Queries gather their candidates before calling back, so callbacks may add, remove and update colliders and run nested queries.
+ * Colliders removed by a callback are not reported to later callbacks of the same query.
+ */
+public final class DynamicTree implements Broadphase {
+
+    /**
+     * The margin used by default, in world units
+     */
+    public static final float DEFAULT_MARGIN = 16;
+
+    private static final int NULL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final float margin;
+
+    private final Map<Collider, Integer> proxies = new IdentityHashMap<>();
+
+    //fat boxes of all nodes and exact bounds of the leaves, each minX, minY, maxX, maxY
+    private float[] boxes = new float[INITIAL_CAPACITY * 4];
+    private float[] bounds = new float[INITIAL_CAPACITY * 4];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] children1 = new int[INITIAL_CAPACITY];
+    private int[] children2 = new int[INITIAL_CAPACITY];
+    //leaves have height 0, free nodes -1
+    private int[] heights = new int[INITIAL_CAPACITY];
+    private Collider[] colliders = new Collider[INITIAL_CAPACITY];
+    private int root = NULL;
+    private int nodeCount = 0;
+    //free nodes are linked through their parents
+    private int freeList = NULL;
+
+    //only used while a traversal gathers its candidates, never while calling back
+    private int[] stack = new int[64];
+    private final float[] queryBounds = new float[4];
+    //candidates of the queries in progress, nested queries run by callbacks append theirs behind those of the outer query
+    private Collider[] found = new Collider[INITIAL_CAPACITY];
+    private int foundCount = 0;
+
+    public DynamicTree() {
+        this(DEFAULT_MARGIN);
+    }
+
+    /**
+     * @param margin how far the fat box of a collider reaches beyond its bounds, larger margins mean less updates but more candidates
+     */
+    public DynamicTree(float margin) {
+        if (margin < 0) throw new IllegalArgumentException("the margin must not be negative, but was " + margin);
+        this.margin = margin;
+        Arrays.fill(heights, NULL);
+    }
+
+    /**
+     * @return the height of the tree, 0 for a single collider and -1 if empty
+     */
+    public int height() {
+        return root == NULL ? -1 : heights[root];
+    }
+
+    @Override
+    public boolean add(Collider collider) {
+        if (proxies.containsKey(collider)) return false;
+        int leaf = allocate();
+        colliders[leaf] = collider;
+        heights[leaf] = 0;
+        Broadphase.bounds(collider, queryBounds);
+        setBounds(leaf, queryBounds[0], queryBounds[1], queryBounds[2], queryBounds[3]);
+        insertLeaf(leaf);
+        proxies.put(collider, leaf);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Collider collider) {
+        Integer leaf = proxies.remove(collider);
+        if (leaf == null) return false;
+        removeLeaf(leaf);
+        free(leaf);
+        return true;
+    }
+
+    @Override
+    public void update(Collider collider) {
+        Integer proxy = proxies.get(collider);
+        if (proxy == null) return;
+        int leaf = proxy;
+        float radius = collider.getShape().boundingSphere().radius();
+        float x = collider.getShape().boundingSphere().centroid().x;
+        float y = collider.getShape().boundingSphere().centroid().y;
+        int i = leaf * 4;
+        if (x - radius >= boxes[i] && y - radius >= boxes[i + 1] && x + radius <= boxes[i + 2] && y + radius <= boxes[i + 3]) {
+            bounds[i] = x - radius;
+            bounds[i + 1] = y - radius;
+            bounds[i + 2] = x + radius;
+            bounds[i + 3] = y + radius;
+            return;
+        }
+        removeLeaf(leaf);
+        setBounds(leaf, x - radius, y - radius, x + radius, y + radius);
+        insertLeaf(leaf);
+    }
+
+    @Override
+    public void query(Collider collider, Consumer<Collider> callback) {
+        Broadphase.bounds(collider, queryBounds);
+        query(queryBounds[0], queryBounds[1], queryBounds[2], queryBounds[3], collider, callback);
+    }
+
+    @Override
+    public void queryRegion(float minX, float minY, float maxX, float maxY, Consumer<Collider> callback) {
+        query(minX, minY, maxX, maxY, null, callback);
+    }
+
+    private void query(float minX, float minY, float maxX, float maxY, Collider self, Consumer<Collider> callback) {
+        if (root == NULL) return;
+        int base = foundCount;
+        int top = pushNode(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(boxes, node, minX, minY, maxX, maxY)) continue;
+            if (heights[node] == 0) {
+                if (colliders[node] != self && overlaps(bounds, node, minX, minY, maxX, maxY))
+                    push(colliders[node]);
+            } else {
+                top = pushNode(top, children1[node]);
+                top = pushNode(top, children2[node]);
+            }
+        }
+        report(base, callback);
+    }
+
+    @Override
+    public void rayCast(float startX, float startY, float directionX, float directionY, float maxLength, Consumer<Collider> callback) {
+        float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0 || root == NULL) return;
+        float dx = directionX / length;
+        float dy = directionY / length;
+        int base = foundCount;
+        int top = pushNode(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            int i = node * 4;
+            if (!Broadphase.rayIntersects(boxes[i], boxes[i + 1], boxes[i + 2], boxes[i + 3], startX, startY, dx, dy, maxLength))
+                continue;
+            if (heights[node] == 0) {
+                if (Broadphase.rayIntersects(bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3], startX, startY, dx, dy, maxLength))
+                    push(colliders[node]);
+            } else {
+                top = pushNode(top, children1[node]);
+                top = pushNode(top, children2[node]);
+            }
+        }
+        report(base, callback);
+    }
+
+    //calls back with the candidates gathered since base, skipping those removed by earlier callbacks
+    private void report(int base, Consumer<Collider> callback) {
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k++) {
+                Collider candidate = found[k];
+                if (proxies.containsKey(candidate)) callback.accept(candidate);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    @Override
+    public void pairs(BiConsumer<Collider, Collider> callback) {
+        if (root == NULL) return;
+        int base = foundCount;
+        for (int leaf = 0; leaf < nodeCount; leaf++) {
+            if (heights[leaf] != 0) continue;
+            int i = leaf * 4;
+            int top = pushNode(0, root);
+            while (top > 0) {
+                int node = stack[--top];
+                if (!overlaps(boxes, node, bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3])) continue;
+                if (heights[node] == 0) {
+                    //every pair is reported by its lower leaf
+                    if (node > leaf && overlaps(bounds, node, bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3])) {
+                        push(colliders[leaf]);
+                        push(colliders[node]);
+                    }
+                } else {
+                    top = pushNode(top, children1[node]);
+                    top = pushNode(top, children2[node]);
+                }
+            }
+        }
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k += 2) {
+                Collider first = found[k], second = found[k + 1];
+                if (proxies.containsKey(first) && proxies.containsKey(second)) callback.accept(first, second);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    @Override
+    public void clear() {
+        proxies.clear();
+        Arrays.fill(colliders, null);
+        Arrays.fill(heights, NULL);
+        root = NULL;
+        nodeCount = 0;
+        freeList = NULL;
+    }
+
+    private void setBounds(int leaf, float minX, float minY, float maxX, float maxY) {
+        int i = leaf * 4;
+        bounds[i] = minX;
+        bounds[i + 1] = minY;
+        bounds[i + 2] = maxX;
+        bounds[i + 3] = maxY;
+        boxes[i] = minX - margin;
+        boxes[i + 1] = minY - margin;
+        boxes[i + 2] = maxX + margin;
+        boxes[i + 3] = maxY + margin;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parents[leaf] = NULL;
+            return;
+        }
+        int l = leaf * 4;
+        float leafMinX = boxes[l], leafMinY = boxes[l + 1], leafMaxX = boxes[l + 2], leafMaxY = boxes[l + 3];
+        //descend to the sibling adding the least perimeter to the tree
+        int index = root;
+        while (heights[index] > 0) {
+            int child1 = children1[index];
+            int child2 = children2[index];
+            float perimeter = perimeter(index);
+            float combined = combinedPerimeter(index, leafMinX, leafMinY, leafMaxX, leafMaxY);
+            //cost of creating a new parent for this node and the leaf
+            float cost = 2 * combined;
+            //minimum cost of pushing the leaf further down the tree
+            float inheritance = 2 * (combined - perimeter);
+            float cost1 = descendCost(child1, leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritance;
+            float cost2 = descendCost(child2, leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritance;
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        int sibling = index;
+
+        int oldParent = parents[sibling];
+        int newParent = allocate();
+        parents[newParent] = oldParent;
+        colliders[newParent] = null;
+        heights[newParent] = heights[sibling] + 1;
+        union(newParent, sibling, leaf);
+        if (oldParent != NULL) {
+            if (children1[oldParent] == sibling) children1[oldParent] = newParent;
+            else children2[oldParent] = newParent;
+        } else {
+            root = newParent;
+        }
+        children1[newParent] = sibling;
+        children2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        refit(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = children1[parent] == leaf ? children2[parent] : children1[parent];
+        if (grandParent != NULL) {
+            if (children1[grandParent] == parent) children1[grandParent] = sibling;
+            else children2[grandParent] = sibling;
+            parents[sibling] = grandParent;
+            free(parent);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parents[sibling] = NULL;
+            free(parent);
+        }
+    }
+
+    //walks up from a node, balancing and recomputing boxes and heights
+    private void refit(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int child1 = children1[index];
+            int child2 = children2[index];
+            heights[index] = 1 + Math.max(heights[child1], heights[child2]);
+            union(index, child1, child2);
+            index = parents[index];
+        }
+    }
+
+    //rotates the higher child of a up, if the heights of its children differ by more than one
+    private int balance(int a) {
+        if (heights[a] < 2) return a;
+        int b = children1[a];
+        int c = children2[a];
+        int balance = heights[c] - heights[b];
+        if (balance > 1) {
+            int f = children1[c];
+            int g = children2[c];
+            children1[c] = a;
+            parents[c] = parents[a];
+            parents[a] = c;
+            replaceChild(parents[c], a, c);
+            if (heights[f] > heights[g]) {
+                children2[c] = f;
+                children2[a] = g;
+                parents[g] = a;
+                union(a, b, g);
+                union(c, a, f);
+                heights[a] = 1 + Math.max(heights[b], heights[g]);
+                heights[c] = 1 + Math.max(heights[a], heights[f]);
+            } else {
+                children2[c] = g;
+                children2[a] = f;
+                parents[f] = a;
+                union(a, b, f);
+                union(c, a, g);
+                heights[a] = 1 + Math.max(heights[b], heights[f]);
+                heights[c] = 1 + Math.max(heights[a], heights[g]);
+            }
+            return c;
+        }
+        if (balance < -1) {
+            int d = children1[b];
+            int e = children2[b];
+            children1[b] = a;
+            parents[b] = parents[a];
+            parents[a] = b;
+            replaceChild(parents[b], a, b);
+            if (heights[d] > heights[e]) {
+                children2[b] = d;
+                children1[a] = e;
+                parents[e] = a;
+                union(a, c, e);
+                union(b, a, d);
+                heights[a] = 1 + Math.max(heights[c], heights[e]);
+                heights[b] = 1 + Math.max(heights[a], heights[d]);
+            } else {
+                children2[b] = e;
+                children1[a] = d;
+                parents[d] = a;
+                union(a, c, d);
+                union(b, a, e);
+                heights[a] = 1 + Math.max(heights[c], heights[d]);
+                heights[b] = 1 + Math.max(heights[a], heights[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL) root = newChild;
+        else if (children1[parent] == oldChild) children1[parent] = newChild;
+        else children2[parent] = newChild;
+    }
+
+    //sets the box of a node to the union of the boxes of two others
+    private void union(int node, int first, int second) {
+        int n = node * 4, f = first * 4, s = second * 4;
+        boxes[n] = Math.min(boxes[f], boxes[s]);
+        boxes[n + 1] = Math.min(boxes[f + 1], boxes[s + 1]);
+        boxes[n + 2] = Math.max(boxes[f + 2], boxes[s + 2]);
+        boxes[n + 3] = Math.max(boxes[f + 3], boxes[s + 3]);
+    }
+
+    private float perimeter(int node) {
+        int i = node * 4;
+        return 2 * (boxes[i + 2] - boxes[i] + boxes[i + 3] - boxes[i + 1]);
+    }
+
+    private float combinedPerimeter(int node, float minX, float minY, float maxX, float maxY) {
+        int i = node * 4;
+        float width = Math.max(boxes[i + 2], maxX) - Math.min(boxes[i], minX);
+        float height = Math.max(boxes[i + 3], maxY) - Math.min(boxes[i + 1], minY);
+        return 2 * (width + height);
+    }
+
+    //the perimeter added to the tree by inserting a box below a node
+    private float descendCost(int node, float minX, float minY, float maxX, float maxY) {
+        float combined = combinedPerimeter(node, minX, minY, maxX, maxY);
+        return heights[node] == 0 ? combined : combined - perimeter(node);
+    }
+
+    private static boolean overlaps(float[] boxes, int node, float minX, float minY, float maxX, float maxY) {
+        int i = node * 4;
+        return boxes[i] <= maxX && boxes[i + 2] >= minX && boxes[i + 1] <= maxY && boxes[i + 3] >= minY;
+    }
+
+    private int pushNode(int top, int node) {
+        if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private void push(Collider candidate) {
+        if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+        found[foundCount++] = candidate;
+    }
+
+    //drops the candidates of a finished query, so they can be collected
+    private void pop(int base, int end) {
+        Arrays.fill(found, base, end, null);
+        foundCount = base;
+    }
+
+    private int allocate() {
+        if (freeList != NULL) {
+            int node = freeList;
+            freeList = parents[node];
+            return node;
+        }
+        if (nodeCount == heights.length) {
+            int capacity = nodeCount * 2;
+            boxes = Arrays.copyOf(boxes, capacity * 4);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+            parents = Arrays.copyOf(parents, capacity);
+            children1 = Arrays.copyOf(children1, capacity);
+            children2 = Arrays.copyOf(children2, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            Arrays.fill(heights, nodeCount, capacity, NULL);
+            colliders = Arrays.copyOf(colliders, capacity);
+        }
+        return nodeCount++;
+    }
+
+    private void free(int node) {
+        colliders[node] = null;
+        heights[node] = NULL;
+        parents[node] = freeList;
+        freeList = node;
+    }
+
+}
@@ -0,0 +1,370 @@
+package physics.collision;
+
+import physics.collision.shape.Circle;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Broadphase} dividing the world into a uniform grid of square cells, of which only the occupied ones are stored.
+ * Every collider is entered into all cells its bounds overlap, queries only visit the colliders of the cells they overlap.
+ * Moving a collider within its cells only updates its bounds, only crossing a cell border changes the grid.
+ * <p>
+ * Works best if most colliders are about as large as a cell or smaller, very large colliders occupy many cells.
+ * The grid is unbounded and stored in an open addressing hash table, so the size of the world does not matter.
+ * <p>
+ * Queries gather their candidates before calling back, so callbacks may add, remove and update colliders and run nested queries.
+ * Colliders removed by a callback are not reported to later callbacks of the same query.
+ */
+public final class SpatialHash implements Broadphase {
+
+    /**
+     * The cell size used by the scenes, a little larger than typical gameObjects
+     */
+    public static final float DEFAULT_CELL_SIZE = 128;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    private final Map<Collider, Integer> proxies = new IdentityHashMap<>();
+    //the boxed proxies, so re-adding a collider to a recycled proxy does not allocate
+    private Integer[] boxedProxies = new Integer[INITIAL_CAPACITY];
+
+    //proxy -> collider, bounds (minX, minY, maxX, maxY) and occupied cells (minX, minY, maxX, maxY)
+    private Collider[] colliders = new Collider[INITIAL_CAPACITY];
+    private float[] bounds = new float[INITIAL_CAPACITY * 4];
+    private int[] cells = new int[INITIAL_CAPACITY * 4];
+    //the query a proxy has been reported to last, to report it only once
+    private int[] stamps = new int[INITIAL_CAPACITY];
+    private int stamp = 0;
+    private int[] freeProxies = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    private int proxyCount = 0;
+
+    //open addressing table of cells, cells are kept when they run empty and dropped when the table grows
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int[][] members = new int[INITIAL_CAPACITY][];
+    private int[] memberCounts = new int[INITIAL_CAPACITY];
+    private int usedCells = 0;
+
+    private final float[] queryBounds = new float[4];
+    //candidates of the queries in progress, nested queries run by callbacks append theirs behind those of the outer query
+    private Collider[] found = new Collider[INITIAL_CAPACITY];
+    private int foundCount = 0;
+
+    public SpatialHash() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param cellSize the width and height of a cell in world units
+     */
+    public SpatialHash(float cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("the cell size must be positive, but was " + cellSize);
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1 / cellSize;
+    }
+
+    /**
+     * @return the width and height of a cell in world units
+     */
+    public float cellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return the amount of cells containing at least one collider
+     */
+    public int occupiedCells() {
+        int occupied = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i] && memberCounts[i] > 0) occupied++;
+        }
+        return occupied;
+    }
+
+    @Override
+    public boolean add(Collider collider) {
+        if (proxies.containsKey(collider)) return false;
+        int proxy;
+        if (freeCount > 0) proxy = freeProxies[--freeCount];
+        else {
+            if (proxyCount == colliders.length) growProxies();
+            proxy = proxyCount++;
+        }
+        if (boxedProxies[proxy] == null) boxedProxies[proxy] = proxy;
+        proxies.put(collider, boxedProxies[proxy]);
+        colliders[proxy] = collider;
+        Broadphase.bounds(collider, queryBounds);
+        System.arraycopy(queryBounds, 0, bounds, proxy * 4, 4);
+        int i = proxy * 4;
+        cells[i] = cell(queryBounds[0]);
+        cells[i + 1] = cell(queryBounds[1]);
+        cells[i + 2] = cell(queryBounds[2]);
+        cells[i + 3] = cell(queryBounds[3]);
+        insert(proxy, cells[i], cells[i + 1], cells[i + 2], cells[i + 3]);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Collider collider) {
+        Integer proxy = proxies.remove(collider);
+        if (proxy == null) return false;
+        int i = proxy * 4;
+        erase(proxy, cells[i], cells[i + 1], cells[i + 2], cells[i + 3]);
+        colliders[proxy] = null;
+        if (freeCount == freeProxies.length) freeProxies = Arrays.copyOf(freeProxies, freeCount * 2);
+        freeProxies[freeCount++] = proxy;
+        return true;
+    }
+
+    @Override
+    public void update(Collider collider) {
+        Integer proxy = proxies.get(collider);
+        if (proxy == null) return;
+        Circle sphere = collider.getShape().boundingSphere();
+        float radius = sphere.radius();
+        float x = sphere.centroid().x;
+        float y = sphere.centroid().y;
+        int i = proxy * 4;
+        bounds[i] = x - radius;
+        bounds[i + 1] = y - radius;
+        bounds[i + 2] = x + radius;
+        bounds[i + 3] = y + radius;
+        int minX = cell(x - radius), minY = cell(y - radius), maxX = cell(x + radius), maxY = cell(y + radius);
+        if (minX == cells[i] && minY == cells[i + 1] && maxX == cells[i + 2] && maxY == cells[i + 3]) return;
+        erase(proxy, cells[i], cells[i + 1], cells[i + 2], cells[i + 3]);
+        cells[i] = minX;
+        cells[i + 1] = minY;
+        cells[i + 2] = maxX;
+        cells[i + 3] = maxY;
+        insert(proxy, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public void query(Collider collider, Consumer<Collider> callback) {
+        Broadphase.bounds(collider, queryBounds);
+        query(queryBounds[0], queryBounds[1], queryBounds[2], queryBounds[3], collider, callback);
+    }
+
+    @Override
+    public void queryRegion(float minX, float minY, float maxX, float maxY, Consumer<Collider> callback) {
+        query(minX, minY, maxX, maxY, null, callback);
+    }
+
+    private void query(float minX, float minY, float maxX, float maxY, Collider self, Consumer<Collider> callback) {
+        int base = foundCount;
+        int current = nextStamp();
+        int cellMaxX = cell(maxX), cellMaxY = cell(maxY);
+        for (int cx = cell(minX); cx <= cellMaxX; cx++) {
+            for (int cy = cell(minY); cy <= cellMaxY; cy++) {
+                int slot = find(key(cx, cy));
+                if (slot < 0) continue;
+                int[] cellMembers = members[slot];
+                for (int m = 0; m < memberCounts[slot]; m++) {
+                    int other = cellMembers[m];
+                    if (stamps[other] == current) continue;
+                    stamps[other] = current;
+                    if (colliders[other] != self && overlaps(other, minX, minY, maxX, maxY)) push(colliders[other]);
+                }
+            }
+        }
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k++) {
+                Collider candidate = found[k];
+                if (proxies.containsKey(candidate)) callback.accept(candidate);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    @Override
+    public void pairs(BiConsumer<Collider, Collider> callback) {
+        int base = foundCount;
+        for (int proxy = 0; proxy < proxyCount; proxy++) {
+            if (colliders[proxy] == null) continue;
+            int current = nextStamp();
+            int i = proxy * 4;
+            for (int cx = cells[i]; cx <= cells[i + 2]; cx++) {
+                for (int cy = cells[i + 1]; cy <= cells[i + 3]; cy++) {
+                    int slot = find(key(cx, cy));
+                    int[] cellMembers = members[slot];
+                    for (int m = 0; m < memberCounts[slot]; m++) {
+                        int other = cellMembers[m];
+                        //every pair is reported by its lower proxy
+                        if (other <= proxy || stamps[other] == current) continue;
+                        stamps[other] = current;
+                        if (overlaps(other, bounds[i], bounds[i + 1], bounds[i + 2], bounds[i + 3])) {
+                            push(colliders[proxy]);
+                            push(colliders[other]);
+                        }
+                    }
+                }
+            }
+        }
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k += 2) {
+                Collider first = found[k], second = found[k + 1];
+                if (proxies.containsKey(first) && proxies.containsKey(second)) callback.accept(first, second);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    private void push(Collider candidate) {
+        if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+        found[foundCount++] = candidate;
+    }
+
+    //drops the candidates of a finished query, so they can be collected
+    private void pop(int base, int end) {
+        Arrays.fill(found, base, end, null);
+        foundCount = base;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    @Override
+    public void clear() {
+        proxies.clear();
+        Arrays.fill(colliders, null);
+        proxyCount = 0;
+        freeCount = 0;
+        Arrays.fill(used, false);
+        Arrays.fill(members, null);
+        Arrays.fill(memberCounts, 0);
+        usedCells = 0;
+    }
+
+    private boolean overlaps(int proxy, float minX, float minY, float maxX, float maxY) {
+        int i = proxy * 4;
+        return bounds[i] <= maxX && bounds[i + 2] >= minX && bounds[i + 1] <= maxY && bounds[i + 3] >= minY;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    //the slot of a cell or -1
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    private void insert(int proxy, int minX, int minY, int maxX, int maxY) {
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int slot = findOrCreate(key(cx, cy));
+                int count = memberCounts[slot];
+                if (members[slot] == null) members[slot] = new int[4];
+                else if (count == members[slot].length) members[slot] = Arrays.copyOf(members[slot], count * 2);
+                members[slot][count] = proxy;
+                memberCounts[slot] = count + 1;
+            }
+        }
+    }
+
+    private void erase(int proxy, int minX, int minY, int maxX, int maxY) {
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int slot = find(key(cx, cy));
+                int[] cellMembers = members[slot];
+                int last = memberCounts[slot] - 1;
+                for (int m = 0; m <= last; m++) {
+                    if (cellMembers[m] == proxy) {
+                        cellMembers[m] = cellMembers[last];
+                        memberCounts[slot] = last;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int findOrCreate(long key) {
+        int slot = find(key);
+        if (slot >= 0) return slot;
+        if ((usedCells + 1) * 2 > keys.length) rehash();
+        int mask = keys.length - 1;
+        slot = hash(key) & mask;
+        while (used[slot]) slot = (slot + 1) & mask;
+        used[slot] = true;
+        keys[slot] = key;
+        memberCounts[slot] = 0;
+        usedCells++;
+        return slot;
+    }
+
+    //drops empty cells and grows the table if it is still more than a quarter full
+    private void rehash() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        int[][] oldMembers = members;
+        int[] oldCounts = memberCounts;
+        int occupied = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i] && oldCounts[i] > 0) occupied++;
+        }
+        int capacity = oldKeys.length;
+        while ((occupied + 1) * 4 > capacity) capacity *= 2;
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        members = new int[capacity][];
+        memberCounts = new int[capacity];
+        usedCells = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i] || oldCounts[i] == 0) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            members[slot] = oldMembers[i];
+            memberCounts[slot] = oldCounts[i];
+            usedCells++;
+        }
+    }
+
+    private void growProxies() {
+        int capacity = colliders.length * 2;
+        colliders = Arrays.copyOf(colliders, capacity);
+        boxedProxies = Arrays.copyOf(boxedProxies, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        cells = Arrays.copyOf(cells, capacity * 4);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+
+}
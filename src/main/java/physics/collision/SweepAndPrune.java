@@ -0,0 +1,414 @@
+package physics.collision;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Broadphase} sorting the start and end points of all colliders along the x axis.
+ * Sweeping over the sorted points finds the colliders overlapping on the x axis, only those are compared on the y axis.
+ * <p>
+ * Since colliders move little between frames, the points are kept sorted with insertion sort, which takes about linear time
+ * if the order barely changes. This suits mostly static levels, like tile maps, especially well.
+ * Adding many colliders at once sorts all points again instead. Updating a collider only rewrites its own points
+ * and removed colliders only mark theirs, they are dropped by the next sort.
+ * <p>
+ * {@link #step(PairListener)} keeps a persistent cache of overlapping pairs and reports the pairs which started or stopped overlapping.
+ * Each pair has an id, which stays the same as long as the pair overlaps, so results of the narrow phase can be cached per pair.
+ * Once it is used, the proxies of removed colliders are kept until the next step reported their pairs,
+ * otherwise they are reused right away.
+ * <p>
+ * Queries gather their candidates before calling back, so callbacks may add, remove and update colliders and run nested queries.
+ * Colliders removed by a callback are not reported to later callbacks of the same query.
+ */
+public final class SweepAndPrune implements Broadphase {
+
+    /**
+     * Receives the changes of the overlapping pairs of a step.
+     *
+     * @see #step(PairListener)
+     */
+    public interface PairListener {
+
+        /**
+         * @param pair   the id of the pair
+         * @param first  a collider of the pair
+         * @param second the other collider of the pair
+         */
+        void pairAdded(long pair, Collider first, Collider second);
+
+        /**
+         * Is called for the pairs of removed colliders as well.
+         *
+         * @param pair   the id of the pair
+         * @param first  a collider of the pair, in the same order as when the pair was added
+         * @param second the other collider of the pair
+         */
+        void pairRemoved(long pair, Collider first, Collider second);
+
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long MAX_FLAG = 0x80000000L;
+
+    private final Map<Collider, Integer> proxies = new IdentityHashMap<>();
+
+    //proxy -> collider and bounds (minX, minY, maxX, maxY)
+    private Collider[] colliders = new Collider[INITIAL_CAPACITY];
+    private float[] bounds = new float[INITIAL_CAPACITY * 4];
+    private int proxyCount = 0;
+    private int[] freeProxies = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    //proxies of removed colliders, whose endpoints are dropped by the next sort
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private int staleCount = 0;
+    //proxies of removed colliders are reused once their endpoints are gone and, if steps are used, after the next step,
+    //so pair ids of the step stay unique
+    private int[] removedProxies = new int[INITIAL_CAPACITY];
+    private int removedCount = 0;
+    private boolean stepped = false;
+
+    //endpoints sorted along the x axis, the value in the upper 32 bits sorts like the float coordinate,
+    //the lower 32 bits hold the proxy and a flag for end points, so start points come first at equal values
+    private long[] endpoints = new long[INITIAL_CAPACITY * 2];
+    private int endpointCount = 0;
+    //proxy -> index of its start point and its end point in the endpoints
+    private int[] endpointIndices = new int[INITIAL_CAPACITY * 2];
+    //endpoints appended since the last sort
+    private int unsorted = 0;
+    private boolean moved = false;
+    //the widest collider, to know where queries have to start
+    private float maxWidth = 0;
+
+    //the proxies overlapping the sweep position
+    private int[] active = new int[INITIAL_CAPACITY];
+
+    //sorted pair ids of the last step and the current one
+    private long[] cachedPairs = new long[INITIAL_CAPACITY];
+    private int cachedCount = 0;
+    private long[] currentPairs = new long[INITIAL_CAPACITY];
+    private int currentCount = 0;
+
+    private final float[] queryBounds = new float[4];
+    //candidates of the queries in progress, nested queries run by callbacks append theirs behind those of the outer query
+    private Collider[] found = new Collider[INITIAL_CAPACITY];
+    private int foundCount = 0;
+
+    /**
+     * @param first  a collider
+     * @param second another collider
+     * @return the id of the pair of both colliders, regardless of their order, or -1 if one of them has not been added
+     */
+    public long pairId(Collider first, Collider second) {
+        Integer a = proxies.get(first);
+        Integer b = proxies.get(second);
+        if (a == null || b == null || a.equals(b)) return -1;
+        return pair(a, b);
+    }
+
+    /**
+     * @return the amount of overlapping pairs found by the last step
+     */
+    public int pairCount() {
+        return cachedCount;
+    }
+
+    @Override
+    public boolean add(Collider collider) {
+        if (proxies.containsKey(collider)) return false;
+        int proxy;
+        if (freeCount > 0) proxy = freeProxies[--freeCount];
+        else {
+            if (proxyCount == colliders.length) {
+                colliders = Arrays.copyOf(colliders, proxyCount * 2);
+                bounds = Arrays.copyOf(bounds, proxyCount * 8);
+                removed = Arrays.copyOf(removed, proxyCount * 2);
+                endpointIndices = Arrays.copyOf(endpointIndices, proxyCount * 4);
+            }
+            proxy = proxyCount++;
+        }
+        proxies.put(collider, proxy);
+        colliders[proxy] = collider;
+        Broadphase.bounds(collider, queryBounds);
+        System.arraycopy(queryBounds, 0, bounds, proxy * 4, 4);
+        if (endpointCount + 2 > endpoints.length) endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+        place(endpointCount++, endpoint(proxy, false));
+        place(endpointCount++, endpoint(proxy, true));
+        unsorted += 2;
+        maxWidth = Math.max(maxWidth, queryBounds[2] - queryBounds[0]);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Collider collider) {
+        Integer proxy = proxies.remove(collider);
+        if (proxy == null) return false;
+        removed[proxy] = true;
+        staleCount++;
+        //without steps no pair refers to the collider anymore
+        if (!stepped) colliders[proxy] = null;
+        if (removedCount == removedProxies.length) removedProxies = Arrays.copyOf(removedProxies, removedCount * 2);
+        removedProxies[removedCount++] = proxy;
+        return true;
+    }
+
+    @Override
+    public void update(Collider collider) {
+        Integer proxy = proxies.get(collider);
+        if (proxy == null) return;
+        float radius = collider.getShape().boundingSphere().radius();
+        float x = collider.getShape().boundingSphere().centroid().x;
+        float y = collider.getShape().boundingSphere().centroid().y;
+        int i = proxy * 4;
+        //the endpoints are only sorted before the next query
+        bounds[i] = x - radius;
+        bounds[i + 1] = y - radius;
+        bounds[i + 2] = x + radius;
+        bounds[i + 3] = y + radius;
+        endpoints[endpointIndices[proxy * 2]] = endpoint(proxy, false);
+        endpoints[endpointIndices[proxy * 2 + 1]] = endpoint(proxy, true);
+        moved = true;
+    }
+
+    @Override
+    public void query(Collider collider, Consumer<Collider> callback) {
+        Broadphase.bounds(collider, queryBounds);
+        query(queryBounds[0], queryBounds[1], queryBounds[2], queryBounds[3], collider, callback);
+    }
+
+    @Override
+    public void queryRegion(float minX, float minY, float maxX, float maxY, Consumer<Collider> callback) {
+        query(minX, minY, maxX, maxY, null, callback);
+    }
+
+    private void query(float minX, float minY, float maxX, float maxY, Collider self, Consumer<Collider> callback) {
+        sort();
+        int base = foundCount;
+        //no collider starting before this can reach the region
+        long first = (long) sortable(minX - maxWidth) << 32;
+        int start = Arrays.binarySearch(endpoints, 0, endpointCount, first);
+        if (start < 0) start = -start - 1;
+        for (int i = start; i < endpointCount; i++) {
+            long endpoint = endpoints[i];
+            if ((endpoint & MAX_FLAG) != 0) continue;
+            int proxy = proxyOf(endpoint);
+            int b = proxy * 4;
+            if (bounds[b] > maxX) break;
+            if (bounds[b + 2] >= minX && bounds[b + 1] <= maxY && bounds[b + 3] >= minY && colliders[proxy] != self)
+                push(colliders[proxy]);
+        }
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k++) {
+                Collider candidate = found[k];
+                if (proxies.containsKey(candidate)) callback.accept(candidate);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    @Override
+    public void pairs(BiConsumer<Collider, Collider> callback) {
+        int base = foundCount;
+        sweep(true);
+        int end = foundCount;
+        try {
+            for (int k = base; k < end; k += 2) {
+                Collider first = found[k], second = found[k + 1];
+                if (proxies.containsKey(first) && proxies.containsKey(second)) callback.accept(first, second);
+            }
+        } finally {
+            pop(base, end);
+        }
+    }
+
+    //gathers the colliders of the pairs as candidates, or collects the ids of the pairs
+    private void sweep(boolean gather) {
+        sort();
+        int activeCount = 0;
+        for (int i = 0; i < endpointCount; i++) {
+            long endpoint = endpoints[i];
+            int proxy = proxyOf(endpoint);
+            if ((endpoint & MAX_FLAG) != 0) {
+                for (int a = 0; a < activeCount; a++) {
+                    if (active[a] == proxy) {
+                        active[a] = active[--activeCount];
+                        break;
+                    }
+                }
+                continue;
+            }
+            int b = proxy * 4;
+            //all active proxies overlap on the x axis
+            for (int a = 0; a < activeCount; a++) {
+                int other = active[a] * 4;
+                if (bounds[b + 1] > bounds[other + 3] || bounds[b + 3] < bounds[other + 1]) continue;
+                if (gather) {
+                    push(colliders[active[a]]);
+                    push(colliders[proxy]);
+                } else {
+                    if (currentCount == currentPairs.length) currentPairs = Arrays.copyOf(currentPairs, currentCount * 2);
+                    currentPairs[currentCount++] = pair(active[a], proxy);
+                }
+            }
+            if (activeCount == active.length) active = Arrays.copyOf(active, activeCount * 2);
+            active[activeCount++] = proxy;
+        }
+    }
+
+    /**
+     * Finds all overlapping pairs and compares them with the pairs of the last step.
+     * Pairs of removed colliders are reported as removed.
+     *
+     * @param listener receives the pairs which started or stopped overlapping since the last step
+     */
+    public void step(PairListener listener) {
+        stepped = true;
+        currentCount = 0;
+        sweep(false);
+        //colliders removed by the listener have pairs in the new cache, they are released by the next step
+        int reported = removedCount;
+        Arrays.sort(currentPairs, 0, currentCount);
+        int c = 0, n = 0;
+        while (c < cachedCount || n < currentCount) {
+            long cached = c < cachedCount ? cachedPairs[c] : Long.MAX_VALUE;
+            long current = n < currentCount ? currentPairs[n] : Long.MAX_VALUE;
+            if (cached == current) {
+                c++;
+                n++;
+            } else if (cached < current) {
+                listener.pairRemoved(cached, colliders[low(cached)], colliders[high(cached)]);
+                c++;
+            } else {
+                listener.pairAdded(current, colliders[low(current)], colliders[high(current)]);
+                n++;
+            }
+        }
+        long[] swap = cachedPairs;
+        cachedPairs = currentPairs;
+        cachedCount = currentCount;
+        currentPairs = swap;
+        //pairs of removed colliders have been reported, their proxies can be reused
+        release(reported);
+    }
+
+    //frees the proxies of the first removed colliders, their endpoints must be gone
+    private void release(int count) {
+        for (int i = 0; i < count; i++) {
+            int proxy = removedProxies[i];
+            colliders[proxy] = null;
+            removed[proxy] = false;
+            if (freeCount == freeProxies.length) freeProxies = Arrays.copyOf(freeProxies, freeCount * 2);
+            freeProxies[freeCount++] = proxy;
+        }
+        System.arraycopy(removedProxies, count, removedProxies, 0, removedCount - count);
+        removedCount -= count;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    /**
+     * Removes all colliders and drops the cached pairs without reporting them.
+     */
+    @Override
+    public void clear() {
+        proxies.clear();
+        Arrays.fill(colliders, null);
+        Arrays.fill(removed, false);
+        proxyCount = 0;
+        freeCount = 0;
+        staleCount = 0;
+        removedCount = 0;
+        stepped = false;
+        endpointCount = 0;
+        unsorted = 0;
+        maxWidth = 0;
+        cachedCount = 0;
+        moved = false;
+    }
+
+    //brings the endpoints up to date and in order
+    private void sort() {
+        if (!moved && unsorted == 0 && staleCount == 0) return;
+        moved = false;
+        //sorting everything again is cheaper than inserting many new endpoints one by one
+        if (unsorted > 32 && unsorted * 4 > endpointCount) Arrays.sort(endpoints, 0, endpointCount);
+        else {
+            for (int i = 1; i < endpointCount; i++) {
+                long endpoint = endpoints[i];
+                int j = i - 1;
+                while (j >= 0 && endpoints[j] > endpoint) {
+                    endpoints[j + 1] = endpoints[j];
+                    j--;
+                }
+                endpoints[j + 1] = endpoint;
+            }
+        }
+        unsorted = 0;
+        //drop the endpoints of removed colliders and note where the others ended up
+        int kept = 0;
+        maxWidth = 0;
+        for (int i = 0; i < endpointCount; i++) {
+            long endpoint = endpoints[i];
+            int proxy = proxyOf(endpoint);
+            if (removed[proxy]) continue;
+            place(kept++, endpoint);
+            if ((endpoint & MAX_FLAG) != 0) maxWidth = Math.max(maxWidth, bounds[proxy * 4 + 2] - bounds[proxy * 4]);
+        }
+        endpointCount = kept;
+        if (staleCount > 0) {
+            staleCount = 0;
+            if (!stepped) release(removedCount);
+        }
+    }
+
+    private void place(int index, long endpoint) {
+        endpoints[index] = endpoint;
+        endpointIndices[proxyOf(endpoint) * 2 + ((endpoint & MAX_FLAG) != 0 ? 1 : 0)] = index;
+    }
+
+    private void push(Collider candidate) {
+        if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+        found[foundCount++] = candidate;
+    }
+
+    //drops the candidates of a finished query, so they can be collected
+    private void pop(int base, int end) {
+        Arrays.fill(found, base, end, null);
+        foundCount = base;
+    }
+
+    private long endpoint(int proxy, boolean max) {
+        float value = bounds[proxy * 4 + (max ? 2 : 0)];
+        return ((long) sortable(value) << 32) | (max ? MAX_FLAG : 0) | proxy;
+    }
+
+    //an int ordered like the float
+    private static int sortable(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private static int proxyOf(long endpoint) {
+        return (int) (endpoint & 0x7FFFFFFFL);
+    }
+
+    private static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    private static int low(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int high(long pair) {
+        return (int) pair;
+    }
+
+}
@@ -21,11 +21,34 @@ public class Circle extends PrimitiveShape {
         this.radius = radius;
         this.radiusSquared = radius * radius;
         this.boundingSphere = this;
+        //the circle is placed at the origin until its position is set
+        adjust();
+    }
+
+    private Circle(Circle template) {
+        super(template);
+        this.radius = template.radius;
+        this.radiusSquared = template.radiusSquared;
+        this.boundingSphere = this;
+        adjust();
+    }
+
+    /**
+     * @return the radius of the circle
+     */
+    public float radius() {
+        return radius;
+    }
+
+    @Override
+    public Circle copy() {
+        return new Circle(this);
     }
 
     @Override
     public void adjust() {
-        this.absoluteCentroid = position().add(this.relativeCentroid, new Vector2f());
+        if (absoluteCentroid == null) absoluteCentroid = new Vector2f();
+        position().add(this.relativeCentroid, absoluteCentroid);
     }
 
     @Override
@@ -34,6 +57,12 @@ public class Circle extends PrimitiveShape {
         return absoluteCentroid.add(normalized, new Vector2f());
     }
 
+    @Override
+    public void supportPoint(float directionX, float directionY, Vector2f result) {
+        float scale = 1.0f / (float) Math.sqrt(directionX * directionX + directionY * directionY) * radius;
+        result.set(absoluteCentroid.x + directionX * scale, absoluteCentroid.y + directionY * scale);
+    }
+
     /**
      * Check intersection between two circles efficiently without using square roots.
      * Will only produce wrong results originated in missing precision in floating point numbers.
@@ -20,4 +20,13 @@ public class ConvexPolygon extends PrimitiveShape {
         init();
     }
 
+    private ConvexPolygon(ConvexPolygon template) {
+        super(template);
+    }
+
+    @Override
+    public ConvexPolygon copy() {
+        return new ConvexPolygon(this);
+    }
+
 }
\ No newline at end of file
@@ -17,9 +17,25 @@ public class Line extends PrimitiveShape {
         init();
     }
 
+    private Line(Line template) {
+        super(template);
+    }
+
+    @Override
+    public Line copy() {
+        return new Line(this);
+    }
+
     @Override
     public Vector2f supportPoint(Vector2f v) {
         return absolutes[0].dot(v) > absolutes[1].dot(v) ? absolutes[0] : absolutes[1];
     }
 
+    @Override
+    public void supportPoint(float directionX, float directionY, Vector2f result) {
+        float dot0 = absolutes[0].x * directionX + absolutes[0].y * directionY;
+        float dot1 = absolutes[1].x * directionX + absolutes[1].y * directionY;
+        result.set(dot0 > dot1 ? absolutes[0] : absolutes[1]);
+    }
+
 }
\ No newline at end of file
@@ -18,9 +18,23 @@ public class Point extends PrimitiveShape {
         init();
     }
 
+    private Point(Point template) {
+        super(template);
+    }
+
+    @Override
+    public Point copy() {
+        return new Point(this);
+    }
+
     @Override
     public Vector2f supportPoint(Vector2f v) {
         return absolutes[0];
     }
 
+    @Override
+    public void supportPoint(float directionX, float directionY, Vector2f result) {
+        result.set(absolutes[0]);
+    }
+
 }
\ No newline at end of file
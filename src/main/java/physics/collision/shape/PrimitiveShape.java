@@ -72,7 +72,7 @@ public abstract class PrimitiveShape {
      *
      * @see #setPosition(Vector2f)
      */
-    private Vector2f position = new Vector2f(0, 0);
+    private final Vector2f position = new Vector2f(0, 0);
 
     /**
      * Create a polygon of the given coordinates.
@@ -107,23 +107,56 @@ public abstract class PrimitiveShape {
         }
     }
 
+    /**
+     * Create a shape sharing the geometry of another shape, without computing the convex hull again.
+     * The relative points are never modified in place, rotating either shape replaces them,
+     * so both shapes stay independent. The position of the new shape is reset.
+     *
+     * @param template the shape to share the geometry with
+     * @see #copy()
+     */
+    protected PrimitiveShape(PrimitiveShape template) {
+        this.type = template.type;
+        this.vertices = template.vertices;
+        this.relatives = template.relatives.clone();
+        this.absolutes = new Vector2f[this.vertices];
+        this.faces = new Face[this.vertices];
+        for (int i = 0; i < this.vertices; i++) {
+            faces[i] = new Face(this, template.faces[i].getRelativeFixPoint(), template.faces[i].getRelativeFace());
+        }
+        this.relativeCentroid = template.relativeCentroid;
+        //circles are their own bounding sphere
+        if (template.boundingSphere != null && template.boundingSphere != template)
+            this.boundingSphere = template.boundingSphere.copy();
+    }
+
+    /**
+     * Creates an independent shape sharing the geometry of this one, which is a lot cheaper than creating the shape again.
+     * Useful to give many gameObjects the same collision shape.
+     *
+     * @return a copy of this shape at the origin
+     */
+    public abstract PrimitiveShape copy();
+
     /**
      * Update the shapes position due to external changes, e.g. the related object has moved
      *
-     * @param position the new position of the related object
+     * @param position the new position of the related object, it is copied
      */
     public final void setPosition(Vector2f position) {
-        this.position = position;
-        adjust();
+        setPosition(position.x, position.y);
     }
 
     /**
+     * Updates the position without allocating.
+     *
      * @param x the x coord
      * @param y the y coord
      * @see #setPosition(Vector2f)
      */
     public final void setPosition(float x, float y) {
-        setPosition(new Vector2f(x, y));
+        position.set(x, y);
+        adjust();
     }
 
     /**
@@ -177,14 +210,16 @@ public abstract class PrimitiveShape {
 
     /**
      * Will be called by {@link PrimitiveShape#setPosition(Vector2f)} after the new position was set.
-     * Used to recalculate the absolute coordinates.
+     * Used to recalculate the absolute coordinates, which are updated in place.
      */
     public void adjust() {
         for (int i = 0; i < this.vertices; i++) {
-            absolutes[i] = position().add(relatives[i], new Vector2f());
+            if (absolutes[i] == null) absolutes[i] = new Vector2f();
+            position.add(relatives[i], absolutes[i]);
         }
-        absoluteCentroid = position().add(relativeCentroid, new Vector2f());
-        this.boundingSphere.setPosition(position());
+        if (absoluteCentroid == null) absoluteCentroid = new Vector2f();
+        position.add(relativeCentroid, absoluteCentroid);
+        this.boundingSphere.setPosition(position.x, position.y);
     }
 
     /**
@@ -264,6 +299,26 @@ public abstract class PrimitiveShape {
         return MathUtils.maxDotPoint(absolutes, v);
     }
 
+    /**
+     * Like {@link #supportPoint(Vector2f)}, but without allocating.
+     *
+     * @param directionX the x coordinate of the direction
+     * @param directionY the y coordinate of the direction
+     * @param result     receives the point of the shape that is most in the direction
+     */
+    public void supportPoint(float directionX, float directionY, Vector2f result) {
+        //starts with the first point, so the result is set even if the dot products are NaN
+        result.set(absolutes[0]);
+        float maxDot = directionX * absolutes[0].x + directionY * absolutes[0].y;
+        for (int i = 1; i < absolutes.length; i++) {
+            float dot = directionX * absolutes[i].x + directionY * absolutes[i].y;
+            if (dot > maxDot) {
+                maxDot = dot;
+                result.set(absolutes[i]);
+            }
+        }
+    }
+
     /**
      * A clean description for this shape.
      *
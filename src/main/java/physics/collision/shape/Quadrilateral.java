@@ -17,4 +17,13 @@ public class Quadrilateral extends PrimitiveShape {
         init();
     }
 
+    private Quadrilateral(Quadrilateral template) {
+        super(template);
+    }
+
+    @Override
+    public Quadrilateral copy() {
+        return new Quadrilateral(this);
+    }
+
 }
\ No newline at end of file
@@ -17,4 +17,13 @@ public class Triangle extends PrimitiveShape {
         init();
     }
 
+    private Triangle(Triangle template) {
+        super(template);
+    }
+
+    @Override
+    public Triangle copy() {
+        return new Triangle(this);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package scene;
+
+import ecs.Component;
+import ecs.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records structural changes of a scene made while its gameObjects are updated and applies them afterwards.
+ * Spawning and destroying gameObjects as well as adding and removing components would otherwise modify
+ * the collections currently iterated by the update loop.
+ * <p>
+ * The commands are applied in the order they were recorded, once the update pass of the scene has finished.
+ * Consecutive spawns and consecutive destroys are applied as one batch each,
+ * so the archetypes and renderers of the scene register them group by group instead of one gameObject at a time.
+ * A spawned gameObject is not part of the scene until then, components added to it are attached right away,
+ * but started and registered with the renderers and colliders only once, when the spawn is applied.
+ * Recording is synchronized, so components updated in parallel may record changes as well.
+ *
+ * @see Scene#isDeferringChanges()
+ */
+public final class CommandBuffer {
+
+    private static final int SPAWN = 0;
+    private static final int DESTROY = 1;
+    private static final int ADD_COMPONENT = 2;
+    private static final int REMOVE_COMPONENT = 3;
+
+    private final Scene scene;
+
+    private int[] types = new int[64];
+    private GameObject[] targets = new GameObject[64];
+    private Object[] arguments = new Object[64];
+    private int size = 0;
+
+    //the current run of spawns or destroys
+    private final List<GameObject> batch = new ArrayList<>();
+
+    CommandBuffer(Scene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Records adding a gameObject to the scene.
+     *
+     * @param gameObject the gameObject
+     */
+    public synchronized void spawn(GameObject gameObject) {
+        record(SPAWN, gameObject, null);
+    }
+
+    /**
+     * Records removing a gameObject from the scene.
+     *
+     * @param gameObject the gameObject
+     */
+    public synchronized void destroy(GameObject gameObject) {
+        record(DESTROY, gameObject, null);
+    }
+
+    /**
+     * Records adding a component to a gameObject.
+     *
+     * @param gameObject the gameObject
+     * @param component  the component
+     */
+    public synchronized void addComponent(GameObject gameObject, Component component) {
+        record(ADD_COMPONENT, gameObject, component);
+    }
+
+    /**
+     * Records removing a component from a gameObject.
+     *
+     * @param gameObject     the gameObject
+     * @param componentClass the type of the component
+     */
+    public synchronized void removeComponent(GameObject gameObject, Class<?> componentClass) {
+        record(REMOVE_COMPONENT, gameObject, componentClass);
+    }
+
+    /**
+     * @return the amount of recorded commands not applied yet
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Applies all recorded commands in order and clears the buffer.
+     * Must not be called while the scene is deferring changes.
+     */
+    synchronized void flush() {
+        int i = 0;
+        while (i < size) {
+            int type = types[i];
+            if (type == SPAWN || type == DESTROY) {
+                //collect the run of equal commands and apply it at once
+                while (i < size && types[i] == type) batch.add(targets[i++]);
+                if (type == SPAWN) scene.addGameObjectsToScene(batch);
+                else scene.removeGameObjectsFromScene(batch);
+                batch.clear();
+                continue;
+            }
+            GameObject target = targets[i];
+            if (type == ADD_COMPONENT) target.addComponent((Component) arguments[i]);
+            else target.removeComponent((Class<?>) arguments[i]);
+            i++;
+        }
+        //drop the references, so destroyed gameObjects can be collected
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(arguments, 0, size, null);
+        size = 0;
+    }
+
+    private void record(int type, GameObject target, Object argument) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            arguments = Arrays.copyOf(arguments, size * 2);
+        }
+        types[size] = type;
+        targets[size] = target;
+        arguments[size] = argument;
+        size++;
+    }
+
+}
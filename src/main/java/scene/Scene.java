@@ -1,6 +1,12 @@
 package scene;
 
+import ecs.ArchetypeStorage;
+import ecs.CollisionPipeline;
 import ecs.GameObject;
+import ecs.GameObjectRegistry;
+import ecs.PhaseScheduler;
+import ecs.Query;
+import ecs.TransformStore;
 import graphics.Camera;
 import graphics.Texture;
 import graphics.postprocess.ForwardToTexture;
@@ -8,16 +14,21 @@ import graphics.postprocess.PostProcessStep;
 import graphics.renderer.*;
 import input.Keyboard;
 import org.lwjgl.glfw.GLFW;
+import physics.collision.Broadphase;
 import physics.collision.Collider;
+import physics.collision.SpatialHash;
 import ui.Element;
 import ui.RenderableElement;
 import ui.Text;
+import util.AssetScope;
+import util.ChangeNotifier;
 import util.Engine;
+import util.HandleMap;
 import util.Log;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Abstract class encapsulating the game logic, the gameObjects, the renderers, the physics
@@ -80,12 +91,36 @@ public abstract class Scene {
     private static int sceneCounter = 0;
     private final int sceneId = sceneCounter++;
 
-    private final List<GameObject> gameObjects = new LinkedList<>();
-    private final List<Collider> colliders = new LinkedList<>();
+    private final GameObjectRegistry gameObjects = new GameObjectRegistry();
+    private final HandleMap<Collider> colliders = new HandleMap<>();
+    private Broadphase broadphase = new SpatialHash();
+    private final CollisionPipeline collisions = new CollisionPipeline(this);
     private final List<Text> texts = new ArrayList<>();
     private final List<Element> uiElements = new ArrayList<>();
 
-    private List<Renderer> rendererRegistry = new LinkedList<>();
+    private final List<Renderer> rendererRegistry = new ArrayList<>();
+
+    /**
+     * Optional archetype based storage, null as long as the default storage mode is used
+     *
+     * @see #enableArchetypeStorage()
+     */
+    private ArchetypeStorage archetypeStorage = null;
+
+    /**
+     * Optional scheduler updating the gameObjects phase by phase, null for the default serial update loop
+     *
+     * @see #enableParallelUpdates(PhaseScheduler)
+     */
+    private PhaseScheduler phaseScheduler = null;
+
+    /**
+     * Structural changes recorded while the gameObjects are updated
+     *
+     * @see #isDeferringChanges()
+     */
+    private final CommandBuffer commands = new CommandBuffer(this);
+    private boolean deferringChanges = false;
 
 
     public DefaultRenderer renderer = new DefaultRenderer();
@@ -99,10 +134,36 @@ public abstract class Scene {
     private boolean debugMode = false;
     private boolean active = false;
 
+    /**
+     * The textures loaded by this scene, released when it is unloaded
+     */
+    private final AssetScope assets = new AssetScope();
+    private volatile boolean suspended = false;
+
     public boolean isActive() {
         return active;
     }
 
+    /**
+     * @return the assets referenced by this scene, released when the scene is unloaded
+     * @see SceneManager#unload(Scene)
+     */
+    public AssetScope assets() {
+        return assets;
+    }
+
+    /**
+     * @return true if the renderers of the scene have released their GPU memory
+     * @see SceneManager#suspend(Scene)
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
     /**
      * Runs only once on startup, useful for initializing gameObjects or for first time setup.
      */
@@ -110,6 +171,17 @@ public abstract class Scene {
         camera = new Camera();
     }
 
+    /**
+     * Called on the main thread when the scene is preloaded, before {@link #awake()}.
+     * Heavy work of awake, like reading files or decoding images, can be registered here instead,
+     * so it is done in the background while another scene is still running.
+     *
+     * @param preload the preload to register work with
+     * @see SceneManager#preload(Scene)
+     */
+    public void preload(ScenePreload preload) {
+    }
+
     /**
      * This method will be called each time this scene becomes active by {@link SceneManager}.
      * Will be called right before the first update.
@@ -153,7 +225,7 @@ public abstract class Scene {
      */
     // TODO not called? find out why
     public final void startGameObjects() {
-        for (GameObject gameObject : gameObjects) {
+        for (GameObject gameObject : gameObjects.values()) {
             gameObject.start();
             this.renderer.add(gameObject);
             this.lightmapRenderer.add(gameObject);
@@ -162,31 +234,127 @@ public abstract class Scene {
         }
     }
 
+    /**
+     * @return a read-only view of the colliders in the scene, one per gameObject
+     */
     public List<Collider> getColliders() {
-        return colliders;
+        return colliders.values();
+    }
+
+    /**
+     * @return the broadphase containing all colliders of the scene, to find the colliders near a collider
+     */
+    public Broadphase broadphase() {
+        return broadphase;
+    }
+
+    /**
+     * @return the pipeline detecting the collisions of the scene and dispatching them to the collision handlers
+     */
+    public CollisionPipeline collisions() {
+        return collisions;
+    }
+
+    /**
+     * Replaces the broadphase of the scene, all colliders of the scene are moved to the new one.
+     *
+     * @param broadphase an empty broadphase
+     */
+    public void setBroadphase(Broadphase broadphase) {
+        if (broadphase == null) throw new IllegalArgumentException("the broadphase of a scene shall not be null");
+        this.broadphase.clear();
+        this.broadphase = broadphase;
+        List<Collider> all = colliders.values();
+        for (int i = 0; i < all.size(); i++) {
+            broadphase.add(all.get(i));
+        }
     }
 
+    /**
+     * Registers the collider of a gameObject in constant time, replacing a previously registered one.
+     *
+     * @param gameObject the gameObject
+     */
     public final void registerCollider(GameObject gameObject) {
-        colliders.add(gameObject.getComponent(Collider.class));
+        if (gameObjects.get(gameObject.handle()) != gameObject) return;
+        Collider collider = gameObject.getComponent(Collider.class);
+        if (collider == null) return;
+        Collider previous = colliders.put(gameObject.handle(), collider);
+        if (previous == collider) return;
+        if (previous != null) broadphase.remove(previous);
+        broadphase.add(collider);
     }
 
+    /**
+     * Unregisters the collider of a gameObject in constant time.
+     * If the gameObject still contains another collider, that one is registered instead.
+     *
+     * @param gameObject the gameObject
+     */
     public final void unregisterCollider(GameObject gameObject) {
-        colliders.remove(gameObject.getComponent(Collider.class));
+        Collider previous = colliders.remove(gameObject.handle());
+        if (previous != null) broadphase.remove(previous);
+        registerCollider(gameObject);
     }
 
     /**
-     * @return the List of gameObjects contained in the scene.
+     * @return a read-only view of the gameObjects contained in the scene,
+     * removing a gameObject moves the last one into its place
      */
     public List<GameObject> getGameObjects() {
-        return gameObjects;
+        return gameObjects.values();
+    }
+
+    /**
+     * @return the structure-of-arrays store holding the transforms of all gameObjects in the scene
+     * @see GameObject#transformVersion()
+     */
+    public TransformStore transforms() {
+        return gameObjects.transforms();
+    }
+
+    /**
+     * Returns a live view of all gameObjects in the scene containing components of all given types.
+     * The view is updated incrementally whenever gameObjects or components are added or removed,
+     * so systems can iterate it every frame instead of filtering {@link #getGameObjects()}.
+     * Calling this method again with the same types returns the same query.
+     *
+     * @param types component types, supertypes and interfaces like {@link Collider} can be used too
+     * @return the query
+     * @see Query
+     */
+    public Query query(Class<?>... types) {
+        return gameObjects.query(types);
+    }
+
+    /**
+     * Resolves a generational handle in constant time.
+     *
+     * @param handle the handle of a gameObject
+     * @return the gameObject or null, if it has been removed from the scene
+     * @see GameObject#handle()
+     */
+    public GameObject getGameObject(long handle) {
+        return gameObjects.get(handle);
     }
 
     /**
      * @param gameObject GameObject to be added.
      *                   Add a new gameObject to the scene and immediately call its start method.
+     *                   While the gameObjects are updated, adding is deferred to the end of the update pass.
      */
     public void addGameObjectToScene(GameObject gameObject) {
-        gameObjects.add(gameObject);
+        if (deferringChanges) {
+            commands.spawn(gameObject);
+            return;
+        }
+        if (!gameObjects.add(gameObject)) return;
+        registerCollider(gameObject);
+        List<GameObject> children = gameObject.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            addGameObjectToScene(children.get(i));
+        }
+        if (archetypeStorage != null) archetypeStorage.add(gameObject);
         if (active) {
             gameObject.start();
             addToRenderers(gameObject);
@@ -194,11 +362,91 @@ public abstract class Scene {
     }
 
     /**
-     * @param gameObject GameObject to be added.
+     * @param gameObject GameObject to be removed.
+     *                   While the gameObjects are updated, removing is deferred to the end of the update pass.
      */
     public void removeGameObjectFromScene(GameObject gameObject) {
-        gameObjects.remove(gameObject);
+        if (deferringChanges) {
+            commands.destroy(gameObject);
+            return;
+        }
+        if (gameObjects.get(gameObject.handle()) != gameObject) return;
+        if (archetypeStorage != null) archetypeStorage.remove(gameObject);
         removeFromRenderers(gameObject);
+        Collider collider = colliders.remove(gameObject.handle());
+        if (collider != null) broadphase.remove(collider);
+        gameObjects.remove(gameObject);
+        List<GameObject> children = gameObject.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            removeGameObjectFromScene(children.get(i));
+        }
+    }
+
+    /**
+     * Adds many gameObjects at once, used to apply the spawns recorded during the update pass.
+     * Has the same effect as adding them one by one, but each step is done for the whole batch:
+     * all gameObjects are registered first, then put into their archetypes, started,
+     * and finally handed over to each renderer in a single call.
+     *
+     * @param batch the gameObjects to add, their descendants are appended and gameObjects already in the scene are dropped
+     */
+    void addGameObjectsToScene(List<GameObject> batch) {
+        int kept = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            GameObject gameObject = batch.get(i);
+            if (!gameObjects.add(gameObject)) continue;
+            registerCollider(gameObject);
+            batch.addAll(gameObject.getChildren());
+            batch.set(kept++, gameObject);
+        }
+        batch.subList(kept, batch.size()).clear();
+        if (batch.isEmpty()) return;
+        if (archetypeStorage != null) archetypeStorage.addAll(batch);
+        if (!active) return;
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).start();
+        }
+        renderer.addAll(batch);
+        lightmapRenderer.addAll(batch);
+        debugRenderer.addAll(batch);
+        for (int i = 0; i < rendererRegistry.size(); i++) {
+            rendererRegistry.get(i).addAll(batch);
+        }
+    }
+
+    /**
+     * Removes many gameObjects at once, used to apply the destroys recorded during the update pass.
+     * Like {@link #addGameObjectsToScene(List)}, each step is done for the whole batch.
+     *
+     * @param batch the gameObjects to remove, their descendants are appended and gameObjects not in the scene are dropped
+     */
+    void removeGameObjectsFromScene(List<GameObject> batch) {
+        int kept = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            GameObject gameObject = batch.get(i);
+            if (gameObjects.get(gameObject.handle()) != gameObject) continue;
+            batch.addAll(gameObject.getChildren());
+            batch.set(kept++, gameObject);
+        }
+        batch.subList(kept, batch.size()).clear();
+        if (batch.isEmpty()) return;
+        if (archetypeStorage != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                archetypeStorage.remove(batch.get(i));
+            }
+        }
+        renderer.removeAll(batch);
+        lightmapRenderer.removeAll(batch);
+        debugRenderer.removeAll(batch);
+        for (int i = 0; i < rendererRegistry.size(); i++) {
+            rendererRegistry.get(i).removeAll(batch);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            GameObject gameObject = batch.get(i);
+            Collider collider = colliders.remove(gameObject.handle());
+            if (collider != null) broadphase.remove(collider);
+            gameObjects.remove(gameObject);
+        }
     }
 
     /**
@@ -210,11 +458,93 @@ public abstract class Scene {
 
     /**
      * Loops through all the gameObjects in the scene and calls their update methods.
+     * Structural changes made meanwhile are recorded and applied afterwards in one batched pass.
+     *
+     * @see CommandBuffer
      */
     public void updateGameObjects () {
-        for (GameObject go : gameObjects) {
-            go.update(Engine.deltaTime());
+        gameObjects.capturePreviousTransforms();
+        deferringChanges = true;
+        try {
+            if (phaseScheduler != null) {
+                phaseScheduler.update(gameObjects.values(), Engine.deltaTime());
+            } else if (archetypeStorage != null) {
+                archetypeStorage.update(Engine.deltaTime());
+            } else {
+                for (GameObject go : gameObjects.values()) {
+                    go.update(Engine.deltaTime());
+                }
+            }
+            //structural changes made by collision handlers are deferred as well
+            collisions.step();
+        } finally {
+            deferringChanges = false;
         }
+        commands.flush();
+        propagateTransforms();
+    }
+
+    /**
+     * Recomputes the cached world transforms of all gameObject hierarchies, which have changed.
+     * Called after the gameObjects have been updated, so the renderers see the world transforms of the current frame.
+     *
+     * @see GameObject#setParent(GameObject)
+     */
+    public void propagateTransforms() {
+        gameObjects.propagateTransforms();
+    }
+
+    /**
+     * While the gameObjects of the scene are updated, spawning and destroying gameObjects and adding and removing
+     * components is recorded in the {@link #commands() command buffer} and applied at the end of the update pass.
+     *
+     * @return true if structural changes are currently deferred
+     */
+    public boolean isDeferringChanges() {
+        return deferringChanges;
+    }
+
+    /**
+     * @return the buffer recording structural changes while the gameObjects are updated
+     */
+    public CommandBuffer commands() {
+        return commands;
+    }
+
+    /**
+     * Switches this scene to the archetype storage mode.
+     * All gameObjects are grouped by their component signature and updated archetype by archetype,
+     * which scales a lot better for large amounts of gameObjects.
+     * Can be called at any time, gameObjects already in the scene are moved into the storage.
+     *
+     * @see ArchetypeStorage
+     */
+    public void enableArchetypeStorage() {
+        if (archetypeStorage != null) return;
+        archetypeStorage = new ArchetypeStorage();
+        for (GameObject gameObject : gameObjects.values()) {
+            archetypeStorage.add(gameObject);
+        }
+    }
+
+    /**
+     * Updates the gameObjects of this scene phase by phase with the given scheduler,
+     * running components declared {@link ecs.ThreadSafe} in parallel.
+     * Takes precedence over the archetype storage for the update pass.
+     *
+     * @param scheduler the scheduler to use or null to return to the default serial update loop
+     * @see PhaseScheduler
+     */
+    public void enableParallelUpdates(PhaseScheduler scheduler) {
+        this.phaseScheduler = scheduler;
+    }
+
+    /**
+     * @return the archetype storage of this scene or null, if the default storage mode is used
+     * @see #enableArchetypeStorage()
+     */
+    public ArchetypeStorage archetypeStorage() {
+        return archetypeStorage;
     }
 
     public void updateUI () {
@@ -225,6 +555,7 @@ public abstract class Scene {
         for (Text t : texts) {
             t.update();
         }
+        ChangeNotifier.ui().flush();
     }
 
     // ----- Rendering -----
@@ -270,6 +601,51 @@ public abstract class Scene {
         }
     }
 
+    /**
+     * Passes the interpolation alpha of the current frame to the renderers of the scene.
+     * With a fixed timestep, it indicates how far the frame is in between the last and the next simulation step.
+     *
+     * @param alpha the interpolation alpha from 0 to 1
+     * @see graphics.Window#setFixedTimestep(util.FixedTimestep)
+     */
+    public void setInterpolationAlpha (float alpha) {
+        rendererRegistry.forEach(r -> r.setInterpolationAlpha(alpha));
+        lightmapRenderer.setInterpolationAlpha(alpha);
+        renderer.setInterpolationAlpha(alpha);
+    }
+
+    /**
+     * Copies everything the renderers of the scene need to draw the current state into a snapshot.
+     * Called on the simulation thread, if the simulation runs on its own thread.
+     *
+     * @param snapshot the snapshot to write to
+     * @param frame    the number of the frame
+     * @param alpha    the interpolation alpha to capture the transforms with
+     * @see graphics.Window#setPipelined(boolean)
+     */
+    public void captureSnapshot (FrameSnapshot snapshot, long frame, float alpha) {
+        snapshot.clear(frame);
+        setInterpolationAlpha(alpha);
+        rendererRegistry.forEach(r -> r.capture(snapshot));
+        lightmapRenderer.capture(snapshot);
+        renderer.capture(snapshot);
+        uiRenderer.capture(snapshot);
+        textRenderer.capture(snapshot);
+    }
+
+    /**
+     * Lets the renderers of the scene draw a snapshot instead of the live gameObjects.
+     *
+     * @param snapshot the snapshot or null to draw the live gameObjects
+     */
+    public void setSnapshot (FrameSnapshot snapshot) {
+        rendererRegistry.forEach(r -> r.setSnapshot(snapshot));
+        lightmapRenderer.setSnapshot(snapshot);
+        renderer.setSnapshot(snapshot);
+        uiRenderer.setSnapshot(snapshot);
+        textRenderer.setSnapshot(snapshot);
+    }
+
     public void render () {
         rendererRegistry.forEach(Renderer::render);
         lightmapRenderer.render();
@@ -286,6 +662,68 @@ public abstract class Scene {
         textRenderer.render();
     }
 
+    /**
+     * Deletes the batches and framebuffers of all renderers, the gameObjects, the ui and the assets are kept.
+     */
+    void releaseRenderers() {
+        forEachRenderer(Renderer::release);
+        if (forwardToScreen != null) forwardToScreen.release();
+        forwardToScreen = null;
+    }
+
+    /**
+     * Recreates what {@link #releaseRenderers()} has deleted, the batches are refilled with the next frame.
+     */
+    void restoreRenderers() {
+        initRenderers();
+        textRenderer.init();
+        rendererRegistry.forEach(Renderer::init);
+    }
+
+    /**
+     * Removes all gameObjects, ui elements and texts, so awakening the scene again starts from scratch.
+     */
+    void clearContent() {
+        List<GameObject> all = new ArrayList<>(gameObjects.values());
+        for (GameObject gameObject : all) {
+            removeGameObjectFromScene(gameObject);
+        }
+        for (Element e : uiElements) {
+            if (e instanceof RenderableElement) uiRenderer.remove((RenderableElement) e);
+        }
+        uiElements.clear();
+        for (Text t : texts) {
+            textRenderer.remove(t);
+        }
+        texts.clear();
+    }
+
+    /**
+     * Estimates the memory used by the renderers and the textures of this scene.
+     *
+     * @return the memory use
+     * @see SceneManager#memoryUsage()
+     */
+    public SceneMemory memoryUsage() {
+        long[] bytes = new long[2];
+        forEachRenderer(r -> {
+            bytes[0] += r.gpuBytes();
+            bytes[1] += r.heapBytes();
+        });
+        ForwardToTexture forward = forwardToScreen;
+        if (forward != null && forward.framebuffer != null) bytes[0] += forward.framebuffer.memoryBytes();
+        return new SceneMemory(bytes[0], bytes[1], assets.textureBytes(), assets.textureCount(), gameObjects.size(), suspended);
+    }
+
+    private void forEachRenderer(Consumer<Renderer> action) {
+        action.accept(renderer);
+        action.accept(lightmapRenderer);
+        action.accept(debugRenderer);
+        action.accept(textRenderer);
+        action.accept(uiRenderer);
+        rendererRegistry.forEach(action);
+    }
+
     /**
      * This method is called at the end of the program
      */
@@ -319,7 +757,9 @@ public abstract class Scene {
         this.renderer.add(gameObject);
         this.lightmapRenderer.add(gameObject);
         this.debugRenderer.add(gameObject);
-        rendererRegistry.forEach(r -> r.add(gameObject));
+        for (int i = 0; i < rendererRegistry.size(); i++) {
+            rendererRegistry.get(i).add(gameObject);
+        }
     }
 
     /**
@@ -331,6 +771,8 @@ public abstract class Scene {
         this.renderer.remove(gameObject);
         this.lightmapRenderer.remove(gameObject);
         this.debugRenderer.remove(gameObject);
-        rendererRegistry.forEach(r -> r.remove(gameObject));
+        for (int i = 0; i < rendererRegistry.size(); i++) {
+            rendererRegistry.get(i).remove(gameObject);
+        }
     }
 }
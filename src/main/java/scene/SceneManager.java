@@ -1,11 +1,18 @@
 package scene;
 
+import graphics.GLTaskQueue;
 import graphics.Texture;
+import graphics.renderer.FrameSnapshot;
+import util.AssetScope;
+import util.Engine;
 import util.Log;
+import util.safety.Preconditions;
 
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -19,13 +26,22 @@ import java.util.stream.Collectors;
 public class SceneManager {
 
     private Set<Scene> scenePool;
-    private Scene currentScene;
+    //only switched on the main thread, read by the simulation thread of a pipelined window
+    private volatile Scene currentScene;
     private boolean enabled;
 
+    //scenes being preloaded, advanced on the main thread
+    private final Map<Scene, ScenePreload> preloads = new ConcurrentHashMap<>();
+    //a scene to switch to on the main thread before the next frame
+    private volatile Scene pendingSwitch = null;
+    //the scene being built by a preload on this thread, see targetScene()
+    private static final ThreadLocal<Scene> building = new ThreadLocal<>();
+
     private float minSceneLight;
 
     public SceneManager() {
-        this.scenePool = new HashSet<>();
+        //preloaded scenes are added by the main thread, while the simulation thread may switch scenes
+        this.scenePool = ConcurrentHashMap.newKeySet();
         this.currentScene = null;
         this.minSceneLight = 1.0f;
         this.enabled = false;
@@ -41,6 +57,15 @@ public class SceneManager {
         Log.info("enabled");
     }
 
+    /**
+     * Enables the sceneManager, unless it has been enabled already.
+     *
+     * @see #enable()
+     */
+    public void enableIfNeeded() {
+        if (!enabled) enable();
+    }
+
     /**
      * The currently active scene.
      */
@@ -48,6 +73,41 @@ public class SceneManager {
         return currentScene;
     }
 
+    /**
+     * The scene new gameObjects, texts and ui elements are added to, unless a scene is given explicitly.
+     * While a preloaded scene registers its work, runs its main-thread steps and is awakened, this is the preloaded scene,
+     * otherwise it is the current scene.
+     *
+     * @return the scene to add new objects to
+     * @see #preload(Scene)
+     */
+    public Scene targetScene() {
+        Scene scene = building.get();
+        return scene != null ? scene : currentScene;
+    }
+
+    /**
+     * Makes a scene the {@link #targetScene() target scene} of the calling thread.
+     *
+     * @param scene the scene being built
+     * @return the previous scene being built on this thread, to be passed to {@link #exitBuilding(Scene)}
+     */
+    static Scene enterBuilding(Scene scene) {
+        Scene previous = building.get();
+        building.set(scene);
+        return previous;
+    }
+
+    /**
+     * Restores the scene being built before {@link #enterBuilding(Scene)}.
+     *
+     * @param previous the value returned by enterBuilding
+     */
+    static void exitBuilding(Scene previous) {
+        if (previous == null) building.remove();
+        else building.set(previous);
+    }
+
     /**
      * Adds a scene to the pool of the manager instance.
      * Will call all initialization methods of the scene in preset order
@@ -63,11 +123,25 @@ public class SceneManager {
 
     /**
      * Switches the current scene to a given one.
+     * Awakening a scene needs the OpenGL context, so if called on another thread, like the simulation thread
+     * of a pipelined window, the switch happens on the main thread before the next frame instead.
      *
      * @param scene the scene to switch to
      * @return true if the given scene is now the new current scene
+     * @see #applyPendingSwitch()
      */
     public boolean switchScene(Scene scene) {
+        if (!Preconditions.isMainThread()) {
+            requestSwitch(scene);
+            return false;
+        }
+        ScenePreload preload = preloads.get(scene);
+        if (preload != null) {
+            //awakening it again would undo the preload
+            Log.info("scene " + scene.sceneId() + " is still preloading, switching once it is ready", 1);
+            preload.switchWhenReady();
+            return false;
+        }
         boolean newScene = false;
 
         Optional<Scene> sceneOpt = scenePool.stream()
@@ -84,6 +158,7 @@ public class SceneManager {
 
     /**
      * Switches the current scene to another scene with the given id, which has to be in the scene pool.
+     * Like {@link #switchScene(Scene)}, the switch is deferred if not called on the main thread.
      *
      * @param id the scene id belonging to the target scene to switch to
      * @return true if the given scene is now the new current scene
@@ -92,7 +167,149 @@ public class SceneManager {
         Optional<Scene> sceneOpt = scenePool.stream()
                 .filter(scene -> scene.sceneId() == id)
                 .findFirst();
-        return sceneOpt.isPresent() && switchScene(sceneOpt.get(), false);
+        if (!sceneOpt.isPresent()) return false;
+        if (!Preconditions.isMainThread()) {
+            requestSwitch(sceneOpt.get());
+            return false;
+        }
+        return switchScene(sceneOpt.get(), false);
+    }
+
+    /**
+     * Switches to the scene requested by a ready preload or off the main thread, if there is one.
+     * Called by the game loop on the main thread between frames, while no simulation runs.
+     *
+     * @return true if the current scene has been switched
+     */
+    public boolean applyPendingSwitch() {
+        Scene next = pendingSwitch;
+        if (next == null) return false;
+        pendingSwitch = null;
+        Scene previous = currentScene;
+        switchScene(next);
+        return currentScene != previous;
+    }
+
+    /**
+     * Starts preloading a scene, so that switching to it does not stall a frame.
+     * The scene registers its work in {@link Scene#preload(ScenePreload)}, which is called right away.
+     * Once the preload is ready, the scene is part of the scene pool and has been awakened.
+     * Preloading a scene of the pool has no effect, its preload is ready right away.
+     * Must be called on the main thread.
+     *
+     * @param scene the scene to preload
+     * @return the preload, reporting progress and allowing to switch once ready
+     * @see ScenePreload#switchWhenReady()
+     */
+    public ScenePreload preload(Scene scene) {
+        ScenePreload running = preloads.get(scene);
+        if (running != null) return running;
+        ScenePreload preload = new ScenePreload(scene, this);
+        if (scenePool.contains(scene)) {
+            preload.completed();
+            return preload;
+        }
+        Scene previous = enterBuilding(scene);
+        try {
+            scene.preload(preload);
+        } finally {
+            exitBuilding(previous);
+        }
+        preload.start();
+        preloads.put(scene, preload);
+        Log.info("preloading scene " + scene.sceneId());
+        return preload;
+    }
+
+    /**
+     * Runs the main-thread steps of the scenes being preloaded, within the frame budget of the {@link GLTaskQueue}.
+     * Called once per frame by the game loop.
+     */
+    public void advancePreloads() {
+        if (preloads.isEmpty()) return;
+        long budget = GLTaskQueue.get().getFrameBudget();
+        for (ScenePreload preload : preloads.values()) {
+            if (!preload.advance(budget)) continue;
+            //the pool has to contain the scene before it can be switched to
+            if (preload.isReady()) scenePool.add(preload.scene());
+            preloads.remove(preload.scene());
+        }
+    }
+
+    //called once a preloaded scene is ready and has been requested, or to switch from another thread
+    void requestSwitch(Scene scene) {
+        pendingSwitch = scene;
+    }
+
+    /**
+     * Releases the GPU memory of a scene's renderers, while keeping its gameObjects, ui and assets.
+     * Switching to the scene again restores the renderers.
+     * The current scene can not be suspended.
+     *
+     * @param scene a scene of the scene pool
+     * @return true if the scene is suspended now
+     */
+    public boolean suspend(Scene scene) {
+        if (!canRelease(scene, "suspend")) return false;
+        if (scene.isSuspended()) return true;
+        scene.setSuspended(true);
+        runWithContext(scene::releaseRenderers);
+        Log.info("suspended scene " + scene.sceneId(), 1);
+        return true;
+    }
+
+    /**
+     * Removes a scene from the scene pool and releases everything it holds:
+     * the GPU memory of its renderers, its gameObjects and ui, and its references to assets.
+     * Textures no other scene references anymore are deleted.
+     * Switching to the scene again awakens it like a new scene.
+     * The current scene can not be unloaded.
+     *
+     * @param scene a scene of the scene pool
+     * @return true if the scene has been unloaded
+     * @see Scene#assets()
+     */
+    public boolean unload(Scene scene) {
+        if (!canRelease(scene, "unload")) return false;
+        scenePool.remove(scene);
+        if (!scene.isSuspended()) runWithContext(scene::releaseRenderers);
+        scene.setSuspended(false);
+        scene.clearContent();
+        scene.assets().releaseAll();
+        Log.info("unloaded scene " + scene.sceneId(), 1);
+        return true;
+    }
+
+    /**
+     * Estimates the memory used by each scene of the scene pool.
+     *
+     * @return the memory use by scene id
+     */
+    public Map<Integer, SceneMemory> memoryUsage() {
+        Map<Integer, SceneMemory> usage = new TreeMap<>();
+        for (Scene scene : scenePool) {
+            usage.put(scene.sceneId(), scene.memoryUsage());
+        }
+        return usage;
+    }
+
+    private boolean canRelease(Scene scene, String action) {
+        if (scene == currentScene) {
+            Log.warn("tried to " + action + " the current scene id " + scene.sceneId(), 2);
+            return false;
+        }
+        if (!scenePool.contains(scene)) {
+            Log.warn("tried to " + action + " scene id " + scene.sceneId() + ", which is not in the scene pool", 2);
+            return false;
+        }
+        return true;
+    }
+
+    //runs OpenGL work on the main thread, other threads may suspend and unload scenes
+    private static void runWithContext(Runnable work) {
+        if (Engine.isHeadless()) return;
+        if (Preconditions.isMainThread()) work.run();
+        else GLTaskQueue.get().submit(work);
     }
 
     /**
@@ -107,13 +324,24 @@ public class SceneManager {
 
     public void update() {
         if (currentScene != null) {
-            currentScene.update();
+            //assets loaded during the update belong to the scene
+            AssetScope previous = currentScene.assets().enter();
+            try {
+                currentScene.update();
+            } finally {
+                AssetScope.exit(previous);
+            }
         }
     }
 
     public void updateGameObjects() {
         if (currentScene != null) {
-            currentScene.updateGameObjects();
+            AssetScope previous = currentScene.assets().enter();
+            try {
+                currentScene.updateGameObjects();
+            } finally {
+                AssetScope.exit(previous);
+            }
         }
     }
 
@@ -123,9 +351,28 @@ public class SceneManager {
         }
     }
 
+    public void render(FrameSnapshot snapshot) {
+        if (currentScene != null) {
+            currentScene.setSnapshot(snapshot);
+            currentScene.render();
+        }
+    }
+
+    public void render(float interpolationAlpha) {
+        if (currentScene != null) {
+            currentScene.setInterpolationAlpha(interpolationAlpha);
+            currentScene.render();
+        }
+    }
+
     public void updateUI() {
         if (currentScene != null) {
             currentScene.updateUI();
+        }
+    }
+
+    public void renderUI() {
+        if (currentScene != null) {
             currentScene.textRender();
         }
     }
@@ -146,9 +393,17 @@ public class SceneManager {
 
     private void awaken(Scene scene) {
         if (enabled) {
-            scene.initRenderers();
-            scene.startUi();
-            scene.awake();
+            AssetScope previous = scene.assets().enter();
+            try {
+                //there is no OpenGL context to render with in headless mode
+                if (!Engine.isHeadless()) {
+                    scene.initRenderers();
+                    scene.startUi();
+                }
+                scene.awake();
+            } finally {
+                AssetScope.exit(previous);
+            }
         } else Log.warn("scene awaken called without being enabled", 1);
     }
 
@@ -169,6 +424,14 @@ public class SceneManager {
             currentScene.deactivate();
         }
 
+        if (newCurrent.isSuspended()) {
+            //the scene is not rendered until its renderers have been restored
+            if (Engine.isHeadless()) newCurrent.setSuspended(false);
+            else runWithContext(() -> {
+                newCurrent.restoreRenderers();
+                newCurrent.setSuspended(false);
+            });
+        }
         currentScene = newCurrent;
         currentScene.activate();
         if (newScene && enabled) awaken(currentScene);
@@ -0,0 +1,72 @@
+package scene;
+
+/**
+ * Estimated memory use of a scene, as reported by {@link SceneManager#memoryUsage()}.
+ * Textures shared by several scenes are counted for each of them.
+ */
+public final class SceneMemory {
+
+    private final long gpuBytes;
+    private final long heapBytes;
+    private final long textureBytes;
+    private final int textures;
+    private final int gameObjects;
+    private final boolean suspended;
+
+    SceneMemory(long gpuBytes, long heapBytes, long textureBytes, int textures, int gameObjects, boolean suspended) {
+        this.gpuBytes = gpuBytes;
+        this.heapBytes = heapBytes;
+        this.textureBytes = textureBytes;
+        this.textures = textures;
+        this.gameObjects = gameObjects;
+        this.suspended = suspended;
+    }
+
+    /**
+     * @return the video memory of the render batches and framebuffers in bytes
+     */
+    public long gpuBytes() {
+        return gpuBytes;
+    }
+
+    /**
+     * @return the vertex data of the render batches kept on the heap in bytes
+     */
+    public long heapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * @return the video memory of the textures referenced by the scene in bytes
+     */
+    public long textureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * @return the amount of textures referenced by the scene
+     */
+    public int textures() {
+        return textures;
+    }
+
+    public int gameObjects() {
+        return gameObjects;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    @Override
+    public String toString() {
+        return "SceneMemory{" +
+                "gpu=" + gpuBytes / 1024 + "KiB" +
+                ", heap=" + heapBytes / 1024 + "KiB" +
+                ", textures=" + textures + " (" + textureBytes / 1024 + "KiB)" +
+                ", gameObjects=" + gameObjects +
+                ", suspended=" + suspended +
+                '}';
+    }
+
+}
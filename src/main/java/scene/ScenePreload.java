@@ -0,0 +1,234 @@
+package scene;
+
+import util.AssetScope;
+import util.Engine;
+import util.JobSystem;
+import util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Prepares a scene in the background, so switching to it does not stall a frame.
+ * <p>
+ * While {@link Scene#preload(ScenePreload)} runs, the scene registers its work:
+ * background work, like reading files and decoding images, runs on the {@link JobSystem} right away.
+ * Once all background work has completed, the main-thread steps, like uploading textures, run one after another
+ * within a time budget per frame, followed by initializing the renderers and the ui and finally {@link Scene#awake()}.
+ * Once ready, the scene is part of the scene pool and switching to it is immediate.
+ * <p>
+ * Objects created by the preload, the main-thread steps and {@link Scene#awake()} are added to the preloaded scene,
+ * since it is the {@link SceneManager#targetScene() target scene} meanwhile, not the current one.
+ *
+ * @see SceneManager#preload(Scene)
+ */
+public final class ScenePreload {
+
+    private static final Executor background = work -> JobSystem.shared().schedule("scene preload", work);
+
+    private final Scene scene;
+    private final SceneManager manager;
+    private final List<CompletableFuture<?>> awaited = new ArrayList<>();
+    private final List<Runnable> steps = new ArrayList<>();
+    private final AtomicInteger completedBackground = new AtomicInteger();
+    private CompletableFuture<Void> gate = null;
+    private int completedSteps = 0;
+    private boolean registering = true;
+
+    private volatile boolean ready = false;
+    private volatile Throwable failure = null;
+    private volatile boolean switchRequested = false;
+
+    ScenePreload(Scene scene, SceneManager manager) {
+        this.scene = scene;
+        this.manager = manager;
+    }
+
+    /**
+     * Runs work on a worker thread, it must not use OpenGL.
+     *
+     * @param work the work
+     * @return this
+     */
+    public ScenePreload background(Runnable work) {
+        AssetScope assets = scene.assets();
+        await(CompletableFuture.runAsync(() -> {
+            AssetScope previous = assets.enter();
+            try {
+                work.run();
+            } finally {
+                AssetScope.exit(previous);
+            }
+        }, background));
+        return this;
+    }
+
+    /**
+     * Computes a value on a worker thread, for example decoded data for a later {@link #upload(Runnable)} step.
+     * The work must not use OpenGL.
+     *
+     * @param work the work
+     * @return the future of the value, completed before the main-thread steps start
+     */
+    public <T> CompletableFuture<T> load(Supplier<T> work) {
+        AssetScope assets = scene.assets();
+        return await(CompletableFuture.supplyAsync(() -> {
+            AssetScope previous = assets.enter();
+            try {
+                return work.get();
+            } finally {
+                AssetScope.exit(previous);
+            }
+        }, background));
+    }
+
+    /**
+     * Waits for work started elsewhere, like {@link util.Assets#loadTextureAsync(String)}, before the main-thread steps start.
+     *
+     * @param future the work
+     * @return the future
+     */
+    public <T> CompletableFuture<T> await(CompletableFuture<T> future) {
+        ensureRegistering();
+        awaited.add(future);
+        future.whenComplete((value, e) -> completedBackground.incrementAndGet());
+        return future;
+    }
+
+    /**
+     * Adds a step run on the main thread after all background work has completed, like uploading data to the GPU.
+     * Each frame runs as many steps as fit into its budget, but at least one.
+     *
+     * @param step the step
+     * @return this
+     */
+    public ScenePreload upload(Runnable step) {
+        ensureRegistering();
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * @return the scene being preloaded
+     */
+    public Scene scene() {
+        return scene;
+    }
+
+    /**
+     * @return the share of completed work, from 0 to 1
+     */
+    public float progress() {
+        if (ready) return 1;
+        int total = awaited.size() + steps.size();
+        if (total == 0) return 0;
+        return (completedBackground.get() + completedSteps) / (float) total;
+    }
+
+    /**
+     * @return true if the scene has been awakened and can be switched to right away
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return true if some work threw an exception, the scene will not become ready
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return the exception thrown by the work or null
+     */
+    public Throwable failure() {
+        return failure;
+    }
+
+    /**
+     * Switches to the scene as soon as it is ready, on the main thread before the next frame.
+     *
+     * @return this
+     */
+    public ScenePreload switchWhenReady() {
+        switchRequested = true;
+        if (ready) manager.requestSwitch(scene);
+        return this;
+    }
+
+    //for scenes in the pool already, those have been awakened before
+    void completed() {
+        registering = false;
+        ready = true;
+    }
+
+    //called on the main thread once the scene has registered its work
+    void start() {
+        registering = false;
+        //same order as awakening a scene synchronously, the renderers and the ui need an OpenGL context
+        if (!Engine.isHeadless()) {
+            steps.add(0, scene::startUi);
+            steps.add(0, scene::initRenderers);
+        }
+        steps.add(scene::awake);
+        gate = CompletableFuture.allOf(awaited.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Runs the next main-thread steps, once the background work has completed.
+     *
+     * @param budgetNanos the time to spend at most, at least one step is run
+     * @return true if the preload has finished, successfully or not
+     */
+    boolean advance(long budgetNanos) {
+        if (ready || failure != null) return true;
+        if (!gate.isDone()) return false;
+        if (gate.isCompletedExceptionally()) {
+            try {
+                gate.join();
+            } catch (CompletionException e) {
+                fail(e.getCause());
+            }
+            return true;
+        }
+        long start = System.nanoTime();
+        //assets loaded and objects created by the steps belong to the scene
+        AssetScope previous = scene.assets().enter();
+        Scene previousBuilding = SceneManager.enterBuilding(scene);
+        try {
+            do {
+                try {
+                    steps.get(completedSteps).run();
+                } catch (RuntimeException e) {
+                    fail(e);
+                    return true;
+                }
+                completedSteps++;
+            } while (completedSteps < steps.size() && System.nanoTime() - start < budgetNanos);
+        } finally {
+            SceneManager.exitBuilding(previousBuilding);
+            AssetScope.exit(previous);
+        }
+        if (completedSteps < steps.size()) return false;
+        ready = true;
+        Log.info("scene " + scene.sceneId() + " preloaded");
+        if (switchRequested) manager.requestSwitch(scene);
+        return true;
+    }
+
+    private void fail(Throwable e) {
+        failure = e;
+        Log.warn("preloading scene " + scene.sceneId() + " failed: " + e);
+    }
+
+    private void ensureRegistering() {
+        if (!registering) throw new IllegalStateException("preload work can only be registered in Scene.preload");
+    }
+
+}
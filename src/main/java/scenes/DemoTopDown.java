@@ -96,10 +96,10 @@ public class DemoTopDown extends Scene {
         //Tween demo. You can remove the if statement for endless movement back and forth between these tweens.
         //Position is a primitive in a GameObject so to change position by tweening you have to use more logic
         if (!booper.getComponent(Tween.class).tweenFinishedAll()) {
-            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(booper.getPositionData()[0], booper.getPositionData()[1]), new Vector2f(800, 600), 2, Tween.TweenMode.EASING_IN);
-            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(800, 600), new Vector2f(booper.getPositionData()[0], booper.getPositionData()[1]), 2, Tween.TweenMode.EASING_OUT);
-            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(booper.getPositionData()[0], booper.getPositionData()[1]), new Vector2f(800, 600), 1, Tween.TweenMode.NO_EASING);
-            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(800, 600), new Vector2f(booper.getPositionData()[0], booper.getPositionData()[1]), 1, Tween.TweenMode.EASING_IN_OUT);
+            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(booper.getX(), booper.getY()), new Vector2f(800, 600), 2, Tween.TweenMode.EASING_IN);
+            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(800, 600), new Vector2f(booper.getX(), booper.getY()), 2, Tween.TweenMode.EASING_OUT);
+            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(booper.getX(), booper.getY()), new Vector2f(800, 600), 1, Tween.TweenMode.NO_EASING);
+            booper.getComponent(Tween.class).setUpTweenPosition(new Vector2f(800, 600), new Vector2f(booper.getX(), booper.getY()), 1, Tween.TweenMode.EASING_IN_OUT);
 
             booper.getComponent(Tween.class).play();
         }
@@ -19,8 +19,8 @@ public class AI {
 
     public void moveTo(GameObject gameObject, float speed, Vector2f waypoint)
     {
-        objectsPosition.x = gameObject.getPositionData()[0];
-        objectsPosition.y = gameObject.getPositionData()[1];
+        objectsPosition.x = gameObject.getX();
+        objectsPosition.y = gameObject.getY();
 
 
         waypoint.sub(objectsPosition, destination);
@@ -72,8 +72,8 @@ public class AI {
             if(isMoving) {
                 direction.add(destination.x * speed * dt, destination.y * speed * dt);
 
-                float xPos = waypoint.x - gameObject.getPositionData()[0];
-                float yPos = waypoint.y - gameObject.getPositionData()[1];
+                float xPos = waypoint.x - gameObject.getX();
+                float yPos = waypoint.y - gameObject.getY();
 
                 if (xPos < 2 && yPos < 2) {
                     isMoving = false;
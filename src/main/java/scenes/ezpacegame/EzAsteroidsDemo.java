@@ -152,7 +152,7 @@ public class EzAsteroidsDemo extends Scene {
 
             if(collisionInformation.collision())
             {
-                showGoodText(projectile.gameObject.getPositionData()[0], projectile.gameObject.getPositionData()[1]);
+                showGoodText(projectile.gameObject.getX(), projectile.gameObject.getY());
                 this.removeGameObjectFromScene(projectile.gameObject);
                 this.removeGameObjectFromScene(enemyShip);
                 break;
@@ -160,8 +160,8 @@ public class EzAsteroidsDemo extends Scene {
 
 
             //Check whether the projectile has exited the screen bounds or hit another ship
-            if(projectile.gameObject.getPositionData()[1] > Window.getHeight() || projectile.gameObject.getPositionData()[1] < 0
-                    || projectile.gameObject.getPositionData()[0] > Window.getWidth() || projectile.gameObject.getPositionData()[0] < 0)
+            if(projectile.gameObject.getY() > Window.getHeight() || projectile.gameObject.getY() < 0
+                    || projectile.gameObject.getX() > Window.getWidth() || projectile.gameObject.getX() < 0)
             {
                 this.removeGameObjectFromScene(projectile.gameObject);
                 break;
@@ -207,7 +207,7 @@ public class EzAsteroidsDemo extends Scene {
             direction.normalize();
 
             //spawn projectile at the center of the ship
-            Projectile projectile = new Projectile(createFriendlyProjectile(new Vector2f(ship.getPositionData()[0] , ship.getPositionData()[1])), direction, 200f);
+            Projectile projectile = new Projectile(createFriendlyProjectile(new Vector2f(ship.getX() , ship.getY())), direction, 200f);
 
             projectiles.add(projectile);
         }
@@ -219,13 +219,13 @@ public class EzAsteroidsDemo extends Scene {
 
     private void rotateShip()
     {
-        lookDirection.x = Mouse.getWorldX() - ship.getPositionData()[0];
-        lookDirection.y = Mouse.getWorldY() - ship.getPositionData()[1];
+        lookDirection.x = Mouse.getWorldX() - ship.getX();
+        lookDirection.y = Mouse.getWorldY() - ship.getY();
 
         float angle = (float) (Math.atan2(lookDirection.x, -lookDirection.y) * MathUtils.rad2Deg());
 
 
-        ship.getComponent(SpriteRenderer.class).rotation = -angle;
+        ship.setRotation(-angle);
     }
 
     private void showGoodText(float posX, float posY)
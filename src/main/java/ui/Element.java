@@ -3,8 +3,9 @@ package ui;
 import input.Mouse;
 import org.lwjgl.glfw.GLFW;
 import ui.fonts.Font;
+import util.BooleanObservable;
+import util.ChangeNotifier;
 import util.MathUtils;
-import util.Observable;
 
 /**
  * @author Juyas
@@ -37,10 +38,10 @@ public abstract class Element {
      */
     protected int cursor;
 
-    //observable values
-    protected final Observable<Boolean> focused;
-    protected final Observable<Boolean> enabled;
-    protected final Observable<Boolean> visible;
+    //observable values, notified once per frame after the ui has been updated
+    protected final BooleanObservable focused;
+    protected final BooleanObservable enabled;
+    protected final BooleanObservable visible;
 
     //for keeping track, if the mouse was/is over this component in the last/current update
     protected boolean mouseOverThis;
@@ -53,9 +54,9 @@ public abstract class Element {
     public Element() {
         this.frame = new Frame();
         this.eventHandler = null;
-        this.focused = new Observable<>(false);
-        this.enabled = new Observable<>(true);
-        this.visible = new Observable<>(true);
+        this.focused = new BooleanObservable(false, ChangeNotifier.ui());
+        this.enabled = new BooleanObservable(true, ChangeNotifier.ui());
+        this.visible = new BooleanObservable(true, ChangeNotifier.ui());
         this.parent = null;
         this.font = new Font();
         this.layoutInfo = null;
@@ -115,7 +116,7 @@ public abstract class Element {
      *
      * @return the observable for enabled
      */
-    public Observable<Boolean> getEnabled() {
+    public BooleanObservable getEnabled() {
         return enabled;
     }
 
@@ -124,7 +125,7 @@ public abstract class Element {
      *
      * @return the observable for focused
      */
-    public Observable<Boolean> getFocused() {
+    public BooleanObservable getFocused() {
         return focused;
     }
 
@@ -133,7 +134,7 @@ public abstract class Element {
      *
      * @return the observable for visible
      */
-    public Observable<Boolean> getVisible() {
+    public BooleanObservable getVisible() {
         return visible;
     }
 
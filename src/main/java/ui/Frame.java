@@ -2,6 +2,8 @@ package ui;
 
 import org.joml.Vector2f;
 import org.joml.Vector4f;
+import util.ChangeNotifier;
+import util.FloatObservable;
 import util.MathUtils;
 import util.Observable;
 
@@ -12,23 +14,20 @@ import util.Observable;
  */
 public class Frame extends Observable<Void> {
 
-    private final Observable<Float> x, y;
-    private final Observable<Float> w, h;
+    //notified once per frame, after the ui has been updated
+    private final FloatObservable x, y;
+    private final FloatObservable w, h;
 
     public Frame() {
-        super();
-        this.x = new Observable<>(0.0f);
-        this.y = new Observable<>(0.0f);
-        this.h = new Observable<>(0.0f);
-        this.w = new Observable<>(0.0f);
+        this(0, 0, 0, 0);
     }
 
     public Frame(float x, float y, float w, float h) {
         super();
-        this.x = new Observable<>(x);
-        this.y = new Observable<>(y);
-        this.w = new Observable<>(w);
-        this.h = new Observable<>(h);
+        this.x = new FloatObservable(x, ChangeNotifier.ui());
+        this.y = new FloatObservable(y, ChangeNotifier.ui());
+        this.w = new FloatObservable(w, ChangeNotifier.ui());
+        this.h = new FloatObservable(h, ChangeNotifier.ui());
     }
 
     public void set(float x, float y, float w, float h) {
@@ -64,8 +64,8 @@ public class Text {
         glyphRenderers = new ArrayList<>();
 
         generateGlyphs();
-        Engine.scenes().currentScene().textRenderer.add(this);
-        Engine.scenes().currentScene().addText(this);
+        Engine.scenes().targetScene().textRenderer.add(this);
+        Engine.scenes().targetScene().addText(this);
     }
 
     /**
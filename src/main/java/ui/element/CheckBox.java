@@ -5,8 +5,9 @@ import graphics.Sprite;
 import org.lwjgl.glfw.GLFW;
 import ui.*;
 import ui.fonts.Font;
+import util.BooleanObservable;
+import util.ChangeNotifier;
 import util.Engine;
-import util.Observable;
 
 /**
  * @author Juyas
@@ -28,7 +29,7 @@ public class CheckBox extends RenderableElement implements TextHolder {
     /**
      * Whether the CheckBox is currently checked
      */
-    private Observable<Boolean> checked;
+    private BooleanObservable checked;
 
     private final Sprite uncheckedSprite, checkedSprite;
 
@@ -41,7 +42,7 @@ public class CheckBox extends RenderableElement implements TextHolder {
         this.optionIndex = optionIndex;
         float fontSize = this.frame.getHeight() / 2;
         this.label = new Text(label, new Font((int) fontSize), Color.BLACK, this.frame.getX() + unchecked.getWidth(), this.frame.getY() - 3 + fontSize / 2);
-        this.checked = new Observable<>(false);
+        this.checked = new BooleanObservable(false, ChangeNotifier.ui());
         this.cursor = GLFW.GLFW_POINTING_HAND_CURSOR;
         this.uncheckedSprite = unchecked;
         this.checkedSprite = checked;
@@ -56,7 +57,7 @@ public class CheckBox extends RenderableElement implements TextHolder {
             }
         });
 
-        Engine.scenes().currentScene().addUIElement(this);
+        Engine.scenes().targetScene().addUIElement(this);
     }
 
     public void setChecked(boolean check) {
@@ -70,7 +71,7 @@ public class CheckBox extends RenderableElement implements TextHolder {
         return this.checked.getValue();
     }
 
-    public Observable<Boolean> getCheckedObservable() {
+    public BooleanObservable getCheckedObservable() {
         return this.checked;
     }
 
@@ -49,7 +49,7 @@ public class CheckBoxGroup extends Element {
             boxes.add(box);
         }
 
-        Engine.scenes().currentScene().addUIElement(this);
+        Engine.scenes().targetScene().addUIElement(this);
     }
 
     public void addOption(String option) {
@@ -2,7 +2,8 @@ package ui.element;
 
 import ui.Alignment;
 import ui.Element;
-import util.Observable;
+import util.ChangeNotifier;
+import util.FloatObservable;
 import util.MathUtils;
 
 /**
@@ -23,7 +24,7 @@ public class Slider extends Element implements ValueHolder {
     /**
      * the current scale of the slider between min=0 and max=1
      */
-    private final Observable<Float> currentScale;
+    private final FloatObservable currentScale;
 
     /**
      * In which direction the slider is pointing/in which direction is maximum;
@@ -33,7 +34,7 @@ public class Slider extends Element implements ValueHolder {
     public Slider(float minScale, float maxScale, float currentScale, Alignment orientation) {
         this.minScale = minScale;
         this.maxScale = maxScale;
-        this.currentScale = new Observable<>(currentScale);
+        this.currentScale = new FloatObservable(currentScale, ChangeNotifier.ui());
         this.orientation = orientation;
     }
 
@@ -91,7 +92,7 @@ public class Slider extends Element implements ValueHolder {
      *
      * @return the observable for the current scale
      */
-    public Observable<Float> getCurrentScaleObservable() {
+    public FloatObservable getCurrentScaleObservable() {
         return currentScale;
     }
 
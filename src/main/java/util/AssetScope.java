@@ -0,0 +1,130 @@
+package util;
+
+import graphics.Spritesheet;
+import graphics.Texture;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The assets referenced by one scene, so they can be freed once no scene uses them anymore.
+ * Textures requested while a scope is current on the thread, or through the scope directly, are reference counted by {@link Assets}.
+ * {@link #releaseAll()} drops the references of the scope, textures no other scope references are deleted.
+ * Textures loaded while no scope is current are kept for the whole runtime, since it is unknown who uses them.
+ * <p>
+ * The scene manager makes the scope of a scene current while the scene is awakened, preloaded and updated.
+ *
+ * @see scene.Scene#assets()
+ */
+public final class AssetScope {
+
+    private static final ThreadLocal<AssetScope> current = new ThreadLocal<>();
+
+    private final Set<String> textures = new HashSet<>();
+
+    /**
+     * @return the scope of the current thread or null
+     */
+    public static AssetScope current() {
+        return current.get();
+    }
+
+    /**
+     * Makes this scope current on the calling thread.
+     *
+     * @return the previous scope, to be passed to {@link #exit(AssetScope)}
+     */
+    public AssetScope enter() {
+        AssetScope previous = current.get();
+        current.set(this);
+        return previous;
+    }
+
+    /**
+     * Restores the scope which was current before {@link #enter()}.
+     *
+     * @param previous the scope returned by enter
+     */
+    public static void exit(AssetScope previous) {
+        if (previous == null) current.remove();
+        else current.set(previous);
+    }
+
+    /**
+     * @see Assets#getTexture(String)
+     */
+    public Texture texture(String path) {
+        AssetScope previous = enter();
+        try {
+            return Assets.getTexture(path);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    /**
+     * @see Assets#loadTextureAsync(String)
+     */
+    public CompletableFuture<Texture> textureAsync(String path) {
+        AssetScope previous = enter();
+        try {
+            return Assets.loadTextureAsync(path);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    /**
+     * @see Assets#loadSpritesheet(String, int, int, int, int)
+     */
+    public Spritesheet spritesheet(String path, int spriteWidth, int spriteHeight, int numSprites, int spacing) {
+        AssetScope previous = enter();
+        try {
+            return Assets.loadSpritesheet(path, spriteWidth, spriteHeight, numSprites, spacing);
+        } finally {
+            exit(previous);
+        }
+    }
+
+    //references a texture once per scope
+    synchronized void retainTexture(String key) {
+        if (textures.add(key)) Assets.retainTexture(key);
+    }
+
+    /**
+     * Drops all references of this scope, textures not referenced by another scope are deleted.
+     * The scope can be used again afterwards.
+     */
+    public void releaseAll() {
+        List<String> released;
+        synchronized (this) {
+            released = new ArrayList<>(textures);
+            textures.clear();
+        }
+        for (String key : released) {
+            Assets.releaseTexture(key);
+        }
+    }
+
+    /**
+     * @return the amount of textures referenced by this scope
+     */
+    public synchronized int textureCount() {
+        return textures.size();
+    }
+
+    /**
+     * @return the estimated video memory of the textures referenced by this scope, 4 bytes per texel
+     */
+    public synchronized long textureBytes() {
+        long bytes = 0;
+        for (String key : textures) {
+            bytes += Assets.textureBytes(key);
+        }
+        return bytes;
+    }
+
+}
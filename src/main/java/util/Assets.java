@@ -1,6 +1,7 @@
 package util;
 
 import audio.AudioBuffer;
+import graphics.GLTaskQueue;
 import graphics.Shader;
 import graphics.Spritesheet;
 import graphics.Texture;
@@ -10,17 +11,28 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The Assets class contains methods to assist in loading common resources used by the engine from the filesystem as well as HashMaps to keep track of loaded resources.
  * If the same path is loaded again via the Assets class, it will call the item up from the hashmap rather than reload it.
+ * Textures are reference counted by the {@link AssetScope}s of the scenes using them and deleted once no scene references them anymore.
  */
 public class Assets {
     private static HashMap<String, Shader> shaders = new HashMap<>();
     private static HashMap<String, ByteBuffer> dataFiles = new HashMap<>();
-    private static HashMap<String, Texture> textures = new HashMap<>();
+    //textures may be looked up by worker threads loading them asynchronously
+    private static Map<String, Texture> textures = new ConcurrentHashMap<>();
+    private static Map<String, CompletableFuture<Texture>> loadingTextures = new ConcurrentHashMap<>();
+    //amount of asset scopes referencing a texture
+    private static Map<String, Integer> textureReferences = new ConcurrentHashMap<>();
+    //textures loaded outside of any scope, never deleted
+    private static Set<String> pinnedTextures = ConcurrentHashMap.newKeySet();
     private static HashMap<String, AudioBuffer> audioBuffers = new HashMap<>();
-    private static HashMap<String, Spritesheet> spritesheets = new HashMap<>();
+    private static Map<String, Spritesheet> spritesheets = new ConcurrentHashMap<>();
 
     /**
      * Loads a shader from the filesystem, compiles it, then returns type Shader.
@@ -73,6 +85,7 @@ public class Assets {
      */
     public static Texture getTexture(String path) {
         File file = new File(path);
+        reference(file.getAbsolutePath());
         if (textures.containsKey(file.getAbsolutePath())) {
             return textures.get(file.getAbsolutePath());
         }
@@ -83,6 +96,110 @@ public class Assets {
         return texture;
     }
 
+    //attributes a texture to the scope of the current thread, or keeps it loaded if there is none
+    private static void reference(String key) {
+        AssetScope scope = AssetScope.current();
+        if (scope != null) scope.retainTexture(key);
+        else pinnedTextures.add(key);
+    }
+
+    static void retainTexture(String key) {
+        textureReferences.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * Drops a reference of a scope, deleting the texture and its spritesheet once unreferenced.
+     */
+    static void releaseTexture(String key) {
+        Texture[] unreferenced = new Texture[1];
+        //removing the texture within the update of its count keeps a concurrent retain from getting a texture about to be deleted
+        textureReferences.computeIfPresent(key, (k, count) -> {
+            if (count > 1) return count - 1;
+            if (!pinnedTextures.contains(k)) {
+                spritesheets.remove(k);
+                unreferenced[0] = textures.remove(k);
+            }
+            return null;
+        });
+        Texture texture = unreferenced[0];
+        if (texture == null) return;
+        Log.debug("texture \"" + key + "\" is not referenced anymore, deleting it");
+        //there is no OpenGL context in headless mode
+        if (!Engine.isHeadless()) GLTaskQueue.get().submit(texture::delete);
+    }
+
+    /**
+     * @param path to Texture resource
+     * @return the amount of scenes referencing the texture
+     */
+    public static int textureReferences(String path) {
+        return textureReferences.getOrDefault(new File(path).getAbsolutePath(), 0);
+    }
+
+    /**
+     * @param path to Texture resource
+     * @return true if the texture is loaded
+     */
+    public static boolean isTextureLoaded(String path) {
+        return textures.containsKey(new File(path).getAbsolutePath());
+    }
+
+    //estimated video memory of a loaded texture, 4 bytes per texel
+    static long textureBytes(String key) {
+        Texture texture = textures.get(key);
+        return texture == null ? 0 : 4L * Math.max(texture.getWidth(), 0) * Math.max(texture.getHeight(), 0);
+    }
+
+    /**
+     * Loads a image from the filesystem without stalling the main thread.
+     * The image is decoded on a worker thread, only the upload runs on the main thread through the {@link GLTaskQueue}.
+     * Loading the same path again returns the same texture.
+     * Can be called from any thread, but the main thread must not wait for the returned future.
+     *
+     * @param path to Texture resource (usually a .png file)
+     * @return the future of the texture, completed on the main thread
+     * @see scene.ScenePreload#await(CompletableFuture)
+     */
+    public static CompletableFuture<Texture> loadTextureAsync(String path) {
+        String key = new File(path).getAbsolutePath();
+        reference(key);
+        Texture loaded = textures.get(key);
+        if (loaded != null) return CompletableFuture.completedFuture(loaded);
+        CompletableFuture<Texture> loading = loadingTextures.get(key);
+        if (loading != null) return loading;
+        CompletableFuture<Texture> created = new CompletableFuture<>();
+        loading = loadingTextures.putIfAbsent(key, created);
+        if (loading != null) return loading;
+        CompletableFuture
+                .supplyAsync(() -> Texture.decode(path), work -> JobSystem.shared().schedule("decode " + path, work))
+                .thenCompose(pixels -> GLTaskQueue.get().supply(() -> {
+                    //the texture may have been loaded synchronously meanwhile
+                    Texture texture = textures.get(key);
+                    if (texture == null) {
+                        texture = new Texture(pixels);
+                        textures.put(key, texture);
+                    } else {
+                        pixels.free();
+                    }
+                    Log.debug("loading texture \"" + path + "\" asynchronously successfully");
+                    return texture;
+                }).whenComplete((texture, e) -> {
+                    //the upload may not have run at all
+                    if (e != null) pixels.free();
+                }))
+                .whenComplete((texture, e) -> {
+                    //failed loads are not cached, so they can be retried
+                    loadingTextures.remove(key, created);
+                    if (e != null) {
+                        Log.warn("loading texture \"" + path + "\" asynchronously failed: " + e);
+                        created.completeExceptionally(e);
+                    } else {
+                        created.complete(texture);
+                    }
+                });
+        return created;
+    }
+
     public static AudioBuffer getAudioBuffer(String path) {
         File file = new File(path);
         if (audioBuffers.containsKey(file.getAbsolutePath())) {
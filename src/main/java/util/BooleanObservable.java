@@ -0,0 +1,59 @@
+package util;
+
+/**
+ * An observable boolean value, see {@link PrimitiveObservable}.
+ */
+public final class BooleanObservable extends PrimitiveObservable<BooleanObservable.Observer> {
+
+    private boolean value;
+    private boolean published;
+
+    public BooleanObservable(boolean value) {
+        this(value, null);
+    }
+
+    /**
+     * @param value    the initial value
+     * @param notifier the notifier coalescing the changes or null, to notify observers right away
+     */
+    public BooleanObservable(boolean value, ChangeNotifier notifier) {
+        super(notifier);
+        this.value = value;
+        this.published = value;
+    }
+
+    public void setValue(boolean value) {
+        if (this.value == value) return;
+        this.value = value;
+        changed();
+    }
+
+    public boolean getValue() {
+        return value;
+    }
+
+    @Override
+    protected boolean publish() {
+        if (published == value) return false;
+        published = value;
+        return true;
+    }
+
+    @Override
+    protected void notify(Observer observer) {
+        observer.notify(value);
+    }
+
+    @FunctionalInterface
+    public interface Observer {
+
+        /**
+         * This method gets called by a {@link BooleanObservable} if the value has been changed
+         *
+         * @param newVal the new value of the observed variable
+         */
+        void notify(boolean newVal);
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Collects changed {@link PrimitiveObservable}s and notifies their observers once, when flushed.
+ * An observable changed several times between two flushes notifies its observers only with the latest value,
+ * and not at all, if it has been set back to the value last notified.
+ * <p>
+ * Not thread-safe, the observables of a notifier have to be changed on the thread flushing it,
+ * or while that thread waits, like the simulation thread at the frame barrier of a pipelined {@link graphics.Window}.
+ *
+ * @see #ui()
+ */
+public final class ChangeNotifier {
+
+    private static final ChangeNotifier ui = new ChangeNotifier();
+
+    private PrimitiveObservable<?>[] pending = new PrimitiveObservable<?>[64];
+    private PrimitiveObservable<?>[] flushing = new PrimitiveObservable<?>[64];
+    private int size = 0;
+
+    /**
+     * @return the notifier of the ui elements, flushed once per frame after the ui has been updated
+     * @see scene.Scene#updateUI()
+     */
+    public static ChangeNotifier ui() {
+        return ui;
+    }
+
+    void schedule(PrimitiveObservable<?> observable) {
+        if (size == pending.length) pending = Arrays.copyOf(pending, size * 2);
+        pending[size++] = observable;
+    }
+
+    /**
+     * @return the amount of observables changed since the last flush
+     */
+    public int pending() {
+        return size;
+    }
+
+    /**
+     * Notifies the observers of all changed observables.
+     * Changes made by the observers are notified with the next flush.
+     *
+     * @return the amount of observables which notified their observers
+     */
+    public int flush() {
+        int count = size;
+        if (count == 0) return 0;
+        //swap the queues, so observers changing values schedule into an empty queue
+        PrimitiveObservable<?>[] current = pending;
+        pending = flushing.length >= current.length ? flushing : new PrimitiveObservable<?>[current.length];
+        flushing = current;
+        size = 0;
+        int notified = 0;
+        for (int i = 0; i < count; i++) {
+            if (current[i].flush()) notified++;
+            current[i] = null;
+        }
+        return notified;
+    }
+
+}
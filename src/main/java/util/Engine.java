@@ -22,11 +22,14 @@ public final class Engine {
     private final long startMillis;
     private Window window;
     private boolean running;
-    private float deltaTime;
+    private boolean headless;
+    //written by the simulation thread, if it runs on its own
+    private volatile float deltaTime;
 
     //private to prevent creating new instances
     private Engine() {
         running = true;
+        headless = false;
         deltaTime = 0;
         startMillis = System.currentTimeMillis();
     }
@@ -50,6 +53,13 @@ public final class Engine {
         return getInstance().running;
     }
 
+    /**
+     * @return true if the engine has been started with {@link #initHeadless(int, int, float)}
+     */
+    public static boolean isHeadless() {
+        return getInstance().headless;
+    }
+
     /**
      * Not meant to be called. Only used for {@link Window} to stop the engine.
      */
@@ -177,6 +187,70 @@ public final class Engine {
         getInstance().window = new Window(windowTitle);
     }
 
+    /**
+     * Start the engine without GLFW, OpenGL and OpenAL, to run scenes on machines without a GPU or audio device,
+     * e.g. for server side simulation, performance tests or bulk AI runs.
+     * The window is a stand-in without a native window, renderers and audio are skipped entirely.
+     * Use {@link #runHeadless(int, float)} to step the current scene or {@link #showWindow()} to run until {@link Window#close()} is called.
+     *
+     * @param width            the width the scenes see through {@link Window#getWidth()}
+     * @param height           the height the scenes see through {@link Window#getHeight()}
+     * @param minSceneLighting float from 0-1 indicating the minimum scene light level
+     */
+    public static void initHeadless(int width, int height, float minSceneLighting) {
+        Log.debug("headless init of engine called");
+        getInstance().headless = true;
+        getInstance().running = true;
+        getInstance().window = Window.headless(width, height, minSceneLighting);
+        Log.info("headless engine init complete");
+    }
+
+    /**
+     * Start the engine without GLFW, OpenGL and OpenAL with a 1920x1080 stand-in window.
+     *
+     * @see #initHeadless(int, int, float)
+     */
+    public static void initHeadless() {
+        initHeadless(1920, 1080, 1.0f);
+    }
+
+    /**
+     * Steps the current scene of a headless engine as fast as possible, using a fixed delta time for every frame.
+     *
+     * @param frames the amount of frames to simulate
+     * @param dt     the delta time of each frame in seconds
+     */
+    public static void runHeadless(int frames, float dt) {
+        if (!isHeadless()) throw new IllegalStateException("the engine has not been started headless");
+        Window window = window();
+        window.getSceneManager().enableIfNeeded();
+        for (int i = 0; i < frames && isRunning(); i++) {
+            window.step(dt);
+        }
+    }
+
+    /**
+     * Simulates the gameObjects with a fixed amount of steps per second, independent of the refresh rate of the display.
+     * Renderers interpolate between the last two steps to draw smoothly.
+     *
+     * @param tickRate        the amount of simulation steps per second
+     * @param maxCatchUpSteps the maximum amount of steps run for a single frame, excess steps of slow frames are dropped
+     * @see Window#setFixedTimestep(FixedTimestep)
+     */
+    public static void useFixedTimestep(int tickRate, int maxCatchUpSteps) {
+        Preconditions.nonNull("window", window()).setFixedTimestep(new FixedTimestep(tickRate, maxCatchUpSteps));
+    }
+
+    /**
+     * Simulates the scene on a thread of its own, while the main thread renders the previously simulated frame.
+     * Has to be called before {@link #showWindow()}.
+     *
+     * @see Window#setPipelined(boolean)
+     */
+    public static void usePipelinedRendering() {
+        Preconditions.nonNull("window", window()).setPipelined(true);
+    }
+
     /**
      * @return Returns the number of milliseconds since the engine started. (since the first call)
      */
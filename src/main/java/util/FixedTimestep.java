@@ -0,0 +1,105 @@
+package util;
+
+/**
+ * Accumulates the time of rendered frames and converts it into a whole number of simulation steps of fixed length.
+ * Simulating with a fixed step keeps the cost and the outcome of an update independent of the refresh rate of the display.
+ * The time left over after the last step is exposed as interpolation alpha, so renderers can blend between
+ * the previous and the current transforms and draw smoothly in between two steps.
+ * <p>
+ * If a frame took so long that more than the maximum amount of catch-up steps would be needed,
+ * the excess steps are dropped and the simulation runs slower than real time instead of falling further behind.
+ *
+ * @see graphics.Window#setFixedTimestep(FixedTimestep)
+ */
+public final class FixedTimestep {
+
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    private final int tickRate;
+    private final float stepSize;
+    private final int maxCatchUpSteps;
+
+    private double accumulator = 0;
+    private long droppedSteps = 0;
+
+    /**
+     * @param tickRate        the amount of simulation steps per second
+     * @param maxCatchUpSteps the maximum amount of steps run for a single frame
+     */
+    public FixedTimestep(int tickRate, int maxCatchUpSteps) {
+        if (tickRate <= 0) throw new IllegalArgumentException("the tick rate has to be positive");
+        if (maxCatchUpSteps <= 0) throw new IllegalArgumentException("at least one step per frame is required");
+        this.tickRate = tickRate;
+        this.stepSize = 1.0f / tickRate;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * @param tickRate the amount of simulation steps per second
+     */
+    public FixedTimestep(int tickRate) {
+        this(tickRate, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    public FixedTimestep() {
+        this(DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * Adds the time of a frame to the accumulator and consumes it in steps.
+     *
+     * @param frameTime the time of the frame in seconds
+     * @return the amount of steps to simulate for this frame, at most the maximum amount of catch-up steps
+     */
+    public int advance(float frameTime) {
+        if (frameTime > 0) accumulator += frameTime;
+        int steps = (int) (accumulator / stepSize);
+        accumulator -= steps * (double) stepSize;
+        if (steps > maxCatchUpSteps) {
+            droppedSteps += steps - maxCatchUpSteps;
+            steps = maxCatchUpSteps;
+        }
+        return steps;
+    }
+
+    /**
+     * @return the fraction of a step accumulated but not simulated yet, from 0 to 1
+     */
+    public float alpha() {
+        return (float) Math.min(accumulator / stepSize, 1.0);
+    }
+
+    /**
+     * @return the length of a step in seconds
+     */
+    public float stepSize() {
+        return stepSize;
+    }
+
+    /**
+     * @return the amount of simulation steps per second
+     */
+    public int tickRate() {
+        return tickRate;
+    }
+
+    public int maxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * @return the amount of steps dropped so far, because frames took too long to catch up
+     */
+    public long droppedSteps() {
+        return droppedSteps;
+    }
+
+    /**
+     * Discards the accumulated time, e.g. after switching scenes or resuming from a pause.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+
+}
@@ -0,0 +1,59 @@
+package util;
+
+/**
+ * An observable float value, see {@link PrimitiveObservable}.
+ */
+public final class FloatObservable extends PrimitiveObservable<FloatObservable.Observer> {
+
+    private float value;
+    private float published;
+
+    public FloatObservable(float value) {
+        this(value, null);
+    }
+
+    /**
+     * @param value    the initial value
+     * @param notifier the notifier coalescing the changes or null, to notify observers right away
+     */
+    public FloatObservable(float value, ChangeNotifier notifier) {
+        super(notifier);
+        this.value = value;
+        this.published = value;
+    }
+
+    public void setValue(float value) {
+        if (Float.compare(this.value, value) == 0) return;
+        this.value = value;
+        changed();
+    }
+
+    public float getValue() {
+        return value;
+    }
+
+    @Override
+    protected boolean publish() {
+        if (Float.compare(published, value) == 0) return false;
+        published = value;
+        return true;
+    }
+
+    @Override
+    protected void notify(Observer observer) {
+        observer.notify(value);
+    }
+
+    @FunctionalInterface
+    public interface Observer {
+
+        /**
+         * This method gets called by a {@link FloatObservable} if the value has been changed
+         *
+         * @param newVal the new value of the observed variable
+         */
+        void notify(float newVal);
+
+    }
+
+}
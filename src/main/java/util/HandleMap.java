@@ -0,0 +1,158 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Associates values with handles of a {@link SlotMap}, for example renderer data with the handle of a gameObject.
+ * The slot index of the handle is used as array index, the generation guards against stale handles.
+ * Like the slot map, the values are stored densely and removed by swap-remove,
+ * so put, remove and lookup are constant time, but the iteration order is not stable.
+ *
+ * @param <T> the type of values
+ */
+public class HandleMap<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    //slot index of a handle -> dense position or -1
+    private int[] sparse;
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    private final List<T> view = new View();
+
+    public HandleMap() {
+        this.sparse = new int[INITIAL_CAPACITY];
+        Arrays.fill(sparse, -1);
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Associates a value with a handle in constant time.
+     * A value of a stale handle using the same slot is replaced.
+     *
+     * @param handle the handle, not {@link SlotMap#NULL_HANDLE}
+     * @param value  the value, not null
+     * @return the previous value of the handle or null
+     */
+    @SuppressWarnings("unchecked")
+    public T put(long handle, T value) {
+        if (value == null) throw new IllegalArgumentException("null can not be put into a handle map");
+        //the null handle decodes to the first slot and would replace the value of a real handle
+        if (handle == SlotMap.NULL_HANDLE) throw new IllegalArgumentException("the null handle can not be put into a handle map");
+        int slot = SlotMap.index(handle);
+        if (slot < 0) throw new IllegalArgumentException("invalid handle " + handle);
+        if (slot >= sparse.length) {
+            int old = sparse.length;
+            sparse = Arrays.copyOf(sparse, Math.max(old * 2, slot + 1));
+            Arrays.fill(sparse, old, sparse.length, -1);
+        }
+        int dense = sparse[slot];
+        if (dense >= 0) {
+            T previous = keys[dense] == handle ? (T) values[dense] : null;
+            keys[dense] = handle;
+            values[dense] = value;
+            return previous;
+        }
+        if (size == values.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = handle;
+        values[size] = value;
+        sparse[slot] = size++;
+        return null;
+    }
+
+    /**
+     * Removes the value of a handle in constant time, the last value takes its place in the iteration order.
+     *
+     * @param handle the handle
+     * @return the removed value or null, if there was none for the handle
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long handle) {
+        int dense = dense(handle);
+        if (dense < 0) return null;
+        T value = (T) values[dense];
+        int last = --size;
+        keys[dense] = keys[last];
+        values[dense] = values[last];
+        sparse[SlotMap.index(keys[dense])] = dense;
+        keys[last] = SlotMap.NULL_HANDLE;
+        values[last] = null;
+        sparse[SlotMap.index(handle)] = -1;
+        return value;
+    }
+
+    /**
+     * @param handle the handle
+     * @return the value of the handle or null
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long handle) {
+        int dense = dense(handle);
+        return dense < 0 ? null : (T) values[dense];
+    }
+
+    /**
+     * @param handle the handle
+     * @return true if a value is associated with the handle
+     */
+    public boolean contains(long handle) {
+        return dense(handle) >= 0;
+    }
+
+    /**
+     * @return the amount of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            sparse[SlotMap.index(keys[i])] = -1;
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return a read-only random access view of the dense values, reflecting later changes
+     */
+    public List<T> values() {
+        return view;
+    }
+
+    private int dense(long handle) {
+        int slot = SlotMap.index(handle);
+        if (slot < 0 || slot >= sparse.length) return -1;
+        int dense = sparse[slot];
+        return dense >= 0 && keys[dense] == handle ? dense : -1;
+    }
+
+    private final class View extends AbstractList<T> implements RandomAccess {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return (T) values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package util;
+
+/**
+ * An observable int value, see {@link PrimitiveObservable}.
+ */
+public final class IntObservable extends PrimitiveObservable<IntObservable.Observer> {
+
+    private int value;
+    private int published;
+
+    public IntObservable(int value) {
+        this(value, null);
+    }
+
+    /**
+     * @param value    the initial value
+     * @param notifier the notifier coalescing the changes or null, to notify observers right away
+     */
+    public IntObservable(int value, ChangeNotifier notifier) {
+        super(notifier);
+        this.value = value;
+        this.published = value;
+    }
+
+    public void setValue(int value) {
+        if (this.value == value) return;
+        this.value = value;
+        changed();
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    protected boolean publish() {
+        if (published == value) return false;
+        published = value;
+        return true;
+    }
+
+    @Override
+    protected void notify(Observer observer) {
+        observer.notify(value);
+    }
+
+    @FunctionalInterface
+    public interface Observer {
+
+        /**
+         * This method gets called by a {@link IntObservable} if the value has been changed
+         *
+         * @param newVal the new value of the observed variable
+         */
+        void notify(int newVal);
+
+    }
+
+}
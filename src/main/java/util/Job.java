@@ -0,0 +1,69 @@
+package util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A handle to a job scheduled on a {@link JobSystem}.
+ * Jobs can be passed as dependencies when scheduling other jobs, so they form a dependency graph:
+ * a job starts only after all of its dependencies have completed.
+ * If a dependency fails, the dependent jobs don't run and fail as well.
+ */
+public final class Job {
+
+    private final String name;
+    final CompletableFuture<Void> future;
+
+    Job(String name, CompletableFuture<Void> future) {
+        this.name = name;
+        this.future = future;
+    }
+
+    /**
+     * A job which has completed already, useful as neutral dependency.
+     *
+     * @return the job
+     */
+    public static Job completed() {
+        return new Job("completed", CompletableFuture.completedFuture(null));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return true if the job has completed, normally or exceptionally
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * @return true if the job or one of its dependencies has thrown an exception
+     */
+    public boolean isFailed() {
+        return future.isCompletedExceptionally();
+    }
+
+    /**
+     * Waits for the job to complete. Must not be called by a main-thread job or while waiting for one on the main thread.
+     *
+     * @throws RuntimeException the exception thrown by the job or its dependencies
+     */
+    public void join() {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" + name + (isDone() ? isFailed() ? ", failed}" : ", done}" : "}");
+    }
+
+}
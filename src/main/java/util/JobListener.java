@@ -0,0 +1,20 @@
+package util;
+
+/**
+ * Gets notified about every job run by a {@link JobSystem}, for example to measure the utilization of the cores.
+ * Called on the thread which ran the job, right after it, so implementations have to be thread-safe and fast.
+ *
+ * @see JobSystem#addListener(JobListener)
+ */
+@FunctionalInterface
+public interface JobListener {
+
+    /**
+     * @param name        the name of the job
+     * @param thread      the thread which ran the job
+     * @param startNanos  {@link System#nanoTime()} when the job started
+     * @param durationNanos how long the job ran
+     */
+    void jobFinished(String name, Thread thread, long startNanos, long durationNanos);
+
+}
@@ -0,0 +1,309 @@
+package util;
+
+import util.safety.Preconditions;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared concurrency infrastructure of the engine, instead of subsystems creating threads of their own.
+ * Jobs run on a work-stealing {@link ForkJoinPool}: idle workers take queued jobs from busy ones,
+ * so many small jobs are spread evenly across the cores.
+ * <p>
+ * Jobs can depend on other jobs and form a dependency graph, see {@link Job}.
+ * Jobs which have to run on the main thread, e.g. because they call OpenGL, are scheduled with {@link #scheduleOnMainThread(String, Runnable, Job...)}
+ * and run by the game loop once per frame.
+ * <p>
+ * Every job is timed, {@link #busyNanos()} and {@link JobListener}s can be used to measure how busy the workers are.
+ *
+ * <pre>
+ * Job decode = JobSystem.shared().schedule("decode", () -&gt; ...);
+ * Job upload = JobSystem.shared().scheduleOnMainThread("upload", () -&gt; ..., decode);
+ * </pre>
+ */
+public final class JobSystem {
+
+    /**
+     * The default amount of indices handled by one task of a parallel for
+     */
+    public static final int DEFAULT_GRAIN_SIZE = 256;
+
+    private static volatile JobSystem shared;
+
+    //jobs waiting for the main thread, shared by all job systems since there is just one main thread
+    private static final Queue<Runnable> mainThreadJobs = new ConcurrentLinkedQueue<>();
+    private static final Executor mainThread = mainThreadJobs::add;
+
+    private final ForkJoinPool pool;
+    private final CopyOnWriteArrayList<JobListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder completedJobs = new LongAdder();
+
+    /**
+     * Creates a job system with a worker per available core, except for one left to the main thread.
+     */
+    public JobSystem() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * @param workers the amount of worker threads
+     */
+    public JobSystem(int workers) {
+        this(new ForkJoinPool(workers, new WorkerFactory(), null, true));
+    }
+
+    /**
+     * @param pool the pool to run the jobs on
+     */
+    public JobSystem(ForkJoinPool pool) {
+        this.pool = Preconditions.nonNull(pool);
+    }
+
+    /**
+     * @return the job system shared by the whole engine, created on first use
+     */
+    public static JobSystem shared() {
+        if (shared == null) {
+            synchronized (JobSystem.class) {
+                if (shared == null) shared = new JobSystem();
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * @return the amount of worker threads
+     */
+    public int workers() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Schedules a job, it starts once all dependencies have completed.
+     *
+     * @param name         the name of the job, passed to the listeners
+     * @param work         the work to do
+     * @param dependencies the jobs which have to complete first
+     * @return the handle of the job
+     */
+    public Job schedule(String name, Runnable work, Job... dependencies) {
+        return schedule(name, work, pool, dependencies);
+    }
+
+    /**
+     * Schedules an unnamed job.
+     *
+     * @see #schedule(String, Runnable, Job...)
+     */
+    public Job schedule(Runnable work, Job... dependencies) {
+        return schedule("job", work, dependencies);
+    }
+
+    /**
+     * Schedules a job which runs on the main thread, once all dependencies have completed.
+     * Main-thread jobs are run by the game loop at the beginning of each frame, see {@link #runMainThreadJobs()}.
+     * A pipelined window runs them while the simulation waits, so they may change the scene.
+     *
+     * @param name         the name of the job, passed to the listeners
+     * @param work         the work to do
+     * @param dependencies the jobs which have to complete first
+     * @return the handle of the job
+     */
+    public Job scheduleOnMainThread(String name, Runnable work, Job... dependencies) {
+        return schedule(name, work, mainThread, dependencies);
+    }
+
+    /**
+     * Schedules a job completing once all given jobs have completed, without doing any work itself.
+     *
+     * @param jobs the jobs to wait for
+     * @return the handle of the job
+     */
+    public static Job all(Job... jobs) {
+        return new Job("all", dependencies(jobs));
+    }
+
+    /**
+     * Runs a loop over an index range in parallel and returns once all indices have been handled.
+     * The range is split in halves until a part contains at most grainSize indices.
+     * Idle workers steal the parts, the calling thread takes part as well.
+     *
+     * @param name      the name of the loop, passed to the listeners for every part
+     * @param from      the first index, inclusive
+     * @param to        the last index, exclusive
+     * @param grainSize the maximum amount of indices handled by one part, at least 1
+     * @param body      the body of the loop
+     */
+    public void parallelFor(String name, int from, int to, int grainSize, ForRange body) {
+        if (grainSize < 1) throw new IllegalArgumentException("the grain size has to be at least 1");
+        if (from >= to) return;
+        if (to - from <= grainSize) {
+            //not worth splitting, run it right here
+            runTimed(name, () -> body.run(from, to));
+            return;
+        }
+        pool.invoke(new RangeTask(name, from, to, grainSize, body));
+    }
+
+    /**
+     * Runs a loop over an index range in parallel with the {@link #DEFAULT_GRAIN_SIZE}.
+     *
+     * @see #parallelFor(String, int, int, int, ForRange)
+     */
+    public void parallelFor(int from, int to, ForRange body) {
+        parallelFor("parallel for", from, to, DEFAULT_GRAIN_SIZE, body);
+    }
+
+    /**
+     * Schedules a loop over an index range to run in parallel once all dependencies have completed.
+     *
+     * @return the handle of a job completing once all indices have been handled
+     * @see #parallelFor(String, int, int, int, ForRange)
+     */
+    public Job scheduleParallelFor(String name, int from, int to, int grainSize, ForRange body, Job... dependencies) {
+        if (grainSize < 1) throw new IllegalArgumentException("the grain size has to be at least 1");
+        CompletableFuture<Void> future = dependencies(dependencies)
+                .thenRunAsync(() -> pool.invoke(new RangeTask(name, from, to, grainSize, body)), pool);
+        return new Job(name, future);
+    }
+
+    /**
+     * Runs all main-thread jobs whose dependencies have completed. Called by the game loop once per frame.
+     *
+     * @return the amount of jobs run
+     */
+    public static int runMainThreadJobs() {
+        int count = 0;
+        Runnable job;
+        while ((job = mainThreadJobs.poll()) != null) {
+            job.run();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param listener notified about every job run by this job system
+     */
+    public void addListener(JobListener listener) {
+        listeners.add(Preconditions.nonNull(listener));
+    }
+
+    public void removeListener(JobListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the nanoseconds spent running jobs so far, summed up over all threads
+     */
+    public long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    /**
+     * @return the amount of jobs run so far, each part of a parallel for counts as one
+     */
+    public long completedJobs() {
+        return completedJobs.sum();
+    }
+
+    /**
+     * Stops accepting jobs, queued jobs are still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private Job schedule(String name, Runnable work, Executor executor, Job[] dependencies) {
+        Preconditions.nonNull(work);
+        CompletableFuture<Void> future = dependencies(dependencies).thenRunAsync(() -> runTimed(name, work), executor);
+        return new Job(name, future);
+    }
+
+    private static CompletableFuture<Void> dependencies(Job[] jobs) {
+        if (jobs.length == 0) return CompletableFuture.completedFuture(null);
+        if (jobs.length == 1) return jobs[0].future;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[jobs.length];
+        for (int i = 0; i < jobs.length; i++) {
+            futures[i] = jobs[i].future;
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    private void runTimed(String name, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            long duration = System.nanoTime() - start;
+            busyNanos.add(duration);
+            completedJobs.increment();
+            for (JobListener listener : listeners) {
+                listener.jobFinished(name, Thread.currentThread(), start, duration);
+            }
+        }
+    }
+
+    /**
+     * The body of a parallel for, handling a part of the index range.
+     */
+    @FunctionalInterface
+    public interface ForRange {
+
+        /**
+         * @param from the first index of the part, inclusive
+         * @param to   the last index of the part, exclusive
+         */
+        void run(int from, int to);
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private final String name;
+        private final int from;
+        private final int to;
+        private final int grainSize;
+        private final ForRange body;
+
+        RangeTask(String name, int from, int to, int grainSize, ForRange body) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grainSize) {
+                runTimed(name, () -> body.run(from, to));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(name, from, mid, grainSize, body), new RangeTask(name, mid, to, grainSize, body));
+        }
+    }
+
+    private static final class WorkerFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private static final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("job-worker-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -202,6 +202,140 @@ public class MathUtils {
         return rayB.mul(factors.y); //+pointB is not necessary, its the origin
     }
 
+    /**
+     * Scratch state of the allocation-free GJK and EPA, one per thread
+     */
+    private static final class CollisionScratch {
+        final Vector2f pointA = new Vector2f();
+        final Vector2f pointB = new Vector2f();
+        //the polygon expanded by EPA, x and y of each point
+        float[] polygon = new float[32];
+    }
+
+    private static final ThreadLocal<CollisionScratch> collisionScratch = ThreadLocal.withInitial(CollisionScratch::new);
+
+    /**
+     * Allocation-free version of {@link #gjksmCollision(PrimitiveShape, PrimitiveShape)} with the same results.
+     * Uses thread-local scratch state, so it can be called from multiple threads.
+     *
+     * @param shapeA  shape a
+     * @param shapeB  shape b
+     * @param simplex receives the three points of the simplex as x0, y0, x1, y1, x2, y2, if the shapes intersect
+     * @return whether shape a and shape b intersect
+     * @see #expandingPolytopeAlgorithm(PrimitiveShape, PrimitiveShape, float[], Vector2f)
+     */
+    public static boolean gjksmCollision(PrimitiveShape shapeA, PrimitiveShape shapeB, float[] simplex) {
+        CollisionScratch scratch = collisionScratch.get();
+        Vector2f support = scratch.pointA;
+        supportMinkDiff(shapeA, shapeB, -shapeA.centroid().x, -shapeA.centroid().y, scratch, support);
+        float startX = support.x, startY = support.y;
+        float directionX = -startX, directionY = -startY;
+        simplex[0] = startX;
+        simplex[1] = startY;
+
+        int pointsConfirmed = 1;
+        int loop = 0;
+        int maxLoop = shapeA.vertices() + shapeB.vertices();
+        if (shapeA.type() == ShapeType.CIRCLE || shapeB.type() == ShapeType.CIRCLE) maxLoop += 20;
+
+        while (pointsConfirmed < 3) {
+            if (++loop > maxLoop) return false;
+            supportMinkDiff(shapeA, shapeB, directionX, directionY, scratch, support);
+            float x = support.x, y = support.y;
+            if (x * directionX + y * directionY < 0) return false;
+            //vector from the new point to the start point and towards the origin
+            float abX = startX - x, abY = startY - y;
+            float aoX = -x, aoY = -y;
+            if (abX * aoX + abY * aoY > 0) {
+                //the perpendicular of ab pointing towards the origin
+                directionX = abY;
+                directionY = -abX;
+                if (!(directionX * aoX + directionY * aoY > 0)) {
+                    directionX = -directionX;
+                    directionY = -directionY;
+                }
+                simplex[pointsConfirmed * 2] = x;
+                simplex[pointsConfirmed * 2 + 1] = y;
+                pointsConfirmed++;
+            } else {
+                startX = x;
+                startY = y;
+                directionX = aoX;
+                directionY = aoY;
+                simplex[0] = x;
+                simplex[1] = y;
+                pointsConfirmed = 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Allocation-free version of {@link #expandingPolytopeAlgorithm(PrimitiveShape, PrimitiveShape, Vector2f[])} with the same results.
+     * Uses thread-local scratch state, so it can be called from multiple threads.
+     *
+     * @param shapeA      the first shape
+     * @param shapeB      the second shape, that collides with the first one
+     * @param simplex     the simplex found by {@link #gjksmCollision(PrimitiveShape, PrimitiveShape, float[])}
+     * @param penetration receives the penetration vector of both shapes
+     * @return true if a penetration vector was found within a series of steps
+     */
+    public static boolean expandingPolytopeAlgorithm(PrimitiveShape shapeA, PrimitiveShape shapeB, float[] simplex, Vector2f penetration) {
+        CollisionScratch scratch = collisionScratch.get();
+        int faceSize = shapeA.vertices() + shapeB.vertices();
+        //the simplex and at most one point per iteration
+        if (scratch.polygon.length < (faceSize + 4) * 2) scratch.polygon = new float[(faceSize + 4) * 2];
+        float[] polygon = scratch.polygon;
+        System.arraycopy(simplex, 0, polygon, 0, 6);
+        int points = 3;
+        Vector2f support = scratch.pointA;
+        for (int i = 0; i < faceSize + 1; i++) {
+            //find the face closest to the origin and the point on it closest to the origin
+            int closest = 0;
+            float distance = Float.POSITIVE_INFINITY;
+            float normalX = 0, normalY = 0;
+            for (int face = 0; face < points; face++) {
+                int next = (face + 1) % points;
+                float ax = polygon[face * 2], ay = polygon[face * 2 + 1];
+                float rayAX = polygon[next * 2] - ax, rayAY = polygon[next * 2 + 1] - ay;
+                //perpendicular of the face, solved for the factor reaching the face from the origin
+                float rayBX = rayAY, rayBY = -rayAX;
+                float a = rayAX, b = -rayBX, c = rayAY, d = -rayBY, e = -ax, f = -ay;
+                float factor = (a * f - c * e) * (1 / (a * d - b * c));
+                float hitX = rayBX * factor, hitY = rayBY * factor;
+                float lengthSquared = hitX * hitX + hitY * hitY;
+                if (distance > lengthSquared) {
+                    distance = lengthSquared;
+                    closest = face;
+                    normalX = hitX;
+                    normalY = hitY;
+                }
+            }
+            supportMinkDiff(shapeA, shapeB, normalX, normalY, scratch, support);
+            //if the point * normal is close to normal * normal, its the point we seek
+            if (Math.abs(normalX * support.x + normalY * support.y - distance) < 0.001f) {
+                penetration.set(-normalX, -normalY);
+                return true;
+            }
+            //insert the point after the start of the closest face
+            int insert = (closest + 1) * 2;
+            System.arraycopy(polygon, insert, polygon, insert + 2, points * 2 - insert);
+            polygon[insert] = support.x;
+            polygon[insert + 1] = support.y;
+            points++;
+        }
+        return false;
+    }
+
+    //the support point of the minkowskiDiff(A,B) without allocating
+    private static void supportMinkDiff(PrimitiveShape shapeA, PrimitiveShape shapeB, float directionX, float directionY, CollisionScratch scratch, Vector2f result) {
+        Vector2f pointA = scratch.pointA;
+        Vector2f pointB = scratch.pointB;
+        shapeA.supportPoint(directionX, directionY, pointA);
+        shapeB.supportPoint(-directionX, -directionY, pointB);
+        result.set(pointA.x - pointB.x, pointA.y - pointB.y);
+    }
+
     /**
      * Calculates the maximum point of a convex shape C in a specific direction, where C is considered the minkowskiDiff(A,B).
      *
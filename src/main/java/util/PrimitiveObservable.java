@@ -0,0 +1,107 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Base of the observables holding a primitive value, so writing a value neither boxes nor takes a monitor.
+ * Without a {@link ChangeNotifier}, observers are notified right away with each change,
+ * otherwise the changes are coalesced until the notifier is flushed.
+ * Observers are only notified, if the value differs from the value they were last notified with.
+ *
+ * @param <O> the type of observers
+ * @see FloatObservable
+ * @see IntObservable
+ * @see BooleanObservable
+ */
+public abstract class PrimitiveObservable<O> {
+
+    private static final Object[] NO_OBSERVERS = new Object[0];
+
+    private final ChangeNotifier notifier;
+    private Object[] observers = NO_OBSERVERS;
+    private int observerCount = 0;
+    private boolean scheduled = false;
+
+    protected PrimitiveObservable(ChangeNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    /**
+     * Add an observer to this observable.
+     *
+     * @param observer the observer to add
+     */
+    public void observe(O observer) {
+        //changes made without observers are not notified
+        if (observerCount == 0) publish();
+        if (observerCount == observers.length) observers = Arrays.copyOf(observers, Math.max(2, observerCount * 2));
+        observers[observerCount++] = observer;
+    }
+
+    /**
+     * Remove an observer from this observable.
+     *
+     * @param observer the observer to remove
+     */
+    public void ignore(O observer) {
+        for (int i = 0; i < observerCount; i++) {
+            if (observers[i] == observer) {
+                System.arraycopy(observers, i + 1, observers, i, observerCount - i - 1);
+                observers[--observerCount] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all observers from this observable
+     */
+    public void ignoreAll() {
+        Arrays.fill(observers, 0, observerCount, null);
+        observerCount = 0;
+    }
+
+    /**
+     * @return the notifier coalescing the changes or null, if observers are notified right away
+     */
+    public ChangeNotifier notifier() {
+        return notifier;
+    }
+
+    /**
+     * Called by the subclasses after the value has been changed.
+     */
+    protected final void changed() {
+        if (observerCount == 0) return;
+        if (notifier == null) {
+            flush();
+        } else if (!scheduled) {
+            scheduled = true;
+            notifier.schedule(this);
+        }
+    }
+
+    //notifies the observers if the value differs from the one last notified
+    @SuppressWarnings("unchecked")
+    final boolean flush() {
+        scheduled = false;
+        if (!publish()) return false;
+        for (int i = 0; i < observerCount; i++) {
+            notify((O) observers[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Remembers the current value as notified.
+     *
+     * @return true if the current value differs from the value notified last
+     */
+    protected abstract boolean publish();
+
+    /**
+     * @param observer the observer to notify with the current value
+     */
+    protected abstract void notify(O observer);
+
+}
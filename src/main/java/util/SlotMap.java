@@ -0,0 +1,176 @@
+package util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A container handing out generational handles for its elements.
+ * A handle packs the slot index into the lower and the generation of the slot into the upper 32 bits of a long.
+ * Removing an element bumps the generation of its slot, so stale handles never resolve to a newer element reusing the slot.
+ * <p>
+ * The elements are stored densely, removal moves the last element into the gap (swap-remove),
+ * so insertion, removal and lookup are constant time, but the iteration order is not stable.
+ *
+ * @param <T> the type of elements
+ * @see HandleMap
+ */
+public class SlotMap<T> {
+
+    /**
+     * A handle that never refers to any element
+     */
+    public static final long NULL_HANDLE = 0;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    //slot -> dense position, or the next free slot (encoded as -2 - next) while the slot is unused
+    private int[] slots;
+    private int[] generations;
+    private int freeHead = -1;
+    private int slotCount = 0;
+
+    private Object[] values;
+    private int[] denseToSlot;
+    private int size = 0;
+
+    private final List<T> view = new View();
+
+    public SlotMap() {
+        this.slots = new int[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+        this.denseToSlot = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param handle a handle
+     * @return the slot index of the handle
+     */
+    public static int index(long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * @param handle a handle
+     * @return the generation of the handle
+     */
+    public static int generation(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    private static long handle(int index, int generation) {
+        return ((long) generation << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Inserts an element in constant time.
+     *
+     * @param value the element, not null
+     * @return the handle of the element
+     */
+    public long insert(T value) {
+        if (value == null) throw new IllegalArgumentException("null can not be inserted into a slot map");
+        int slot;
+        if (freeHead != -1) {
+            slot = freeHead;
+            freeHead = -2 - slots[slot];
+        } else {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+                generations = Arrays.copyOf(generations, slotCount * 2);
+            }
+            slot = slotCount++;
+            //generation 0 is reserved, so NULL_HANDLE stays invalid
+            generations[slot] = 1;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            denseToSlot = Arrays.copyOf(denseToSlot, size * 2);
+        }
+        values[size] = value;
+        denseToSlot[size] = slot;
+        slots[slot] = size++;
+        return handle(slot, generations[slot]);
+    }
+
+    /**
+     * Removes an element in constant time, the last element takes its place in the iteration order.
+     *
+     * @param handle the handle of the element
+     * @return the removed element or null, if the handle is stale or invalid
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long handle) {
+        int dense = dense(handle);
+        if (dense < 0) return null;
+        int slot = index(handle);
+        T value = (T) values[dense];
+        int last = --size;
+        values[dense] = values[last];
+        denseToSlot[dense] = denseToSlot[last];
+        slots[denseToSlot[dense]] = dense;
+        values[last] = null;
+        //invalidate all handles of the slot and put it on the free list
+        if (++generations[slot] == 0) generations[slot] = 1;
+        slots[slot] = -2 - freeHead;
+        freeHead = slot;
+        return value;
+    }
+
+    /**
+     * @param handle a handle
+     * @return the element or null, if the handle is stale or invalid
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long handle) {
+        int dense = dense(handle);
+        return dense < 0 ? null : (T) values[dense];
+    }
+
+    /**
+     * @param handle a handle
+     * @return true if the handle refers to an element of this map
+     */
+    public boolean contains(long handle) {
+        return dense(handle) >= 0;
+    }
+
+    /**
+     * @return the amount of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a read-only random access view of the dense elements, reflecting later changes
+     */
+    public List<T> values() {
+        return view;
+    }
+
+    //the dense position of a valid handle or -1
+    private int dense(long handle) {
+        int slot = index(handle);
+        if (slot < 0 || slot >= slotCount || generations[slot] != generation(handle)) return -1;
+        return slots[slot];
+    }
+
+    private final class View extends AbstractList<T> implements RandomAccess {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return (T) values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands data from one producer thread to one consumer thread without locking and without either of them waiting.
+ * The producer fills the back buffer and publishes it, the consumer acquires the most recently published buffer.
+ * A third buffer sits in between, so the producer never writes a buffer the consumer is reading.
+ * If the producer publishes faster than the consumer acquires, older buffers are skipped and reused.
+ *
+ * @param <T> the type of buffers
+ */
+public final class TripleBuffer<T> {
+
+    //the index of the middle buffer and a flag, whether it has been published since the consumer acquired the last one
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    //only accessed by the producer
+    private int back = 0;
+    //only accessed by the consumer
+    private int front = 2;
+
+    /**
+     * @param factory creates the three buffers
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Called by the producer only.
+     *
+     * @return the buffer to fill before calling {@link #publish()}
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Called by the producer only. Publishes the back buffer, a previously published buffer not acquired yet becomes the new back buffer.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Called by the consumer only.
+     *
+     * @return the most recently published buffer, or the one acquired before, if nothing has been published since
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+
+    /**
+     * @return true if a buffer has been published since the consumer acquired the last one
+     */
+    public boolean hasPublished() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+}
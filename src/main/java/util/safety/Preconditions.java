@@ -24,6 +24,14 @@ public final class Preconditions {
         }
     }
 
+    /**
+     * @return true if the current call is executed in the main thread
+     * @see #ensureMainThread(String)
+     */
+    public static boolean isMainThread() {
+        return Thread.currentThread().getId() == mainThreadID;
+    }
+
     /**
      * Improve code stability by doing non-null checks inline.
      *
@@ -40,7 +40,7 @@ public class QuickCreate {
         GameObject gameObject = new GameObject(name, position, zIndex);
 
         SpriteRenderer spriteRenderer = new SpriteRenderer(spritesheet.getSprite(start), size);
-        spriteRenderer.rotation = angle;
+        gameObject.setRotation(angle);
         SpriteAnimation animation = new SpriteAnimation(spriteRenderer, spritesheet.getSprite(start), 0.05f);
         animation.setAnimation(animName, Arrays.asList(spritesheet.getSprite(start), spritesheet.getSprite(end)));
         animation.nextAnimation(animName, -1);
@@ -207,7 +207,7 @@ public class QuickCreate {
         GameObject gameObject = new GameObject(name, position, zIndex);
 
         SpriteRenderer spriteRenderer = new SpriteRenderer(spritesheet.getSprite(start), size);
-        spriteRenderer.rotation = angle;
+        gameObject.setRotation(angle);
         SpriteAnimation animation = new SpriteAnimation(spriteRenderer, spritesheet.getSprite(start), 0.05f);
         animation.setAnimation(animName, Arrays.asList(spritesheet.getSprite(start), spritesheet.getSprite(end)));
         animation.nextAnimation(animName, -1);
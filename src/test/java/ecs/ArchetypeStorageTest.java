@@ -0,0 +1,101 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ArchetypeStorageTest {
+
+    Scene scene;
+    List<String> calls;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.enableArchetypeStorage();
+        calls = new ArrayList<>();
+    }
+
+    private GameObject create(String name, Component... components) {
+        GameObject go = new GameObject(scene, name, new Vector2f(), 0);
+        for (Component c : components) go.addComponent(c);
+        return go;
+    }
+
+    @Test
+    public void groupsBySignature() {
+        GameObject a = create("a", new Recording("a", Component.ComponentOrder.INPUT), new Other());
+        GameObject b = create("b", new Other(), new Recording("b", Component.ComponentOrder.INPUT));
+        GameObject c = create("c", new Recording("c", Component.ComponentOrder.INPUT));
+        Assert.assertSame(a.archetype, b.archetype);
+        Assert.assertNotSame(a.archetype, c.archetype);
+        Assert.assertEquals(2, a.archetype.size());
+        Assert.assertEquals(1, c.archetype.size());
+    }
+
+    @Test
+    public void updatesInComponentOrder() {
+        create("a", new Recording("a-draw", Component.ComponentOrder.DRAW), new Recording("a-input", Component.ComponentOrder.INPUT));
+        create("b", new Recording("b-draw", Component.ComponentOrder.DRAW), new Recording("b-input", Component.ComponentOrder.INPUT));
+        scene.archetypeStorage().update(1);
+        Assert.assertEquals(4, calls.size());
+        Assert.assertTrue(calls.indexOf("a-input") < calls.indexOf("a-draw"));
+        Assert.assertTrue(calls.indexOf("b-input") < calls.indexOf("b-draw"));
+        Assert.assertTrue(calls.indexOf("b-input") < calls.indexOf("a-draw"));
+    }
+
+    @Test
+    public void removalDuringUpdate() {
+        GameObject[] victim = new GameObject[1];
+        create("killer", new Component(Component.ComponentOrder.INPUT) {
+            @Override
+            public void update(float dt) {
+                scene.removeGameObjectFromScene(victim[0]);
+            }
+        }, new Recording("killer", Component.ComponentOrder.DRAW));
+        victim[0] = create("victim", new Recording("victim", Component.ComponentOrder.DRAW));
+        scene.archetypeStorage().update(1);
+        scene.archetypeStorage().update(1);
+        Assert.assertFalse(calls.contains("victim"));
+        Assert.assertEquals(2, calls.size());
+        Assert.assertNull(victim[0].archetype);
+    }
+
+    @Test
+    public void componentChanges() {
+        GameObject go = create("go", new Recording("go", Component.ComponentOrder.INPUT));
+        Archetype before = go.archetype;
+        go.addComponent(new Other());
+        Assert.assertNotSame(before, go.archetype);
+        Assert.assertEquals(0, before.size());
+        go.removeComponent(Other.class);
+        Assert.assertSame(before, go.archetype);
+        scene.archetypeStorage().update(1);
+        Assert.assertEquals(1, calls.size());
+    }
+
+    private class Recording extends Component {
+
+        private final String id;
+
+        Recording(String id, ComponentOrder order) {
+            super(order);
+            this.id = id;
+        }
+
+        @Override
+        public void update(float dt) {
+            calls.add(id);
+        }
+    }
+
+    private static class Other extends Component {
+    }
+
+}
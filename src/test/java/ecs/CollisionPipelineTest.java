@@ -0,0 +1,134 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Collider;
+import physics.collision.CollisionInformation;
+import physics.collision.Contact;
+import physics.collision.Shapes;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CollisionPipelineTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.activate();
+    }
+
+    static class Recording extends CollisionHandler {
+
+        final List<Collider> environments = new ArrayList<>();
+        final List<CollisionInformation> information = new ArrayList<>();
+
+        Recording(Collider collider) {
+            super(collider);
+        }
+
+        @Override
+        public void collision(Collider environment, CollisionInformation collisionInformation) {
+            environments.add(environment);
+            information.add(collisionInformation);
+        }
+    }
+
+    private PolygonCollider body(float x, float y, boolean passive, int layer) {
+        GameObject gameObject = new GameObject(scene, "body", new Vector2f(x, y), 0);
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10), passive).layer(layer).mask(layer);
+        gameObject.addComponent(collider);
+        return collider;
+    }
+
+    private Recording handle(PolygonCollider collider) {
+        Recording handler = new Recording(collider);
+        collider.gameObject.addComponent(handler);
+        return handler;
+    }
+
+    @Test
+    public void eachPairIsTestedOnceAndDispatchedToBothSides() {
+        PolygonCollider a = body(0, 0, false, 1);
+        PolygonCollider b = body(5, 5, false, 1);
+        Recording handlerA = handle(a);
+        Recording handlerB = handle(b);
+        List<Contact> heard = new ArrayList<>();
+        scene.collisions().addListener(heard::add);
+
+        scene.updateGameObjects();
+        Assert.assertEquals(1, scene.collisions().narrowphaseTests());
+        Assert.assertEquals(List.of(b), handlerA.environments);
+        Assert.assertEquals(List.of(a), handlerB.environments);
+        Assert.assertEquals(1, scene.collisions().contacts().size());
+        Assert.assertEquals(scene.collisions().contacts(), heard);
+
+        //the second side sees the mirrored simplex
+        Contact contact = heard.get(0);
+        Recording firstHandler = contact.first() == a ? handlerA : handlerB;
+        Recording secondHandler = firstHandler == handlerA ? handlerB : handlerA;
+        Vector2f[] simplex = (Vector2f[]) firstHandler.information.get(0).get();
+        Vector2f[] mirrored = (Vector2f[]) secondHandler.information.get(0).get();
+        for (int i = 0; i < simplex.length; i++) {
+            Assert.assertEquals(-simplex[i].x, mirrored[i].x, 0);
+            Assert.assertEquals(-simplex[i].y, mirrored[i].y, 0);
+        }
+    }
+
+    @Test
+    public void pairsAreFiltered() {
+        PolygonCollider a = body(0, 0, false, 1);
+        handle(a);
+        //another layer
+        body(2, 2, false, 2);
+        //far away
+        body(500, 500, false, 1);
+        //two passive colliders
+        body(100, 100, true, 1);
+        body(102, 102, true, 1);
+        //no handler and no listener
+        body(200, 200, false, 1);
+        body(202, 202, false, 1);
+        scene.updateGameObjects();
+        Assert.assertEquals(0, scene.collisions().narrowphaseTests());
+        Assert.assertTrue(scene.collisions().contacts().isEmpty());
+
+        //listeners are interested in all pairs
+        scene.collisions().addListener(contact -> {
+        });
+        scene.updateGameObjects();
+        Assert.assertEquals(1, scene.collisions().narrowphaseTests());
+        Assert.assertEquals(1, scene.collisions().contacts().size());
+    }
+
+    @Test
+    public void passiveCollidersAreTestedByTheActiveSide() {
+        PolygonCollider active = body(0, 0, false, 1);
+        PolygonCollider wall = body(5, 0, true, 1);
+        Recording handler = handle(active);
+        scene.updateGameObjects();
+        Assert.assertEquals(List.of(wall), handler.environments);
+        Assert.assertSame(active, scene.collisions().contacts().get(0).first());
+    }
+
+    @Test
+    public void removedHandlersAreNotCalled() {
+        PolygonCollider a = body(0, 0, false, 1);
+        PolygonCollider b = body(5, 5, false, 1);
+        Recording handlerA = handle(a);
+        Recording handlerB = handle(b);
+        a.gameObject.removeComponent(Recording.class);
+        scene.removeGameObjectFromScene(b.gameObject);
+        scene.updateGameObjects();
+        Assert.assertTrue(handlerA.environments.isEmpty());
+        Assert.assertTrue(handlerB.environments.isEmpty());
+        Assert.assertEquals(0, scene.collisions().narrowphaseTests());
+    }
+
+}
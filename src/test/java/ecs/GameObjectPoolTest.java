@@ -0,0 +1,112 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Shapes;
+import physics.collision.shape.PrimitiveShape;
+import scene.Scene;
+
+import java.lang.management.ManagementFactory;
+
+public class GameObjectPoolTest {
+
+    Scene scene;
+    GameObjectPool pool;
+    int reset;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.activate();
+        reset = 0;
+        PrimitiveShape shape = Shapes.axisAlignedRectangle(0, 0, 5, 10);
+        pool = new GameObjectPool(scene, "bullet", 0, new Prefab() {
+            @Override
+            public void build(GameObject gameObject) {
+                gameObject.addComponent(new Starting());
+                gameObject.addComponent(new PolygonCollider(shape.copy()));
+            }
+
+            @Override
+            public void reset(GameObject gameObject) {
+                reset++;
+            }
+        }, 2);
+    }
+
+    @Test
+    public void preInstantiated() {
+        Assert.assertEquals(2, pool.created());
+        Assert.assertEquals(2, pool.available());
+        Assert.assertTrue(scene.getGameObjects().isEmpty());
+        Assert.assertTrue(scene.getColliders().isEmpty());
+    }
+
+    @Test
+    public void recycle() {
+        GameObject a = pool.obtain(1, 2);
+        GameObject b = pool.obtain(new Vector2f(3, 4));
+        GameObject c = pool.obtain(5, 6);
+        Assert.assertEquals(2, pool.hits());
+        Assert.assertEquals(1, pool.misses());
+        Assert.assertEquals(3, pool.created());
+        Assert.assertEquals(3, scene.getGameObjects().size());
+        Assert.assertEquals(3, scene.getColliders().size());
+        Assert.assertEquals(1, a.getX(), 0);
+        Assert.assertEquals(1, a.getComponent(Starting.class).started);
+
+        pool.release(a);
+        Assert.assertEquals(1, pool.available());
+        Assert.assertFalse(scene.getGameObjects().contains(a));
+        Assert.assertEquals(2, scene.getColliders().size());
+
+        GameObject d = pool.obtain(7, 8);
+        Assert.assertSame(a, d);
+        Assert.assertEquals(3, pool.hits());
+        Assert.assertEquals(3, pool.created());
+        Assert.assertEquals(3, reset);
+        Assert.assertEquals(7, d.getX(), 0);
+        Assert.assertEquals(2, d.getComponent(Starting.class).started);
+        Assert.assertNotSame(b.getComponent(PolygonCollider.class).getShape(), c.getComponent(PolygonCollider.class).getShape());
+    }
+
+    @Test
+    public void recyclingDoesNotAllocate() {
+        GameObject[] obtained = new GameObject[300];
+        for (int i = 0; i < obtained.length; i++) obtained[i] = pool.obtain(i, i);
+        for (GameObject gameObject : obtained) pool.release(gameObject);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocated = -1;
+        //the first rounds warm up the code, the pool and the scene are already grown
+        for (int round = 0; round < 10 && allocated != 0; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int cycle = 0; cycle < 100; cycle++) {
+                for (int i = 0; i < obtained.length; i++) obtained[i] = pool.obtain(i, cycle);
+                for (GameObject gameObject : obtained) pool.release(gameObject);
+            }
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        Assert.assertEquals(0, allocated);
+        Assert.assertEquals(300, pool.created());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void foreignGameObject() {
+        pool.release(new GameObject(scene, "other", new Vector2f(), 0));
+    }
+
+    private static class Starting extends Component {
+
+        int started = 0;
+
+        @Override
+        public void start() {
+            started++;
+        }
+    }
+
+}
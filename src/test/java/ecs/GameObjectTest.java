@@ -0,0 +1,124 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Shapes;
+import scene.Scene;
+import util.SlotMap;
+
+import java.util.List;
+
+public class GameObjectTest {
+
+    Scene scene;
+    GameObject gameObject;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        gameObject = new GameObject(scene, "test", new Vector2f(), 0);
+    }
+
+    @Test
+    public void getComponent() {
+        Assert.assertNull(gameObject.getComponent(Dynamics.class));
+        Dynamics dynamics = new Dynamics();
+        gameObject.addComponent(dynamics);
+        Assert.assertSame(dynamics, gameObject.getComponent(Dynamics.class));
+        Assert.assertSame(dynamics, gameObject.getComponent(Component.class));
+        Assert.assertNull(gameObject.getComponent(PointLight.class));
+    }
+
+    @Test
+    public void getComponentByInterface() {
+        Marked marked = new Marked();
+        gameObject.addComponent(new Dynamics());
+        gameObject.addComponent(marked);
+        Assert.assertSame(marked, gameObject.getComponent(Marker.class));
+        Assert.assertTrue(gameObject.hasComponent(Marker.class));
+        Assert.assertFalse(gameObject.hasComponent(Runnable.class));
+    }
+
+    @Test
+    public void getComponents() {
+        List<Dynamics> view = gameObject.getComponents(Dynamics.class);
+        Assert.assertTrue(view.isEmpty());
+        gameObject.addComponent(new Dynamics());
+        gameObject.addComponent(new Dynamics());
+        List<Dynamics> all = gameObject.getComponents(Dynamics.class);
+        Assert.assertEquals(2, all.size());
+        Assert.assertSame(all, gameObject.getComponents(Dynamics.class));
+        Assert.assertEquals(2, gameObject.getComponents(Component.class).size());
+    }
+
+    @Test
+    public void getComponentsSnapshot() {
+        gameObject.addComponent(new Dynamics());
+        gameObject.addComponent(new Dynamics());
+        List<Dynamics> all = gameObject.getComponents(Dynamics.class);
+        for (Dynamics ignored : all) {
+            gameObject.removeComponent(Dynamics.class);
+        }
+        Assert.assertEquals(2, all.size());
+        Assert.assertTrue(gameObject.getComponents(Dynamics.class).isEmpty());
+        Assert.assertFalse(gameObject.hasComponent(Dynamics.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getComponentsReadOnly() {
+        gameObject.addComponent(new Dynamics());
+        gameObject.getComponents(Dynamics.class).clear();
+    }
+
+    @Test
+    public void componentOrder() {
+        Marked marked = new Marked();
+        Dynamics dynamics = new Dynamics();
+        gameObject.addComponent(marked);
+        gameObject.addComponent(dynamics);
+        //dynamics are updated in TRANSFORM, before POST_DRAW
+        Assert.assertSame(dynamics, gameObject.getComponent(Component.class));
+    }
+
+    @Test
+    public void removeComponent() {
+        Marked marked = new Marked();
+        gameObject.addComponent(marked);
+        gameObject.addComponent(new Dynamics());
+        gameObject.removeComponent(Marker.class);
+        Assert.assertFalse(gameObject.hasComponent(Marker.class));
+        Assert.assertFalse(gameObject.hasComponent(Marked.class));
+        Assert.assertTrue(gameObject.hasComponent(Component.class));
+        Assert.assertEquals(1, gameObject.getComponents().size());
+        Assert.assertNull(marked.gameObject);
+    }
+
+    @Test
+    public void handle() {
+        long handle = gameObject.handle();
+        Assert.assertNotEquals(SlotMap.NULL_HANDLE, handle);
+        Assert.assertSame(gameObject, scene.getGameObject(handle));
+        scene.removeGameObjectFromScene(gameObject);
+        Assert.assertNull(scene.getGameObject(handle));
+        Assert.assertEquals(SlotMap.NULL_HANDLE, gameObject.handle());
+        Assert.assertFalse(scene.getGameObjects().contains(gameObject));
+    }
+
+    @Test
+    public void colliderRegistration() {
+        gameObject.addComponent(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)));
+        Assert.assertEquals(1, scene.getColliders().size());
+        gameObject.removeComponent(PolygonCollider.class);
+        Assert.assertTrue(scene.getColliders().isEmpty());
+    }
+
+    private interface Marker {
+    }
+
+    private static class Marked extends Component implements Marker {
+    }
+
+}
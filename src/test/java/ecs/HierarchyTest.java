@@ -0,0 +1,126 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+public class HierarchyTest {
+
+    final float delta = 0.001f;
+    Scene scene;
+    GameObject ship;
+    GameObject turret;
+    GameObject barrel;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        ship = new GameObject(scene, "ship", new Vector2f(100, 100), 0);
+        turret = new GameObject(scene, "turret", new Vector2f(10, 0), 0);
+        barrel = new GameObject(scene, "barrel", new Vector2f(5, 0), 0);
+        turret.setParent(ship);
+        barrel.setParent(turret);
+        scene.propagateTransforms();
+    }
+
+    @Test
+    public void worldPositions() {
+        Assert.assertEquals(110, turret.getWorldX(), delta);
+        Assert.assertEquals(115, barrel.getWorldX(), delta);
+        Assert.assertEquals(100, barrel.getWorldY(), delta);
+        ship.setPosition(0, 0);
+        //visible right away, without waiting for the next propagation
+        Assert.assertEquals(15, barrel.getWorldX(), delta);
+        Assert.assertEquals(5, barrel.getX(), delta);
+    }
+
+    @Test
+    public void childrenSeeTheirParentWithinTheSameUpdate() {
+        float[] seen = new float[1];
+        new GameObject(scene, "probe", new Vector2f(), 0) {
+            @Override
+            public void update(float dt) {
+                ship.setPosition(50, 0);
+                seen[0] = barrel.getWorldX();
+            }
+        };
+        scene.updateGameObjects();
+        Assert.assertEquals(65, seen[0], delta);
+    }
+
+    @Test
+    public void onlyChangedHierarchiesArePropagated() {
+        GameObject other = new GameObject(scene, "other", new Vector2f(), 0);
+        GameObject child = new GameObject(scene, "child", new Vector2f(1, 0), 0);
+        child.setParent(other);
+        scene.propagateTransforms();
+        long childVersion = child.transformVersion();
+        ship.setPosition(0, 0);
+        scene.propagateTransforms();
+        Assert.assertEquals(childVersion, child.transformVersion());
+        Assert.assertFalse(ship.needsPropagation());
+        Assert.assertEquals(15, barrel.getWorldX(), delta);
+    }
+
+    @Test
+    public void rotationAndScale() {
+        ship.setRotation(90);
+        ship.setScale(2, 2);
+        scene.propagateTransforms();
+        //rotation is clockwise like sprites: (10, 0) becomes (0, -10), doubled by the scale
+        Assert.assertEquals(100, turret.getWorldX(), delta);
+        Assert.assertEquals(80, turret.getWorldY(), delta);
+        Assert.assertEquals(70, barrel.getWorldY(), delta);
+        Assert.assertEquals(90, barrel.getWorldRotation(), delta);
+        Assert.assertEquals(2, barrel.getWorldScaleX(), delta);
+        Assert.assertEquals(70, barrel.getWorldMatrix(new org.joml.Matrix3x2f()).m21, delta);
+    }
+
+    @Test
+    public void unchangedSubtreesAreSkipped() {
+        long turretVersion = turret.transformVersion();
+        long barrelVersion = barrel.transformVersion();
+        scene.propagateTransforms();
+        Assert.assertEquals(turretVersion, turret.transformVersion());
+        Assert.assertEquals(barrelVersion, barrel.transformVersion());
+        //moving the turret leaves the ship alone, but moves the barrel
+        long shipVersion = ship.transformVersion();
+        turret.setPosition(20, 0);
+        scene.propagateTransforms();
+        Assert.assertEquals(shipVersion, ship.transformVersion());
+        Assert.assertTrue(barrel.transformChangedSince(barrelVersion));
+        Assert.assertEquals(125, barrel.getWorldX(), delta);
+    }
+
+    @Test
+    public void reparent() {
+        barrel.setParent(ship);
+        Assert.assertEquals(2, ship.getChildren().size());
+        Assert.assertTrue(turret.getChildren().isEmpty());
+        scene.propagateTransforms();
+        Assert.assertEquals(105, barrel.getWorldX(), delta);
+        barrel.setParent(null);
+        Assert.assertEquals(5, barrel.getWorldX(), delta);
+        Assert.assertNull(barrel.getParent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cycle() {
+        ship.setParent(barrel);
+    }
+
+    @Test
+    public void childrenFollowTheirParent() {
+        scene.removeGameObjectFromScene(ship);
+        Assert.assertTrue(scene.getGameObjects().isEmpty());
+        scene.addGameObjectToScene(ship);
+        Assert.assertEquals(3, scene.getGameObjects().size());
+        ship.setPosition(0, 0);
+        scene.propagateTransforms();
+        Assert.assertEquals(15, barrel.getWorldX(), delta);
+    }
+
+}
@@ -0,0 +1,129 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PhaseSchedulerTest {
+
+    final AtomicInteger failed = new AtomicInteger();
+    Scene scene;
+    List<GameObject> gameObjects;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        gameObjects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            GameObject go = new GameObject(scene, "go" + i, new Vector2f(), 0);
+            go.addComponent(new Counting());
+            go.addComponent(new Checking());
+            gameObjects.add(go);
+        }
+    }
+
+    @Test
+    public void threadSafeDeclaration() {
+        Assert.assertTrue(PhaseScheduler.isThreadSafe(Counting.class));
+        Assert.assertFalse(PhaseScheduler.isThreadSafe(Checking.class));
+    }
+
+    @Test
+    public void phasesAreBarriers() {
+        PhaseScheduler scheduler = new PhaseScheduler(new ForkJoinPool(4), 8);
+        for (int frame = 1; frame <= 10; frame++) {
+            failed.set(0);
+            scheduler.update(gameObjects, 1);
+            Assert.assertEquals(0, failed.get());
+            for (GameObject go : gameObjects) {
+                Assert.assertEquals(frame, go.getComponent(Counting.class).count);
+            }
+        }
+    }
+
+    @Test
+    public void removedComponentsAreSkipped() {
+        GameObject go = gameObjects.get(0);
+        go.addComponent(new Component(Component.ComponentOrder.PRE_CALC) {
+            @Override
+            public void update(float dt) {
+                go.removeComponent(Counting.class);
+            }
+        });
+        Counting counting = go.getComponent(Counting.class);
+        new PhaseScheduler().update(gameObjects, 1);
+        Assert.assertEquals(0, counting.count);
+    }
+
+    @Test
+    public void overriddenUpdateIsCalled() {
+        AtomicInteger updates = new AtomicInteger();
+        GameObject custom = new GameObject(scene, "custom", new Vector2f(), 0) {
+            @Override
+            public void update(float dt) {
+                updates.incrementAndGet();
+                super.update(dt);
+            }
+        };
+        custom.addComponent(new Counting());
+        gameObjects.add(custom);
+        new PhaseScheduler().update(gameObjects, 1);
+        Assert.assertEquals(1, updates.get());
+        Assert.assertEquals(1, custom.getComponent(Counting.class).count);
+        Assert.assertEquals(1, gameObjects.get(0).getComponent(Counting.class).count);
+    }
+
+    @Test
+    public void dynamicsAreNotThreadSafe() {
+        Assert.assertFalse(PhaseScheduler.isThreadSafe(Dynamics.class));
+    }
+
+    @Test
+    public void collidersAreNotThreadSafe() {
+        //moving a collider updates the broadphase shared by the scene
+        Assert.assertFalse(PhaseScheduler.isThreadSafe(PolygonCollider.class));
+    }
+
+    @ThreadSafe
+    private static class Counting extends Component {
+
+        volatile int count = 0;
+
+        Counting() {
+            super(ComponentOrder.TRANSFORM);
+        }
+
+        @Override
+        public void update(float dt) {
+            count++;
+        }
+    }
+
+    private class Checking extends Component {
+
+        int frame = 0;
+
+        Checking() {
+            super(ComponentOrder.COLLISION);
+        }
+
+        @Override
+        public void update(float dt) {
+            frame++;
+            //every counting component of every gameObject has to be done already
+            for (GameObject other : gameObjects) {
+                Counting counting = other.getComponent(Counting.class);
+                if (counting != null && counting.count != frame) failed.incrementAndGet();
+            }
+        }
+    }
+
+}
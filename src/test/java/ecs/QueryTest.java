@@ -0,0 +1,72 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+import scene.Scene;
+
+public class QueryTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+    }
+
+    private GameObject create(Component... components) {
+        GameObject go = new GameObject(scene, "go", new Vector2f(), 0);
+        for (Component c : components) go.addComponent(c);
+        return go;
+    }
+
+    @Test
+    public void sharedAndPopulated() {
+        GameObject a = create(new Dynamics());
+        create(new PointLight(1));
+        Query query = scene.query(Dynamics.class);
+        Assert.assertSame(query, scene.query(Dynamics.class));
+        Assert.assertEquals(1, query.size());
+        Assert.assertSame(a, query.get(0));
+    }
+
+    @Test
+    public void incrementalUpdates() {
+        Query query = scene.query(Dynamics.class, Collider.class);
+        GameObject a = create(new Dynamics());
+        Assert.assertTrue(query.isEmpty());
+        a.addComponent(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 1, 1)));
+        Assert.assertTrue(query.contains(a));
+        GameObject b = create(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 1, 1)), new Dynamics());
+        Assert.assertEquals(2, query.size());
+        a.removeComponent(Dynamics.class);
+        Assert.assertFalse(query.contains(a));
+        scene.removeGameObjectFromScene(b);
+        Assert.assertTrue(query.isEmpty());
+        scene.addGameObjectToScene(b);
+        Assert.assertTrue(query.contains(b));
+    }
+
+    @Test
+    public void deferredChanges() {
+        Query query = scene.query(PointLight.class);
+        GameObject a = create(new Dynamics());
+        a.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                a.addComponent(new PointLight(1));
+                Assert.assertTrue(query.isEmpty());
+            }
+        });
+        scene.updateGameObjects();
+        Assert.assertTrue(query.contains(a));
+        int[] visited = {0};
+        query.forEach(go -> visited[0]++);
+        Assert.assertEquals(1, visited[0]);
+    }
+
+}
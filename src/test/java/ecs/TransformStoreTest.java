@@ -0,0 +1,120 @@
+package ecs;
+
+import graphics.Color;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+import util.SlotMap;
+
+public class TransformStoreTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+    }
+
+    @Test
+    public void versions() {
+        TransformStore store = new TransformStore(1);
+        store.ensureCapacity(3);
+        Assert.assertTrue(store.capacity() >= 4);
+        Assert.assertEquals(1, store.scaleX(3), 0);
+        long version = store.version(3);
+        store.setPosition(3, 0, 0);
+        Assert.assertFalse(store.changedSince(3, version));
+        store.setPosition(3, 1, 2);
+        Assert.assertTrue(store.changedSince(3, version));
+        version = store.version(3);
+        store.setRotation(3, 90);
+        store.setScale(3, 2, 2);
+        Assert.assertEquals(version + 2, store.version(3));
+        Assert.assertEquals(2, store.y(3), 0);
+    }
+
+    @Test
+    public void movedTransformsAreCaptured() {
+        GameObject parent = new GameObject(scene, "parent", new Vector2f(), 0);
+        GameObject child = new GameObject(scene, "child", new Vector2f(5, 0), 0);
+        GameObject resting = new GameObject(scene, "resting", new Vector2f(3, 3), 0);
+        child.setParent(parent);
+        scene.propagateTransforms();
+        scene.updateGameObjects();
+        parent.setPosition(10, 0);
+        scene.propagateTransforms();
+        //nothing is captured before the next update, so the move is interpolated
+        Assert.assertEquals(10, child.getInterpolatedX(0.5f), 1e-3f);
+        Assert.assertEquals(3, resting.getInterpolatedX(0.5f), 1e-3f);
+        scene.updateGameObjects();
+        //the move of the parent and the child is in the past now
+        Assert.assertEquals(15, child.getInterpolatedX(0), 1e-3f);
+        Assert.assertEquals(10, parent.getInterpolatedX(0), 1e-3f);
+        Assert.assertEquals(3, resting.getInterpolatedX(0), 1e-3f);
+        scene.updateGameObjects();
+        Assert.assertEquals(15, child.getInterpolatedX(0), 1e-3f);
+    }
+
+    @Test
+    public void spriteRotationComesFromTheStore() {
+        scene.activate();
+        GameObject a = new GameObject(scene, "a", new Vector2f(), 0);
+        SpriteRenderer sprite = new SpriteRenderer(Color.WHITE, new Vector2f(10, 10));
+        a.addComponent(sprite);
+        sprite.setClean();
+        a.setRotation(45);
+        sprite.update(0);
+        Assert.assertTrue(sprite.isDirty());
+        Assert.assertEquals(45, scene.transforms().rotation(SlotMap.index(a.handle())), 0);
+        Assert.assertEquals(45, a.getInterpolatedRotation(1), 0);
+    }
+
+    @Test
+    public void gameObjectsLiveInSceneStore() {
+        GameObject a = new GameObject(scene, "a", new Vector2f(1, 2), 0);
+        GameObject b = new GameObject(scene, "b", new Vector2f(3, 4), 0);
+        Assert.assertSame(scene.transforms(), a.transforms);
+        Assert.assertNotEquals(a.transformSlot, b.transformSlot);
+        b.setPosition(5, 6);
+        Assert.assertEquals(5, scene.transforms().x(b.transformSlot), 0);
+        Assert.assertEquals(1, a.getX(), 0);
+        Assert.assertEquals(new Vector2f(5, 6), b.getPosition(new Vector2f()));
+    }
+
+    @Test
+    public void transformSurvivesRemoval() {
+        GameObject a = new GameObject(scene, "a", new Vector2f(1, 2), 0);
+        a.setRotation(45);
+        long version = a.transformVersion();
+        scene.removeGameObjectFromScene(a);
+        Assert.assertNotSame(scene.transforms(), a.transforms);
+        Assert.assertEquals(1, a.getX(), 0);
+        Assert.assertEquals(45, a.getRotation(), 0);
+        //versions never decrease, so observers notice the move
+        Assert.assertTrue(a.transformChangedSince(version));
+        version = a.transformVersion();
+        scene.addGameObjectToScene(a);
+        Assert.assertSame(scene.transforms(), a.transforms);
+        Assert.assertEquals(2, a.getY(), 0);
+        Assert.assertTrue(a.transformChangedSince(version));
+    }
+
+    @Test
+    public void spriteRendererOnlyDirtyAfterMove() {
+        scene.activate();
+        GameObject a = new GameObject(scene, "a", new Vector2f(1, 2), 0);
+        SpriteRenderer sprite = new SpriteRenderer(graphics.Color.WHITE, new Vector2f(1, 1));
+        a.addComponent(sprite);
+        sprite.update(0);
+        sprite.setClean();
+        sprite.update(0);
+        Assert.assertFalse(sprite.isDirty());
+        a.setPosition(3, 3);
+        sprite.update(0);
+        Assert.assertTrue(sprite.isDirty());
+    }
+
+}
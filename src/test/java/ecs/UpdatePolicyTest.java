@@ -0,0 +1,114 @@
+package ecs;
+
+import graphics.Camera;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UpdatePolicyTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+            {
+                camera = new Camera();
+            }
+        };
+    }
+
+    @Test
+    public void everyFrameByDefault() {
+        Recording c = add(new Vector2f());
+        for (int i = 0; i < 3; i++) c.gameObject.update(0.5f);
+        Assert.assertEquals(List.of(0.5f, 0.5f, 0.5f), c.updates);
+    }
+
+    @Test
+    public void everyNFramesPassesTheAccumulatedTime() {
+        Recording c = add(new Vector2f());
+        c.setUpdatePolicy(UpdatePolicy.everyNFrames(4));
+        for (int i = 0; i < 20; i++) c.gameObject.update(0.25f);
+        Assert.assertTrue(c.updates.size() >= 4 && c.updates.size() <= 5);
+        //all updates after the first one cover exactly 4 frames
+        for (int i = 1; i < c.updates.size(); i++) Assert.assertEquals(1f, c.updates.get(i), 1e-6f);
+        float total = 0;
+        for (float dt : c.updates) total += dt;
+        Assert.assertTrue(total > 4);
+    }
+
+    @Test
+    public void updatesAreSpreadAcrossFrames() {
+        int interval = 4;
+        List<Recording> components = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Recording c = add(new Vector2f());
+            c.setUpdatePolicy(UpdatePolicy.everyNFrames(interval));
+            components.add(c);
+        }
+        for (int frame = 0; frame < 40; frame++) {
+            int updated = 0;
+            for (Recording c : components) {
+                int before = c.updates.size();
+                c.gameObject.update(1);
+                updated += c.updates.size() - before;
+            }
+            Assert.assertEquals(100 / interval, updated);
+        }
+    }
+
+    @Test
+    public void tieredByDistance() {
+        UpdatePolicy policy = UpdatePolicy.byDistance(new float[]{100, 1000}, new int[]{1, 5, 60});
+        scene.camera().position.set(0, 0);
+        Recording near = add(new Vector2f(50, 0));
+        Recording middle = add(new Vector2f(0, 500));
+        Recording far = add(new Vector2f(5000, 5000));
+        Assert.assertEquals(1, policy.interval(near));
+        Assert.assertEquals(5, policy.interval(middle));
+        Assert.assertEquals(60, policy.interval(far));
+
+        near.setUpdatePolicy(policy);
+        far.setUpdatePolicy(policy);
+        for (int i = 0; i < 60; i++) {
+            near.gameObject.update(1);
+            far.gameObject.update(1);
+        }
+        Assert.assertEquals(60, near.updates.size());
+        Assert.assertEquals(1, far.updates.size());
+
+        //moving closer to the camera increases the frequency after the next update
+        far.gameObject.setPosition(0, 0);
+        for (int i = 0; i < 120; i++) far.gameObject.update(1);
+        Assert.assertTrue(far.updates.size() > 60);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intervalsMustMatchDistances() {
+        UpdatePolicy.byDistance(new float[]{100}, new int[]{1});
+    }
+
+    private Recording add(Vector2f position) {
+        GameObject go = new GameObject(scene, "go", position, 0);
+        Recording c = new Recording();
+        go.addComponent(c);
+        return c;
+    }
+
+    static class Recording extends Component {
+
+        final List<Float> updates = new ArrayList<>();
+
+        @Override
+        public void update(float dt) {
+            updates.add(dt);
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package event;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class EventBusTest {
+
+    EventBus bus;
+    List<Runnable> asyncWork;
+
+    @Before
+    public void setUp() {
+        asyncWork = new ArrayList<>();
+        Executor deferred = asyncWork::add;
+        bus = new EventBus(deferred);
+        bus.registerPool(EventData.KeyEventData.class, EventData.KeyEventData::new);
+    }
+
+    @Test
+    public void indexedByType() {
+        List<Integer> keys = new ArrayList<>();
+        List<Integer> buttons = new ArrayList<>();
+        bus.subscribe(EventData.KeyEventData.class, e -> keys.add(e.keycode));
+        bus.subscribe(EventData.MouseButtonEventData.class, e -> buttons.add(e.button));
+        bus.publish(new EventData.KeyEventData(65, 0, 1, 0));
+        bus.publish(new EventData.MouseButtonEventData(2, 1, 0));
+        Assert.assertEquals(1, keys.size());
+        Assert.assertEquals(65, (int) keys.get(0));
+        Assert.assertEquals(2, (int) buttons.get(0));
+        Assert.assertEquals(1, bus.subscribers(EventData.KeyEventData.class));
+        Assert.assertEquals(0, bus.subscribers(EventData.TriggerEnterEvent.class));
+    }
+
+    @Test
+    public void queuedUntilDispatch() {
+        List<Integer> keys = new ArrayList<>();
+        bus.subscribe(EventData.KeyEventData.class, e -> keys.add(e.keycode));
+        bus.post(new EventData.KeyEventData(1, 0, 1, 0));
+        bus.post(new EventData.KeyEventData(2, 0, 1, 0));
+        Assert.assertTrue(keys.isEmpty());
+        Assert.assertEquals(2, bus.queued());
+        Assert.assertEquals(2, bus.dispatchQueued());
+        Assert.assertEquals(2, keys.size());
+        Assert.assertEquals(1, (int) keys.get(0));
+        Assert.assertEquals(0, bus.dispatchQueued());
+    }
+
+    @Test
+    public void postedWhileDispatchingGoesToNextFrame() {
+        List<Integer> keys = new ArrayList<>();
+        bus.subscribe(EventData.KeyEventData.class, e -> {
+            keys.add(e.keycode);
+            if (e.keycode == 1) bus.post(new EventData.KeyEventData(2, 0, 1, 0));
+        });
+        bus.post(new EventData.KeyEventData(1, 0, 1, 0));
+        Assert.assertEquals(1, bus.dispatchQueued());
+        Assert.assertEquals(1, keys.size());
+        Assert.assertEquals(1, bus.dispatchQueued());
+        Assert.assertEquals(2, (int) keys.get(1));
+    }
+
+    @Test
+    public void failedDispatchKeepsTheRest() {
+        List<Integer> keys = new ArrayList<>();
+        bus.subscribe(EventData.KeyEventData.class, e -> {
+            keys.add(e.keycode);
+            if (e.keycode == 1) bus.post(new EventData.KeyEventData(9, 0, 1, 0));
+            if (e.keycode == 2) throw new IllegalStateException("listener failed");
+        });
+        bus.post(new EventData.KeyEventData(1, 0, 1, 0));
+        bus.post(new EventData.KeyEventData(2, 0, 1, 0));
+        bus.post(new EventData.KeyEventData(3, 0, 1, 0));
+        try {
+            bus.dispatchQueued();
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(2, bus.queued());
+        bus.post(new EventData.KeyEventData(4, 0, 1, 0));
+        Assert.assertEquals(3, bus.dispatchQueued());
+        Assert.assertEquals(List.of(1, 2, 3, 9, 4), keys);
+        Assert.assertEquals(0, bus.dispatchQueued());
+    }
+
+    @Test
+    public void coalescing() {
+        List<Integer> widths = new ArrayList<>();
+        bus.subscribe(EventData.WindowResizeEventData.class, e -> widths.add(e.x));
+        bus.postCoalesced(new EventData.WindowResizeEventData(100, 100));
+        bus.post(new EventData.KeyEventData(1, 0, 1, 0));
+        bus.postCoalesced(new EventData.WindowResizeEventData(200, 100));
+        bus.postCoalesced(new EventData.WindowResizeEventData(300, 100));
+        Assert.assertEquals(2, bus.dispatchQueued());
+        Assert.assertEquals(1, widths.size());
+        Assert.assertEquals(300, (int) widths.get(0));
+        bus.postCoalesced(new EventData.WindowResizeEventData(400, 100));
+        Assert.assertEquals(1, bus.dispatchQueued());
+    }
+
+    @Test
+    public void pooledEventsAreReused() {
+        bus.subscribe(EventData.KeyEventData.class, e -> {
+        });
+        EventData.KeyEventData first = bus.obtain(EventData.KeyEventData.class).set(1, 0, 1, 0);
+        bus.post(first);
+        bus.dispatchQueued();
+        EventData.KeyEventData second = bus.obtain(EventData.KeyEventData.class);
+        Assert.assertSame(first, second);
+        //a second one is needed while the first is still queued
+        bus.post(second.set(2, 0, 1, 0));
+        Assert.assertNotSame(second, bus.obtain(EventData.KeyEventData.class));
+    }
+
+    @Test
+    public void asyncListenersHoldPooledEvents() {
+        List<Integer> keys = new ArrayList<>();
+        bus.subscribeAsync(EventData.KeyEventData.class, e -> keys.add(e.keycode));
+        EventData.KeyEventData event = bus.obtain(EventData.KeyEventData.class).set(7, 0, 1, 0);
+        bus.publish(event);
+        Assert.assertTrue(keys.isEmpty());
+        //not back in the pool until the async listener has run
+        Assert.assertNotSame(event, bus.obtain(EventData.KeyEventData.class));
+        asyncWork.forEach(Runnable::run);
+        Assert.assertEquals(7, (int) keys.get(0));
+        Assert.assertSame(event, bus.obtain(EventData.KeyEventData.class));
+    }
+
+    @Test
+    public void unsubscribe() {
+        List<Integer> keys = new ArrayList<>();
+        EventListener<EventData.KeyEventData> listener = e -> keys.add(e.keycode);
+        bus.subscribe(EventData.KeyEventData.class, listener);
+        Assert.assertTrue(bus.unsubscribe(EventData.KeyEventData.class, listener));
+        Assert.assertFalse(bus.unsubscribe(EventData.KeyEventData.class, listener));
+        bus.publish(new EventData.KeyEventData(1, 0, 1, 0));
+        Assert.assertTrue(keys.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void obtainWithoutPool() {
+        bus.obtain(EventData.MouseButtonEventData.class);
+    }
+
+}
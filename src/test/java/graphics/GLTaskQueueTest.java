@@ -0,0 +1,108 @@
+package graphics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+public class GLTaskQueueTest {
+
+    GLTaskQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new GLTaskQueue();
+    }
+
+    @Test
+    public void runsInOrderOnDrain() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CompletableFuture<Void> first = queue.submit(() -> order.add(1));
+        CompletableFuture<String> second = queue.supply(() -> {
+            order.add(2);
+            return "texture";
+        });
+        Assert.assertEquals(2, queue.pending());
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(2, queue.drainAll());
+        Assert.assertEquals(0, queue.pending());
+        Assert.assertTrue(first.isDone());
+        Assert.assertEquals("texture", second.get());
+        Assert.assertEquals(1, (int) order.get(0));
+        Assert.assertEquals(2, (int) order.get(1));
+    }
+
+    @Test
+    public void budgetSpreadsTasksOverFrames() {
+        for (int i = 0; i < 3; i++) {
+            queue.submit(() -> {
+                long end = System.nanoTime() + 1_000_000;
+                while (System.nanoTime() < end) Thread.onSpinWait();
+            });
+        }
+        //a task always runs, even if the budget is spent already
+        Assert.assertEquals(1, queue.drain(0));
+        Assert.assertEquals(2, queue.pending());
+        Assert.assertEquals(2, queue.drain(100_000_000));
+    }
+
+    @Test
+    public void submittedFromWorkers() throws InterruptedException {
+        int threads = 4, perThread = 1000;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int[] counter = new int[1];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    CompletableFuture<Void> f = queue.submit(() -> counter[0]++);
+                    synchronized (futures) {
+                        futures.add(f);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        queue.drainAll();
+        Assert.assertEquals(threads * perThread, counter[0]);
+        for (CompletableFuture<Void> f : futures) Assert.assertTrue(f.isDone());
+    }
+
+    @Test
+    public void failuresCompleteExceptionally() throws InterruptedException {
+        CompletableFuture<Void> failing = queue.submit(() -> {
+            throw new IllegalStateException("no context");
+        });
+        CompletableFuture<Void> next = queue.submit(() -> {
+        });
+        queue.drainAll();
+        Assert.assertTrue(next.isDone() && !next.isCompletedExceptionally());
+        try {
+            failing.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals("no context", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalThreadStateException.class)
+    public void drainOnlyOnMainThread() throws Throwable {
+        Throwable[] thrown = new Throwable[1];
+        Thread other = new Thread(() -> {
+            try {
+                queue.drain();
+            } catch (Throwable t) {
+                thrown[0] = t;
+            }
+        });
+        other.start();
+        other.join();
+        if (thrown[0] != null) throw thrown[0];
+    }
+
+}
@@ -0,0 +1,124 @@
+package graphics;
+
+import ecs.Component;
+import ecs.GameObject;
+import ecs.SpriteRenderer;
+import graphics.renderer.FrameSnapshot;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+import ui.Element;
+import util.Engine;
+
+public class SimulationThreadTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        Engine.initHeadless(800, 600, 1.0f);
+        scene = new Scene() {
+        };
+        Engine.scenes().switchScene(scene);
+        Engine.scenes().enableIfNeeded();
+    }
+
+    @Test
+    public void snapshotsFollowSimulation() throws InterruptedException {
+        GameObject mover = new GameObject(scene, "mover", new Vector2f(), 0);
+        mover.addComponent(new SpriteRenderer(Color.WHITE, new Vector2f(1)));
+        mover.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                setPosition(position().add(1, 0));
+            }
+        });
+        SimulationThread simulation = new SimulationThread(Engine.window());
+        simulation.start();
+        try {
+            Assert.assertEquals(-1, simulation.latest().frame());
+            FrameSnapshot snapshot = null;
+            for (int i = 0; i < 3; i++) {
+                simulation.requestFrame(1 / 60f);
+                long deadline = System.currentTimeMillis() + 5000;
+                do {
+                    snapshot = simulation.latest();
+                    if (snapshot.frame() == i) break;
+                    Thread.sleep(1);
+                } while (System.currentTimeMillis() < deadline);
+                Assert.assertEquals(i, snapshot.frame());
+            }
+            Assert.assertEquals(1, snapshot.spriteCount());
+            Assert.assertEquals(3, mover.getX(), 0);
+        } finally {
+            simulation.stop();
+        }
+    }
+
+    @Test
+    public void uiIsUpdatedBySimulation() throws InterruptedException {
+        Thread[] updatedBy = new Thread[1];
+        scene.addUIElement(new Element() {
+            @Override
+            public void update() {
+                updatedBy[0] = Thread.currentThread();
+            }
+        });
+        SimulationThread simulation = new SimulationThread(Engine.window());
+        simulation.start();
+        try {
+            simulation.requestFrame(1 / 60f);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (simulation.latest().frame() != 0 && System.currentTimeMillis() < deadline) Thread.sleep(1);
+            Assert.assertNotNull(updatedBy[0]);
+            Assert.assertNotSame(Thread.currentThread(), updatedBy[0]);
+        } finally {
+            simulation.stop();
+        }
+    }
+
+    @Test
+    public void scenesAreSwitchedBetweenFrames() {
+        Thread[] awakenedBy = new Thread[1];
+        Scene next = new Scene() {
+            @Override
+            public void awake() {
+                super.awake();
+                awakenedBy[0] = Thread.currentThread();
+            }
+        };
+        Thread[] switchedBy = new Thread[1];
+        GameObject switcher = new GameObject(scene, "switcher", new Vector2f(), 0);
+        switcher.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                switchedBy[0] = Thread.currentThread();
+                Assert.assertFalse(Engine.scenes().switchScene(next));
+            }
+        });
+        SimulationThread simulation = new SimulationThread(Engine.window());
+        simulation.start();
+        try {
+            simulation.requestFrame(1 / 60f);
+            simulation.awaitIdle();
+            Assert.assertNotSame(Thread.currentThread(), switchedBy[0]);
+            //the simulation thread only requested the switch
+            Assert.assertSame(scene, Engine.scenes().currentScene());
+            Assert.assertNull(awakenedBy[0]);
+
+            Assert.assertTrue(Engine.scenes().applyPendingSwitch());
+            Assert.assertSame(next, Engine.scenes().currentScene());
+            Assert.assertSame(Thread.currentThread(), awakenedBy[0]);
+            Assert.assertFalse(Engine.scenes().applyPendingSwitch());
+
+            simulation.requestFrame(1 / 60f);
+            simulation.awaitIdle();
+            Assert.assertEquals(1, simulation.latest().frame());
+        } finally {
+            simulation.stop();
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package graphics.renderer;
+
+import ecs.GameObject;
+import ecs.PointLight;
+import ecs.SpriteRenderer;
+import graphics.Color;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+public class FrameSnapshotTest {
+
+    Scene scene;
+    FrameSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.activate();
+        snapshot = new FrameSnapshot();
+    }
+
+    @Test
+    public void captureScene() {
+        GameObject ship = new GameObject(scene, "ship", new Vector2f(10, 20), 3);
+        ship.addComponent(new SpriteRenderer(Color.RED, new Vector2f(4, 6)));
+        ship.setScale(2, 1);
+        ship.addComponent(new PointLight(Color.BLUE, 5));
+
+        scene.captureSnapshot(snapshot, 7, 1);
+        Assert.assertEquals(7, snapshot.frame());
+        Assert.assertEquals(1, snapshot.spriteCount());
+        Assert.assertEquals(10, snapshot.sprite(0, 0), 0);
+        Assert.assertEquals(20, snapshot.sprite(0, 1), 0);
+        Assert.assertEquals(8, snapshot.sprite(0, 2), 0);
+        Assert.assertEquals(6, snapshot.sprite(0, 3), 0);
+        Assert.assertEquals(1, snapshot.sprite(0, FrameSnapshot.SPRITE_COLOR), 1e-6f);
+        Assert.assertEquals(0, snapshot.sprite(0, FrameSnapshot.SPRITE_COLOR + 1), 1e-6f);
+        Assert.assertEquals(3, snapshot.zIndex(0));
+        Assert.assertEquals(1, snapshot.lightCount());
+        Assert.assertEquals(1, snapshot.light(0, 4), 1e-6f);
+        Assert.assertEquals(5, snapshot.light(0, 5), 0);
+
+        //later changes don't touch the captured frame
+        ship.setPosition(0, 0);
+        Assert.assertEquals(10, snapshot.sprite(0, 0), 0);
+        scene.captureSnapshot(snapshot, 8, 1);
+        Assert.assertEquals(0, snapshot.sprite(0, 0), 0);
+        Assert.assertEquals(1, snapshot.spriteCount());
+    }
+
+    @Test
+    public void uiQuadsAndGlyphs() {
+        Vector2f[] uv = {new Vector2f(1, 1), new Vector2f(1, 0), new Vector2f(0, 0), new Vector2f(0, 1)};
+        snapshot.addUiQuad(1, 2, 30, 40, Color.RED.toNormalizedVec4f(), uv, null, 2);
+        snapshot.addGlyph(5, 6, 7, 8, Color.WHITE.toNormalizedVec4f(), uv, null, 4, true);
+        Assert.assertEquals(1, snapshot.ui().count());
+        Assert.assertEquals(30, snapshot.ui().get(0, 2), 0);
+        Assert.assertEquals(1, snapshot.ui().get(0, FrameSnapshot.QUAD_COLOR), 1e-6f);
+        Assert.assertEquals(0, snapshot.ui().get(0, FrameSnapshot.QUAD_STICKY), 0);
+        Assert.assertEquals(2, snapshot.ui().zIndex(0));
+        Assert.assertEquals(1, snapshot.glyphs().count());
+        Assert.assertEquals(1, snapshot.glyphs().get(0, FrameSnapshot.QUAD_STICKY), 0);
+        Assert.assertEquals(1, snapshot.glyphs().get(0, FrameSnapshot.QUAD_UV + 7), 0);
+        snapshot.clear(1);
+        Assert.assertEquals(0, snapshot.ui().count());
+        Assert.assertEquals(0, snapshot.glyphs().count());
+    }
+
+    @Test
+    public void growsWithoutLosingData() {
+        for (int i = 0; i < 100; i++) {
+            new GameObject(scene, "go" + i, new Vector2f(i, 0), 0).addComponent(new SpriteRenderer(Color.WHITE, new Vector2f(1)));
+        }
+        scene.captureSnapshot(snapshot, 0, 1);
+        Assert.assertEquals(100, snapshot.spriteCount());
+        float sum = 0;
+        for (int i = 0; i < 100; i++) sum += snapshot.sprite(i, 0);
+        Assert.assertEquals(4950, sum, 0);
+    }
+
+}
@@ -0,0 +1,93 @@
+package input;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+import static org.lwjgl.glfw.GLFW.GLFW_REPEAT;
+
+public class ActionMapTest {
+
+    private ActionMap actions;
+
+    @Before
+    public void setUp() {
+        actions = new ActionMap()
+                .bindKey("jump", Keys.KEY_SPACE)
+                .bindKey("jump", Keys.KEY_W)
+                .bindMouseButton("fire", Buttons.AZ_BUTTON_LEFT);
+    }
+
+    @Test
+    public void pressAndRelease() {
+        int jump = actions.action("jump");
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_PRESS, 10);
+        Assert.assertTrue(actions.isDown(jump));
+        Assert.assertTrue(actions.wasPressed("jump"));
+        Assert.assertEquals(10, actions.lastChange(jump));
+        Assert.assertFalse(actions.isDown("fire"));
+
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_REPEAT, 20);
+        Assert.assertTrue(actions.isDown(jump));
+        Assert.assertFalse(actions.wasPressed(jump));
+        Assert.assertEquals(0, actions.pressCount(jump));
+
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_RELEASE, 30);
+        Assert.assertFalse(actions.isDown(jump));
+        Assert.assertTrue(actions.wasReleased(jump));
+    }
+
+    @Test
+    public void actionStaysDownWhileAnyInputIsHeld() {
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_PRESS, 0);
+        actions.onKey(Keys.KEY_W, GLFW_PRESS, 0);
+        actions.onKey(Keys.KEY_SPACE, GLFW_RELEASE, 0);
+        Assert.assertTrue(actions.isDown("jump"));
+        Assert.assertFalse(actions.wasReleased("jump"));
+        Assert.assertEquals(2, actions.pressCount("jump"));
+        actions.onKey(Keys.KEY_W, GLFW_RELEASE, 0);
+        Assert.assertFalse(actions.isDown("jump"));
+        Assert.assertTrue(actions.wasReleased("jump"));
+    }
+
+    @Test
+    public void pressesOfHeldActionsAreReset() {
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_PRESS, 0);
+        actions.beginTick();
+        //the action is down already, so the second input does not count as a new press of the action
+        actions.onKey(Keys.KEY_W, GLFW_PRESS, 0);
+        Assert.assertFalse(actions.wasPressed("jump"));
+        Assert.assertEquals(1, actions.pressCount("jump"));
+        actions.beginTick();
+        Assert.assertEquals(0, actions.pressCount("jump"));
+    }
+
+    @Test
+    public void tapWithinOneTick() {
+        actions.beginTick();
+        actions.onMouseButton(Buttons.AZ_BUTTON_LEFT, GLFW_PRESS, 0);
+        actions.onMouseButton(Buttons.AZ_BUTTON_LEFT, GLFW_RELEASE, 0);
+        Assert.assertFalse(actions.isDown("fire"));
+        Assert.assertTrue(actions.wasPressed("fire"));
+        Assert.assertTrue(actions.wasReleased("fire"));
+        Assert.assertEquals(1, actions.pressCount("fire"));
+    }
+
+    @Test
+    public void unbind() {
+        actions.unbind("jump");
+        actions.beginTick();
+        actions.onKey(Keys.KEY_SPACE, GLFW_PRESS, 0);
+        Assert.assertFalse(actions.isDown("jump"));
+        Assert.assertFalse(actions.isDown("unknown"));
+        Assert.assertEquals("jump", actions.name(actions.action("jump")));
+    }
+
+}
@@ -0,0 +1,98 @@
+package input;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+
+public class InputBufferTest {
+
+    @Test
+    public void keepsOrderAcrossWraparound() {
+        InputBuffer buffer = new InputBuffer(3);
+        Assert.assertEquals(4, buffer.capacity());
+        InputEvent event = new InputEvent();
+        int next = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(buffer.offer(InputBuffer.KEY, round * 3 + i, GLFW_PRESS, 0, 0, 0, round * 3 + i));
+            }
+            Assert.assertEquals(3, buffer.size());
+            while (buffer.poll(event)) {
+                Assert.assertEquals(next, event.code);
+                Assert.assertEquals(next, event.timestamp);
+                next++;
+            }
+        }
+        Assert.assertEquals(15, next);
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void dropsWhenFull() {
+        InputBuffer buffer = new InputBuffer(2);
+        Assert.assertTrue(buffer.offer(InputBuffer.SCROLL, 0, 0, 0, 1, 2, 0));
+        Assert.assertTrue(buffer.offer(InputBuffer.SCROLL, 0, 0, 0, 3, 4, 0));
+        Assert.assertFalse(buffer.offer(InputBuffer.SCROLL, 0, 0, 0, 5, 6, 0));
+        Assert.assertEquals(1, buffer.dropped());
+
+        InputEvent event = new InputEvent();
+        Assert.assertTrue(buffer.poll(event));
+        Assert.assertEquals(1, event.x, 0);
+        Assert.assertEquals(2, event.y, 0);
+        Assert.assertTrue(buffer.offer(InputBuffer.SCROLL, 0, 0, 0, 7, 8, 0));
+        Assert.assertTrue(buffer.poll(event));
+        Assert.assertEquals(3, event.x, 0);
+        Assert.assertTrue(buffer.poll(event));
+        Assert.assertEquals(7, event.x, 0);
+        Assert.assertFalse(buffer.poll(event));
+    }
+
+    @Test
+    public void concurrentProducer() throws InterruptedException {
+        InputBuffer buffer = new InputBuffer(64);
+        int count = 100_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!buffer.offer(InputBuffer.KEY, i, GLFW_RELEASE, 0, 0, 0, i)) Thread.onSpinWait();
+            }
+        });
+        producer.start();
+        InputEvent event = new InputEvent();
+        int next = 0;
+        while (next < count) {
+            if (buffer.poll(event)) {
+                Assert.assertEquals(next, event.code);
+                Assert.assertEquals(next, event.timestamp);
+                next++;
+            }
+        }
+        producer.join();
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void pollAppliesEveryButtonEvent() {
+        Input.actions().bindMouseButton("fire", Buttons.AZ_BUTTON_LEFT);
+        //press, release and press again within one frame
+        Input.buffer().offer(InputBuffer.MOUSE_BUTTON, Buttons.AZ_BUTTON_LEFT, GLFW_PRESS, 0, 0, 0, 1);
+        Input.buffer().offer(InputBuffer.MOUSE_BUTTON, Buttons.AZ_BUTTON_LEFT, GLFW_RELEASE, 0, 0, 0, 2);
+        Input.buffer().offer(InputBuffer.MOUSE_BUTTON, Buttons.AZ_BUTTON_LEFT, GLFW_PRESS, 0, 0, 0, 3);
+        Input.buffer().offer(InputBuffer.SCROLL, 0, 0, 0, 0, 1, 4);
+        Input.buffer().offer(InputBuffer.SCROLL, 0, 0, 0, 0, 2, 5);
+        Assert.assertEquals(5, Input.poll());
+
+        Assert.assertTrue(Mouse.mouseButton[Buttons.AZ_BUTTON_LEFT]);
+        Assert.assertEquals(3, Mouse.scrollY, 0);
+        Assert.assertEquals(2, Input.actions().pressCount("fire"));
+        Assert.assertTrue(Input.actions().isDown("fire"));
+
+        Input.buffer().offer(InputBuffer.MOUSE_BUTTON, Buttons.AZ_BUTTON_LEFT, GLFW_RELEASE, 0, 0, 0, 6);
+        Input.poll();
+        Assert.assertFalse(Mouse.mouseButton[Buttons.AZ_BUTTON_LEFT]);
+        Assert.assertTrue(Input.actions().wasReleased("fire"));
+        Input.actions().unbind("fire");
+    }
+
+}
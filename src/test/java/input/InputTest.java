@@ -0,0 +1,41 @@
+package input;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
+import static org.lwjgl.glfw.GLFW.GLFW_RELEASE;
+
+public class InputTest {
+
+    @Before
+    public void setUp() {
+        Input.poll();
+    }
+
+    @Test
+    public void scrollIsResetWithoutEvents() {
+        Input.buffer().offer(InputBuffer.SCROLL, 0, 0, 0, 1, 2, 0);
+        Input.buffer().offer(InputBuffer.SCROLL, 0, 0, 0, 0, 3, 0);
+        Input.poll();
+        Assert.assertEquals(1, Mouse.scrollX, 0);
+        Assert.assertEquals(5, Mouse.scrollY, 0);
+        Input.poll();
+        Assert.assertEquals(0, Mouse.scrollX, 0);
+        Assert.assertEquals(0, Mouse.mouseScroll.y, 0);
+    }
+
+    @Test
+    public void keysAreAppliedByPoll() {
+        Input.buffer().offer(InputBuffer.KEY, Keys.KEY_A, GLFW_PRESS, 0, 0, 0, 0);
+        Assert.assertFalse(Keyboard.getKeyDown(Keys.KEY_A));
+        Input.poll();
+        Assert.assertTrue(Keyboard.getKeyDown(Keys.KEY_A));
+        Input.buffer().offer(InputBuffer.KEY, Keys.KEY_A, GLFW_RELEASE, 0, 0, 0, 0);
+        Input.poll();
+        Assert.assertFalse(Keyboard.getKeyDown(Keys.KEY_A));
+        Assert.assertTrue(Keyboard.getKeyUp(Keys.KEY_A));
+    }
+
+}
@@ -0,0 +1,94 @@
+package physics.collision;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that every broadphase reports at least all pairs of overlapping bounding spheres,
+ * which the all-pairs collision handlers used before found, in a scene of small and very large colliders
+ * where a tenth of the colliders moves every frame.
+ */
+public class BroadphaseConsistencyTest {
+
+    private static final int COLLIDERS = 1000;
+    private static final int FRAMES = 3;
+
+    private final List<PolygonCollider> colliders = new ArrayList<>();
+
+    private void createScene() {
+        Random random = new Random(5);
+        for (int i = 0; i < COLLIDERS; i++) {
+            float size = i % 100 == 0 ? 400 + random.nextFloat() * 400 : 2 + random.nextFloat() * 60;
+            PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, size, size));
+            collider.getShape().setPosition(random.nextFloat() * 3000, random.nextFloat() * 3000);
+            colliders.add(collider);
+        }
+    }
+
+    private void move(Random random, Broadphase... broadphases) {
+        for (int i = 0; i < COLLIDERS / 10; i++) {
+            PolygonCollider collider = colliders.get(random.nextInt(COLLIDERS));
+            collider.getShape().setPosition(collider.getShape().position().x + random.nextFloat() * 100 - 50, collider.getShape().position().y + random.nextFloat() * 100 - 50);
+            for (Broadphase broadphase : broadphases) broadphase.update(collider);
+        }
+    }
+
+    //what the collision handlers found by comparing every collider with every other
+    private Set<Set<Collider>> allPairs() {
+        Set<Set<Collider>> pairs = new HashSet<>();
+        for (int i = 0; i < colliders.size(); i++) {
+            for (int j = i + 1; j < colliders.size(); j++) {
+                if (colliders.get(i).getShape().boundingSphere().intersection(colliders.get(j).getShape().boundingSphere()))
+                    pairs.add(Set.of(colliders.get(i), colliders.get(j)));
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<Set<Collider>> candidates(Broadphase broadphase) {
+        Set<Set<Collider>> pairs = new HashSet<>();
+        broadphase.pairs((first, second) -> pairs.add(Set.of(first, second)));
+        return pairs;
+    }
+
+    @Test
+    public void broadphasesFindAllOverlaps() {
+        createScene();
+        Broadphase[] broadphases = {new DynamicTree(), new SpatialHash(), new SweepAndPrune()};
+        for (Broadphase broadphase : broadphases) {
+            for (PolygonCollider collider : colliders) broadphase.add(collider);
+        }
+        Random random = new Random(9);
+        for (int frame = 0; frame < FRAMES; frame++) {
+            move(random, broadphases);
+            Set<Set<Collider>> overlaps = allPairs();
+            Assert.assertFalse(overlaps.isEmpty());
+            for (Broadphase broadphase : broadphases) {
+                Set<Set<Collider>> candidates = candidates(broadphase);
+                for (Set<Collider> pair : overlaps) {
+                    Assert.assertTrue(broadphase.getClass().getSimpleName() + " misses a pair", candidates.contains(pair));
+                }
+                //the queries of single colliders agree with the pairs
+                for (int i = 0; i < COLLIDERS; i += 97) {
+                    PolygonCollider collider = colliders.get(i);
+                    Set<Collider> near = new HashSet<>();
+                    broadphase.query(collider, near::add);
+                    for (Set<Collider> pair : overlaps) {
+                        if (!pair.contains(collider)) continue;
+                        for (Collider other : pair) {
+                            if (other != collider) Assert.assertTrue(near.contains(other));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package physics.collision;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class DynamicTreeTest {
+
+    DynamicTree tree;
+
+    @Before
+    public void setUp() {
+        tree = new DynamicTree(5);
+    }
+
+    private static PolygonCollider box(float x, float y, float size) {
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, size, size));
+        collider.getShape().setPosition(x, y);
+        return collider;
+    }
+
+    private List<Collider> near(Collider collider) {
+        List<Collider> found = new ArrayList<>();
+        tree.query(collider, found::add);
+        return found;
+    }
+
+    private static Set<Set<Collider>> pairs(Broadphase broadphase) {
+        Set<Set<Collider>> pairs = new HashSet<>();
+        broadphase.pairs((first, second) -> Assert.assertTrue(pairs.add(Set.of(first, second))));
+        return pairs;
+    }
+
+    @Test
+    public void queryFindsOnlyNearColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 5, 10);
+        PolygonCollider far = box(1000, 1000, 10);
+        Assert.assertTrue(tree.add(a));
+        Assert.assertFalse(tree.add(a));
+        tree.add(b);
+        tree.add(far);
+        Assert.assertEquals(3, tree.size());
+        Assert.assertEquals(List.of(b), near(a));
+        Assert.assertTrue(near(far).isEmpty());
+
+        Assert.assertTrue(tree.remove(b));
+        Assert.assertFalse(tree.remove(b));
+        Assert.assertTrue(near(a).isEmpty());
+        Assert.assertEquals(2, tree.size());
+    }
+
+    @Test
+    public void movesWithinTheMarginKeepTheTree() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(30, 0, 10);
+        tree.add(a);
+        tree.add(b);
+        //the fat boxes overlap, the exact bounds do not
+        Assert.assertTrue(near(a).isEmpty());
+        a.getShape().setPosition(3, 0);
+        tree.update(a);
+        Assert.assertTrue(near(a).isEmpty());
+        a.getShape().setPosition(18, 0);
+        tree.update(a);
+        Assert.assertEquals(List.of(b), near(a));
+        a.getShape().setPosition(-500, 0);
+        tree.update(a);
+        Assert.assertTrue(near(a).isEmpty());
+    }
+
+    @Test
+    public void staysBalanced() {
+        //sorted insertion degenerates unbalanced trees into lists
+        for (int i = 0; i < 1024; i++) {
+            tree.add(box(i * 20, 0, 10));
+        }
+        Assert.assertTrue("height " + tree.height(), tree.height() <= 20);
+        tree.clear();
+        Assert.assertEquals(-1, tree.height());
+        Assert.assertEquals(0, tree.size());
+    }
+
+    @Test
+    public void pairsMatchSpatialHash() {
+        Random random = new Random(11);
+        SpatialHash hash = new SpatialHash(100);
+        List<PolygonCollider> colliders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            //tiny bullets next to screen-sized hazards
+            float size = i % 50 == 0 ? 600 : 2 + random.nextFloat() * 40;
+            PolygonCollider collider = box(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000, size);
+            colliders.add(collider);
+            tree.add(collider);
+            hash.add(collider);
+        }
+        for (int step = 0; step < 10; step++) {
+            for (int i = 0; i < 100; i++) {
+                PolygonCollider collider = colliders.get(random.nextInt(colliders.size()));
+                collider.getShape().setPosition(collider.getShape().position().x + random.nextFloat() * 40 - 20, collider.getShape().position().y + random.nextFloat() * 40 - 20);
+                tree.update(collider);
+                hash.update(collider);
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            PolygonCollider removed = colliders.remove(random.nextInt(colliders.size()));
+            tree.remove(removed);
+            hash.remove(removed);
+        }
+        Set<Set<Collider>> expected = pairs(hash);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, pairs(tree));
+        Assert.assertTrue(tree.height() <= 20);
+    }
+
+    @Test
+    public void rayCastFindsHitColliders() {
+        PolygonCollider first = box(100, -5, 10);
+        PolygonCollider second = box(300, -5, 10);
+        PolygonCollider above = box(200, 50, 10);
+        PolygonCollider behind = box(-100, -5, 10);
+        tree.add(first);
+        tree.add(second);
+        tree.add(above);
+        tree.add(behind);
+        Set<Collider> hits = new HashSet<>();
+        tree.rayCast(0, 0, 2, 0, 1000, hits::add);
+        Assert.assertEquals(Set.of(first, second), hits);
+        hits.clear();
+        tree.rayCast(0, 0, 1, 0, 200, hits::add);
+        Assert.assertEquals(Set.of(first), hits);
+        hits.clear();
+        tree.rayCast(0, 0, 0, 0, 1000, hits::add);
+        Assert.assertTrue(hits.isEmpty());
+
+        //the default implementation of the spatial hash agrees
+        SpatialHash hash = new SpatialHash(64);
+        for (Collider c : List.of(first, second, above, behind)) hash.add(c);
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            float x = random.nextFloat() * 600 - 200, y = random.nextFloat() * 200 - 100;
+            float dx = random.nextFloat() * 2 - 1, dy = random.nextFloat() * 2 - 1;
+            Set<Collider> fromTree = new HashSet<>();
+            Set<Collider> fromHash = new HashSet<>();
+            tree.rayCast(x, y, dx, dy, 300, fromTree::add);
+            hash.rayCast(x, y, dx, dy, 300, fromHash::add);
+            Assert.assertEquals(fromHash, fromTree);
+        }
+    }
+
+    @Test
+    public void callbacksMayChangeTheTree() {
+        List<PolygonCollider> colliders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PolygonCollider collider = box(i * 3, 0, 10);
+            colliders.add(collider);
+            tree.add(collider);
+        }
+        PolygonCollider[] removed = new PolygonCollider[1];
+        List<Collider> reported = new ArrayList<>();
+        int[] nested = new int[1];
+        tree.queryRegion(-10, -10, 200, 200, collider -> {
+            reported.add(collider);
+            if (reported.size() == 1) {
+                //the tree is not visited in insertion order, so remove one that has not been reported yet
+                removed[0] = colliders.get(collider == colliders.get(39) ? 0 : 39);
+                tree.remove(removed[0]);
+                for (int i = 0; i < 200; i++) tree.add(box(i * 250, 5000, 10));
+            }
+            //leaves the fat box, so the leaf is reinserted and the tree rotates
+            PolygonCollider moved = (PolygonCollider) collider;
+            moved.getShape().setPosition(moved.getShape().position().x + 500, 0);
+            tree.update(moved);
+            tree.query(moved, other -> nested[0]++);
+        });
+        Assert.assertEquals(39, reported.size());
+        Assert.assertEquals(39, new HashSet<>(reported).size());
+        Assert.assertFalse(reported.contains(removed[0]));
+        Assert.assertTrue(nested[0] > 0);
+    }
+
+    @Test
+    public void pairsMayRemoveColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 0, 10);
+        PolygonCollider c = box(10, 0, 10);
+        tree.add(a);
+        tree.add(b);
+        tree.add(c);
+        Set<Set<Collider>> found = new HashSet<>();
+        tree.pairs((first, second) -> {
+            found.add(Set.of(first, second));
+            tree.remove(a);
+        });
+        Assert.assertTrue(found.contains(Set.of(b, c)));
+        Assert.assertEquals(1, found.stream().filter(pair -> pair.contains(a)).count());
+        Assert.assertEquals(Set.of(Set.of(b, c)), pairs(tree));
+    }
+
+}
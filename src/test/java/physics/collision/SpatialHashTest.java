@@ -0,0 +1,203 @@
+package physics.collision;
+
+import ecs.GameObject;
+import ecs.PolygonCollider;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class SpatialHashTest {
+
+    SpatialHash hash;
+
+    @Before
+    public void setUp() {
+        hash = new SpatialHash(100);
+    }
+
+    private static PolygonCollider box(float x, float y, float size) {
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, size, size));
+        collider.getShape().setPosition(x, y);
+        return collider;
+    }
+
+    private List<Collider> near(Collider collider) {
+        List<Collider> found = new ArrayList<>();
+        hash.query(collider, found::add);
+        return found;
+    }
+
+    @Test
+    public void queryFindsOnlyNearColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 5, 10);
+        PolygonCollider far = box(1000, 1000, 10);
+        Assert.assertTrue(hash.add(a));
+        Assert.assertFalse(hash.add(a));
+        hash.add(b);
+        hash.add(far);
+        Assert.assertEquals(3, hash.size());
+        Assert.assertEquals(List.of(b), near(a));
+        Assert.assertEquals(List.of(a), near(b));
+        Assert.assertTrue(near(far).isEmpty());
+    }
+
+    @Test
+    public void movedCollidersChangeCells() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(1000, 1000, 10);
+        hash.add(a);
+        hash.add(b);
+        a.getShape().setPosition(995, 995);
+        //not visible before the update
+        Assert.assertTrue(near(b).isEmpty());
+        hash.update(a);
+        Assert.assertEquals(List.of(a), near(b));
+
+        Assert.assertTrue(hash.remove(a));
+        Assert.assertFalse(hash.remove(a));
+        Assert.assertTrue(near(b).isEmpty());
+        //removed colliders are ignored
+        hash.update(a);
+        Assert.assertEquals(1, hash.size());
+    }
+
+    @Test
+    public void largeCollidersSpanManyCells() {
+        PolygonCollider hazard = box(0, 0, 1000);
+        PolygonCollider bullet = box(900, 100, 1);
+        hash.add(hazard);
+        hash.add(bullet);
+        Assert.assertEquals(List.of(hazard), near(bullet));
+        List<Collider> region = new ArrayList<>();
+        hash.queryRegion(850, 50, 950, 150, region::add);
+        Assert.assertEquals(Set.of(hazard, bullet), new HashSet<>(region));
+        Assert.assertEquals(1, region.stream().filter(c -> c == hazard).count());
+    }
+
+    @Test
+    public void pairsMatchAllPairs() {
+        Random random = new Random(7);
+        List<PolygonCollider> colliders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            PolygonCollider collider = box(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000, 5 + random.nextFloat() * 150);
+            colliders.add(collider);
+            hash.add(collider);
+        }
+        //move some and remove others, so the grid has been changed incrementally
+        for (int i = 0; i < 100; i++) {
+            PolygonCollider collider = colliders.get(i);
+            collider.getShape().setPosition(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000);
+            hash.update(collider);
+        }
+        for (int i = 0; i < 50; i++) {
+            hash.remove(colliders.remove(colliders.size() - 1));
+        }
+
+        float[] a = new float[4];
+        float[] b = new float[4];
+        Set<Set<Collider>> expected = new HashSet<>();
+        for (int i = 0; i < colliders.size(); i++) {
+            for (int j = i + 1; j < colliders.size(); j++) {
+                Broadphase.bounds(colliders.get(i), a);
+                Broadphase.bounds(colliders.get(j), b);
+                if (a[0] <= b[2] && a[2] >= b[0] && a[1] <= b[3] && a[3] >= b[1])
+                    expected.add(Set.of(colliders.get(i), colliders.get(j)));
+            }
+        }
+        List<Set<Collider>> found = new ArrayList<>();
+        hash.pairs((first, second) -> found.add(Set.of(first, second)));
+        Assert.assertEquals(expected.size(), found.size());
+        Assert.assertEquals(expected, new HashSet<>(found));
+    }
+
+    @Test
+    public void callbacksMayChangeTheHash() {
+        List<PolygonCollider> colliders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PolygonCollider collider = box(i * 3, 0, 10);
+            colliders.add(collider);
+            hash.add(collider);
+        }
+        PolygonCollider removed = colliders.get(39);
+        List<Collider> reported = new ArrayList<>();
+        int[] nested = new int[1];
+        hash.queryRegion(-10, -10, 200, 200, collider -> {
+            reported.add(collider);
+            if (reported.size() == 1) {
+                hash.remove(removed);
+                //spread over many new cells, so the table rehashes in the middle of the query
+                for (int i = 0; i < 200; i++) hash.add(box(i * 250, 5000, 10));
+            }
+            PolygonCollider moved = (PolygonCollider) collider;
+            moved.getShape().setPosition(moved.getShape().position().x + 500, 0);
+            hash.update(moved);
+            hash.query(moved, other -> nested[0]++);
+        });
+        Assert.assertEquals(39, reported.size());
+        Assert.assertEquals(39, new HashSet<>(reported).size());
+        Assert.assertFalse(reported.contains(removed));
+        Assert.assertTrue(nested[0] > 0);
+    }
+
+    @Test
+    public void pairsMayRemoveColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(1, 1, 10);
+        PolygonCollider c = box(2, 2, 10);
+        hash.add(a);
+        hash.add(b);
+        hash.add(c);
+        List<Set<Collider>> found = new ArrayList<>();
+        hash.pairs((first, second) -> {
+            found.add(Set.of(first, second));
+            hash.remove(first);
+        });
+        //the pair of a and c is dropped with a, the pair of b and c is still reported
+        Assert.assertEquals(List.of(Set.of(a, b), Set.of(b, c)), found);
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        PolygonCollider a = box(0, 0, 10);
+        hash.add(a);
+        hash.add(box(1, 1, 10));
+        hash.clear();
+        Assert.assertEquals(0, hash.size());
+        Assert.assertEquals(0, hash.occupiedCells());
+        Assert.assertTrue(near(a).isEmpty());
+        Assert.assertTrue(hash.add(a));
+    }
+
+    @Test
+    public void sceneKeepsBroadphaseUpToDate() {
+        Scene scene = new Scene() {
+        };
+        scene.activate();
+        GameObject player = new GameObject(scene, "player", new Vector2f(0, 0), 0);
+        PolygonCollider body = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10));
+        player.addComponent(body);
+        PolygonCollider wall = box(500, 0, 10);
+        Assert.assertEquals(1, scene.broadphase().size());
+
+        List<Collider> found = new ArrayList<>();
+        scene.broadphase().query(wall, found::add);
+        Assert.assertTrue(found.isEmpty());
+        player.setPosition(495, 0);
+        scene.updateGameObjects();
+        scene.broadphase().query(wall, found::add);
+        Assert.assertEquals(List.of(body), found);
+
+        player.removeComponent(PolygonCollider.class);
+        Assert.assertEquals(0, scene.broadphase().size());
+    }
+
+}
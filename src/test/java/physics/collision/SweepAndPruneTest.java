@@ -0,0 +1,234 @@
+package physics.collision;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class SweepAndPruneTest {
+
+    SweepAndPrune sap;
+    Map<Long, Set<Collider>> added;
+    Map<Long, Set<Collider>> removed;
+    SweepAndPrune.PairListener listener;
+
+    @Before
+    public void setUp() {
+        sap = new SweepAndPrune();
+        added = new HashMap<>();
+        removed = new HashMap<>();
+        listener = new SweepAndPrune.PairListener() {
+            @Override
+            public void pairAdded(long pair, Collider first, Collider second) {
+                Assert.assertNull(added.put(pair, Set.of(first, second)));
+            }
+
+            @Override
+            public void pairRemoved(long pair, Collider first, Collider second) {
+                Assert.assertNull(removed.put(pair, Set.of(first, second)));
+            }
+        };
+    }
+
+    private static PolygonCollider box(float x, float y, float size) {
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, size, size));
+        collider.getShape().setPosition(x, y);
+        return collider;
+    }
+
+    private static Set<Set<Collider>> pairs(Broadphase broadphase) {
+        Set<Set<Collider>> pairs = new HashSet<>();
+        broadphase.pairs((first, second) -> Assert.assertTrue(pairs.add(Set.of(first, second))));
+        return pairs;
+    }
+
+    @Test
+    public void stepReportsChangedPairs() {
+        PolygonCollider player = box(0, 0, 10);
+        PolygonCollider wall = box(20, 0, 10);
+        PolygonCollider floor = box(0, -8, 40);
+        sap.add(player);
+        sap.add(wall);
+        sap.add(floor);
+        sap.step(listener);
+        long playerFloor = sap.pairId(player, floor);
+        Assert.assertEquals(playerFloor, sap.pairId(floor, player));
+        Assert.assertEquals(Set.of(playerFloor, sap.pairId(wall, floor)), added.keySet());
+        Assert.assertEquals(Set.of(player, floor), added.get(playerFloor));
+        Assert.assertTrue(removed.isEmpty());
+        Assert.assertEquals(2, sap.pairCount());
+
+        //nothing changed
+        added.clear();
+        sap.step(listener);
+        Assert.assertTrue(added.isEmpty());
+        Assert.assertTrue(removed.isEmpty());
+
+        player.getShape().setPosition(15, 0);
+        sap.update(player);
+        sap.step(listener);
+        Assert.assertEquals(Set.of(sap.pairId(player, wall)), added.keySet());
+        Assert.assertTrue(removed.isEmpty());
+
+        player.getShape().setPosition(15, 100);
+        sap.update(player);
+        added.clear();
+        sap.step(listener);
+        Assert.assertTrue(added.isEmpty());
+        Assert.assertEquals(Set.of(playerFloor, sap.pairId(player, wall)), removed.keySet());
+        Assert.assertEquals(1, sap.pairCount());
+    }
+
+    @Test
+    public void removedCollidersEndTheirPairs() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 0, 10);
+        sap.add(a);
+        sap.add(b);
+        sap.step(listener);
+        long pair = sap.pairId(a, b);
+        Assert.assertTrue(sap.remove(b));
+        Assert.assertFalse(sap.remove(b));
+        Assert.assertEquals(-1, sap.pairId(a, b));
+        //the proxy of b is not reused before the step
+        PolygonCollider c = box(5, 0, 10);
+        sap.add(c);
+        Assert.assertNotEquals(pair, sap.pairId(a, c));
+        added.clear();
+        sap.step(listener);
+        Assert.assertEquals(Set.of(a, b), removed.get(pair));
+        Assert.assertEquals(Set.of(sap.pairId(a, c)), added.keySet());
+    }
+
+    @Test
+    public void proxiesAreReusedWithoutSteps() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 0, 10);
+        sap.add(a);
+        sap.add(b);
+        long pair = sap.pairId(a, b);
+        Assert.assertEquals(Set.of(Set.of(a, b)), pairs(sap));
+        sap.remove(b);
+        Assert.assertTrue(pairs(sap).isEmpty());
+        //the proxy of b is free after its endpoints are gone
+        PolygonCollider c = box(5, 0, 10);
+        sap.add(c);
+        Assert.assertEquals(pair, sap.pairId(a, c));
+        Assert.assertEquals(Set.of(Set.of(a, c)), pairs(sap));
+        List<Collider> near = new ArrayList<>();
+        sap.query(a, near::add);
+        Assert.assertEquals(List.of(c), near);
+    }
+
+    @Test
+    public void callbacksMayRemoveColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 0, 10);
+        PolygonCollider c = box(10, 0, 10);
+        sap.add(a);
+        sap.add(b);
+        sap.add(c);
+        Set<Set<Collider>> found = new HashSet<>();
+        sap.pairs((first, second) -> {
+            found.add(Set.of(first, second));
+            if (sap.remove(a)) {
+                //reuses the proxy of a within the sweep
+                sap.queryRegion(-100, -100, 100, 100, collider -> {
+                });
+                sap.add(box(500, 0, 10));
+            }
+        });
+        Assert.assertTrue(found.contains(Set.of(b, c)));
+        Assert.assertTrue(found.stream().filter(pair -> pair.contains(a)).count() <= 1);
+        Assert.assertEquals(Set.of(Set.of(b, c)), pairs(sap));
+    }
+
+    @Test
+    public void listenersMayRemoveColliders() {
+        PolygonCollider a = box(0, 0, 10);
+        PolygonCollider b = box(5, 0, 10);
+        sap.add(a);
+        sap.add(b);
+        sap.step(new SweepAndPrune.PairListener() {
+            @Override
+            public void pairAdded(long pair, Collider first, Collider second) {
+                listener.pairAdded(pair, first, second);
+                sap.remove(b);
+            }
+
+            @Override
+            public void pairRemoved(long pair, Collider first, Collider second) {
+                listener.pairRemoved(pair, first, second);
+            }
+        });
+        long pair = added.keySet().iterator().next();
+        //the pair of b is cached, so its proxy is kept until the next step reported it
+        PolygonCollider c = box(5, 0, 10);
+        sap.add(c);
+        Assert.assertNotEquals(pair, sap.pairId(a, c));
+        added.clear();
+        sap.step(listener);
+        Assert.assertEquals(Set.of(a, b), removed.get(pair));
+        Assert.assertEquals(Set.of(sap.pairId(a, c)), added.keySet());
+        Assert.assertEquals(Set.of(Set.of(a, c)), pairs(sap));
+    }
+
+    @Test
+    public void pairsMatchSpatialHash() {
+        Random random = new Random(13);
+        SpatialHash hash = new SpatialHash(100);
+        List<PolygonCollider> colliders = new ArrayList<>();
+        //a static level of tiles and some moving objects
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 3; y++) {
+                PolygonCollider tile = box(x * 32, y * 32, 32);
+                sap.add(tile);
+                hash.add(tile);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            PolygonCollider collider = box(random.nextFloat() * 3200, random.nextFloat() * 200 - 50, 5 + random.nextFloat() * 60);
+            colliders.add(collider);
+            sap.add(collider);
+            hash.add(collider);
+        }
+        for (int step = 0; step < 20; step++) {
+            for (PolygonCollider collider : colliders) {
+                collider.getShape().setPosition(collider.getShape().position().x + random.nextFloat() * 20 - 10, collider.getShape().position().y + random.nextFloat() * 20 - 10);
+                sap.update(collider);
+                hash.update(collider);
+            }
+            if (step % 5 == 0) {
+                PolygonCollider gone = colliders.remove(random.nextInt(colliders.size()));
+                sap.remove(gone);
+                hash.remove(gone);
+            }
+            added.clear();
+            removed.clear();
+            sap.step(listener);
+            Assert.assertEquals(pairs(hash), pairs(sap));
+            Assert.assertEquals(pairs(hash).size(), sap.pairCount());
+        }
+
+        PolygonCollider probe = colliders.get(0);
+        Set<Collider> fromSap = new HashSet<>();
+        Set<Collider> fromHash = new HashSet<>();
+        sap.query(probe, fromSap::add);
+        hash.query(probe, fromHash::add);
+        Assert.assertEquals(fromHash, fromSap);
+        fromSap.clear();
+        fromHash.clear();
+        sap.queryRegion(500, -100, 900, 40, fromSap::add);
+        hash.queryRegion(500, -100, 900, 40, fromHash::add);
+        Assert.assertEquals(fromHash, fromSap);
+    }
+
+}
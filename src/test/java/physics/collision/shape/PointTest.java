@@ -30,6 +30,18 @@ public class PointTest {
         }
     }
 
+    @Test
+    public void supportPointWithoutAllocating() {
+        Point p = new Point(new Vector2f(3, 4));
+        p.setPosition(10, 20);
+        Vector2f result = new Vector2f(Float.NaN, Float.NaN);
+        p.supportPoint(-1, 0.5f, result);
+        Assert.assertEquals(new Vector2f(13, 24), result);
+        result.set(Float.NaN, Float.NaN);
+        p.supportPoint(Float.NaN, Float.NaN, result);
+        Assert.assertEquals(new Vector2f(13, 24), result);
+    }
+
     @Test
     public void generalizedTest() {
         Assert.assertEquals(ShapeType.POINT, new Point(new Vector2f(0, 0)).type());
@@ -215,4 +215,32 @@ public class PrimitiveShapeTest {
         Assert.assertEquals(ShapeType.POLYGON, shape3.type());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void copy() {
+        PrimitiveShape copy = shape3.copy();
+        copy.setPosition(10, 10);
+        Assert.assertEquals(shape3.vertices(), copy.vertices());
+        Assert.assertEquals(shape3.type(), copy.type());
+        Assert.assertEquals(shape3.centroid().x + 10, copy.centroid().x, deltaAcceptance);
+        Assert.assertEquals(shape3.boundingSphere().centroid().x + 10, copy.boundingSphere().centroid().x, deltaAcceptance);
+        Assert.assertNotSame(shape3.boundingSphere(), copy.boundingSphere());
+        //rotating the copy leaves the template untouched
+        Vector2f before = new Vector2f(shape3.getAbsolutePoints()[0]);
+        copy.rotateShape(MathUtils.radian(90), RotationType.AROUND_CENTER, null);
+        shape3.setPosition(0, 0);
+        Assert.assertEquals(before.x, shape3.getAbsolutePoints()[0].x, deltaAcceptance);
+        Assert.assertEquals(before.y, shape3.getAbsolutePoints()[0].y, deltaAcceptance);
+    }
+
+    @Test
+    public void supportPointWithoutAllocating() {
+        Vector2f result = new Vector2f();
+        shape3.supportPoint(1, 1, result);
+        Assert.assertEquals(shape3.supportPoint(new Vector2f(1, 1)), result);
+        //a degenerate direction still yields a point of the shape
+        result.set(Float.NaN, Float.NaN);
+        shape3.supportPoint(Float.NaN, 0, result);
+        Assert.assertFalse(Float.isNaN(result.x) || Float.isNaN(result.y));
+    }
+
+}
@@ -0,0 +1,172 @@
+package scene;
+
+import ecs.Archetype;
+import ecs.Component;
+import ecs.GameObject;
+import graphics.Framebuffer;
+import graphics.Shader;
+import graphics.renderer.RenderBatch;
+import graphics.renderer.Renderer;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CommandBufferTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.activate();
+    }
+
+    @Test
+    public void spawnIsDeferred() {
+        GameObject spawner = new GameObject(scene, "spawner", new Vector2f(), 0);
+        spawner.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                for (int i = 0; i < 1000; i++) {
+                    GameObject projectile = new GameObject(scene, "projectile", new Vector2f(), 0);
+                    projectile.addComponent(new Starting());
+                    projectile.addComponent(new Starting());
+                }
+                Assert.assertTrue(scene.isDeferringChanges());
+                Assert.assertEquals(1, scene.getGameObjects().size());
+            }
+        });
+        scene.updateGameObjects();
+        Assert.assertFalse(scene.isDeferringChanges());
+        Assert.assertEquals(0, scene.commands().size());
+        Assert.assertEquals(1001, scene.getGameObjects().size());
+        for (GameObject go : scene.getGameObjects()) {
+            for (Starting starting : go.getComponents(Starting.class)) {
+                Assert.assertEquals(1, starting.started);
+            }
+        }
+    }
+
+    @Test
+    public void changesAreAppliedInOrder() {
+        GameObject victim = new GameObject(scene, "victim", new Vector2f(), 0);
+        GameObject killer = new GameObject(scene, "killer", new Vector2f(), 0);
+        Starting added = new Starting();
+        killer.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                victim.addComponent(added);
+                Assert.assertNull(victim.getComponent(Starting.class));
+                victim.removeComponent(Starting.class);
+                scene.removeGameObjectFromScene(victim);
+                Assert.assertTrue(scene.getGameObjects().contains(victim));
+            }
+        });
+        scene.updateGameObjects();
+        Assert.assertFalse(scene.getGameObjects().contains(victim));
+        Assert.assertNull(victim.getComponent(Starting.class));
+        Assert.assertNull(added.gameObject);
+        Assert.assertEquals(1, added.started);
+    }
+
+    @Test
+    public void spawnsAndDestroysAreBatched() {
+        scene.enableArchetypeStorage();
+        CountingRenderer counting = new CountingRenderer();
+        scene.registerRenderer(counting);
+        List<GameObject> projectiles = new ArrayList<>();
+        GameObject spawner = new GameObject(scene, "spawner", new Vector2f(), 0);
+        spawner.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                if (projectiles.isEmpty()) {
+                    for (int i = 0; i < 100; i++) {
+                        GameObject projectile = new GameObject(scene, "projectile", new Vector2f(), 0);
+                        projectile.addComponent(new Starting());
+                        projectiles.add(projectile);
+                    }
+                } else {
+                    for (GameObject projectile : projectiles) {
+                        scene.removeGameObjectFromScene(projectile);
+                    }
+                }
+            }
+        });
+        counting.calls = 0;
+        scene.updateGameObjects();
+        Assert.assertEquals(1, counting.calls);
+        Assert.assertEquals(100, counting.gameObjects);
+        Archetype archetype = scene.archetypeStorage().archetypes().stream()
+                .filter(a -> a.columnOf(Starting.class) >= 0).findFirst().orElse(null);
+        Assert.assertNotNull(archetype);
+        Assert.assertEquals(100, archetype.size());
+
+        counting.calls = 0;
+        scene.updateGameObjects();
+        Assert.assertEquals(1, counting.calls);
+        Assert.assertEquals(0, counting.gameObjects);
+        Assert.assertEquals(0, archetype.size());
+        Assert.assertEquals(1, scene.getGameObjects().size());
+    }
+
+    private static class CountingRenderer extends Renderer {
+
+        int calls = 0;
+        int gameObjects = 0;
+
+        @Override
+        public void addAll(List<GameObject> gameObjects) {
+            calls++;
+            this.gameObjects += gameObjects.size();
+        }
+
+        @Override
+        public void removeAll(List<GameObject> gameObjects) {
+            calls++;
+            this.gameObjects -= gameObjects.size();
+        }
+
+        @Override
+        protected Shader createShader() {
+            return null;
+        }
+
+        @Override
+        protected Framebuffer createFramebuffer() {
+            return null;
+        }
+
+        @Override
+        protected RenderBatch createBatch(int zIndex) {
+            return null;
+        }
+
+        @Override
+        protected void uploadUniforms(Shader shader) {
+        }
+
+        @Override
+        protected void rebuffer() {
+        }
+
+        @Override
+        protected void prepare() {
+        }
+    }
+
+    private static class Starting extends Component {
+
+        int started = 0;
+
+        @Override
+        public void start() {
+            started++;
+        }
+    }
+
+}
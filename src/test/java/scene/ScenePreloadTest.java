@@ -0,0 +1,161 @@
+package scene;
+
+import ecs.GameObject;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import util.Engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ScenePreloadTest {
+
+    Scene first;
+
+    @Before
+    public void setUp() {
+        Engine.initHeadless(800, 600, 1.0f);
+        first = new Scene() {
+        };
+        Engine.scenes().switchScene(first);
+        Engine.runHeadless(1, 1 / 60f);
+    }
+
+    @Test
+    public void backgroundWorkThenStepsThenAwake() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new ArrayList<>();
+        Loading next = new Loading(order, release);
+        ScenePreload preload = Engine.scenes().preload(next);
+        Assert.assertSame(preload, Engine.scenes().preload(next));
+        Assert.assertEquals(List.of("preload"), order);
+
+        //the steps wait for the background work
+        Engine.runHeadless(3, 1 / 60f);
+        Assert.assertFalse(preload.isReady());
+        Assert.assertEquals(0, preload.progress(), 0);
+        Assert.assertSame(first, Engine.scenes().currentScene());
+
+        release.countDown();
+        Assert.assertEquals(42, (int) next.data.join());
+        preload.switchWhenReady();
+        //switching while preloading waits for the preload instead of awakening synchronously
+        Assert.assertFalse(Engine.scenes().switchScene(next));
+        for (int i = 0; i < 100 && !preload.isReady(); i++) {
+            Engine.runHeadless(1, 1 / 60f);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        Assert.assertTrue(preload.isReady());
+        Assert.assertEquals(1, preload.progress(), 0);
+        Assert.assertEquals(List.of("preload", "background", "upload 42", "awake"), order);
+
+        Engine.runHeadless(1, 1 / 60f);
+        Assert.assertSame(next, Engine.scenes().currentScene());
+        Assert.assertTrue(next.isActive());
+        Assert.assertFalse(first.isActive());
+        //not awakened again
+        Assert.assertEquals(1, order.stream().filter("awake"::equals).count());
+        Assert.assertTrue(Engine.scenes().preload(next).isReady());
+    }
+
+    @Test
+    public void objectsLandInThePreloadedScene() throws InterruptedException {
+        GameObject[] created = new GameObject[2];
+        Scene next = new Scene() {
+            @Override
+            public void preload(ScenePreload preload) {
+                created[0] = new GameObject("preloaded", new Vector2f(), 0);
+            }
+
+            @Override
+            public void awake() {
+                super.awake();
+                created[1] = new GameObject("awakened", new Vector2f(), 0);
+            }
+        };
+        ScenePreload preload = Engine.scenes().preload(next);
+        for (int i = 0; i < 100 && !preload.isReady(); i++) {
+            Engine.runHeadless(1, 1 / 60f);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        Assert.assertTrue(preload.isReady());
+        Assert.assertSame(first, Engine.scenes().currentScene());
+        for (GameObject gameObject : created) {
+            Assert.assertSame(next, gameObject.getParentScene());
+            Assert.assertTrue(next.getGameObjects().contains(gameObject));
+            Assert.assertFalse(first.getGameObjects().contains(gameObject));
+        }
+        //outside of the preload, the current scene is the target again
+        Assert.assertSame(first, Engine.scenes().targetScene());
+    }
+
+    @Test
+    public void failure() throws InterruptedException {
+        Scene broken = new Scene() {
+            @Override
+            public void preload(ScenePreload preload) {
+                preload.background(() -> {
+                    throw new IllegalStateException("broken");
+                });
+            }
+        };
+        ScenePreload preload = Engine.scenes().preload(broken).switchWhenReady();
+        for (int i = 0; i < 100 && !preload.isFailed(); i++) {
+            Engine.runHeadless(1, 1 / 60f);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        Assert.assertTrue(preload.isFailed());
+        Assert.assertTrue(preload.failure() instanceof IllegalStateException);
+        Engine.runHeadless(1, 1 / 60f);
+        Assert.assertSame(first, Engine.scenes().currentScene());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void registeringLater() {
+        ScenePreload preload = Engine.scenes().preload(new Scene() {
+        });
+        preload.upload(() -> {
+        });
+    }
+
+    static class Loading extends Scene {
+
+        final List<String> order;
+        final CountDownLatch release;
+        CompletableFuture<Integer> data;
+
+        Loading(List<String> order, CountDownLatch release) {
+            this.order = order;
+            this.release = release;
+        }
+
+        @Override
+        public void preload(ScenePreload preload) {
+            order.add("preload");
+            data = preload.load(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                synchronized (order) {
+                    order.add("background");
+                }
+                return 42;
+            });
+            preload.upload(() -> order.add("upload " + data.join()));
+        }
+
+        @Override
+        public void awake() {
+            super.awake();
+            order.add("awake");
+        }
+    }
+
+}
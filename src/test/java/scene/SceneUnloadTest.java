@@ -0,0 +1,73 @@
+package scene;
+
+import ecs.GameObject;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import util.Engine;
+
+import java.util.Map;
+
+public class SceneUnloadTest {
+
+    Scene first;
+    Scene second;
+    int awakened;
+
+    @Before
+    public void setUp() {
+        Engine.initHeadless(800, 600, 1.0f);
+        awakened = 0;
+        first = new Scene() {
+            @Override
+            public void awake() {
+                awakened++;
+                new GameObject(this, "player", new Vector2f(), 0);
+            }
+        };
+        second = new Scene() {
+        };
+        Engine.scenes().switchScene(first);
+        Engine.runHeadless(1, 1 / 60f);
+        Engine.scenes().switchScene(second);
+        Engine.runHeadless(1, 1 / 60f);
+    }
+
+    @Test
+    public void currentSceneIsNotReleased() {
+        Assert.assertFalse(Engine.scenes().suspend(second));
+        Assert.assertFalse(Engine.scenes().unload(second));
+        Assert.assertTrue(Engine.scenes().sceneIds().contains(second.sceneId()));
+    }
+
+    @Test
+    public void suspendKeepsContent() {
+        Assert.assertTrue(Engine.scenes().suspend(first));
+        Assert.assertTrue(first.isSuspended());
+        Assert.assertEquals(1, first.getGameObjects().size());
+        Assert.assertTrue(Engine.scenes().memoryUsage().get(first.sceneId()).isSuspended());
+
+        Assert.assertTrue(Engine.scenes().switchScene(first));
+        Assert.assertFalse(first.isSuspended());
+        Assert.assertEquals(1, first.getGameObjects().size());
+        Assert.assertEquals(1, awakened);
+    }
+
+    @Test
+    public void unloadRemovesSceneAndContent() {
+        Assert.assertTrue(Engine.scenes().unload(first));
+        Assert.assertFalse(Engine.scenes().sceneIds().contains(first.sceneId()));
+        Assert.assertEquals(0, first.getGameObjects().size());
+        Assert.assertFalse(Engine.scenes().unload(first));
+        Map<Integer, SceneMemory> usage = Engine.scenes().memoryUsage();
+        Assert.assertFalse(usage.containsKey(first.sceneId()));
+        Assert.assertTrue(usage.containsKey(second.sceneId()));
+
+        //switching again awakens the scene like a new one
+        Assert.assertTrue(Engine.scenes().switchScene(first));
+        Assert.assertEquals(2, awakened);
+        Assert.assertEquals(1, first.getGameObjects().size());
+    }
+
+}
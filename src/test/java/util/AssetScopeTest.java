@@ -0,0 +1,45 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+public class AssetScopeTest {
+
+    @Test
+    public void texturesAreCountedOncePerScope() {
+        String path = "assets/textures/scoped.png";
+        String key = new File(path).getAbsolutePath();
+        AssetScope first = new AssetScope();
+        AssetScope second = new AssetScope();
+
+        first.retainTexture(key);
+        first.retainTexture(key);
+        second.retainTexture(key);
+        Assert.assertEquals(1, first.textureCount());
+        Assert.assertEquals(2, Assets.textureReferences(path));
+
+        first.releaseAll();
+        Assert.assertEquals(0, first.textureCount());
+        Assert.assertEquals(1, Assets.textureReferences(path));
+        second.releaseAll();
+        Assert.assertEquals(0, Assets.textureReferences(path));
+        Assert.assertFalse(Assets.isTextureLoaded(path));
+    }
+
+    @Test
+    public void enterAndExitRestoreTheCurrentScope() {
+        AssetScope outer = new AssetScope();
+        AssetScope inner = new AssetScope();
+        Assert.assertNull(outer.enter());
+        AssetScope previous = inner.enter();
+        Assert.assertSame(outer, previous);
+        Assert.assertSame(inner, AssetScope.current());
+        AssetScope.exit(previous);
+        Assert.assertSame(outer, AssetScope.current());
+        AssetScope.exit(null);
+        Assert.assertNull(AssetScope.current());
+    }
+
+}
@@ -0,0 +1,97 @@
+package util;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.CollisionInformation;
+import physics.collision.Shapes;
+import physics.collision.shape.PrimitiveShape;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Measures the bytes allocated by the allocation-free GJK and EPA queries of {@link MathUtils}
+ * for random pairs of circles, rectangles and triangles.
+ */
+public class CollisionAllocationTest {
+
+    private static final int SHAPES = 64;
+    private static final int QUERIES = 100_000;
+    private static final int ROUNDS = 20;
+
+    private final PrimitiveShape[] shapes = new PrimitiveShape[SHAPES];
+    private final float[] simplex = new float[6];
+    private final Vector2f penetration = new Vector2f();
+
+    @Before
+    public void createShapes() {
+        Random random = new Random(3);
+        for (int i = 0; i < SHAPES; i++) {
+            float size = 5 + random.nextFloat() * 20;
+            if (i % 3 == 0) shapes[i] = Shapes.circle(0, 0, size);
+            else if (i % 3 == 1) shapes[i] = Shapes.axisAlignedRectangle(0, 0, size, size * 0.5f);
+            else shapes[i] = Shapes.triangle(0, 0, size, 0, size * 0.3f, size);
+            shapes[i].setPosition(random.nextFloat() * 60, random.nextFloat() * 60);
+        }
+    }
+
+    //runs the queries and returns the amount of collisions, so nothing is optimized away
+    private int query(int queries) {
+        int collisions = 0;
+        for (int q = 0; q < queries; q++) {
+            PrimitiveShape a = shapes[q % SHAPES];
+            PrimitiveShape b = shapes[(q * 7 + 1) % SHAPES];
+            if (a == b || !MathUtils.gjksmCollision(a, b, simplex)) continue;
+            collisions++;
+            MathUtils.expandingPolytopeAlgorithm(a, b, simplex, penetration);
+        }
+        return collisions;
+    }
+
+    @Test
+    public void noAllocations() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        //the first rounds create the scratch state and may allocate while the queries are compiled,
+        //so some round has to run without allocating
+        long allocated = -1;
+        for (int round = 0; round < ROUNDS && allocated != 0; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            int collisions = query(QUERIES);
+            allocated = threads.getThreadAllocatedBytes(thread) - before;
+            Assert.assertTrue(collisions > 0);
+        }
+        Assert.assertEquals(0, allocated);
+    }
+
+    @Test
+    public void sameResults() {
+        int compared = 0;
+        for (int q = 0; q < SHAPES * SHAPES; q++) {
+            PrimitiveShape a = shapes[q / SHAPES];
+            PrimitiveShape b = shapes[q % SHAPES];
+            if (a == b) continue;
+            CollisionInformation information = MathUtils.gjksmCollision(a, b);
+            boolean collision = MathUtils.gjksmCollision(a, b, simplex);
+            Assert.assertEquals(information.collision(), collision);
+            if (!collision) continue;
+            Vector2f[] expected = (Vector2f[]) information.get();
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(expected[i].x, simplex[i * 2], 1e-3f);
+                Assert.assertEquals(expected[i].y, simplex[i * 2 + 1], 1e-3f);
+            }
+            Optional<Vector2f> expectedPenetration = MathUtils.expandingPolytopeAlgorithm(a, b, expected);
+            Assert.assertEquals(expectedPenetration.isPresent(), MathUtils.expandingPolytopeAlgorithm(a, b, simplex, penetration));
+            if (expectedPenetration.isPresent()) {
+                Assert.assertEquals(expectedPenetration.get().x, penetration.x, 1e-3f);
+                Assert.assertEquals(expectedPenetration.get().y, penetration.y, 1e-3f);
+            }
+            compared++;
+        }
+        Assert.assertTrue(compared > 0);
+    }
+
+}
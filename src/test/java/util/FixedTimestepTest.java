@@ -0,0 +1,46 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FixedTimestepTest {
+
+    @Test
+    public void accumulatesFrames() {
+        FixedTimestep timestep = new FixedTimestep(50, 5);
+        Assert.assertEquals(0.02f, timestep.stepSize(), 1e-7f);
+        Assert.assertEquals(0, timestep.advance(0.01f));
+        Assert.assertEquals(0.5f, timestep.alpha(), 1e-4f);
+        Assert.assertEquals(1, timestep.advance(0.015f));
+        Assert.assertEquals(0.25f, timestep.alpha(), 1e-4f);
+        Assert.assertEquals(2, timestep.advance(0.04f));
+        Assert.assertEquals(0.25f, timestep.alpha(), 1e-4f);
+    }
+
+    @Test
+    public void independentOfFrameRate() {
+        FixedTimestep fast = new FixedTimestep(60);
+        FixedTimestep slow = new FixedTimestep(60);
+        int fastSteps = 0, slowSteps = 0;
+        for (int i = 0; i < 144; i++) fastSteps += fast.advance(1 / 144f);
+        for (int i = 0; i < 30; i++) slowSteps += slow.advance(1 / 30f);
+        Assert.assertEquals(60, fastSteps, 1);
+        Assert.assertEquals(60, slowSteps, 1);
+    }
+
+    @Test
+    public void catchUpIsCapped() {
+        FixedTimestep timestep = new FixedTimestep(100, 4);
+        Assert.assertEquals(4, timestep.advance(0.105f));
+        Assert.assertEquals(6, timestep.droppedSteps());
+        Assert.assertEquals(0.5f, timestep.alpha(), 1e-3f);
+        timestep.reset();
+        Assert.assertEquals(0, timestep.alpha(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTickRate() {
+        new FixedTimestep(0);
+    }
+
+}
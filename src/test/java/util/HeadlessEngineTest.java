@@ -0,0 +1,87 @@
+package util;
+
+import ecs.Component;
+import ecs.GameObject;
+import graphics.Window;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+
+public class HeadlessEngineTest {
+
+    Scene scene;
+    Counting counting;
+
+    static class Counting extends Component {
+        int updates = 0;
+        float time = 0;
+
+        @Override
+        public void update(float dt) {
+            updates++;
+            time += dt;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Engine.initHeadless(800, 600, 1.0f);
+        scene = new Scene() {
+        };
+        Engine.scenes().switchScene(scene);
+        counting = new Counting();
+        new GameObject(scene, "counter", new Vector2f(), 0).addComponent(counting);
+    }
+
+    @Test
+    public void fixedSteps() {
+        Assert.assertTrue(Engine.isHeadless());
+        Assert.assertTrue(Engine.window().isHeadless());
+        Assert.assertEquals(800, Window.getWidth());
+        Assert.assertEquals(600, Window.getHeight());
+        Engine.runHeadless(120, 1 / 60f);
+        Assert.assertEquals(120, counting.updates);
+        Assert.assertEquals(2, counting.time, 1e-4f);
+        Assert.assertEquals(1 / 60f, Engine.deltaTime(), 0);
+        Assert.assertNotNull(scene.camera());
+    }
+
+    @Test
+    public void fixedTimestep() {
+        Engine.useFixedTimestep(50, 5);
+        GameObject mover = new GameObject(scene, "mover", new Vector2f(), 0);
+        mover.addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                setPosition(position().add(1, 0));
+            }
+        });
+        //two frames of a 100 Hz display, just one step
+        Engine.runHeadless(2, 0.01f);
+        Assert.assertEquals(1, counting.updates);
+        Assert.assertEquals(0.02f, counting.time, 1e-6f);
+        Assert.assertEquals(0.01f, Engine.deltaTime(), 0);
+        Assert.assertEquals(1, mover.getX(), 0);
+        //half a step later the sprite is drawn in between
+        Engine.runHeadless(1, 0.01f);
+        float alpha = Engine.window().getFixedTimestep().alpha();
+        Assert.assertEquals(0.5f, alpha, 1e-3f);
+        Assert.assertEquals(0.5f, mover.getInterpolatedX(alpha), 1e-3f);
+    }
+
+    @Test
+    public void loopEndsOnClose() {
+        new GameObject(scene, "closer", new Vector2f(), 0).addComponent(new Component() {
+            @Override
+            public void update(float dt) {
+                if (counting.updates >= 10) Engine.window().close();
+            }
+        });
+        Engine.showWindow();
+        Assert.assertFalse(Engine.isRunning());
+        Assert.assertTrue(counting.updates >= 10);
+    }
+
+}
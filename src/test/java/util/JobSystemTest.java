@@ -0,0 +1,131 @@
+package util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JobSystemTest {
+
+    JobSystem jobs;
+
+    @Before
+    public void setUp() {
+        jobs = new JobSystem(4);
+    }
+
+    @After
+    public void tearDown() {
+        jobs.shutdown();
+    }
+
+    @Test
+    public void dependencies() {
+        List<String> order = new CopyOnWriteArrayList<>();
+        Job a = jobs.schedule("a", () -> order.add("a"));
+        Job b = jobs.schedule("b", () -> order.add("b"));
+        Job c = jobs.schedule("c", () -> order.add("c"), a, b);
+        Job d = jobs.schedule("d", () -> order.add("d"), c);
+        d.join();
+        Assert.assertTrue(a.isDone() && b.isDone() && c.isDone());
+        Assert.assertEquals(4, order.size());
+        Assert.assertTrue(order.indexOf("c") > order.indexOf("a"));
+        Assert.assertTrue(order.indexOf("c") > order.indexOf("b"));
+        Assert.assertEquals("d", order.get(3));
+    }
+
+    @Test
+    public void failurePropagates() {
+        Job failing = jobs.schedule("failing", () -> {
+            throw new IllegalStateException("broken");
+        });
+        AtomicInteger runs = new AtomicInteger();
+        Job dependent = jobs.schedule("dependent", runs::incrementAndGet, failing);
+        try {
+            dependent.join();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("broken", e.getMessage());
+        }
+        Assert.assertTrue(dependent.isFailed());
+        Assert.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void parallelFor() {
+        int[] values = new int[10_000];
+        AtomicInteger parts = new AtomicInteger();
+        jobs.parallelFor("fill", 0, values.length, 100, (from, to) -> {
+            parts.incrementAndGet();
+            for (int i = from; i < to; i++) values[i] = i;
+        });
+        long sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(i, values[i]);
+            sum += values[i];
+        }
+        Assert.assertEquals(49_995_000, sum);
+        Assert.assertTrue(parts.get() >= 100);
+    }
+
+    @Test
+    public void scheduledParallelFor() {
+        AtomicLong sum = new AtomicLong();
+        Job init = jobs.schedule(() -> sum.set(1));
+        Job loop = jobs.scheduleParallelFor("sum", 0, 1000, 10, (from, to) -> {
+            long part = 0;
+            for (int i = from; i < to; i++) part += i;
+            sum.addAndGet(part);
+        }, init);
+        JobSystem.all(loop, init).join();
+        Assert.assertEquals(499_501, sum.get());
+    }
+
+    @Test
+    public void mainThreadJobs() throws InterruptedException {
+        JobSystem.runMainThreadJobs();
+        Thread caller = Thread.currentThread();
+        AtomicInteger onCaller = new AtomicInteger();
+        Job work = jobs.schedule("work", () -> {
+        });
+        Job affine = jobs.scheduleOnMainThread("affine", () -> {
+            if (Thread.currentThread() == caller) onCaller.incrementAndGet();
+        }, work);
+        work.join();
+        Assert.assertFalse(affine.isDone());
+        //the affine job is enqueued by the worker completing the work, which may still be busy after join returned
+        int ran = 0;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!affine.isDone() && System.currentTimeMillis() < deadline) {
+            ran += JobSystem.runMainThreadJobs();
+            if (!affine.isDone()) Thread.sleep(1);
+        }
+        Assert.assertEquals(1, ran);
+        Assert.assertTrue(affine.isDone());
+        Assert.assertEquals(1, onCaller.get());
+    }
+
+    @Test
+    public void timing() {
+        List<String> names = new CopyOnWriteArrayList<>();
+        jobs.addListener((name, thread, start, duration) -> {
+            Assert.assertTrue(duration >= 0);
+            names.add(name);
+        });
+        jobs.schedule("sleepy", () -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ignored) {
+            }
+        }).join();
+        Assert.assertEquals(1, jobs.completedJobs());
+        Assert.assertTrue(jobs.busyNanos() >= 4_000_000);
+        Assert.assertEquals("sleepy", names.get(0));
+    }
+
+}
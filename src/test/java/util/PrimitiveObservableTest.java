@@ -0,0 +1,88 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PrimitiveObservableTest {
+
+    @Test
+    public void notifiesRightAwayWithoutNotifier() {
+        FloatObservable observable = new FloatObservable(1);
+        List<Float> values = new ArrayList<>();
+        observable.observe(values::add);
+        observable.setValue(2);
+        observable.setValue(2);
+        observable.setValue(3);
+        Assert.assertEquals(List.of(2f, 3f), values);
+        Assert.assertEquals(3, observable.getValue(), 0);
+    }
+
+    @Test
+    public void coalescesUntilFlushed() {
+        ChangeNotifier notifier = new ChangeNotifier();
+        IntObservable observable = new IntObservable(0, notifier);
+        List<Integer> values = new ArrayList<>();
+        observable.observe(values::add);
+        observable.setValue(1);
+        observable.setValue(2);
+        observable.setValue(3);
+        Assert.assertTrue(values.isEmpty());
+        Assert.assertEquals(1, notifier.pending());
+        Assert.assertEquals(1, notifier.flush());
+        Assert.assertEquals(List.of(3), values);
+        Assert.assertEquals(0, notifier.pending());
+    }
+
+    @Test
+    public void changeAndRevertIsNotNotified() {
+        ChangeNotifier notifier = new ChangeNotifier();
+        BooleanObservable observable = new BooleanObservable(true, notifier);
+        int[] calls = new int[1];
+        observable.observe(value -> calls[0]++);
+        observable.setValue(false);
+        observable.setValue(true);
+        Assert.assertEquals(0, notifier.flush());
+        Assert.assertEquals(0, calls[0]);
+    }
+
+    @Test
+    public void changesByObserversWaitForTheNextFlush() {
+        ChangeNotifier notifier = new ChangeNotifier();
+        FloatObservable a = new FloatObservable(0, notifier);
+        FloatObservable b = new FloatObservable(0, notifier);
+        a.observe(b::setValue);
+        a.setValue(5);
+        Assert.assertEquals(1, notifier.flush());
+        Assert.assertEquals(5, b.getValue(), 0);
+        //b has no observers, so it was not scheduled
+        Assert.assertEquals(0, notifier.pending());
+
+        List<Float> values = new ArrayList<>();
+        b.observe(values::add);
+        a.setValue(7);
+        notifier.flush();
+        Assert.assertTrue(values.isEmpty());
+        notifier.flush();
+        Assert.assertEquals(List.of(7f), values);
+    }
+
+    @Test
+    public void ignore() {
+        IntObservable observable = new IntObservable(0);
+        int[] calls = new int[2];
+        IntObservable.Observer first = value -> calls[0]++;
+        IntObservable.Observer second = value -> calls[1]++;
+        observable.observe(first);
+        observable.observe(second);
+        observable.setValue(1);
+        observable.ignore(first);
+        observable.setValue(2);
+        observable.ignoreAll();
+        observable.setValue(3);
+        Assert.assertArrayEquals(new int[]{1, 2}, calls);
+    }
+
+}
@@ -0,0 +1,86 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotMapTest {
+
+    @Test
+    public void insertAndGet() {
+        SlotMap<String> map = new SlotMap<>();
+        long a = map.insert("a");
+        long b = map.insert("b");
+        Assert.assertNotEquals(a, b);
+        Assert.assertEquals("a", map.get(a));
+        Assert.assertEquals("b", map.get(b));
+        Assert.assertNull(map.get(SlotMap.NULL_HANDLE));
+        Assert.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void staleHandles() {
+        SlotMap<String> map = new SlotMap<>();
+        long a = map.insert("a");
+        Assert.assertEquals("a", map.remove(a));
+        Assert.assertNull(map.remove(a));
+        long c = map.insert("c");
+        //the slot is reused with a new generation
+        Assert.assertEquals(SlotMap.index(a), SlotMap.index(c));
+        Assert.assertNotEquals(SlotMap.generation(a), SlotMap.generation(c));
+        Assert.assertFalse(map.contains(a));
+        Assert.assertEquals("c", map.get(c));
+    }
+
+    @Test
+    public void swapRemove() {
+        SlotMap<Integer> map = new SlotMap<>();
+        long[] handles = new long[100];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = map.insert(i);
+        }
+        for (int i = 0; i < handles.length; i += 2) {
+            map.remove(handles[i]);
+        }
+        Assert.assertEquals(50, map.size());
+        Assert.assertEquals(50, map.values().size());
+        for (int i = 1; i < handles.length; i += 2) {
+            Assert.assertEquals(Integer.valueOf(i), map.get(handles[i]));
+            Assert.assertTrue(map.values().contains(i));
+        }
+    }
+
+    @Test
+    public void handleMap() {
+        SlotMap<String> keys = new SlotMap<>();
+        HandleMap<String> map = new HandleMap<>();
+        long a = keys.insert("a");
+        long b = keys.insert("b");
+        map.put(a, "value a");
+        map.put(b, "value b");
+        Assert.assertEquals("value a", map.put(a, "new a"));
+        Assert.assertEquals(2, map.size());
+        keys.remove(a);
+        long c = keys.insert("c");
+        //the stale handle of a does not resolve to the reused slot
+        Assert.assertNull(map.get(c));
+        Assert.assertNull(map.put(c, "value c"));
+        Assert.assertNull(map.get(a));
+        Assert.assertEquals("value c", map.remove(c));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("value b", map.values().get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void handleMapRejectsNullHandle() {
+        SlotMap<String> keys = new SlotMap<>();
+        HandleMap<String> map = new HandleMap<>();
+        map.put(keys.insert("a"), "value a");
+        try {
+            map.put(SlotMap.NULL_HANDLE, "null");
+        } finally {
+            Assert.assertEquals(1, map.size());
+            Assert.assertNull(map.get(SlotMap.NULL_HANDLE));
+        }
+    }
+
+}
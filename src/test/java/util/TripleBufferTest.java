@@ -0,0 +1,54 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TripleBufferTest {
+
+    @Test
+    public void latestWins() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        int[] initial = buffer.acquire();
+        Assert.assertFalse(buffer.hasPublished());
+
+        buffer.back()[0] = 1;
+        buffer.publish();
+        buffer.back()[0] = 2;
+        buffer.publish();
+        Assert.assertTrue(buffer.hasPublished());
+        int[] front = buffer.acquire();
+        Assert.assertEquals(2, front[0]);
+        Assert.assertNotSame(initial, front);
+        //nothing new, the same buffer again
+        Assert.assertSame(front, buffer.acquire());
+        //the producer never gets the buffer being read
+        Assert.assertNotSame(front, buffer.back());
+        buffer.publish();
+        Assert.assertNotSame(front, buffer.back());
+    }
+
+    @Test
+    public void concurrentHandOver() throws InterruptedException {
+        //each buffer holds the same number twice, a torn read would see two different ones
+        TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[2]);
+        int frames = 200_000;
+        Thread producer = new Thread(() -> {
+            for (long i = 1; i <= frames; i++) {
+                long[] back = buffer.back();
+                back[0] = i;
+                back[1] = i;
+                buffer.publish();
+            }
+        });
+        producer.start();
+        long last = 0;
+        while (last < frames) {
+            long[] front = buffer.acquire();
+            Assert.assertEquals(front[0], front[1]);
+            Assert.assertTrue(front[0] >= last);
+            last = front[0];
+        }
+        producer.join();
+    }
+
+}